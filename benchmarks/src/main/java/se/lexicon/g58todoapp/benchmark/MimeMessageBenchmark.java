@@ -0,0 +1,105 @@
+package se.lexicon.g58todoapp.benchmark;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailPreparationException;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import se.lexicon.g58todoapp.dto.EmailDTO;
+import se.lexicon.g58todoapp.service.impl.EmailServiceImpl;
+import se.lexicon.g58todoapp.template.TemplateEngine;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MIME Message Benchmark
+ * Time and allocations of EmailServiceImpl.sendEmail: building the MimeMessage with
+ * MimeMessageHelper and encoding it as it would be sent. The mail sender writes the encoded
+ * message to a null stream instead of connecting to a server.
+ *
+ * sendEmail logs every email to System.out, which is silenced during the benchmark so it
+ * measures the MIME work and not the console.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MimeMessageBenchmark {
+
+    private EmailServiceImpl emailService;
+    private EmailDTO htmlEmail;
+    private EmailDTO plainEmailWithCopies;
+    private PrintStream console;
+
+    @Setup
+    public void setUp() {
+        emailService = new EmailServiceImpl(new EncodingOnlyMailSender(), "noreply@todoapp.com", "Todo App Notification System",
+                new SimpleMeterRegistry());
+
+        String htmlBody = new TemplateEngine("classpath:templates/").render("todo-assigned.html", Map.of(
+                "name", "Alice Johnson",
+                "title", "Finish project report",
+                "description", "Complete the Q4 analysis",
+                "dueDate", "May 01, 2026 at 18:00",
+                "status", "Pending ⏳"));
+        htmlEmail = EmailDTO.builder()
+                .to("alice@example.com")
+                .subject("Task Assigned to You: Finish project report")
+                .body(htmlBody)
+                .html(true)
+                .build();
+        plainEmailWithCopies = EmailDTO.builder()
+                .to("alice@example.com")
+                .cc(List.of("bob@example.com", "charlie@example.com"))
+                .bcc(List.of("audit@example.com"))
+                .subject("New Task Created: Finish project report")
+                .body("Hello Alice,\n\nA new task has been created: Finish project report\n")
+                .html(false)
+                .build();
+
+        console = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    @TearDown
+    public void tearDown() {
+        System.setOut(console);
+    }
+
+    @Benchmark
+    public boolean sendHtmlEmail() {
+        return emailService.sendEmail(htmlEmail);
+    }
+
+    @Benchmark
+    public boolean sendPlainEmailWithCopies() {
+        return emailService.sendEmail(plainEmailWithCopies);
+    }
+
+    /**
+     * Encodes messages like the SMTP transport does, but writes them nowhere
+     */
+    static class EncodingOnlyMailSender extends JavaMailSenderImpl {
+
+        @Override
+        protected void doSend(MimeMessage[] mimeMessages, Object[] originalMessages) throws MailException {
+            for (MimeMessage message : mimeMessages) {
+                try {
+                    message.saveChanges();
+                    message.writeTo(OutputStream.nullOutputStream());
+                } catch (MessagingException | IOException e) {
+                    throw new MailPreparationException(e);
+                }
+            }
+        }
+    }
+}
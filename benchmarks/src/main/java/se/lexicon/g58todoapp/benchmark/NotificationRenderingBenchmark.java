@@ -0,0 +1,131 @@
+package se.lexicon.g58todoapp.benchmark;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import se.lexicon.g58todoapp.dto.EmailDTO;
+import se.lexicon.g58todoapp.entity.Person;
+import se.lexicon.g58todoapp.entity.Todo;
+import se.lexicon.g58todoapp.service.EmailService;
+import se.lexicon.g58todoapp.service.impl.TodoNotificationServiceImpl;
+import se.lexicon.g58todoapp.template.TemplateEngine;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Notification Rendering Benchmark
+ * Time and allocations of every TodoNotificationServiceImpl notification: the email is rendered
+ * from its template and handed to an EmailService that only keeps the body, so no mail server
+ * is involved.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class NotificationRenderingBenchmark {
+
+    private CapturingEmailService emailService;
+    private TodoNotificationServiceImpl notificationService;
+    private Person person;
+    private Todo todo;
+
+    /**
+     * The todos of the daily summary
+     */
+    @State(Scope.Benchmark)
+    public static class Summary {
+
+        @Param({"10", "100", "1000"})
+        int rows;
+
+        List<Todo> todos;
+
+        @Setup
+        public void setUp() {
+            todos = new ArrayList<>(rows);
+            for (int i = 0; i < rows; i++) {
+                Todo todo = new Todo("Todo " + i + " <with markup & quotes \">", "Description " + i,
+                        i % 3 == 0 ? null : LocalDateTime.of(2026, 5, 1, 18, 0).plusHours(i));
+                todo.setCompleted(i % 4 == 0);
+                todos.add(todo);
+            }
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        emailService = new CapturingEmailService();
+        notificationService = new TodoNotificationServiceImpl(emailService, null, null,
+                new TemplateEngine("classpath:templates/"), TodoNotificationServiceImpl.DeliveryMode.DIRECT,
+                new SimpleMeterRegistry());
+        person = new Person("Alice Johnson", "alice@example.com", LocalDate.of(1990, 5, 15));
+        todo = new Todo("Finish project report", "Complete the Q4 analysis & send it to <management>",
+                LocalDateTime.of(2026, 5, 1, 18, 0), person);
+    }
+
+    @Benchmark
+    public String notifyTodoCreated() {
+        notificationService.notifyTodoCreated(todo, person);
+        return emailService.lastBody;
+    }
+
+    @Benchmark
+    public String notifyTodoAssigned() {
+        notificationService.notifyTodoAssigned(todo, person);
+        return emailService.lastBody;
+    }
+
+    @Benchmark
+    public String notifyTodoCompleted() {
+        notificationService.notifyTodoCompleted(todo, person);
+        return emailService.lastBody;
+    }
+
+    @Benchmark
+    public String sendDueDateReminder() {
+        notificationService.sendDueDateReminder(todo, person);
+        return emailService.lastBody;
+    }
+
+    @Benchmark
+    public String sendDailySummary(Summary summary) {
+        notificationService.sendDailySummary(person, summary.todos);
+        return emailService.lastBody;
+    }
+
+    /**
+     * Keeps the last body instead of sending it (returned by the benchmarks, so it is not optimized away)
+     */
+    static class CapturingEmailService implements EmailService {
+
+        String lastBody;
+
+        @Override
+        public boolean sendSimpleEmail(String to, String subject, String body) {
+            lastBody = body;
+            return true;
+        }
+
+        @Override
+        public boolean sendEmail(EmailDTO emailDTO) {
+            lastBody = emailDTO.getBody();
+            return true;
+        }
+
+        @Override
+        public boolean sendHtmlEmail(String to, String subject, String htmlBody) {
+            lastBody = htmlBody;
+            return true;
+        }
+
+        @Override
+        public int sendBatch(List<EmailDTO> emails) {
+            return emails.size();
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package se.lexicon.g58todoapp.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+import se.lexicon.g58todoapp.entity.Person;
+import se.lexicon.g58todoapp.entity.Todo;
+import se.lexicon.g58todoapp.repo.PersonRepository;
+import se.lexicon.g58todoapp.repo.TodoRepository;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Todo Repository Benchmark
+ * The main TodoRepository finders against an in-memory H2 database with the production
+ * schema (Flyway migrations) and a synthetic dataset: persons x todosPerPerson todos plus
+ * unassigned ones, a third overdue, a quarter completed and a sixth without due date.
+ *
+ * Only the repositories and entities are started, none of the application services,
+ * so the entity listeners find no scheduler, index or counters to update.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TodoRepositoryBenchmark {
+
+    // Rows per JDBC batch while loading the dataset
+    private static final int LOAD_BATCH_SIZE = 1000;
+
+    @Param({"100"})
+    int persons;
+
+    @Param({"100"})
+    int todosPerPerson;
+
+    private ConfigurableApplicationContext context;
+    private TodoRepository todoRepository;
+    private Person person;
+    private LocalDateTime now;
+
+    /**
+     * Repositories and entities only
+     */
+    @SpringBootConfiguration
+    @EnableAutoConfiguration
+    @EntityScan(basePackageClasses = Todo.class)
+    @EnableJpaRepositories(basePackageClasses = TodoRepository.class)
+    static class RepositoryConfig {
+    }
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(RepositoryConfig.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.main.banner-mode=off",
+                        "spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1",
+                        "spring.datasource.username=sa",
+                        "spring.jpa.hibernate.ddl-auto=validate",
+                        "spring.jpa.open-in-view=false",
+                        "logging.level.root=WARN")
+                .run();
+        todoRepository = context.getBean(TodoRepository.class);
+        now = LocalDateTime.now();
+        load(context.getBean(JdbcTemplate.class));
+        List<Person> people = context.getBean(PersonRepository.class).findAll();
+        person = people.get(people.size() / 2);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    /**
+     * Insert the dataset with plain JDBC batches, so loading does not depend on the code measured
+     */
+    private void load(JdbcTemplate jdbc) {
+        List<Object[]> people = new ArrayList<>(persons);
+        for (long id = 1; id <= persons; id++) {
+            people.add(new Object[]{id, "Person " + id, "person" + id + "@example.com",
+                    LocalDate.of(1990, 1, 1).plusDays(id), LocalDate.now()});
+        }
+        jdbc.batchUpdate("insert into people (id, name, email, birth_date, created_at) values (?, ?, ?, ?, ?)", people);
+
+        List<Object[]> todos = new ArrayList<>(LOAD_BATCH_SIZE);
+        long total = (long) persons * todosPerPerson + todosPerPerson; // The last todosPerPerson are unassigned
+        for (long id = 1; id <= total; id++) {
+            long assignee = (id - 1) / todosPerPerson + 1;
+            LocalDateTime dueDate = id % 6 == 0 ? null : now.plusDays(id % 3 == 0 ? -(id % 30) - 1 : id % 30 + 1);
+            todos.add(new Object[]{id, (id % 10 == 0 ? "Write report " : "Todo ") + id, "Description of todo " + id,
+                    id % 4 == 0, Timestamp.valueOf(now.minusDays(60)), null,
+                    dueDate != null ? Timestamp.valueOf(dueDate) : null,
+                    assignee <= persons ? assignee : null});
+            if (todos.size() == LOAD_BATCH_SIZE || id == total) {
+                jdbc.batchUpdate("insert into todos (id, title, description, completed, created_at, updated_at, "
+                        + "due_date, assigned_to_id) values (?, ?, ?, ?, ?, ?, ?, ?)", todos);
+                todos.clear();
+            }
+        }
+    }
+
+    @Benchmark
+    public List<Todo> findByAssignedTo() {
+        return todoRepository.findByAssignedTo(person);
+    }
+
+    @Benchmark
+    public long countByAssignedTo() {
+        return todoRepository.countByAssignedTo(person);
+    }
+
+    @Benchmark
+    public List<Todo> findByCompletedAndAssignedTo() {
+        return todoRepository.findByCompletedAndAssignedTo(false, person);
+    }
+
+    @Benchmark
+    public List<Todo> findByTitleContainingIgnoreCase() {
+        return todoRepository.findByTitleContainingIgnoreCase("report");
+    }
+
+    @Benchmark
+    public List<Todo> findByDueDateBetween() {
+        return todoRepository.findByDueDateBetween(now, now.plusDays(7));
+    }
+
+    @Benchmark
+    public List<Todo> findOverdueTasks() {
+        return todoRepository.findOverdueTasks(now);
+    }
+
+    @Benchmark
+    public List<Todo> findOverdueTasksWithAssignee() {
+        return todoRepository.findOverdueTasksWithAssignee(now);
+    }
+
+    @Benchmark
+    public List<Todo> findByAssignedToIsNull() {
+        return todoRepository.findByAssignedToIsNull();
+    }
+
+    @Benchmark
+    public Window<Todo> findByAssignedToFirstPage() {
+        return todoRepository.findByAssignedToOrderByIdAsc(person, ScrollPosition.keyset(), Limit.of(20));
+    }
+
+    @Benchmark
+    public List<TodoRepository.AssigneeTodoCounts> countAllByAssignee() {
+        return todoRepository.countAllByAssignee(now);
+    }
+}
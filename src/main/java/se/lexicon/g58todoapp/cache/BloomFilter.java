@@ -0,0 +1,99 @@
+package se.lexicon.g58todoapp.cache;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bloom Filter
+ * A compact set of strings that answers "definitely not in the set" or "maybe in the set".
+ * There are no false negatives: a string that was added is always reported as maybe present.
+ * Strings that were not added are reported as maybe present with the configured
+ * false positive rate, as long as no more than the expected number of strings is added.
+ *
+ * Each string sets k bits out of m, chosen by double hashing (h1 + i * h2).
+ * Strings cannot be removed, so the filter has to be rebuilt to forget them.
+ *
+ * Thread-safe: bits are set with compare-and-set, reads never block.
+ */
+public class BloomFilter {
+
+    private final AtomicLongArray bits;
+    private final long bitCount;
+    private final int hashCount;
+
+    /**
+     * @param expectedInsertions number of strings the filter is sized for
+     * @param falsePositiveRate wanted rate of "maybe" answers for absent strings, e.g. 0.01
+     */
+    public BloomFilter(long expectedInsertions, double falsePositiveRate) {
+        if (expectedInsertions < 1 || falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("Need expectedInsertions >= 1 and 0 < falsePositiveRate < 1");
+        }
+        // Optimal sizes: m = -n ln(p) / ln(2)^2, k = m / n ln(2)
+        long m = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        this.bitCount = Math.max(64, (m + 63) / 64 * 64);
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / expectedInsertions * Math.log(2)));
+        this.bits = new AtomicLongArray((int) (bitCount / 64));
+    }
+
+    /**
+     * Add a string
+     */
+    public void put(String value) {
+        long h1 = hash(value);
+        long h2 = mix(h1) | 1; // Odd, so the k positions differ
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Long.remainderUnsigned(h1 + i * h2, bitCount);
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long current;
+            do {
+                current = bits.get(word);
+            } while ((current & mask) == 0 && !bits.compareAndSet(word, current, current | mask));
+        }
+    }
+
+    /**
+     * Whether the string may have been added
+     *
+     * @return false if it was definitely never added
+     */
+    public boolean mightContain(String value) {
+        long h1 = hash(value);
+        long h2 = mix(h1) | 1;
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Long.remainderUnsigned(h1 + i * h2, bitCount);
+            if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Memory used by the bits
+     */
+    public long sizeInBytes() {
+        return bitCount / 8;
+    }
+
+    public int getHashCount() {
+        return hashCount;
+    }
+
+    // 64-bit FNV-1a over the chars, then mixed so that similar strings spread out
+    private static long hash(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return mix(hash);
+    }
+
+    // Finalizer of SplitMix64
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,185 @@
+package se.lexicon.g58todoapp.cache;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiPredicate;
+import java.util.function.LongSupplier;
+
+/**
+ * LRU Cache
+ * A bounded map that evicts the least recently used entry when it is full,
+ * and drops entries once their time to live has passed.
+ *
+ * The entries are spread over SEGMENTS independent LinkedHashMaps (by key hash), each with
+ * its own lock and 1/SEGMENTS of the capacity, so concurrent lookups rarely wait for each other.
+ * LRU order is kept per segment, which is close enough to a global order for a cache.
+ *
+ * Each entry gets its own time to live, so e.g. "not found" answers can expire sooner.
+ * Hits, misses, evictions (size) and expirations (time) are counted.
+ *
+ * @param <K> key type
+ * @param <V> value type, null values are not allowed (use Optional for "known to be absent")
+ */
+public class LruCache<K, V> {
+
+    private static final int SEGMENTS = 16;
+
+    private final Segment[] segments;
+    private final LongSupplier nanoTime;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+
+    private record Entry<V>(V value, long expiresAt) {
+    }
+
+    /**
+     * @param maxSize maximum number of entries (at least SEGMENTS)
+     */
+    public LruCache(int maxSize) {
+        this(maxSize, System::nanoTime);
+    }
+
+    /**
+     * @param maxSize maximum number of entries (at least SEGMENTS)
+     * @param nanoTime clock, replaceable in tests
+     */
+    @SuppressWarnings("unchecked")
+    public LruCache(int maxSize, LongSupplier nanoTime) {
+        if (maxSize < SEGMENTS) {
+            throw new IllegalArgumentException("maxSize must be at least " + SEGMENTS);
+        }
+        this.nanoTime = nanoTime;
+        this.segments = new LruCache.Segment[SEGMENTS];
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment(maxSize / SEGMENTS);
+        }
+    }
+
+    /**
+     * The cached value, or null if there is none (or it has expired)
+     */
+    public V get(K key) {
+        Segment segment = segmentFor(key);
+        synchronized (segment) {
+            Entry<V> entry = segment.map.get(key);
+            if (entry != null && entry.expiresAt() - nanoTime.getAsLong() <= 0) {
+                segment.map.remove(key);
+                expirations.increment();
+                entry = null;
+            }
+            if (entry == null) {
+                misses.increment();
+                return null;
+            }
+            hits.increment();
+            return entry.value();
+        }
+    }
+
+    /**
+     * Add or replace a value
+     *
+     * @param ttlNanos how long the value may be returned
+     */
+    public void put(K key, V value, long ttlNanos) {
+        Segment segment = segmentFor(key);
+        synchronized (segment) {
+            segment.map.put(key, new Entry<>(value, nanoTime.getAsLong() + ttlNanos));
+        }
+    }
+
+    /**
+     * Remove one key
+     */
+    public void remove(K key) {
+        Segment segment = segmentFor(key);
+        synchronized (segment) {
+            segment.map.remove(key);
+        }
+    }
+
+    /**
+     * Remove every entry the condition holds for (walks the whole cache)
+     */
+    public void removeIf(BiPredicate<K, V> condition) {
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                segment.map.entrySet().removeIf(e -> condition.test(e.getKey(), e.getValue().value()));
+            }
+        }
+    }
+
+    /**
+     * Remove everything
+     */
+    public void clear() {
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                segment.map.clear();
+            }
+        }
+    }
+
+    /**
+     * Number of entries, including expired ones that have not been looked up since
+     */
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                size += segment.map.size();
+            }
+        }
+        return size;
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * Entries dropped because the cache was full
+     */
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    /**
+     * Entries dropped because their time to live had passed
+     */
+    public long getExpirations() {
+        return expirations.sum();
+    }
+
+    private Segment segmentFor(K key) {
+        int hash = key.hashCode();
+        return segments[(hash ^ (hash >>> 16)) & (SEGMENTS - 1)];
+    }
+
+    private final class Segment {
+
+        private final LinkedHashMap<K, Entry<V>> map;
+
+        Segment(int capacity) {
+            // accessOrder = true: get() moves the entry to the end, the eldest is the least recently used
+            this.map = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                    if (size() > capacity) {
+                        evictions.increment();
+                        return true;
+                    }
+                    return false;
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package se.lexicon.g58todoapp.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.support.TransactionTemplate;
+import se.lexicon.g58todoapp.dto.AttachmentDTO;
+import se.lexicon.g58todoapp.entity.Attachment;
+import se.lexicon.g58todoapp.repo.AttachmentRepository;
+import se.lexicon.g58todoapp.service.AttachmentStorage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+/**
+ * Attachment Storage Migration
+ * Moves attachment content out of the attachments.data BLOB column into the
+ * filesystem storage, then clears the column. Run it once after switching to
+ * the filesystem storage:
+ *
+ * java -jar app.jar --attachment.storage.type=filesystem --attachment.storage.migrate=true
+ *
+ * Every attachment is moved in its own transaction, so the migration can be
+ * stopped and started again - rows that are already moved are skipped.
+ *
+ * The attachment entity is never loaded: the content is read from the column in chunks,
+ * and the row is changed with one UPDATE. The application does not start if migrate=true
+ * is given without the filesystem storage, since the content would be cleared afterwards.
+ */
+@Configuration
+@ConditionalOnProperty(name = "attachment.storage.migrate", havingValue = "true")
+public class AttachmentStorageMigration {
+
+    // Number of attachment ids fetched per query
+    private static final int PAGE_SIZE = 100;
+
+    @Bean
+    public CommandLineRunner migrateAttachmentContent(
+            AttachmentRepository attachmentRepository,
+            AttachmentStorage attachmentStorage,
+            TransactionTemplate transactionTemplate,
+            @Value("${attachment.storage.type:database}") String storageType,
+            @Value("${attachment.download.chunk-size:1048576}") int chunkSize) {
+
+        if (!"filesystem".equals(storageType)) {
+            throw new IllegalStateException("attachment.storage.migrate=true needs attachment.storage.type=filesystem, "
+                    + "it is " + storageType);
+        }
+
+        return args -> {
+            System.out.println("🚚 Moving attachment content to " + attachmentStorage.getClass().getSimpleName() + "...");
+
+            long moved = 0;
+            long lastId = 0;
+            List<Long> ids;
+            do {
+                ids = attachmentRepository.findIdsWithDatabaseContent(lastId, Limit.of(PAGE_SIZE));
+                for (Long id : ids) {
+                    transactionTemplate.executeWithoutResult(status -> {
+                        AttachmentDTO metadata = attachmentRepository.findMetadataById(id).orElseThrow();
+                        Long size = attachmentRepository.findContentLengthById(id);
+                        // Not saved: only receives the content hash from the storage
+                        Attachment target = new Attachment(metadata.getFileName(), metadata.getFileType(), null);
+                        try (InputStream in = new ChunkedContentStream(attachmentRepository, id, chunkSize)) {
+                            long stored = attachmentStorage.store(target, in, size != null ? size : -1);
+                            attachmentRepository.moveContentToStorage(id, target.getContentHash(), stored);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException("Failed to move attachment " + id, e);
+                        }
+                    });
+                    moved++;
+                    lastId = id;
+                }
+            } while (!ids.isEmpty());
+
+            System.out.println("✅ Moved " + moved + " attachment(s)");
+        };
+    }
+
+    /**
+     * InputStream over the BLOB column that reads one chunk at a time
+     */
+    private static class ChunkedContentStream extends InputStream {
+
+        private final AttachmentRepository attachmentRepository;
+        private final Long id;
+        private final int chunkSize;
+
+        private byte[] chunk = new byte[0];
+        private int index;
+        private long position = 1; // SQL SUBSTRING is 1-based
+        private boolean finished;
+
+        ChunkedContentStream(AttachmentRepository attachmentRepository, Long id, int chunkSize) {
+            this.attachmentRepository = attachmentRepository;
+            this.id = id;
+            this.chunkSize = chunkSize;
+        }
+
+        @Override
+        public int read() {
+            byte[] one = new byte[1];
+            return read(one, 0, 1) < 0 ? -1 : one[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) {
+            if (index == chunk.length && !nextChunk()) {
+                return -1;
+            }
+            int count = Math.min(length, chunk.length - index);
+            System.arraycopy(chunk, index, buffer, offset, count);
+            index += count;
+            return count;
+        }
+
+        private boolean nextChunk() {
+            if (finished) {
+                return false;
+            }
+            byte[] next = attachmentRepository.readContentChunk(id, position, chunkSize);
+            if (next == null || next.length == 0) {
+                finished = true;
+                return false;
+            }
+            chunk = next;
+            index = 0;
+            position += next.length;
+            return true;
+        }
+    }
+}
@@ -38,6 +38,12 @@ public class DataLoader {
             TodoNotificationService notificationService) {
 
         return args -> {
+            // The database is no longer recreated on every start, so only load once
+            if (personRepo.count() > 0) {
+                System.out.println("ℹ️ Sample data already loaded");
+                return;
+            }
+
             System.out.println("🚀 Loading sample data...");
 
             // Create and save sample persons
@@ -45,10 +51,8 @@ public class DataLoader {
             Person bob = new Person("Bob Smith", "bob@example.com", LocalDate.of(1985, 8, 22));
             Person charlie = new Person("Charlie Brown", "charlie@example.com", LocalDate.of(1995, 3, 10));
 
-            // Save persons to database
-            personRepo.save(alice);
-            personRepo.save(bob);
-            personRepo.save(charlie);
+            // Save persons to database (saveAll: one transaction, inserts sent as one JDBC batch)
+            personRepo.saveAll(List.of(alice, bob, charlie));
 
             System.out.println("✅ Created 3 sample persons");
 
@@ -76,11 +80,7 @@ public class DataLoader {
             todo5.setAssignedTo(charlie);
 
             // Save todos to database
-            todoRepo.save(todo1);
-            todoRepo.save(todo2);
-            todoRepo.save(todo3);
-            todoRepo.save(todo4);
-            todoRepo.save(todo5);
+            todoRepo.saveAll(List.of(todo1, todo2, todo3, todo4, todo5));
 
             System.out.println("✅ Created 5 sample todos");
 
@@ -6,6 +6,7 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.JavaMailSenderImpl;
 
+import java.time.Duration;
 import java.util.Properties;
 
 /**
@@ -35,6 +36,25 @@ public class EmailConfig {
     @Value("${email.from.name}")
     private String fromName;
 
+    // SMTP connection pool (see PooledJavaMailSender)
+    @Value("${email.smtp.pool.enabled:true}")
+    private boolean poolEnabled;
+
+    @Value("${email.smtp.pool.max-connections:4}")
+    private int poolMaxConnections;
+
+    @Value("${email.smtp.pool.max-messages-per-connection:100}")
+    private int poolMaxMessagesPerConnection;
+
+    @Value("${email.smtp.pool.idle-timeout:30s}")
+    private Duration poolIdleTimeout;
+
+    @Value("${email.smtp.pool.validate-after:5s}")
+    private Duration poolValidateAfter;
+
+    @Value("${email.smtp.pool.borrow-timeout:10s}")
+    private Duration poolBorrowTimeout;
+
     /**
      * Creates and configures the JavaMailSender bean
      * This is what Spring uses to send emails
@@ -44,7 +64,11 @@ public class EmailConfig {
     @Bean
     public JavaMailSender javaMailSender() {
         // Create a new mail sender implementation
-        JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+        // The pooled version keeps SMTP connections open and reuses them
+        JavaMailSenderImpl mailSender = poolEnabled
+                ? new PooledJavaMailSender(poolMaxConnections, poolMaxMessagesPerConnection,
+                        poolIdleTimeout, poolValidateAfter, poolBorrowTimeout)
+                : new JavaMailSenderImpl();
 
         // Set basic SMTP configuration
         mailSender.setHost(mailHost);
@@ -0,0 +1,72 @@
+package se.lexicon.g58todoapp.config;
+
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import se.lexicon.g58todoapp.jfr.EmailSendEvent;
+import se.lexicon.g58todoapp.jfr.RepositoryCallEvent;
+import se.lexicon.g58todoapp.jfr.TemplateRenderEvent;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+
+/**
+ * Flight Recording
+ * Keeps a continuous JDK Flight Recorder recording of the JVM and the application's own
+ * events (template renders, email sends, repository calls). Only the last max-age (at most
+ * max-size) is kept, older data is dropped like in a ring buffer. dump() writes what is
+ * kept to a file, e.g. right after a latency spike (FlightRecordingEndpoint).
+ *
+ * Started with the jfr profile: java -jar app.jar --spring.profiles.active=jfr
+ *
+ * Configuration (application-jfr.properties):
+ * - jfr.recording.settings    JFR settings for the JVM events: default (about 1% overhead) or profile
+ * - jfr.recording.max-age     how much history is kept
+ * - jfr.recording.max-size    upper limit of the kept history on disk
+ * - jfr.recording.threshold   application events shorter than this are not recorded
+ */
+@Component
+@ConditionalOnProperty(name = "jfr.recording.enabled", havingValue = "true")
+public class FlightRecording {
+
+    private final Recording recording;
+
+    public FlightRecording(
+            @Value("${jfr.recording.settings:default}") String settings,
+            @Value("${jfr.recording.max-age:30m}") Duration maxAge,
+            @Value("${jfr.recording.max-size:256MB}") DataSize maxSize,
+            @Value("${jfr.recording.threshold:0ms}") Duration threshold) throws IOException, ParseException {
+        recording = new Recording(Configuration.getConfiguration(settings));
+        recording.setName("todo-app");
+        recording.setToDisk(true);
+        recording.setMaxAge(maxAge);
+        recording.setMaxSize(maxSize.toBytes());
+        recording.enable(TemplateRenderEvent.class).withThreshold(threshold);
+        recording.enable(EmailSendEvent.class).withThreshold(threshold);
+        recording.enable(RepositoryCallEvent.class).withThreshold(threshold);
+        recording.start();
+        System.out.println("🎥 Flight recording started (keeping the last " + maxAge.toMinutes() + " min, at most " + maxSize + ")");
+    }
+
+    /**
+     * Write the kept history to a new temporary file
+     * The recording continues. The caller deletes the file.
+     */
+    public Path dump() throws IOException {
+        Path file = Files.createTempFile("todo-app-", ".jfr");
+        recording.dump(file);
+        return file;
+    }
+
+    @PreDestroy
+    public void stop() {
+        recording.close();
+    }
+}
@@ -0,0 +1,81 @@
+package se.lexicon.g58todoapp.config;
+
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.boot.actuate.endpoint.web.annotation.WebEndpoint;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Flight Recording Endpoint
+ * Actuator endpoint for the continuous recording, only available with the jfr profile.
+ * It is served on the management port, not next to the public API, because a recording
+ * contains environment variables, system properties and other secrets of the JVM.
+ *
+ * - GET http://localhost:8081/actuator/jfr   (download the recording, open it in JDK Mission Control)
+ *
+ * Example:
+ * curl -o spike.jfr http://localhost:8081/actuator/jfr
+ */
+@Component
+@WebEndpoint(id = "jfr")
+@ConditionalOnProperty(name = "jfr.recording.enabled", havingValue = "true")
+public class FlightRecordingEndpoint {
+
+    private final FlightRecording flightRecording;
+
+    public FlightRecordingEndpoint(FlightRecording flightRecording) {
+        this.flightRecording = flightRecording;
+    }
+
+    /**
+     * Dump the flight recording and send it as a file
+     * The temporary file is deleted once it has been sent.
+     */
+    @ReadOperation(produces = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public WebEndpointResponse<Resource> dumpRecording() throws IOException {
+        return new WebEndpointResponse<>(new TemporaryFileResource(flightRecording.dump()));
+    }
+
+    /**
+     * File that deletes itself when the stream reading it is closed
+     */
+    private static final class TemporaryFileResource extends FileSystemResource {
+
+        private final Path file;
+
+        TemporaryFileResource(Path file) {
+            super(file);
+            this.file = file;
+        }
+
+        @Override
+        public InputStream getInputStream() throws IOException {
+            return new FilterInputStream(super.getInputStream()) {
+                @Override
+                public void close() throws IOException {
+                    try {
+                        super.close();
+                    } finally {
+                        Files.deleteIfExists(file);
+                    }
+                }
+            };
+        }
+
+        @Override
+        public boolean isFile() {
+            // Not a file, so the response is written from getInputStream() and the file gets deleted
+            return false;
+        }
+    }
+}
@@ -0,0 +1,229 @@
+package se.lexicon.g58todoapp.config;
+
+import jakarta.mail.Address;
+import jakarta.mail.AuthenticationFailedException;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.mail.MailAuthenticationException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pooled JavaMailSender
+ * JavaMailSenderImpl opens a new SMTP connection (connect, EHLO, AUTH ... QUIT) for every send call.
+ * This version keeps connected Transports in a pool and reuses them across calls and threads.
+ *
+ * - At most maxConnections connections are in use at the same time (callers wait up to borrowTimeout)
+ * - A connection is closed after maxMessagesPerConnection messages (servers limit this too)
+ * - Connections idle longer than idleTimeout are closed
+ * - Connections idle longer than validateAfter are checked with a NOOP before they are reused
+ * - send(MimeMessage...) pushes all messages of one call over a single connection
+ */
+public class PooledJavaMailSender extends JavaMailSenderImpl implements DisposableBean {
+
+    private static final String HEADER_MESSAGE_ID = "Message-ID";
+
+    private final int maxMessagesPerConnection;
+    private final long idleTimeoutNanos;
+    private final long validateAfterNanos;
+    private final Duration borrowTimeout;
+
+    private final Semaphore permits;
+    // Most recently used connection first, so the oldest ones time out at the end of the deque
+    private final LinkedBlockingDeque<PooledTransport> idle = new LinkedBlockingDeque<>();
+    private final AtomicLong connectionsOpened = new AtomicLong();
+    private volatile boolean closed;
+
+    public PooledJavaMailSender(int maxConnections, int maxMessagesPerConnection,
+                                Duration idleTimeout, Duration validateAfter, Duration borrowTimeout) {
+        this.permits = new Semaphore(maxConnections, true);
+        this.maxMessagesPerConnection = maxMessagesPerConnection;
+        this.idleTimeoutNanos = idleTimeout.toNanos();
+        this.validateAfterNanos = validateAfter.toNanos();
+        this.borrowTimeout = borrowTimeout;
+    }
+
+    /**
+     * Send messages over a pooled connection
+     * Same contract as JavaMailSenderImpl: failed messages are reported in one MailSendException
+     */
+    @Override
+    protected void doSend(MimeMessage[] mimeMessages, Object[] originalMessages) {
+        acquirePermit();
+        Map<Object, Exception> failedMessages = new LinkedHashMap<>();
+        PooledTransport connection = null;
+        try {
+            for (int i = 0; i < mimeMessages.length; i++) {
+                if (connection == null) {
+                    try {
+                        connection = borrow();
+                    } catch (AuthenticationFailedException ex) {
+                        throw new MailAuthenticationException(ex);
+                    } catch (MessagingException ex) {
+                        for (int j = i; j < mimeMessages.length; j++) {
+                            failedMessages.put(original(mimeMessages, originalMessages, j), ex);
+                        }
+                        throw new MailSendException("Mail server connection failed", ex, failedMessages);
+                    }
+                }
+
+                try {
+                    sendMessage(connection, mimeMessages[i]);
+                } catch (Exception ex) {
+                    failedMessages.put(original(mimeMessages, originalMessages, i), ex);
+                    // A rejected recipient leaves the connection usable, a dropped connection does not
+                    if (!connection.transport.isConnected()) {
+                        close(connection);
+                        connection = null;
+                    }
+                }
+
+                if (connection != null && connection.messagesSent >= maxMessagesPerConnection) {
+                    close(connection);
+                    connection = null;
+                }
+            }
+        } finally {
+            if (connection != null) {
+                giveBack(connection);
+            }
+            permits.release();
+        }
+
+        if (!failedMessages.isEmpty()) {
+            throw new MailSendException(failedMessages);
+        }
+    }
+
+    /**
+     * Close connections that have been idle longer than the idle timeout
+     */
+    @Scheduled(fixedDelayString = "${email.smtp.pool.idle-timeout:30s}")
+    public void evictIdle() {
+        long now = System.nanoTime();
+        Iterator<PooledTransport> oldestFirst = idle.descendingIterator();
+        while (oldestFirst.hasNext()) {
+            PooledTransport connection = oldestFirst.next();
+            if (now - connection.lastUsedNanos > idleTimeoutNanos && idle.removeLastOccurrence(connection)) {
+                close(connection);
+            }
+        }
+    }
+
+    /**
+     * Close all idle connections on shutdown
+     */
+    @Override
+    public void destroy() {
+        closed = true;
+        PooledTransport connection;
+        while ((connection = idle.pollFirst()) != null) {
+            close(connection);
+        }
+    }
+
+    /**
+     * Number of SMTP connections opened since startup
+     */
+    public long getConnectionsOpened() {
+        return connectionsOpened.get();
+    }
+
+    /**
+     * Number of connected, currently unused connections
+     */
+    public int getIdleConnections() {
+        return idle.size();
+    }
+
+    private void acquirePermit() {
+        try {
+            if (!permits.tryAcquire(borrowTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                throw new MailSendException("No SMTP connection available within " + borrowTimeout);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MailSendException("Interrupted while waiting for an SMTP connection");
+        }
+    }
+
+    private PooledTransport borrow() throws MessagingException {
+        PooledTransport connection;
+        while ((connection = idle.pollFirst()) != null) {
+            long idleNanos = System.nanoTime() - connection.lastUsedNanos;
+            if (idleNanos > idleTimeoutNanos) {
+                close(connection);
+            } else if (idleNanos > validateAfterNanos && !connection.transport.isConnected()) {
+                // isConnected() sends a NOOP, so the server may have dropped us
+                close(connection);
+            } else {
+                return connection;
+            }
+        }
+        connectionsOpened.incrementAndGet();
+        return new PooledTransport(connectTransport());
+    }
+
+    private void giveBack(PooledTransport connection) {
+        connection.lastUsedNanos = System.nanoTime();
+        if (closed) {
+            close(connection);
+        } else {
+            idle.offerFirst(connection);
+        }
+    }
+
+    private void sendMessage(PooledTransport connection, MimeMessage mimeMessage) throws MessagingException {
+        // Same preparation as JavaMailSenderImpl.doSend
+        if (mimeMessage.getSentDate() == null) {
+            mimeMessage.setSentDate(new Date());
+        }
+        String messageId = mimeMessage.getMessageID();
+        mimeMessage.saveChanges();
+        if (messageId != null) {
+            // Preserve explicitly specified message id...
+            mimeMessage.setHeader(HEADER_MESSAGE_ID, messageId);
+        }
+        Address[] addresses = mimeMessage.getAllRecipients();
+        connection.transport.sendMessage(mimeMessage, addresses != null ? addresses : new Address[0]);
+        connection.messagesSent++;
+    }
+
+    private static Object original(MimeMessage[] mimeMessages, Object[] originalMessages, int index) {
+        return originalMessages != null ? originalMessages[index] : mimeMessages[index];
+    }
+
+    private static void close(PooledTransport connection) {
+        try {
+            connection.transport.close();
+        } catch (MessagingException e) {
+            // Connection is discarded anyway
+        }
+    }
+
+    /**
+     * A connected Transport plus the bookkeeping needed by the pool
+     */
+    private static final class PooledTransport {
+        private final Transport transport;
+        private int messagesSent;
+        private long lastUsedNanos = System.nanoTime();
+
+        private PooledTransport(Transport transport) {
+            this.transport = transport;
+        }
+    }
+}
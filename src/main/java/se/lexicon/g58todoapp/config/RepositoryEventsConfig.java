@@ -0,0 +1,35 @@
+package se.lexicon.g58todoapp.config;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import se.lexicon.g58todoapp.jfr.RepositoryEventInterceptor;
+
+/**
+ * Repository Events Configuration
+ * Adds a RepositoryEventInterceptor to every Spring Data repository, so repository calls
+ * show up in JFR recordings (see FlightRecording). When nothing is recording, the
+ * interceptor only checks that its event is disabled.
+ */
+@Configuration
+public class RepositoryEventsConfig {
+
+    /**
+     * Static, because bean post-processors are created before the other beans of this class
+     */
+    @Bean
+    public static BeanPostProcessor repositoryEventsPostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+                    factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+                            (proxyFactory, information) -> proxyFactory.addAdvice(
+                                    new RepositoryEventInterceptor(information.getRepositoryInterface()))));
+                }
+                return bean;
+            }
+        };
+    }
+}
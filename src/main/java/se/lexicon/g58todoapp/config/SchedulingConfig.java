@@ -0,0 +1,13 @@
+package se.lexicon.g58todoapp.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Scheduling Configuration Class
+ * Enables @Scheduled methods (e.g. the notification outbox poller)
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -0,0 +1,48 @@
+package se.lexicon.g58todoapp.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import se.lexicon.g58todoapp.service.TodoExportService;
+
+import java.io.BufferedOutputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Todo Export Command
+ * Writes all todos to a file on startup, the same export as GET /api/todos/export:
+ *
+ * java -jar app.jar --todo.export.file=todos.ndjson
+ * java -jar app.jar --todo.export.file=todos.csv.gz --todo.export.format=csv
+ *
+ * A file name ending in .gz is gzip-compressed. An existing file is overwritten.
+ */
+@Configuration
+@ConditionalOnProperty(name = "todo.export.file")
+public class TodoExportCommand {
+
+    @Bean
+    public CommandLineRunner exportTodos(
+            TodoExportService todoExportService,
+            @Value("${todo.export.file}") Path file,
+            @Value("${todo.export.format:ndjson}") String format) {
+
+        return args -> {
+            TodoExportService.Format exportFormat = TodoExportService.Format.valueOf(format.toUpperCase(Locale.ROOT));
+            System.out.println("📤 Exporting todos to " + file.toAbsolutePath() + "...");
+
+            OutputStream fileOut = new BufferedOutputStream(Files.newOutputStream(file));
+            try (OutputStream out = file.getFileName().toString().endsWith(".gz")
+                    ? new GZIPOutputStream(fileOut, 65536)
+                    : fileOut) {
+                todoExportService.exportTodos(out, exportFormat);
+            }
+        };
+    }
+}
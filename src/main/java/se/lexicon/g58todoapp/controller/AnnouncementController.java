@@ -0,0 +1,36 @@
+package se.lexicon.g58todoapp.controller;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import se.lexicon.g58todoapp.dto.AnnouncementRequest;
+import se.lexicon.g58todoapp.dto.BroadcastResult;
+import se.lexicon.g58todoapp.service.BroadcastService;
+
+/**
+ * Announcement Controller
+ * Sends one announcement to a team or to everyone (see BroadcastService)
+ *
+ * - POST http://localhost:8080/api/announcements
+ *
+ * Example - all-hands announcement:
+ * curl -X POST -H "Content-Type: application/json" -d '{"subject":"Office closed Friday","message":"See you on Monday!"}' http://localhost:8080/api/announcements
+ */
+@RestController
+@RequestMapping("/api/announcements")
+public class AnnouncementController {
+
+    private final BroadcastService broadcastService;
+
+    public AnnouncementController(BroadcastService broadcastService) {
+        this.broadcastService = broadcastService;
+    }
+
+    /**
+     * Send an announcement and return the result of every chunk
+     */
+    @PostMapping
+    public ResponseEntity<BroadcastResult> announce(@RequestBody AnnouncementRequest request) {
+        return ResponseEntity.ok(broadcastService.announce(
+                request.getPersonIds(), request.getSubject(), request.getMessage()));
+    }
+}
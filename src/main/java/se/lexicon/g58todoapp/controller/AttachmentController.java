@@ -0,0 +1,154 @@
+package se.lexicon.g58todoapp.controller;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import se.lexicon.g58todoapp.dto.AttachmentDTO;
+import se.lexicon.g58todoapp.dto.AttachmentSummary;
+import se.lexicon.g58todoapp.service.AttachmentService;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Attachment Controller
+ * Uploads and downloads file content as streams
+ *
+ * - POST http://localhost:8080/api/todos/{todoId}/attachments?fileName=report.pdf
+ *   (raw file in the request body, Content-Type = MIME type of the file)
+ * - GET  http://localhost:8080/api/todos/{todoId}/attachments  (metadata only)
+ * - GET  http://localhost:8080/api/attachments/{id}
+ * - GET  http://localhost:8080/api/attachments/{id}/content  (supports the Range header)
+ * - DELETE http://localhost:8080/api/attachments/{id}
+ */
+@RestController
+@RequestMapping("/api")
+public class AttachmentController {
+
+    // Request attributes of Tomcat's sendfile support (see org.apache.catalina.Globals)
+    private static final String SENDFILE_SUPPORTED = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private final AttachmentService attachmentService;
+
+    public AttachmentController(AttachmentService attachmentService) {
+        this.attachmentService = attachmentService;
+    }
+
+    /**
+     * Upload a file
+     * The request body is the raw file, it is read as a stream and never buffered as a whole
+     */
+    @PostMapping("/todos/{todoId}/attachments")
+    public ResponseEntity<AttachmentDTO> upload(
+            @PathVariable Long todoId,
+            @RequestParam String fileName,
+            HttpServletRequest request) throws IOException {
+        String fileType = request.getContentType() != null
+                ? request.getContentType()
+                : MediaType.APPLICATION_OCTET_STREAM_VALUE;
+
+        AttachmentDTO attachment = attachmentService.upload(
+                todoId, fileName, fileType, request.getInputStream(), request.getContentLengthLong());
+
+        return ResponseEntity.status(HttpStatus.CREATED).body(attachment);
+    }
+
+    /**
+     * List the attachments of a todo
+     * Only metadata is read from the database, never the file content
+     */
+    @GetMapping("/todos/{todoId}/attachments")
+    public ResponseEntity<List<AttachmentSummary>> listAttachments(@PathVariable Long todoId) {
+        return ResponseEntity.ok(attachmentService.listAttachments(todoId));
+    }
+
+    /**
+     * Get attachment metadata (name, type, size)
+     */
+    @GetMapping("/attachments/{id}")
+    public ResponseEntity<AttachmentDTO> getAttachment(@PathVariable Long id) {
+        return ResponseEntity.ok(attachmentService.getAttachment(id));
+    }
+
+    /**
+     * Download the file content
+     * Without a Range header the whole file is sent (200)
+     * With a single range (e.g. "bytes=0-1023") only that part is sent (206)
+     * Multiple ranges are not supported, the whole file is sent instead (allowed by RFC 9110)
+     */
+    @GetMapping("/attachments/{id}/content")
+    public void download(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.RANGE, required = false) String rangeHeader,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+        AttachmentDTO attachment = attachmentService.getAttachment(id);
+        long size = attachment.getSize();
+        long start = 0;
+        long end = size - 1;
+
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+
+        if (rangeHeader != null) {
+            try {
+                List<HttpRange> ranges = HttpRange.parseRanges(rangeHeader);
+                if (ranges.size() == 1) {
+                    start = ranges.get(0).getRangeStart(size);
+                    end = ranges.get(0).getRangeEnd(size);
+                    if (start > end) {
+                        // HttpRange does not check that the range starts before the end of the file
+                        throw new IllegalArgumentException("Range starts after the end of the file");
+                    }
+                    response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+                    response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + size);
+                }
+            } catch (IllegalArgumentException e) {
+                // Invalid or unsatisfiable range
+                response.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + size);
+                return;
+            }
+        }
+
+        long length = end - start + 1;
+        response.setContentType(attachment.getFileType());
+        response.setContentLengthLong(length);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename(attachment.getFileName(), StandardCharsets.UTF_8)
+                .build()
+                .toString());
+
+        // Zero-copy: let Tomcat send the file with the sendfile system call when it can
+        Optional<Path> file = attachmentService.localFile(attachment);
+        if (file.isPresent() && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED))) {
+            request.setAttribute(SENDFILE_FILENAME, file.get().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end + 1); // Exclusive end
+            return;
+        }
+
+        attachmentService.writeContent(attachment, start, length, response.getOutputStream());
+    }
+
+    /**
+     * Delete an attachment
+     * DELETE http://localhost:8080/api/attachments/{id}
+     */
+    @DeleteMapping("/attachments/{id}")
+    public ResponseEntity<Void> delete(@PathVariable Long id) {
+        attachmentService.delete(id);
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,77 @@
+package se.lexicon.g58todoapp.controller;
+
+import jakarta.persistence.EntityNotFoundException;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import se.lexicon.g58todoapp.dto.PersonCacheStats;
+import se.lexicon.g58todoapp.dto.PersonTodoStats;
+import se.lexicon.g58todoapp.entity.Person;
+import se.lexicon.g58todoapp.service.PersonLookupService;
+import se.lexicon.g58todoapp.service.TodoStatsService;
+
+/**
+ * Person Controller
+ * Person lookups, answered from the PersonLookupService cache where possible
+ *
+ * - GET http://localhost:8080/api/people/{id}
+ * - GET http://localhost:8080/api/people?email=alice@example.com
+ * - GET http://localhost:8080/api/people/exists?email=alice@example.com  (e.g. signup duplicate check)
+ * - GET http://localhost:8080/api/people/cache-stats
+ * - GET http://localhost:8080/api/people/{id}/todo-stats   (total, completed, pending and overdue todos)
+ */
+@RestController
+@RequestMapping("/api/people")
+public class PersonController {
+
+    private final PersonLookupService personLookupService;
+    private final TodoStatsService todoStatsService;
+
+    public PersonController(PersonLookupService personLookupService, TodoStatsService todoStatsService) {
+        this.personLookupService = personLookupService;
+        this.todoStatsService = todoStatsService;
+    }
+
+    /**
+     * Get a person by id
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<Person> getById(@PathVariable Long id) {
+        return ResponseEntity.ok(personLookupService.findById(id)
+                .orElseThrow(() -> new EntityNotFoundException("Person not found: " + id)));
+    }
+
+    /**
+     * Get a person by email
+     */
+    @GetMapping(params = "email")
+    public ResponseEntity<Person> getByEmail(@RequestParam String email) {
+        return ResponseEntity.ok(personLookupService.findByEmail(email)
+                .orElseThrow(() -> new EntityNotFoundException("Person not found: " + email)));
+    }
+
+    /**
+     * Whether the email is already registered
+     */
+    @GetMapping("/exists")
+    public ResponseEntity<Boolean> exists(@RequestParam String email) {
+        return ResponseEntity.ok(personLookupService.existsByEmail(email));
+    }
+
+    /**
+     * Todo counts of a person, answered from in-memory counters
+     */
+    @GetMapping("/{id}/todo-stats")
+    public ResponseEntity<PersonTodoStats> todoStats(@PathVariable Long id) {
+        personLookupService.findById(id)
+                .orElseThrow(() -> new EntityNotFoundException("Person not found: " + id));
+        return ResponseEntity.ok(todoStatsService.getStats(id));
+    }
+
+    /**
+     * Cache hit/miss/eviction counters
+     */
+    @GetMapping("/cache-stats")
+    public ResponseEntity<PersonCacheStats> cacheStats() {
+        return ResponseEntity.ok(personLookupService.getStats());
+    }
+}
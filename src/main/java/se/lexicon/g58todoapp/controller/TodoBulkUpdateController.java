@@ -0,0 +1,60 @@
+package se.lexicon.g58todoapp.controller;
+
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import se.lexicon.g58todoapp.dto.TodoBulkUpdateResult;
+import se.lexicon.g58todoapp.dto.TodoSelection;
+import se.lexicon.g58todoapp.service.TodoBulkUpdateService;
+
+import java.time.LocalDateTime;
+
+/**
+ * Todo Bulk Update Controller
+ * Changes many todos at once. The body selects the todos (see TodoSelection).
+ *
+ * - POST http://localhost:8080/api/todos/bulk/complete
+ * - POST http://localhost:8080/api/todos/bulk/reassign?assigneeId=3    (without assigneeId: unassign)
+ * - POST http://localhost:8080/api/todos/bulk/reschedule?dueDate=2026-06-01T09:00   (without dueDate: remove it)
+ *
+ * Example - complete all overdue tasks of person 3:
+ * curl -X POST -H "Content-Type: application/json" -d '{"assigneeId":3,"overdue":true}' http://localhost:8080/api/todos/bulk/complete
+ */
+@RestController
+@RequestMapping("/api/todos/bulk")
+public class TodoBulkUpdateController {
+
+    private final TodoBulkUpdateService bulkUpdateService;
+
+    public TodoBulkUpdateController(TodoBulkUpdateService bulkUpdateService) {
+        this.bulkUpdateService = bulkUpdateService;
+    }
+
+    /**
+     * Mark the selected todos as completed
+     */
+    @PostMapping("/complete")
+    public ResponseEntity<TodoBulkUpdateResult> complete(@RequestBody TodoSelection selection) {
+        return ResponseEntity.ok(bulkUpdateService.complete(selection));
+    }
+
+    /**
+     * Assign the selected todos to a person
+     */
+    @PostMapping("/reassign")
+    public ResponseEntity<TodoBulkUpdateResult> reassign(
+            @RequestBody TodoSelection selection,
+            @RequestParam(required = false) Long assigneeId) {
+        return ResponseEntity.ok(bulkUpdateService.reassign(selection, assigneeId));
+    }
+
+    /**
+     * Give the selected todos a new due date
+     */
+    @PostMapping("/reschedule")
+    public ResponseEntity<TodoBulkUpdateResult> reschedule(
+            @RequestBody TodoSelection selection,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime dueDate) {
+        return ResponseEntity.ok(bulkUpdateService.reschedule(selection, dueDate));
+    }
+}
@@ -0,0 +1,43 @@
+package se.lexicon.g58todoapp.controller;
+
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import se.lexicon.g58todoapp.service.TodoChangeFeed;
+
+/**
+ * Todo Change Feed Controller
+ * Pushes todo changes to the client as Server-Sent Events instead of letting it poll.
+ * Events are named created, updated, completed or deleted, with a TodoChangeEvent as JSON data.
+ *
+ * - GET http://localhost:8080/api/todos/changes               (all todos)
+ * - GET http://localhost:8080/api/todos/changes?assigneeId=3  (todos of person 3)
+ *
+ * A browser EventSource reconnects by itself and sends the Last-Event-ID header, so the
+ * events missed in between are sent first. A "reset" event means they are gone: reload the list.
+ *
+ * Example:
+ * curl -N http://localhost:8080/api/todos/changes?assigneeId=3
+ */
+@RestController
+@RequestMapping("/api/todos")
+public class TodoChangeFeedController {
+
+    private final TodoChangeFeed todoChangeFeed;
+
+    public TodoChangeFeedController(TodoChangeFeed todoChangeFeed) {
+        this.todoChangeFeed = todoChangeFeed;
+    }
+
+    /**
+     * Subscribe to todo changes
+     * lastEventId can also be given as a parameter, for clients that cannot set headers
+     */
+    @GetMapping(path = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter changes(
+            @RequestParam(required = false) Long assigneeId,
+            @RequestHeader(name = "Last-Event-ID", required = false) Long lastEventIdHeader,
+            @RequestParam(required = false) Long lastEventId) {
+        return todoChangeFeed.subscribe(assigneeId, lastEventIdHeader != null ? lastEventIdHeader : lastEventId);
+    }
+}
@@ -1,7 +1,109 @@
 package se.lexicon.g58todoapp.controller;
 
+import jakarta.persistence.EntityNotFoundException;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import se.lexicon.g58todoapp.dto.TodoDTO;
+import se.lexicon.g58todoapp.service.TodoETags;
+import se.lexicon.g58todoapp.service.TodoService;
+
+import java.net.URI;
+import java.util.List;
+
+/**
+ * Todo Controller
+ * CRUD operations for todos
+ *
+ * - GET    http://localhost:8080/api/todos?assigneeId=3&afterId=0&size=50  (a page in id order; next page: afterId = last id)
+ * - GET    http://localhost:8080/api/todos/{id}
+ * - POST   http://localhost:8080/api/todos
+ * - PUT    http://localhost:8080/api/todos/{id}
+ * - DELETE http://localhost:8080/api/todos/{id}
+ *
+ * Every response carries an ETag (see TodoETags), strong for a todo, weak for a list. Send it back:
+ * - in If-None-Match on a GET: 304 Not Modified if nothing changed. This is decided by one
+ *   primary key query (updated_at, or the list version), before any todo is loaded or serialized.
+ * - in If-Match on a PUT or DELETE: 412 Precondition Failed if someone else changed the
+ *   todo in the meantime, instead of silently overwriting their change. Only the todo's
+ *   strong ETag (or *) matches, a weak one never does.
+ *
+ * Example:
+ * curl -i -H 'If-None-Match: "12-1777629600000000"' http://localhost:8080/api/todos/12
+ */
+@RestController
+@RequestMapping("/api/todos")
 public class TodoController {
 
-    //TODO: Implement basic CRUD operations for Todo entity
+    private final TodoService todoService;
+
+    public TodoController(TodoService todoService) {
+        this.todoService = todoService;
+    }
+
+    /**
+     * Get a page of todos, optionally only one person's
+     */
+    @GetMapping
+    public ResponseEntity<List<TodoDTO>> getAll(
+            @RequestParam(required = false) Long assigneeId,
+            @RequestParam(defaultValue = "0") long afterId,
+            @RequestParam(defaultValue = "50") int size,
+            WebRequest request) {
+        // Taken before the page is read: if the list changes in between, the next request gets a new page.
+        // Also validates afterId and size, so invalid ones get a 400 and never a 304
+        String etag = todoService.getListETag(assigneeId, afterId, size);
+        if (request.checkNotModified(etag)) {
+            return null; // 304 Not Modified
+        }
+        return ResponseEntity.ok().eTag(etag).body(todoService.findPage(assigneeId, afterId, size));
+    }
+
+    /**
+     * Get a todo by id
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<TodoDTO> getById(@PathVariable Long id, WebRequest request) {
+        String etag = todoService.getETag(id)
+                .orElseThrow(() -> new EntityNotFoundException("Todo not found: " + id));
+        if (request.checkNotModified(etag)) {
+            return null; // 304 Not Modified
+        }
+        TodoDTO todo = todoService.findById(id);
+        return ResponseEntity.ok().eTag(TodoETags.of(todo.getId(), todo.getUpdatedAt())).body(todo);
+    }
+
+    /**
+     * Create a todo
+     */
+    @PostMapping
+    public ResponseEntity<TodoDTO> create(@RequestBody TodoDTO request) {
+        TodoDTO todo = todoService.create(request);
+        return ResponseEntity.created(URI.create("/api/todos/" + todo.getId()))
+                .eTag(TodoETags.of(todo.getId(), todo.getUpdatedAt()))
+                .body(todo);
+    }
+
+    /**
+     * Update a todo, only if it still matches If-Match when that header is sent
+     */
+    @PutMapping("/{id}")
+    public ResponseEntity<TodoDTO> update(
+            @PathVariable Long id,
+            @RequestBody TodoDTO request,
+            @RequestHeader(name = "If-Match", required = false) String ifMatch) {
+        TodoDTO todo = todoService.update(id, request, ifMatch);
+        return ResponseEntity.ok().eTag(TodoETags.of(todo.getId(), todo.getUpdatedAt())).body(todo);
+    }
 
+    /**
+     * Delete a todo, only if it still matches If-Match when that header is sent
+     */
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> delete(
+            @PathVariable Long id,
+            @RequestHeader(name = "If-Match", required = false) String ifMatch) {
+        todoService.delete(id, ifMatch);
+        return ResponseEntity.noContent().build();
+    }
 }
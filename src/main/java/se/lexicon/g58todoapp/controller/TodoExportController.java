@@ -0,0 +1,66 @@
+package se.lexicon.g58todoapp.controller;
+
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.bind.annotation.*;
+import se.lexicon.g58todoapp.service.TodoExportService;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Locale;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Todo Export Controller
+ * Downloads all todos with assignee email and attachment metadata. The rows are written to
+ * the response as they are read from the database, nothing is buffered as a whole.
+ *
+ * - GET http://localhost:8080/api/todos/export?format=ndjson   (default, application/x-ndjson)
+ * - GET http://localhost:8080/api/todos/export?format=csv      (text/csv)
+ * - GET http://localhost:8080/api/todos/export?format=csv&gzip=true  (todos.csv.gz)
+ *
+ * Example:
+ * curl -o todos.ndjson.gz "http://localhost:8080/api/todos/export?gzip=true"
+ */
+@RestController
+@RequestMapping("/api/todos")
+public class TodoExportController {
+
+    private final TodoExportService todoExportService;
+
+    public TodoExportController(TodoExportService todoExportService) {
+        this.todoExportService = todoExportService;
+    }
+
+    /**
+     * Export todos as NDJSON or CSV, optionally gzip-compressed
+     */
+    @GetMapping("/export")
+    public void exportTodos(
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(defaultValue = "false") boolean gzip,
+            HttpServletResponse response) throws IOException {
+        TodoExportService.Format exportFormat = switch (format.toLowerCase(Locale.ROOT)) {
+            case "ndjson" -> TodoExportService.Format.NDJSON;
+            case "csv" -> TodoExportService.Format.CSV;
+            default -> throw new IllegalArgumentException("Unknown export format: " + format);
+        };
+        String fileName = "todos." + exportFormat.name().toLowerCase(Locale.ROOT) + (gzip ? ".gz" : "");
+
+        response.setContentType(gzip ? "application/gzip"
+                : exportFormat == TodoExportService.Format.CSV ? "text/csv;charset=UTF-8" : "application/x-ndjson");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                ContentDisposition.attachment().filename(fileName).build().toString());
+
+        OutputStream body = response.getOutputStream();
+        if (gzip) {
+            // syncFlush: every flush of the export sends what has been compressed so far
+            try (GZIPOutputStream compressed = new GZIPOutputStream(body, 65536, true)) {
+                todoExportService.exportTodos(compressed, exportFormat);
+            }
+        } else {
+            todoExportService.exportTodos(body, exportFormat);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package se.lexicon.g58todoapp.controller;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import se.lexicon.g58todoapp.dto.TodoImportResult;
+import se.lexicon.g58todoapp.service.TodoImportService;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Todo Import Controller
+ * Bulk-loads todos from the request body, which is read as a stream and never buffered as a whole
+ *
+ * - POST http://localhost:8080/api/todos/import
+ *   Content-Type: application/x-ndjson  (one JSON object per line)
+ *   Content-Type: text/csv              (header line, then one todo per line)
+ *   See TodoImportRow for the fields. Invalid rows are skipped and listed in the response.
+ *
+ * Example:
+ * curl -X POST -H "Content-Type: application/x-ndjson" --data-binary @todos.ndjson http://localhost:8080/api/todos/import
+ */
+@RestController
+@RequestMapping("/api/todos")
+public class TodoImportController {
+
+    private final TodoImportService todoImportService;
+
+    public TodoImportController(TodoImportService todoImportService) {
+        this.todoImportService = todoImportService;
+    }
+
+    /**
+     * Import todos from NDJSON or CSV
+     */
+    @PostMapping(path = "/import", consumes = {"application/x-ndjson", "text/csv"})
+    public ResponseEntity<TodoImportResult> importTodos(HttpServletRequest request) throws IOException {
+        TodoImportService.Format format = request.getContentType().startsWith("text/csv")
+                ? TodoImportService.Format.CSV
+                : TodoImportService.Format.NDJSON;
+        try (InputStreamReader body = new InputStreamReader(request.getInputStream(), StandardCharsets.UTF_8)) {
+            return ResponseEntity.ok(todoImportService.importTodos(body, format));
+        }
+    }
+}
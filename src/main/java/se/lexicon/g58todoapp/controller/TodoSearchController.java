@@ -0,0 +1,70 @@
+package se.lexicon.g58todoapp.controller;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import se.lexicon.g58todoapp.dto.TodoSearchResult;
+import se.lexicon.g58todoapp.dto.TodoSearchStats;
+import se.lexicon.g58todoapp.service.TodoSearchService;
+
+/**
+ * Todo Search Controller
+ * Substring search in todo titles and descriptions, answered from the in-memory index
+ *
+ * - GET  http://localhost:8080/api/todos/search?q=buy milk&page=0&size=20
+ *   (503 Service Unavailable while the index is still loading after startup)
+ * - GET  http://localhost:8080/api/todos/search/stats
+ * - POST http://localhost:8080/api/todos/search/rebuild  (reload the index from the database)
+ */
+@RestController
+@RequestMapping("/api/todos/search")
+@ConditionalOnProperty(name = "search.index.enabled", havingValue = "true", matchIfMissing = true)
+public class TodoSearchController {
+
+    private final TodoSearchService searchService;
+
+    public TodoSearchController(TodoSearchService searchService) {
+        this.searchService = searchService;
+    }
+
+    /**
+     * Search todos, best match first
+     */
+    @GetMapping
+    public ResponseEntity<TodoSearchResult> search(
+            @RequestParam("q") String query,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        if (!searchService.isReady()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "5")
+                    .build();
+        }
+        return ResponseEntity.ok(searchService.search(query, page, size));
+    }
+
+    /**
+     * Size of the index
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<TodoSearchStats> stats() {
+        return ResponseEntity.ok(searchService.getStats());
+    }
+
+    /**
+     * Rebuild the index from the database
+     * Searches keep working (on the old index) while it runs.
+     * 409 Conflict if a rebuild is already running.
+     */
+    @PostMapping("/rebuild")
+    public ResponseEntity<TodoSearchStats> rebuild() {
+        try {
+            searchService.rebuild();
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+        return ResponseEntity.ok(searchService.getStats());
+    }
+}
@@ -0,0 +1,31 @@
+package se.lexicon.g58todoapp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Announcement Request
+ * An announcement for a team (personIds) or for everyone (no personIds)
+ *
+ * Example:
+ * {"subject":"Office closed Friday","message":"The office is closed this Friday.","personIds":[1,2,3]}
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AnnouncementRequest {
+
+    private String subject;
+
+    private String message;
+
+    /**
+     * Persons to send it to, leave out to send it to everyone
+     */
+    private List<Long> personIds;
+}
@@ -0,0 +1,48 @@
+package se.lexicon.g58todoapp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Attachment Data Transfer Object
+ * Holds the metadata of an attachment, never the file content itself
+ * The content is streamed separately through the download endpoint
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AttachmentDTO {
+
+    /**
+     * Attachment id
+     */
+    private Long id;
+
+    /**
+     * The name of the file (e.g., "report.pdf")
+     */
+    private String fileName;
+
+    /**
+     * The MIME type of the file (e.g., "application/pdf")
+     */
+    private String fileType;
+
+    /**
+     * Size of the file in bytes
+     */
+    private long size;
+
+    /**
+     * Id of the todo this attachment belongs to
+     */
+    private Long todoId;
+
+    /**
+     * SHA-256 of the file content (hex)
+     */
+    private String contentHash;
+}
@@ -0,0 +1,26 @@
+package se.lexicon.g58todoapp.dto;
+
+/**
+ * Attachment Summary Projection
+ * Spring Data selects only these columns, so listing attachments never reads the file content
+ *
+ * Usage in a repository: List<AttachmentSummary> findSummariesByTodo(Todo todo);
+ */
+public interface AttachmentSummary {
+
+    Long getId();
+
+    String getFileName();
+
+    String getFileType();
+
+    /**
+     * Size of the file in bytes
+     */
+    Long getFileSize();
+
+    /**
+     * SHA-256 of the file content (hex), usable as a checksum
+     */
+    String getContentHash();
+}
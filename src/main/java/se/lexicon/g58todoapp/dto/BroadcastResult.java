@@ -0,0 +1,67 @@
+package se.lexicon.g58todoapp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Broadcast Result
+ * Summary of a broadcast, with the result of every chunk
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BroadcastResult {
+
+    /**
+     * Distinct recipients
+     */
+    private int recipients;
+
+    /**
+     * Recipients in chunks that were sent
+     */
+    private int delivered;
+
+    /**
+     * Duration of the broadcast in milliseconds
+     */
+    private long elapsedMillis;
+
+    /**
+     * One result per chunk, in order
+     */
+    private List<Chunk> chunks;
+
+    /**
+     * Addresses of the chunks that failed, e.g. to try them again
+     */
+    private List<String> failedRecipients;
+
+    /**
+     * Result of one chunk (one email)
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Chunk {
+
+        private int index;
+
+        /**
+         * Addresses in BCC
+         */
+        private int recipients;
+
+        /**
+         * true if the mail server accepted the email
+         */
+        private boolean sent;
+
+        private long elapsedMillis;
+    }
+}
@@ -0,0 +1,57 @@
+package se.lexicon.g58todoapp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Person Cache Statistics
+ * Counters of PersonLookupService since startup (by-id and by-email lookups together)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PersonCacheStats {
+
+    /**
+     * Lookups answered from the cache, including cached "not found" answers
+     */
+    private long hits;
+
+    /**
+     * Cached "not found" answers (part of hits)
+     */
+    private long negativeHits;
+
+    /**
+     * Lookups that went to the database
+     */
+    private long misses;
+
+    /**
+     * Email lookups the Bloom filter answered as "not found" without the database
+     */
+    private long filterRejections;
+
+    /**
+     * Entries dropped because the cache was full
+     */
+    private long evictions;
+
+    /**
+     * Entries dropped because their time to live had passed
+     */
+    private long expirations;
+
+    /**
+     * Entries currently cached
+     */
+    private int entries;
+
+    /**
+     * Memory used by the Bloom filter (0 until it is loaded)
+     */
+    private long filterBytes;
+}
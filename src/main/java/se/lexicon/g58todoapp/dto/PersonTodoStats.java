@@ -0,0 +1,36 @@
+package se.lexicon.g58todoapp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Person Todo Statistics
+ * Todo counts of one person, e.g. for a dashboard
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PersonTodoStats {
+
+    private Long personId;
+
+    /**
+     * Todos assigned to the person
+     */
+    private long total;
+
+    private long completed;
+
+    /**
+     * Not completed (overdue ones included)
+     */
+    private long pending;
+
+    /**
+     * Not completed and past their due date
+     */
+    private long overdue;
+}
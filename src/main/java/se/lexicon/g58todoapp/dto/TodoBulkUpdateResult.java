@@ -0,0 +1,32 @@
+package se.lexicon.g58todoapp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Todo Bulk Update Result
+ * Summary of a bulk update
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TodoBulkUpdateResult {
+
+    /**
+     * Rows changed
+     */
+    private long updated;
+
+    /**
+     * Number of transactions the update was split into
+     */
+    private int chunks;
+
+    /**
+     * Duration of the update in milliseconds
+     */
+    private long elapsedMillis;
+}
@@ -0,0 +1,52 @@
+package se.lexicon.g58todoapp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Todo Change Event
+ * One committed change of a todo, as sent on the change feed (GET /api/todos/changes)
+ * Clients that need the title or description read the todo with GET /api/todos/{todoId}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TodoChangeEvent {
+
+    public enum Type {
+        CREATED,
+        UPDATED,
+        COMPLETED,
+        DELETED
+    }
+
+    /**
+     * Position in the feed, increasing by one per change (the SSE event id)
+     */
+    private long id;
+
+    private Type type;
+
+    private Long todoId;
+
+    /**
+     * Assignee after the change (before it, for DELETED)
+     */
+    private Long assigneeId;
+
+    /**
+     * Assignee before the change, if it was reassigned
+     */
+    private Long previousAssigneeId;
+
+    private boolean completed;
+
+    private LocalDateTime dueDate;
+
+    private LocalDateTime occurredAt;
+}
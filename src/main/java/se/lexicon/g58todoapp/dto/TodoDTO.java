@@ -0,0 +1,48 @@
+package se.lexicon.g58todoapp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Todo Data Transfer Object
+ * A todo as read and written by the REST API (TodoController)
+ * id, createdAt and updatedAt are set by the server and ignored in requests.
+ *
+ * Example request body:
+ * {"title":"Buy milk","description":"2 liters","dueDate":"2026-05-01T18:00","assigneeId":3}
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TodoDTO {
+
+    private Long id;
+
+    /**
+     * Required, at most 100 characters
+     */
+    private String title;
+
+    /**
+     * Optional, at most 500 characters
+     */
+    private String description;
+
+    private boolean completed;
+
+    private LocalDateTime dueDate;
+
+    /**
+     * The assigned person, or null
+     */
+    private Long assigneeId;
+
+    private LocalDateTime createdAt;
+
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,44 @@
+package se.lexicon.g58todoapp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Todo Import Result
+ * Summary of a bulk import
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TodoImportResult {
+
+    /**
+     * Rows saved
+     */
+    private long imported;
+
+    /**
+     * Rows skipped because they were invalid
+     */
+    private long rejected;
+
+    /**
+     * The first few reasons for rejected rows, e.g. "Line 12: title is required"
+     */
+    private List<String> errors;
+
+    /**
+     * Duration of the import in milliseconds
+     */
+    private long elapsedMillis;
+
+    /**
+     * Imported rows per second
+     */
+    private long rowsPerSecond;
+}
@@ -0,0 +1,49 @@
+package se.lexicon.g58todoapp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Todo Import Row
+ * One todo in a bulk import: one JSON object per line (NDJSON) or one CSV line
+ *
+ * NDJSON example:
+ * {"title":"Buy milk","description":"2 liters","dueDate":"2026-05-01T18:00","assigneeEmail":"alice@example.com"}
+ *
+ * CSV example (the header names the columns, in any order):
+ * title,description,dueDate,completed,assigneeEmail
+ * Buy milk,2 liters,2026-05-01,false,alice@example.com
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TodoImportRow {
+
+    /**
+     * Required, at most 100 characters
+     */
+    private String title;
+
+    /**
+     * Optional, at most 500 characters
+     */
+    private String description;
+
+    /**
+     * Optional, ISO date-time ("2026-05-01T18:00") or date ("2026-05-01", start of the day)
+     */
+    private String dueDate;
+
+    /**
+     * Optional, default false
+     */
+    private Boolean completed;
+
+    /**
+     * Optional, email of an existing person to assign the todo to
+     */
+    private String assigneeEmail;
+}
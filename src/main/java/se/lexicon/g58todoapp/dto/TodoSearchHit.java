@@ -0,0 +1,32 @@
+package se.lexicon.g58todoapp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Todo Search Hit
+ * One todo matching a search, as returned by TodoSearchService
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TodoSearchHit {
+
+    /**
+     * Todo id
+     */
+    private Long id;
+
+    /**
+     * Todo title
+     */
+    private String title;
+
+    /**
+     * Relevance, higher is better (title matches count more than description matches)
+     */
+    private int score;
+}
@@ -0,0 +1,44 @@
+package se.lexicon.g58todoapp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Todo Search Result
+ * One page of search hits, best match first
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TodoSearchResult {
+
+    /**
+     * The search text
+     */
+    private String query;
+
+    /**
+     * Page number, starting at 0
+     */
+    private int page;
+
+    /**
+     * Maximum number of hits per page
+     */
+    private int size;
+
+    /**
+     * Number of todos matching the query (on all pages)
+     */
+    private int total;
+
+    /**
+     * The hits on this page
+     */
+    private List<TodoSearchHit> hits;
+}
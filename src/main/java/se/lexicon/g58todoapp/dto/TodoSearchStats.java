@@ -0,0 +1,42 @@
+package se.lexicon.g58todoapp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Todo Search Statistics
+ * Size of the in-memory search index
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TodoSearchStats {
+
+    /**
+     * Whether the index has been loaded from the database
+     */
+    private boolean ready;
+
+    /**
+     * Number of indexed todos
+     */
+    private int documents;
+
+    /**
+     * Number of distinct trigrams (three-character sequences)
+     */
+    private int trigrams;
+
+    /**
+     * Number of (trigram, todo) entries in all posting lists
+     */
+    private long postings;
+
+    /**
+     * Memory used by the posting lists in bytes
+     */
+    private long postingBytes;
+}
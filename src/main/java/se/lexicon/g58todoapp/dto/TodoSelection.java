@@ -0,0 +1,38 @@
+package se.lexicon.g58todoapp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Todo Selection
+ * Which todos a bulk update applies to. All given conditions must hold, and at least one must be given.
+ *
+ * Examples:
+ * {"ids":[1,2,3]}                     these three todos
+ * {"assigneeId":7,"overdue":true}     all overdue tasks of person 7
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TodoSelection {
+
+    /**
+     * Only these todos
+     */
+    private List<Long> ids;
+
+    /**
+     * Only todos assigned to this person
+     */
+    private Long assigneeId;
+
+    /**
+     * Only todos that are not completed and past their due date
+     */
+    private Boolean overdue;
+}
@@ -2,25 +2,35 @@ package se.lexicon.g58todoapp.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.DynamicUpdate;
+
+import java.sql.Blob;
 
 /**
  * Attachment Entity
  * Represents a file attachment that can be associated with a Todo task.
  * This entity stores file information including the file name, type, and binary data.
+ *
+ * The binary data is mapped as a {@link Blob} instead of a byte[] so the file content
+ * is streamed to and from the database instead of being copied onto the heap.
  */
 @Getter
 @Setter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 @AllArgsConstructor
-@ToString(exclude = "data") // Exclude binary data from toString to avoid memory issues
+@ToString(exclude = {"data", "todo"}) // Exclude binary data and the lazy todo from toString
 
 @Entity
+@DynamicUpdate // Updates only write changed columns, so metadata changes never rewrite the BLOB
+@EntityListeners(AttachmentStorageListener.class)
 @Table(name = "attachments")
 public class Attachment {
 
-    // Primary key - auto-generated ID for each attachment
+    // Primary key - pooled ids from the id_sequences table, so inserts can be batched (see Todo.id)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "attachment_ids")
+    @TableGenerator(name = "attachment_ids", table = "id_sequences", pkColumnName = "sequence_name",
+            valueColumnName = "next_val", pkColumnValue = "attachments", allocationSize = 50)
     private Long id;
 
     // The name of the file (e.g., "report.pdf")
@@ -33,13 +43,26 @@ public class Attachment {
 
     // Binary data of the file stored as a large object (LOB)
     // @Lob tells JPA this is a large object that should be stored as BLOB in database
+    // Blob is a handle to the data, so the bytes are only read when the stream is consumed
+    // Null when the content is kept by the filesystem storage (see contentHash)
+    // LAZY: loaded only when getData() is called, so loading an Attachment never reads the BLOB
+    // (needs the Hibernate bytecode enhancement configured in pom.xml)
     @Lob
-    @Column(nullable = false)
-    private byte[] data;
+    @Basic(fetch = FetchType.LAZY)
+    private Blob data;
+
+    // Size of the file in bytes, filled in when the content is stored
+    // Lets us show file sizes without reading the content
+    private Long fileSize;
+
+    // SHA-256 of the file content (hex), also the key of the file in the filesystem storage
+    @Column(length = 64)
+    private String contentHash;
 
     // Relationship: Many attachments can belong to one Todo
     // When we delete a todo, we don't automatically delete attachments
-    @ManyToOne
+    // LAZY: listing attachments does not load their todos
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "todo_id")
     private Todo todo;
 
@@ -47,7 +70,7 @@ public class Attachment {
      * Custom constructor for creating an attachment without specifying the todo
      * Useful when creating an attachment before assigning it to a task
      */
-    public Attachment(String fileName, String fileType, byte[] data) {
+    public Attachment(String fileName, String fileType, Blob data) {
         this.fileName = fileName;
         this.fileType = fileType;
         this.data = data;
@@ -0,0 +1,52 @@
+package se.lexicon.g58todoapp.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * AttachmentContent Entity
+ * One row per distinct file body kept by the filesystem attachment storage.
+ * The file is stored once per SHA-256 hash, and refCount tells how many
+ * attachments point to it. The file is deleted when the last one is removed.
+ */
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@ToString
+
+@Entity
+@Table(name = "attachment_contents")
+public class AttachmentContent {
+
+    // SHA-256 of the content (hex) - the primary key and the file name on disk
+    @Id
+    @Column(length = 64)
+    private String contentHash;
+
+    // Size of the file in bytes
+    @Column(nullable = false)
+    private long size;
+
+    // Number of attachments using this content
+    @Setter
+    @Column(nullable = false)
+    private int refCount;
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    public AttachmentContent(String contentHash, long size) {
+        this.contentHash = contentHash;
+        this.size = size;
+        this.refCount = 1;
+    }
+
+    /**
+     * Lifecycle method - automatically sets createdAt timestamp
+     */
+    @PrePersist
+    protected void onCreate() {
+        this.createdAt = LocalDateTime.now();
+    }
+}
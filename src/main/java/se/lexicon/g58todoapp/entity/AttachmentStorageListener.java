@@ -0,0 +1,45 @@
+package se.lexicon.g58todoapp.entity;
+
+import jakarta.persistence.PostRemove;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import se.lexicon.g58todoapp.service.AttachmentStorage;
+
+/**
+ * JPA entity listener for Attachment
+ * Releases the stored content when an attachment is deleted, also when it is
+ * removed through the cascade from Todo.
+ *
+ * Hibernate creates this listener through Spring, so the storage is injected.
+ * It is looked up lazily, because the listener is created while the
+ * EntityManagerFactory (which the storage depends on) is still being built.
+ */
+public class AttachmentStorageListener {
+
+    private final ObjectProvider<AttachmentStorage> attachmentStorage;
+
+    public AttachmentStorageListener(ObjectProvider<AttachmentStorage> attachmentStorage) {
+        this.attachmentStorage = attachmentStorage;
+    }
+
+    /**
+     * Lifecycle method - runs after the attachment row is deleted
+     * The release waits until the transaction has committed, so a rollback
+     * never drops a reference that is still in use
+     */
+    @PostRemove
+    public void onRemove(Attachment attachment) {
+        String contentHash = attachment.getContentHash();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            attachmentStorage.getObject().release(contentHash);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                attachmentStorage.getObject().release(contentHash);
+            }
+        });
+    }
+}
@@ -0,0 +1,64 @@
+package se.lexicon.g58todoapp.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * JobCheckpoint Entity
+ * Progress of a batch job, so a restarted job continues where it stopped
+ */
+@Getter
+@Setter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@ToString
+
+@Entity
+@Table(name = "job_checkpoints")
+public class JobCheckpoint {
+
+    // Name of the job, e.g. "daily-summary"
+    @Id
+    @Column(length = 50)
+    private String jobName;
+
+    // The day the current run is for
+    @Column(nullable = false)
+    private LocalDate runDate;
+
+    // Everything up to and including this person id has been processed
+    @Column(nullable = false)
+    private long lastPersonId;
+
+    // true when the run for runDate has finished
+    @Column(nullable = false)
+    private boolean completed;
+
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+
+    public JobCheckpoint(String jobName, LocalDate runDate) {
+        this.jobName = jobName;
+        this.runDate = runDate;
+    }
+
+    /**
+     * Start over for a new day
+     */
+    public void restart(LocalDate runDate) {
+        this.runDate = runDate;
+        this.lastPersonId = 0;
+        this.completed = false;
+    }
+
+    /**
+     * Lifecycle method - track when the checkpoint was last written
+     */
+    @PrePersist
+    @PreUpdate
+    protected void onSave() {
+        this.updatedAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,94 @@
+package se.lexicon.g58todoapp.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * OutboxMessage Entity
+ * An email waiting to be sent by the OutboxPoller (transactional outbox pattern).
+ *
+ * The row is inserted in the same transaction as the change that caused the email,
+ * so the email is sent if and only if that change is committed.
+ */
+@Getter
+@Setter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@ToString(exclude = "body") // The body can be a large HTML document
+
+@Entity
+@Table(name = "notification_outbox")
+public class OutboxMessage {
+
+    /**
+     * Delivery status of an outbox message
+     */
+    public enum Status {
+        /** Waiting to be sent (or to be retried at nextAttemptAt) */
+        PENDING,
+        /** Sent successfully */
+        SENT,
+        /** Gave up after the maximum number of attempts */
+        FAILED
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // Recipient email address
+    @Column(nullable = false, length = 150)
+    private String recipient;
+
+    @Column(nullable = false)
+    private String subject;
+
+    // Too long for varchar: mediumtext on MySQL (a @Lob String would be a 255 byte tinytext)
+    @Column(nullable = false, length = 1_000_000)
+    private String body;
+
+    // true = HTML email, false = plain text email
+    @Column(nullable = false)
+    private boolean html;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Status status = Status.PENDING;
+
+    // Number of send attempts so far
+    @Column(nullable = false)
+    private int attempts;
+
+    // The message may be claimed by a poller from this time on
+    // Also used as a lease: a claimed message is pushed into the future while it is being sent
+    @Column(nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    // Error of the last failed attempt
+    @Column(length = 500)
+    private String lastError;
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    private LocalDateTime sentAt;
+
+    public OutboxMessage(String recipient, String subject, String body, boolean html) {
+        this.recipient = recipient;
+        this.subject = subject;
+        this.body = body;
+        this.html = html;
+    }
+
+    /**
+     * Lifecycle method - new messages can be sent right away
+     */
+    @PrePersist
+    protected void onCreate() {
+        this.createdAt = LocalDateTime.now();
+        if (this.nextAttemptAt == null) {
+            this.nextAttemptAt = this.createdAt;
+        }
+    }
+}
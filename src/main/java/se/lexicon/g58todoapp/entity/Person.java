@@ -15,10 +15,14 @@ import java.time.LocalDate;
 
 @Entity
 @Table(name = "people")
+@EntityListeners(PersonCacheListener.class)
 public class Person {
 
+    // Pooled ids from the id_sequences table, so inserts can be batched (see Todo.id)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "person_ids")
+    @TableGenerator(name = "person_ids", table = "id_sequences", pkColumnName = "sequence_name",
+            valueColumnName = "next_val", pkColumnValue = "people", allocationSize = 50)
     private Long id;
 
     @Setter
@@ -61,6 +65,15 @@ public class Person {
     public int hashCode() {
         return email != null ? email.hashCode() : 0;
     }
+    /**
+     * A detached copy with the same id and values
+     * PersonLookupService caches and hands out copies, so a cached person is never
+     * part of (or changed through) someone's persistence context
+     */
+    public Person detachedCopy() {
+        return new Person(id, name, email, birthDate, createdAt);
+    }
+
     // TODO : Life Cycle for createdAt;
     /**
      * Lifecycle method - automatically sets createdAt timestamp
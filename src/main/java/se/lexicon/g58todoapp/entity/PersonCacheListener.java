@@ -0,0 +1,50 @@
+package se.lexicon.g58todoapp.entity;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import se.lexicon.g58todoapp.service.PersonLookupService;
+
+/**
+ * JPA entity listener for Person
+ * Evicts a person from the PersonLookupService cache when it is created (there may be a cached
+ * "not found" for its email), updated or deleted.
+ *
+ * Like TodoReminderListener, the service is looked up lazily and only told about committed changes.
+ */
+public class PersonCacheListener {
+
+    private final ObjectProvider<PersonLookupService> lookupService;
+
+    public PersonCacheListener(ObjectProvider<PersonLookupService> lookupService) {
+        this.lookupService = lookupService;
+    }
+
+    /**
+     * Lifecycle method - runs after a person is inserted, updated or deleted
+     */
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChange(Person person) {
+        Long personId = person.getId();
+        String email = person.getEmail();
+        PersonLookupService service = lookupService.getIfAvailable();
+        if (service == null) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            service.evict(personId, email);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                service.evict(personId, email);
+            }
+        });
+    }
+}
@@ -2,8 +2,10 @@ package se.lexicon.g58todoapp.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import se.lexicon.g58todoapp.stats.TodoState;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.HashSet;
 import java.util.Set;
 
@@ -15,10 +17,16 @@ import java.util.Set;
 
 @Entity
 @Table(name = "todos")
+@EntityListeners({TodoReminderListener.class, TodoSearchListener.class, TodoChangeFeedListener.class,
+        TodoListVersionListener.class, TodoCounterListener.class})
 public class Todo {
 
+    // Ids are taken in blocks of 50 from the id_sequences table (pooled), so Hibernate knows
+    // the id before the INSERT and can send inserts in JDBC batches (IDENTITY turns batching off)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "todo_ids")
+    @TableGenerator(name = "todo_ids", table = "id_sequences", pkColumnName = "sequence_name",
+            valueColumnName = "next_val", pkColumnValue = "todos", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, length = 100)
@@ -38,7 +46,11 @@ public class Todo {
     private LocalDateTime updatedAt;
     private LocalDateTime dueDate;
 
-    @ManyToOne
+    // LAZY: the person is only loaded when it is used, so list queries don't run
+    // one extra SELECT per assignee (N+1). Queries that need the assignee use the
+    // @EntityGraph "WithAssignee" methods in TodoRepository to fetch it in the same query.
+    @ManyToOne(fetch = FetchType.LAZY)
+    @ToString.Exclude // Would trigger loading of the lazy person
     private Person assignedTo;
 
     //TODO ATTACHMENT
@@ -50,6 +62,12 @@ public class Todo {
     @ToString.Exclude // Exclude from toString to avoid circular reference issues
     private Set<Attachment> attachments = new HashSet<>();
 
+    // Assignee, completed and due date as last loaded or saved, for TodoCounterListener
+    // (and TodoChangeFeedListener and TodoListVersionListener, which read it before TodoCounterListener replaces it)
+    @Transient
+    @ToString.Exclude
+    private TodoState counterState;
+
 
 
     // TODO Add one more Constructor, Title, description
@@ -102,8 +120,8 @@ public class Todo {
      */
     @PrePersist
     protected void onCreate() {
-        this.createdAt = LocalDateTime.now();
-        this.updatedAt = LocalDateTime.now();
+        this.createdAt = now();
+        this.updatedAt = this.createdAt;
     }
 
     /**
@@ -112,7 +130,15 @@ public class Todo {
      */
     @PreUpdate
     protected void onUpdate() {
-        this.updatedAt = LocalDateTime.now();
+        this.updatedAt = now();
+    }
+
+    /**
+     * The current time in the precision of the updated_at column (microseconds), so the
+     * value kept in memory is exactly the stored one (the ETags of TodoController use it)
+     */
+    public static LocalDateTime now() {
+        return LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
     }
 
     /**
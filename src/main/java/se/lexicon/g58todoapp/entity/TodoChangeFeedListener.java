@@ -0,0 +1,70 @@
+package se.lexicon.g58todoapp.entity;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import se.lexicon.g58todoapp.service.TodoChangeFeed;
+import se.lexicon.g58todoapp.stats.TodoState;
+
+import java.util.function.Consumer;
+
+/**
+ * JPA entity listener for Todo
+ * Publishes every created, updated or deleted todo on the TodoChangeFeed.
+ *
+ * The state before the change is the one TodoCounterListener remembered in the todo,
+ * so this listener has to run before TodoCounterListener replaces it (it is listed first
+ * in @EntityListeners). Like the other listeners, the feed is looked up lazily and only
+ * told about committed changes.
+ */
+public class TodoChangeFeedListener {
+
+    private final ObjectProvider<TodoChangeFeed> todoChangeFeed;
+
+    public TodoChangeFeedListener(ObjectProvider<TodoChangeFeed> todoChangeFeed) {
+        this.todoChangeFeed = todoChangeFeed;
+    }
+
+    /**
+     * Lifecycle method - runs after a todo is inserted or updated
+     * Unlike the counters, updates of only the title or description are passed on too
+     */
+    @PostPersist
+    @PostUpdate
+    public void onSave(Todo todo) {
+        Long todoId = todo.getId();
+        TodoState before = todo.getCounterState();
+        TodoState after = TodoCounterListener.stateOf(todo);
+        afterCommit(feed -> feed.todoChanged(todoId, before, after));
+    }
+
+    /**
+     * Lifecycle method - runs after a todo is deleted
+     */
+    @PostRemove
+    public void onRemove(Todo todo) {
+        Long todoId = todo.getId();
+        TodoState before = todo.getCounterState() != null ? todo.getCounterState() : TodoCounterListener.stateOf(todo);
+        afterCommit(feed -> feed.todoChanged(todoId, before, null));
+    }
+
+    private void afterCommit(Consumer<TodoChangeFeed> change) {
+        TodoChangeFeed feed = todoChangeFeed.getIfAvailable();
+        if (feed == null) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            change.accept(feed);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                change.accept(feed);
+            }
+        });
+    }
+}
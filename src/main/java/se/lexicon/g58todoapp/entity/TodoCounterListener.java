@@ -0,0 +1,91 @@
+package se.lexicon.g58todoapp.entity;
+
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import se.lexicon.g58todoapp.service.TodoStatsService;
+import se.lexicon.g58todoapp.stats.TodoState;
+
+import java.util.function.Consumer;
+
+/**
+ * JPA entity listener for Todo
+ * Passes every change of a todo's assignee, completed flag or due date to the TodoStatsService
+ * counters, as a change from the old to the new state.
+ *
+ * The old state is remembered in the todo when it is loaded (and after each save),
+ * since JPA callbacks only see the new one.
+ *
+ * Like TodoReminderListener, the service is looked up lazily and only told about
+ * committed changes.
+ */
+public class TodoCounterListener {
+
+    private final ObjectProvider<TodoStatsService> todoStatsService;
+
+    public TodoCounterListener(ObjectProvider<TodoStatsService> todoStatsService) {
+        this.todoStatsService = todoStatsService;
+    }
+
+    /**
+     * Lifecycle method - runs after a todo is read from the database
+     */
+    @PostLoad
+    public void onLoad(Todo todo) {
+        todo.setCounterState(stateOf(todo));
+    }
+
+    /**
+     * Lifecycle method - runs after a todo is inserted or updated
+     * Updates that leave the counted fields unchanged are not passed on
+     */
+    @PostPersist
+    @PostUpdate
+    public void onSave(Todo todo) {
+        Long todoId = todo.getId();
+        TodoState before = todo.getCounterState();
+        TodoState after = stateOf(todo);
+        todo.setCounterState(after);
+        if (!after.equals(before)) {
+            afterCommit(service -> service.todoChanged(todoId, before, after));
+        }
+    }
+
+    /**
+     * Lifecycle method - runs after a todo is deleted
+     */
+    @PostRemove
+    public void onRemove(Todo todo) {
+        Long todoId = todo.getId();
+        TodoState before = todo.getCounterState() != null ? todo.getCounterState() : stateOf(todo);
+        afterCommit(service -> service.todoChanged(todoId, before, null));
+    }
+
+    static TodoState stateOf(Todo todo) {
+        // getId() on a lazy assignee does not load it
+        Person assignee = todo.getAssignedTo();
+        return new TodoState(assignee != null ? assignee.getId() : null,
+                Boolean.TRUE.equals(todo.getCompleted()), todo.getDueDate());
+    }
+
+    private void afterCommit(Consumer<TodoStatsService> change) {
+        TodoStatsService service = todoStatsService.getIfAvailable();
+        if (service == null) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            change.accept(service);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                change.accept(service);
+            }
+        });
+    }
+}
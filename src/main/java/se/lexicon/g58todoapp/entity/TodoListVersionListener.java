@@ -0,0 +1,60 @@
+package se.lexicon.g58todoapp.entity;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import se.lexicon.g58todoapp.repo.TodoListVersionRepository;
+import se.lexicon.g58todoapp.stats.TodoState;
+
+import java.util.Arrays;
+
+/**
+ * JPA entity listener for Todo
+ * Increments the version of the todo lists a saved or deleted todo is in (its assignee's,
+ * and the previous assignee's when it was reassigned), for the list ETags. A deleted todo is
+ * also logged, for the ETag of the list of all todos (saves change its updated_at).
+ *
+ * Unlike the other listeners this does not wait for the commit: the versions change in the
+ * same transaction as the todo, so a client can never see the new todos with the old ETag.
+ * The previous assignee is read from the state TodoCounterListener remembered, so this
+ * listener has to run before TodoCounterListener (it is listed before it in @EntityListeners).
+ */
+public class TodoListVersionListener {
+
+    private final ObjectProvider<TodoListVersionRepository> listVersionRepository;
+
+    public TodoListVersionListener(ObjectProvider<TodoListVersionRepository> listVersionRepository) {
+        this.listVersionRepository = listVersionRepository;
+    }
+
+    /**
+     * Lifecycle method - runs after a todo is inserted or updated
+     */
+    @PostPersist
+    @PostUpdate
+    public void onSave(Todo todo) {
+        TodoState before = todo.getCounterState();
+        increment(before != null ? before.assigneeId() : null, TodoCounterListener.stateOf(todo).assigneeId());
+    }
+
+    /**
+     * Lifecycle method - runs after a todo is deleted
+     */
+    @PostRemove
+    public void onRemove(Todo todo) {
+        TodoState before = todo.getCounterState() != null ? todo.getCounterState() : TodoCounterListener.stateOf(todo);
+        increment(before.assigneeId());
+        TodoListVersionRepository repository = listVersionRepository.getIfAvailable();
+        if (repository != null) {
+            repository.recordDeletion(todo.getId(), Todo.now());
+        }
+    }
+
+    private void increment(Long... assigneeIds) {
+        TodoListVersionRepository repository = listVersionRepository.getIfAvailable();
+        if (repository != null) {
+            repository.increment(Arrays.asList(assigneeIds));
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package se.lexicon.g58todoapp.entity;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import se.lexicon.g58todoapp.service.ReminderScheduler;
+
+import java.time.LocalDateTime;
+import java.util.function.Consumer;
+
+/**
+ * JPA entity listener for Todo
+ * Keeps the ReminderScheduler in sync when a todo is created, updated (e.g. completed
+ * or given a new due date) or deleted.
+ *
+ * Like AttachmentStorageListener, the scheduler is looked up lazily, and changes are
+ * only passed on after commit. Without a ReminderScheduler bean (reminders disabled)
+ * the listener does nothing.
+ */
+public class TodoReminderListener {
+
+    private final ObjectProvider<ReminderScheduler> reminderScheduler;
+
+    public TodoReminderListener(ObjectProvider<ReminderScheduler> reminderScheduler) {
+        this.reminderScheduler = reminderScheduler;
+    }
+
+    /**
+     * Lifecycle method - runs after a todo is inserted or updated
+     */
+    @PostPersist
+    @PostUpdate
+    public void onSave(Todo todo) {
+        Long todoId = todo.getId();
+        LocalDateTime dueDate = todo.getDueDate();
+        boolean pending = dueDate != null && !Boolean.TRUE.equals(todo.getCompleted());
+        afterCommit(scheduler -> {
+            if (pending) {
+                scheduler.reschedule(todoId, dueDate);
+            } else {
+                scheduler.cancel(todoId);
+            }
+        });
+    }
+
+    /**
+     * Lifecycle method - runs after a todo is deleted
+     */
+    @PostRemove
+    public void onRemove(Todo todo) {
+        Long todoId = todo.getId();
+        afterCommit(scheduler -> scheduler.cancel(todoId));
+    }
+
+    private void afterCommit(Consumer<ReminderScheduler> change) {
+        ReminderScheduler scheduler = reminderScheduler.getIfAvailable();
+        if (scheduler == null) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            change.accept(scheduler);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                change.accept(scheduler);
+            }
+        });
+    }
+}
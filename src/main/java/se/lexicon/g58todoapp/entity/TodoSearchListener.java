@@ -0,0 +1,64 @@
+package se.lexicon.g58todoapp.entity;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import se.lexicon.g58todoapp.service.TodoSearchService;
+
+/**
+ * JPA entity listener for Todo
+ * Keeps the TodoSearchService index in sync when a todo is created, updated or deleted.
+ *
+ * Like TodoReminderListener, the service is looked up lazily and only told about
+ * committed changes. Without a TodoSearchService bean (search index disabled)
+ * the listener does nothing.
+ */
+public class TodoSearchListener {
+
+    private final ObjectProvider<TodoSearchService> searchService;
+
+    public TodoSearchListener(ObjectProvider<TodoSearchService> searchService) {
+        this.searchService = searchService;
+    }
+
+    /**
+     * Lifecycle method - runs after a todo is inserted or updated
+     * Updates that leave the title and description unchanged cost nothing in the index
+     */
+    @PostPersist
+    @PostUpdate
+    public void onSave(Todo todo) {
+        Long todoId = todo.getId();
+        String title = todo.getTitle();
+        String description = todo.getDescription();
+        afterCommit(() -> searchService.getObject().index(todoId, title, description));
+    }
+
+    /**
+     * Lifecycle method - runs after a todo is deleted
+     */
+    @PostRemove
+    public void onRemove(Todo todo) {
+        Long todoId = todo.getId();
+        afterCommit(() -> searchService.getObject().remove(todoId));
+    }
+
+    private void afterCommit(Runnable change) {
+        if (searchService.getIfAvailable() == null) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            change.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                change.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,67 @@
+package se.lexicon.g58todoapp.feed;
+
+import se.lexicon.g58todoapp.dto.TodoChangeEvent;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Replay Buffer
+ * The last capacity change events in a ring, so a client that reconnects can get the
+ * events it missed (SSE Last-Event-ID) instead of reloading everything.
+ *
+ * Event ids must be appended in increasing order without gaps.
+ * Not thread-safe: the change feed only uses it while holding its lock.
+ */
+public class ReplayBuffer {
+
+    private final TodoChangeEvent[] events;
+    private long size;
+
+    public ReplayBuffer(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be at least 1");
+        }
+        this.events = new TodoChangeEvent[capacity];
+    }
+
+    public void append(TodoChangeEvent event) {
+        events[(int) (size % events.length)] = event;
+        size++;
+    }
+
+    /**
+     * Id of the newest event, 0 if there is none
+     */
+    public long getLastId() {
+        return size == 0 ? 0 : newest().getId();
+    }
+
+    /**
+     * The events after an event id, oldest first
+     *
+     * @param lastEventId the last event the client has seen
+     * @return the events after it, or null if some of them are no longer kept (or the id
+     *         was never given out, e.g. before a restart) - the client has to reload
+     */
+    public List<TodoChangeEvent> after(long lastEventId) {
+        long lastId = getLastId();
+        if (lastEventId == lastId) {
+            return List.of();
+        }
+        long kept = Math.min(size, events.length);
+        long oldestId = lastId - kept + 1;
+        if (lastEventId > lastId || lastEventId < oldestId - 1) {
+            return null;
+        }
+        List<TodoChangeEvent> missed = new ArrayList<>((int) (lastId - lastEventId));
+        for (long i = size - (lastId - lastEventId); i < size; i++) {
+            missed.add(events[(int) (i % events.length)]);
+        }
+        return missed;
+    }
+
+    private TodoChangeEvent newest() {
+        return events[(int) ((size - 1) % events.length)];
+    }
+}
@@ -0,0 +1,195 @@
+package se.lexicon.g58todoapp.service.impl;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Service;
+import se.lexicon.g58todoapp.dto.EmailDTO;
+import se.lexicon.g58todoapp.service.EmailDispatcher;
+import se.lexicon.g58todoapp.service.EmailService;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Async Email Dispatcher Implementation
+ * A bounded in-memory queue drained by virtual-thread workers that call EmailService.sendEmail
+ *
+ * Configuration (application.properties):
+ * - email.dispatch.queue-capacity   maximum number of queued emails
+ * - email.dispatch.workers          number of worker threads
+ * - email.dispatch.overflow-policy  BLOCK, DROP_OLDEST or REJECT
+ * - email.dispatch.shutdown-timeout how long to keep sending queued emails on shutdown
+ */
+@Service
+public class AsyncEmailDispatcher implements EmailDispatcher, SmartLifecycle {
+
+    // How often idle workers check whether the dispatcher is stopping
+    private static final long POLL_MILLIS = 500;
+
+    private final EmailService emailService;
+    private final BlockingQueue<Task> queue;
+    private final int workerCount;
+    private final OverflowPolicy overflowPolicy;
+    private final Duration shutdownTimeout;
+
+    private final List<Thread> workers = new ArrayList<>();
+    private volatile boolean running;
+
+    public AsyncEmailDispatcher(
+            EmailService emailService,
+            @Value("${email.dispatch.queue-capacity:1000}") int queueCapacity,
+            @Value("${email.dispatch.workers:4}") int workerCount,
+            @Value("${email.dispatch.overflow-policy:BLOCK}") OverflowPolicy overflowPolicy,
+            @Value("${email.dispatch.shutdown-timeout:30s}") Duration shutdownTimeout) {
+        this.emailService = emailService;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.workerCount = workerCount;
+        this.overflowPolicy = overflowPolicy;
+        this.shutdownTimeout = shutdownTimeout;
+    }
+
+    @Override
+    public CompletableFuture<Boolean> dispatch(EmailDTO emailDTO) {
+        Task task = new Task(emailDTO, new CompletableFuture<>());
+        if (!running) {
+            task.reject("Email dispatcher is not running");
+            return task.result();
+        }
+
+        switch (overflowPolicy) {
+            case BLOCK -> {
+                try {
+                    // Waits for room, but gives up once the dispatcher is stopping
+                    while (!queue.offer(task, POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+                        if (!running) {
+                            task.reject("Email dispatcher stopped");
+                            return task.result();
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    task.reject("Interrupted while waiting for room in the email queue");
+                    return task.result();
+                }
+            }
+            case DROP_OLDEST -> {
+                while (!queue.offer(task)) {
+                    Task oldest = queue.poll();
+                    if (oldest != null) {
+                        oldest.reject("Dropped from full email queue");
+                    }
+                }
+            }
+            case REJECT -> {
+                if (!queue.offer(task)) {
+                    task.reject("Email queue is full");
+                }
+            }
+        }
+        // stop() may have failed the queued emails just before this one was added:
+        // take it back and fail it, instead of leaving it in a queue nobody reads
+        if (!running && queue.remove(task)) {
+            task.reject("Email dispatcher stopped");
+        }
+        return task.result();
+    }
+
+    @Override
+    public int getQueueSize() {
+        return queue.size();
+    }
+
+    /**
+     * Start the virtual-thread workers
+     */
+    @Override
+    public void start() {
+        running = true;
+        for (int i = 0; i < workerCount; i++) {
+            workers.add(Thread.ofVirtual().name("email-worker-" + i).start(this::drain));
+        }
+        System.out.println("📮 Email dispatcher started with " + workerCount + " worker(s)");
+    }
+
+    /**
+     * Graceful shutdown: stop accepting emails, keep sending what is queued until the
+     * deadline, then fail whatever is left
+     * An email added while this runs is failed by dispatch itself, once it sees running is false.
+     */
+    @Override
+    public void stop() {
+        running = false;
+        long deadline = System.nanoTime() + shutdownTimeout.toNanos();
+        for (Thread worker : workers) {
+            try {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0 || !worker.join(Duration.ofNanos(remaining))) {
+                    break;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        workers.forEach(Thread::interrupt);
+        workers.clear();
+
+        List<Task> unsent = new ArrayList<>();
+        queue.drainTo(unsent);
+        unsent.forEach(task -> task.reject("Application shut down before the email was sent"));
+        if (!unsent.isEmpty()) {
+            System.err.println("⚠️  " + unsent.size() + " queued email(s) not sent before shutdown");
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Stop after the web server, so requests that are still finishing can queue emails
+     */
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    /**
+     * Worker loop - keeps going while running, and after stop until the queue is empty
+     */
+    private void drain() {
+        while (running || !queue.isEmpty()) {
+            Task task;
+            try {
+                task = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                return;
+            }
+            if (task == null) {
+                continue;
+            }
+            try {
+                task.result().complete(emailService.sendEmail(task.email()));
+            } catch (RuntimeException e) {
+                task.result().completeExceptionally(e);
+            }
+        }
+    }
+
+    /**
+     * A queued email and the future handed to the caller
+     */
+    private record Task(EmailDTO email, CompletableFuture<Boolean> result) {
+
+        void reject(String reason) {
+            result.completeExceptionally(new RejectedExecutionException(reason));
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package se.lexicon.g58todoapp.service.impl;
+
+import jakarta.persistence.EntityNotFoundException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import se.lexicon.g58todoapp.dto.AttachmentDTO;
+import se.lexicon.g58todoapp.dto.AttachmentSummary;
+import se.lexicon.g58todoapp.entity.Attachment;
+import se.lexicon.g58todoapp.entity.Todo;
+import se.lexicon.g58todoapp.repo.AttachmentRepository;
+import se.lexicon.g58todoapp.repo.TodoRepository;
+import se.lexicon.g58todoapp.service.AttachmentService;
+import se.lexicon.g58todoapp.service.AttachmentStorage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Attachment Service Implementation
+ * Keeps the metadata in the attachments table and hands the content
+ * to the configured AttachmentStorage
+ */
+@Service
+public class AttachmentServiceImpl implements AttachmentService {
+
+    private final AttachmentRepository attachmentRepository;
+    private final TodoRepository todoRepository;
+    private final AttachmentStorage attachmentStorage;
+
+    public AttachmentServiceImpl(
+            AttachmentRepository attachmentRepository,
+            TodoRepository todoRepository,
+            AttachmentStorage attachmentStorage) {
+        this.attachmentRepository = attachmentRepository;
+        this.todoRepository = todoRepository;
+        this.attachmentStorage = attachmentStorage;
+    }
+
+    @Override
+    @Transactional
+    public AttachmentDTO upload(Long todoId, String fileName, String fileType,
+                                InputStream content, long contentLength) throws IOException {
+        Todo todo = todoRepository.findById(todoId)
+                .orElseThrow(() -> new EntityNotFoundException("Todo not found: " + todoId));
+
+        Attachment attachment = new Attachment(fileName, fileType, null);
+        attachment.setTodo(todo);
+
+        long size = attachmentStorage.store(attachment, content, contentLength);
+        attachment.setFileSize(size);
+        if (attachment.getId() == null) {
+            // Not saved by the storage yet (the database storage saves it to stream the BLOB)
+            attachmentRepository.save(attachment);
+        }
+
+        return AttachmentDTO.builder()
+                .id(attachment.getId())
+                .fileName(fileName)
+                .fileType(fileType)
+                .size(size)
+                .todoId(todo.getId())
+                .contentHash(attachment.getContentHash())
+                .build();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public AttachmentDTO getAttachment(Long id) {
+        // Metadata only, the content is never loaded here
+        AttachmentDTO attachment = attachmentRepository.findMetadataById(id)
+                .orElseThrow(() -> new EntityNotFoundException("Attachment not found: " + id));
+        if (attachment.getSize() == 0) {
+            // Row stored before the fileSize column existed, ask the storage
+            attachment.setSize(attachmentStorage.contentLength(attachment));
+        }
+
+        return attachment;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<AttachmentSummary> listAttachments(Long todoId) {
+        return attachmentRepository.findSummariesByTodoId(todoId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void writeContent(AttachmentDTO attachment, long offset, long length, OutputStream out) throws IOException {
+        attachmentStorage.writeContent(attachment, offset, length, out);
+    }
+
+    @Override
+    public Optional<Path> localFile(AttachmentDTO attachment) {
+        return attachmentStorage.localFile(attachment);
+    }
+
+    @Override
+    @Transactional
+    public void delete(Long id) {
+        Attachment attachment = attachmentRepository.findById(id)
+                .orElseThrow(() -> new EntityNotFoundException("Attachment not found: " + id));
+        attachmentRepository.delete(attachment);
+    }
+}
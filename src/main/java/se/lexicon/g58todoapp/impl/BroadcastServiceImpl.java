@@ -0,0 +1,164 @@
+package se.lexicon.g58todoapp.service.impl;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import se.lexicon.g58todoapp.dto.BroadcastResult;
+import se.lexicon.g58todoapp.dto.EmailDTO;
+import se.lexicon.g58todoapp.repo.PersonRepository;
+import se.lexicon.g58todoapp.service.BroadcastService;
+import se.lexicon.g58todoapp.service.EmailService;
+import se.lexicon.g58todoapp.template.TemplateEngine;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Broadcast Service Implementation
+ * Every chunk is one email: To is our own from-address, the recipients are in BCC.
+ * Chunks are sent directly with EmailService.sendEmail (not through email.delivery.mode)
+ * on a pool of parallelism threads, so each chunk gets its own SMTP result.
+ *
+ * Configuration (application.properties):
+ * - email.broadcast.max-recipients  recipients the mail server accepts per email, the To address included
+ * - email.broadcast.parallelism     chunks sent at the same time (match email.smtp.pool.max-connections)
+ */
+@Service
+public class BroadcastServiceImpl implements BroadcastService {
+
+    static final String ANNOUNCEMENT_TEMPLATE = "announcement.html";
+
+    private final EmailService emailService;
+    private final TemplateEngine templateEngine;
+    private final PersonRepository personRepository;
+    private final String fromAddress;
+    private final int chunkSize;
+    private final int parallelism;
+
+    public BroadcastServiceImpl(
+            EmailService emailService,
+            TemplateEngine templateEngine,
+            PersonRepository personRepository,
+            @Qualifier("fromAddress") String fromAddress,
+            @Value("${email.broadcast.max-recipients:50}") int maxRecipients,
+            @Value("${email.broadcast.parallelism:4}") int parallelism) {
+        if (maxRecipients < 2) {
+            throw new IllegalArgumentException("email.broadcast.max-recipients must be at least 2");
+        }
+        this.emailService = emailService;
+        this.templateEngine = templateEngine;
+        this.personRepository = personRepository;
+        this.fromAddress = fromAddress;
+        // One recipient of every email is the To address
+        this.chunkSize = maxRecipients - 1;
+        this.parallelism = parallelism;
+    }
+
+    @Override
+    public BroadcastResult announce(List<Long> personIds, String subject, String message) {
+        // Checked before the model is built: Map.of does not take null values
+        requireSubject(subject);
+        if (message == null || message.isBlank()) {
+            throw new IllegalArgumentException("An announcement needs a message");
+        }
+        List<String> recipients = personIds == null || personIds.isEmpty()
+                ? personRepository.findAllEmails()
+                : personRepository.findEmailsByIdIn(personIds);
+
+        return broadcast(recipients, subject, ANNOUNCEMENT_TEMPLATE, Map.of(
+                "subject", subject,
+                "message", message
+        ));
+    }
+
+    @Override
+    public BroadcastResult broadcast(Collection<String> recipients, String subject, String template, Map<String, ?> model) {
+        requireSubject(subject);
+        long start = System.currentTimeMillis();
+
+        Set<String> addresses = new LinkedHashSet<>();
+        for (String recipient : recipients) {
+            if (recipient != null && !recipient.isBlank()) {
+                addresses.add(recipient.trim());
+            }
+        }
+
+        // Rendered once for all recipients
+        String body = templateEngine.render(template, model);
+        boolean html = template.endsWith(".html");
+
+        List<List<String>> chunks = chunk(new ArrayList<>(addresses));
+        List<CompletableFuture<BroadcastResult.Chunk>> results = new ArrayList<>(chunks.size());
+        try (ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(parallelism, chunks.size())))) {
+            for (int i = 0; i < chunks.size(); i++) {
+                int index = i;
+                List<String> chunk = chunks.get(i);
+                results.add(CompletableFuture.supplyAsync(() -> send(index, chunk, subject, body, html), executor));
+            }
+        }
+
+        List<BroadcastResult.Chunk> chunkResults = new ArrayList<>(chunks.size());
+        List<String> failedRecipients = new ArrayList<>();
+        int delivered = 0;
+        for (int i = 0; i < chunks.size(); i++) {
+            BroadcastResult.Chunk result = results.get(i).join();
+            chunkResults.add(result);
+            if (result.isSent()) {
+                delivered += result.getRecipients();
+            } else {
+                failedRecipients.addAll(chunks.get(i));
+            }
+        }
+
+        long elapsed = System.currentTimeMillis() - start;
+        System.out.println("📣 Broadcast \"" + subject + "\" sent to " + delivered + " of " + addresses.size()
+                + " recipient(s) in " + chunks.size() + " email(s) (" + elapsed + " ms)");
+
+        return BroadcastResult.builder()
+                .recipients(addresses.size())
+                .delivered(delivered)
+                .elapsedMillis(elapsed)
+                .chunks(chunkResults)
+                .failedRecipients(failedRecipients)
+                .build();
+    }
+
+    private List<List<String>> chunk(List<String> addresses) {
+        List<List<String>> chunks = new ArrayList<>((addresses.size() + chunkSize - 1) / chunkSize);
+        for (int from = 0; from < addresses.size(); from += chunkSize) {
+            chunks.add(addresses.subList(from, Math.min(from + chunkSize, addresses.size())));
+        }
+        return chunks;
+    }
+
+    private BroadcastResult.Chunk send(int index, List<String> bcc, String subject, String body, boolean html) {
+        long start = System.currentTimeMillis();
+        boolean sent;
+        try {
+            sent = emailService.sendEmail(EmailDTO.builder()
+                    .to(fromAddress)
+                    .bcc(bcc)
+                    .subject(subject)
+                    .body(body)
+                    .html(html)
+                    .build());
+        } catch (RuntimeException e) {
+            System.err.println("❌ Broadcast chunk " + index + " failed: " + e.getMessage());
+            sent = false;
+        }
+        return new BroadcastResult.Chunk(index, bcc.size(), sent, System.currentTimeMillis() - start);
+    }
+
+    private static void requireSubject(String subject) {
+        if (subject == null || subject.isBlank()) {
+            throw new IllegalArgumentException("A broadcast needs a subject");
+        }
+    }
+}
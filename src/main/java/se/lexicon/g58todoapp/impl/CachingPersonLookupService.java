@@ -0,0 +1,253 @@
+package se.lexicon.g58todoapp.service.impl;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import se.lexicon.g58todoapp.cache.BloomFilter;
+import se.lexicon.g58todoapp.cache.LruCache;
+import se.lexicon.g58todoapp.dto.PersonCacheStats;
+import se.lexicon.g58todoapp.entity.Person;
+import se.lexicon.g58todoapp.repo.PersonRepository;
+import se.lexicon.g58todoapp.service.PersonLookupService;
+
+import java.text.Normalizer;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Caching Person Lookup Service
+ * Keeps recently used persons in two LruCaches (by email and by id). "Not found" answers
+ * are cached too, with a shorter time to live. A third one maps each cached person's id to
+ * its email key, so an eviction finds the entry under the old email without a scan.
+ *
+ * Every registered email is also in a BloomFilter, so existsByEmail / findByEmail for an
+ * address that was never registered is answered without the database. The filter is loaded
+ * on startup and rebuilt every rebuild-interval (to forget deleted emails and grow with the
+ * table). Until it is loaded, all email lookups go to the database.
+ *
+ * The email cache and the filter are keyed by the email lower-cased and without accents, like
+ * MySQL's default collation (utf8mb4_0900_ai_ci) compares it, so the filter never answers
+ * "not found" for an email that the database would match.
+ *
+ * A lookup that loaded a person just before it was changed could put the old version back
+ * into the cache after the eviction. Every eviction bumps a counter, and a lookup that sees
+ * the counter change while it was loading removes what it cached. An email entry is only used
+ * while the id's email key still points at it, so it is never served after its person was
+ * evicted, even if the id's entry had already been dropped when the eviction ran.
+ *
+ * Configuration (application.properties):
+ * - person.cache.max-size                     entries per cache (by email, by id)
+ * - person.cache.ttl                          how long a found person is cached
+ * - person.cache.negative-ttl                 how long a "not found" is cached
+ * - person.cache.filter.expected-emails       Bloom filter size (grows with the table on rebuild)
+ * - person.cache.filter.false-positive-rate   share of unknown emails that still go to the database
+ * - person.cache.filter.rebuild-interval
+ */
+@Service
+public class CachingPersonLookupService implements PersonLookupService {
+
+    private final PersonRepository personRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final long ttlNanos;
+    private final long negativeTtlNanos;
+    private final long expectedEmails;
+    private final double falsePositiveRate;
+
+    private final LruCache<String, Optional<Person>> byEmail;
+    private final LruCache<Long, Optional<Person>> byId;
+    // Person id -> key of its entry in byEmail
+    private final LruCache<Long, String> emailKeys;
+    private final AtomicLong evictionCount = new AtomicLong();
+    private final LongAdder negativeHits = new LongAdder();
+    private final LongAdder filterRejections = new LongAdder();
+
+    private volatile BloomFilter emailFilter;   // null until loaded
+    private volatile BloomFilter loadingFilter; // Gets new emails too while a rebuild runs
+
+    public CachingPersonLookupService(
+            PersonRepository personRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${person.cache.max-size:10000}") int maxSize,
+            @Value("${person.cache.ttl:10m}") Duration ttl,
+            @Value("${person.cache.negative-ttl:30s}") Duration negativeTtl,
+            @Value("${person.cache.filter.expected-emails:100000}") long expectedEmails,
+            @Value("${person.cache.filter.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.personRepository = personRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.ttlNanos = ttl.toNanos();
+        this.negativeTtlNanos = negativeTtl.toNanos();
+        this.expectedEmails = expectedEmails;
+        this.falsePositiveRate = falsePositiveRate;
+        this.byEmail = new LruCache<>(maxSize);
+        this.byId = new LruCache<>(maxSize);
+        this.emailKeys = new LruCache<>(maxSize);
+    }
+
+    @Override
+    public Optional<Person> findByEmail(String email) {
+        if (email == null) {
+            return Optional.empty();
+        }
+        String key = normalize(email);
+        Optional<Person> cached = byEmail.get(key);
+        if (cached != null && isCurrent(key, cached)) {
+            return copy(cached);
+        }
+        if (!mightBeRegistered(key)) {
+            filterRejections.increment();
+            return Optional.empty();
+        }
+        return load(byEmail, key, () -> personRepository.findByEmail(email));
+    }
+
+    @Override
+    public Optional<Person> findById(Long id) {
+        if (id == null) {
+            return Optional.empty();
+        }
+        Optional<Person> cached = byId.get(id);
+        if (cached != null) {
+            return copy(cached);
+        }
+        return load(byId, id, () -> personRepository.findById(id));
+    }
+
+    @Override
+    public boolean existsByEmail(String email) {
+        // Same single-row query as existsBy, and the person is cached for the next lookup
+        return findByEmail(email).isPresent();
+    }
+
+    @Override
+    public void evict(Long personId, String email) {
+        evictionCount.incrementAndGet();
+        if (personId != null) {
+            byId.remove(personId);
+            // The email may have changed, so also drop the entry under the old email
+            String oldKey = emailKeys.get(personId);
+            if (oldKey != null) {
+                byEmail.remove(oldKey);
+            }
+            emailKeys.remove(personId);
+        }
+        if (email != null) {
+            String key = normalize(email);
+            byEmail.remove(key);
+            addToFilter(key);
+        }
+    }
+
+    @Override
+    @Scheduled(initialDelay = 0, fixedDelayString = "${person.cache.filter.rebuild-interval:6h}")
+    public void rebuildEmailFilter() {
+        long start = System.nanoTime();
+        long persons = personRepository.count();
+        BloomFilter fresh = new BloomFilter(Math.max(expectedEmails, persons * 2), falsePositiveRate);
+        loadingFilter = fresh;
+        try {
+            readOnlyTransaction.executeWithoutResult(status -> {
+                try (Stream<String> emails = personRepository.streamAllEmails()) {
+                    emails.forEach(email -> fresh.put(normalize(email)));
+                }
+            });
+            emailFilter = fresh;
+        } finally {
+            loadingFilter = null;
+        }
+        System.out.println("📇 Loaded " + persons + " email(s) into the person lookup filter ("
+                + fresh.sizeInBytes() / 1024 + " KB) in " + Duration.ofNanos(System.nanoTime() - start).toMillis() + " ms");
+    }
+
+    @Override
+    public PersonCacheStats getStats() {
+        BloomFilter filter = emailFilter;
+        return PersonCacheStats.builder()
+                .hits(byEmail.getHits() + byId.getHits())
+                .negativeHits(negativeHits.sum())
+                .misses(byEmail.getMisses() + byId.getMisses())
+                .filterRejections(filterRejections.sum())
+                .evictions(byEmail.getEvictions() + byId.getEvictions())
+                .expirations(byEmail.getExpirations() + byId.getExpirations())
+                .entries(byEmail.size() + byId.size())
+                .filterBytes(filter != null ? filter.sizeInBytes() : 0)
+                .build();
+    }
+
+    /**
+     * Query the database and cache the result
+     * A found person is cached under its id and email key; a "not found" only under the key looked up with
+     */
+    private <K> Optional<Person> load(LruCache<K, Optional<Person>> cache, K key, Supplier<Optional<Person>> query) {
+        long evictionsBefore = evictionCount.get();
+        Optional<Person> person = query.get().map(Person::detachedCopy);
+        person.ifPresentOrElse(found -> {
+            String emailKey = normalize(found.getEmail());
+            emailKeys.put(found.getId(), emailKey, ttlNanos);
+            byEmail.put(emailKey, person, ttlNanos);
+            byId.put(found.getId(), person, ttlNanos);
+        }, () -> cache.put(key, person, negativeTtlNanos));
+
+        if (evictionCount.get() != evictionsBefore) {
+            // Changed while loading: what was loaded may be outdated
+            cache.remove(key);
+            person.ifPresent(found -> {
+                byEmail.remove(normalize(found.getEmail()));
+                byId.remove(found.getId());
+                emailKeys.remove(found.getId());
+            });
+        }
+        return person.map(Person::detachedCopy);
+    }
+
+    /**
+     * Copy of a cached value
+     */
+    private Optional<Person> copy(Optional<Person> cached) {
+        if (cached.isEmpty()) {
+            negativeHits.increment();
+        }
+        return cached.map(Person::detachedCopy);
+    }
+
+    /**
+     * false if a cached person is no longer the one its id's email key points at
+     * (evicted, or cached again under another email)
+     */
+    private boolean isCurrent(String key, Optional<Person> cached) {
+        return cached.isEmpty() || key.equals(emailKeys.get(cached.get().getId()));
+    }
+
+    private boolean mightBeRegistered(String key) {
+        BloomFilter filter = emailFilter;
+        return filter == null || filter.mightContain(key);
+    }
+
+    private void addToFilter(String key) {
+        // Loading filter first: if it is already gone, emailFilter is the new one
+        BloomFilter loading = loadingFilter;
+        if (loading != null) {
+            loading.put(key);
+        }
+        BloomFilter filter = emailFilter;
+        if (filter != null) {
+            filter.put(key);
+        }
+    }
+
+    /**
+     * Lower-case without accents, e.g. "José@Example.com" -> "jose@example.com"
+     */
+    private static String normalize(String email) {
+        return Normalizer.normalize(email, Normalizer.Form.NFD)
+                .replaceAll("\\p{M}", "")
+                .toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,25 @@
+package se.lexicon.g58todoapp.service.impl;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Helper for the SHA-256 content hash used by the attachment storages
+ */
+final class ContentHashing {
+
+    private ContentHashing() {
+    }
+
+    /**
+     * Create a new SHA-256 digest
+     * SHA-256 is always available in the JDK, so the exception cannot happen
+     */
+    static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
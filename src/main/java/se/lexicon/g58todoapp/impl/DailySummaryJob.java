@@ -0,0 +1,229 @@
+package se.lexicon.g58todoapp.service.impl;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import se.lexicon.g58todoapp.entity.JobCheckpoint;
+import se.lexicon.g58todoapp.entity.Person;
+import se.lexicon.g58todoapp.entity.Todo;
+import se.lexicon.g58todoapp.repo.JobCheckpointRepository;
+import se.lexicon.g58todoapp.service.TodoNotificationService;
+import se.lexicon.g58todoapp.service.TodoStreamService;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Daily Summary Job
+ * Sends every person a summary of their pending todos.
+ *
+ * - All pending todos are streamed in ONE query, ordered by assignee, and grouped on the fly
+ *   (instead of one findByAssignedTo query per person)
+ * - Each person's group is rendered and sent on a pool of parallelism threads
+ * - Only the values the summary shows are kept per row, the streamed entities are not
+ * - Progress is checkpointed after every window of persons: a crashed run resumes after the
+ *   last fully processed window instead of mailing everyone again. At most one window is re-sent.
+ * - The checkpoint only moves past persons whose summary was accepted. After a failure the run
+ *   is not completed, and the retry schedule resumes it from the first failed person (persons
+ *   after it in the same run get their summary again).
+ *
+ * The job is meant to run on one node at a time.
+ *
+ * Configuration (application.properties):
+ * - summary.daily.enabled     set to false to disable the schedule
+ * - summary.daily.cron        when to run
+ * - summary.daily.retry-cron  when to resume a run of today that had failures
+ * - summary.daily.parallelism number of persons rendered and sent at the same time
+ * - summary.daily.window      persons per checkpoint
+ */
+@Component
+@ConditionalOnProperty(name = "summary.daily.enabled", havingValue = "true", matchIfMissing = true)
+public class DailySummaryJob {
+
+    static final String JOB_NAME = "daily-summary";
+
+    private final TodoStreamService todoStreamService;
+    private final TodoNotificationService notificationService;
+    private final JobCheckpointRepository checkpointRepository;
+    private final TransactionTemplate checkpointTransaction;
+    private final int parallelism;
+    private final int window;
+
+    public DailySummaryJob(
+            TodoStreamService todoStreamService,
+            TodoNotificationService notificationService,
+            JobCheckpointRepository checkpointRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${summary.daily.parallelism:4}") int parallelism,
+            @Value("${summary.daily.window:100}") int window) {
+        this.todoStreamService = todoStreamService;
+        this.notificationService = notificationService;
+        this.checkpointRepository = checkpointRepository;
+        // Checkpoints are written while the todo stream is open, so they need their own transaction
+        this.checkpointTransaction = new TransactionTemplate(transactionManager);
+        this.checkpointTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.parallelism = parallelism;
+        this.window = window;
+    }
+
+    /**
+     * Scheduled entry point
+     */
+    @Scheduled(cron = "${summary.daily.cron:0 0 7 * * *}")
+    public void runToday() {
+        run(LocalDate.now());
+    }
+
+    /**
+     * Scheduled retry - resumes today's run if it did not complete
+     */
+    @Scheduled(cron = "${summary.daily.retry-cron:0 0 8-20 * * *}")
+    public void retryToday() {
+        LocalDate today = LocalDate.now();
+        boolean unfinished = checkpointRepository.findById(JOB_NAME)
+                .filter(checkpoint -> today.equals(checkpoint.getRunDate()) && !checkpoint.isCompleted())
+                .isPresent();
+        if (unfinished) {
+            run(today);
+        }
+    }
+
+    /**
+     * Send the summaries for a day, resuming a run for the same day that did not finish
+     *
+     * @param day the day the summaries are for
+     * @return number of persons processed by this call (0 if the day was already done)
+     */
+    public int run(LocalDate day) {
+        JobCheckpoint checkpoint = checkpointRepository.findById(JOB_NAME)
+                .orElseGet(() -> new JobCheckpoint(JOB_NAME, day));
+        if (!day.equals(checkpoint.getRunDate())) {
+            checkpoint.restart(day);
+        } else if (checkpoint.isCompleted()) {
+            System.out.println("📋 Daily summary for " + day + " already sent");
+            return 0;
+        }
+        if (checkpoint.getLastPersonId() > 0) {
+            System.out.println("📋 Resuming daily summary for " + day + " after person " + checkpoint.getLastPersonId());
+        }
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(parallelism)) {
+            Run run = new Run(checkpoint, executor);
+            todoStreamService.forEach(
+                    repository -> repository.streamPendingGroupedByAssignee(checkpoint.getLastPersonId()),
+                    run::accept);
+            run.finish();
+
+            System.out.println("📋 Daily summary for " + day + " sent to " + run.persons + " person(s), "
+                    + run.failures.get() + " failure(s)");
+            return run.persons;
+        }
+    }
+
+    private void saveCheckpoint(JobCheckpoint checkpoint) {
+        checkpointTransaction.executeWithoutResult(status -> checkpointRepository.save(checkpoint));
+    }
+
+    /**
+     * State of one run: groups streamed rows per person and sends them window by window
+     */
+    private final class Run {
+
+        private final JobCheckpoint checkpoint;
+        private final ExecutorService executor;
+        // Futures of the window's persons, in person id order
+        private final List<CompletableFuture<Boolean>> inFlight = new ArrayList<>();
+        private final List<Long> inFlightPersonIds = new ArrayList<>();
+        private final AtomicInteger failures = new AtomicInteger();
+
+        private Person person;
+        private List<Todo> todos = new ArrayList<>();
+        // Set at the first failed person, the checkpoint does not move past it
+        private boolean failed;
+        private int persons;
+
+        Run(JobCheckpoint checkpoint, ExecutorService executor) {
+            this.checkpoint = checkpoint;
+            this.executor = executor;
+        }
+
+        void accept(Todo todo) {
+            Person assignee = todo.getAssignedTo();
+            if (person != null && !person.getId().equals(assignee.getId())) {
+                submitGroup();
+            }
+            person = assignee;
+            todos.add(summaryRow(todo));
+        }
+
+        void finish() {
+            if (person != null) {
+                submitGroup();
+            }
+            completeWindow();
+            checkpoint.setCompleted(!failed);
+            saveCheckpoint(checkpoint);
+        }
+
+        private void submitGroup() {
+            Person recipient = person;
+            List<Todo> group = todos;
+            inFlight.add(CompletableFuture.supplyAsync(() -> send(recipient, group), executor));
+            inFlightPersonIds.add(recipient.getId());
+            persons++;
+            person = null;
+            todos = new ArrayList<>();
+
+            if (inFlight.size() >= window) {
+                completeWindow();
+                saveCheckpoint(checkpoint);
+            }
+        }
+
+        /**
+         * Wait until every person of the window is done and move the checkpoint past
+         * the ones that were accepted, up to the first failure
+         */
+        private void completeWindow() {
+            for (int i = 0; i < inFlight.size(); i++) {
+                boolean accepted = inFlight.get(i).join();
+                if (!accepted) {
+                    failed = true;
+                } else if (!failed && inFlightPersonIds.get(i) > checkpoint.getLastPersonId()) {
+                    checkpoint.setLastPersonId(inFlightPersonIds.get(i));
+                }
+            }
+            inFlight.clear();
+            inFlightPersonIds.clear();
+        }
+
+        private boolean send(Person recipient, List<Todo> group) {
+            try {
+                if (notificationService.sendDailySummary(recipient, group)) {
+                    return true;
+                }
+            } catch (RuntimeException e) {
+                System.err.println("❌ Daily summary for " + recipient.getEmail() + " failed: " + e.getMessage());
+            }
+            failures.incrementAndGet();
+            return false;
+        }
+    }
+
+    /**
+     * Copy of the values the summary shows, without the streamed entity's
+     * assignee, attachments or persistence state
+     */
+    private static Todo summaryRow(Todo todo) {
+        return new Todo(todo.getTitle(), todo.getDescription(), Boolean.TRUE.equals(todo.getCompleted()), todo.getDueDate());
+    }
+}
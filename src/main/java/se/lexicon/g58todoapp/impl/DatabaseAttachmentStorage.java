@@ -0,0 +1,115 @@
+package se.lexicon.g58todoapp.service.impl;
+
+import org.hibernate.engine.jdbc.BlobProxy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import se.lexicon.g58todoapp.dto.AttachmentDTO;
+import se.lexicon.g58todoapp.entity.Attachment;
+import se.lexicon.g58todoapp.repo.AttachmentRepository;
+import se.lexicon.g58todoapp.service.AttachmentStorage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.util.HexFormat;
+import java.util.Optional;
+
+/**
+ * Database Attachment Storage
+ * Keeps the content in the attachments.data BLOB column (the default storage)
+ * Uploads are handed to the JDBC driver as a stream (Hibernate BlobProxy)
+ * Downloads are read from the database in fixed size chunks
+ */
+@Service
+@ConditionalOnProperty(name = "attachment.storage.type", havingValue = "database", matchIfMissing = true)
+public class DatabaseAttachmentStorage implements AttachmentStorage {
+
+    private final AttachmentRepository attachmentRepository;
+
+    // Maximum number of bytes read from the database per query when downloading
+    private final int chunkSize;
+
+    public DatabaseAttachmentStorage(
+            AttachmentRepository attachmentRepository,
+            @Value("${attachment.download.chunk-size:1048576}") int chunkSize) {
+        this.attachmentRepository = attachmentRepository;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Insert the row and flush right away, so the stream is consumed while it is still open
+     * When the length is unknown (chunked upload) the body is first spooled to a temp file,
+     * because the driver needs the length up front to stream the BLOB
+     */
+    @Override
+    public long store(Attachment attachment, InputStream content, long contentLength) throws IOException {
+        if (contentLength >= 0) {
+            return insert(attachment, content, contentLength);
+        }
+
+        Path spool = Files.createTempFile("attachment-", ".upload");
+        try {
+            long size = Files.copy(content, spool, StandardCopyOption.REPLACE_EXISTING);
+            try (InputStream in = Files.newInputStream(spool)) {
+                return insert(attachment, in, size);
+            }
+        } finally {
+            Files.deleteIfExists(spool);
+        }
+    }
+
+    private long insert(Attachment attachment, InputStream content, long size) {
+        // The hash is computed while the driver reads the stream
+        DigestInputStream digestStream = new DigestInputStream(content, ContentHashing.newDigest());
+        attachment.setData(BlobProxy.generateProxy(digestStream, size));
+        attachmentRepository.saveAndFlush(attachment);
+
+        attachment.setContentHash(HexFormat.of().formatHex(digestStream.getMessageDigest().digest()));
+        return size;
+    }
+
+    @Override
+    public long contentLength(AttachmentDTO attachment) {
+        Long size = attachmentRepository.findContentLengthById(attachment.getId());
+        return size != null ? size : 0;
+    }
+
+    /**
+     * Copy the requested range chunk by chunk
+     * Only one chunk (at most chunkSize bytes) is held in memory at any time
+     */
+    @Override
+    public void writeContent(AttachmentDTO attachment, long offset, long length, OutputStream out) throws IOException {
+        long position = offset + 1; // SQL SUBSTRING is 1-based
+        long remaining = length;
+
+        while (remaining > 0) {
+            int len = (int) Math.min(chunkSize, remaining);
+            byte[] chunk = attachmentRepository.readContentChunk(attachment.getId(), position, len);
+            if (chunk == null || chunk.length == 0) {
+                break; // End of the file reached earlier than expected
+            }
+            out.write(chunk);
+            position += chunk.length;
+            remaining -= chunk.length;
+        }
+        out.flush();
+    }
+
+    @Override
+    public Optional<Path> localFile(AttachmentDTO attachment) {
+        return Optional.empty();
+    }
+
+    /**
+     * Nothing to do, the content is deleted together with the attachment row
+     */
+    @Override
+    public void release(String contentHash) {
+    }
+}
@@ -1,19 +1,34 @@
 package se.lexicon.g58todoapp.service.impl;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.mail.MessagingException;
 import jakarta.mail.internet.MimeMessage;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.mail.MailSendException;
 import org.springframework.mail.SimpleMailMessage;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
 import se.lexicon.g58todoapp.dto.EmailDTO;
+import se.lexicon.g58todoapp.jfr.EmailSendEvent;
 import se.lexicon.g58todoapp.service.EmailService;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
 /**
  * Email Service Implementation
  * Uses Spring's JavaMailSender to send emails
  * Works with both real SMTP servers and test servers
+ *
+ * Every send is timed by the email.send timer (building the message and the SMTP exchange),
+ * tagged with type (plain, html, batch), outcome (success, failure) and the exception of failures.
+ * sendEmail also emits an EmailSendEvent for JDK Flight Recorder (see config/FlightRecording).
  */
 @Service
 public class EmailServiceImpl implements EmailService {
@@ -23,6 +38,13 @@ public class EmailServiceImpl implements EmailService {
     private final String fromAddress;
     private final String fromName;
 
+    // Metrics: success timers are created once, failure timers when an exception type first occurs
+    private static final String SEND_METRIC = "email.send";
+    private final MeterRegistry meterRegistry;
+    private final Timer plainSent;
+    private final Timer htmlSent;
+    private final Timer batchSent;
+
     /**
      * Constructor injection
      * Spring automatically provides these beans
@@ -30,10 +52,15 @@ public class EmailServiceImpl implements EmailService {
     public EmailServiceImpl(
             JavaMailSender mailSender,
             @Qualifier("fromAddress") String fromAddress,
-            @Qualifier("fromName") String fromName) {
+            @Qualifier("fromName") String fromName,
+            MeterRegistry meterRegistry) {
         this.mailSender = mailSender;
         this.fromAddress = fromAddress;
         this.fromName = fromName;
+        this.meterRegistry = meterRegistry;
+        this.plainSent = sendTimer("plain", "success", "none");
+        this.htmlSent = sendTimer("html", "success", "none");
+        this.batchSent = sendTimer("batch", "success", "none");
     }
 
     /**
@@ -42,6 +69,7 @@ public class EmailServiceImpl implements EmailService {
      */
     @Override
     public boolean sendSimpleEmail(String to, String subject, String body) {
+        long start = System.nanoTime();
         try {
             // SimpleMailMessage is for plain text emails only
             SimpleMailMessage message = new SimpleMailMessage();
@@ -54,6 +82,7 @@ public class EmailServiceImpl implements EmailService {
 
             // Send the email
             mailSender.send(message);
+            plainSent.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
 
             // Log success
             System.out.println("✅ Simple email sent successfully!");
@@ -63,6 +92,7 @@ public class EmailServiceImpl implements EmailService {
             return true;
 
         } catch (Exception e) {
+            recordFailure("plain", start, e);
             // Log error
             System.err.println("❌ Failed to send simple email: " + e.getMessage());
             e.printStackTrace();
@@ -94,38 +124,18 @@ public class EmailServiceImpl implements EmailService {
      */
     @Override
     public boolean sendEmail(EmailDTO emailDTO) {
+        String type = emailDTO.isHtml() ? "html" : "plain";
+        EmailSendEvent event = new EmailSendEvent();
+        event.begin();
+        long start = System.nanoTime();
+        MimeMessage message = null;
+        String outcome = "success";
         try {
-            // MimeMessage is for HTML emails and advanced features
-            MimeMessage message = mailSender.createMimeMessage();
-
-            // MimeMessageHelper makes it easier to set email properties
-            // 'true' parameter enables multipart mode (needed for HTML)
-            MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
-
-            // Set sender information
-            helper.setFrom(fromAddress, fromName);
-
-            // Set recipient
-            helper.setTo(emailDTO.getTo());
-
-            // Set subject
-            helper.setSubject(emailDTO.getSubject());
-
-            // Set body content (text or HTML)
-            helper.setText(emailDTO.getBody(), emailDTO.isHtml());
-
-            // Add CC recipients if provided
-            if (emailDTO.getCc() != null && !emailDTO.getCc().isEmpty()) {
-                helper.setCc(emailDTO.getCc().toArray(new String[0]));
-            }
-
-            // Add BCC recipients if provided
-            if (emailDTO.getBcc() != null && !emailDTO.getBcc().isEmpty()) {
-                helper.setBcc(emailDTO.getBcc().toArray(new String[0]));
-            }
+            message = createMimeMessage(emailDTO);
 
             // Send the email
             mailSender.send(message);
+            (emailDTO.isHtml() ? htmlSent : plainSent).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
 
             // Log success
             System.out.println("✅ Email sent successfully!");
@@ -136,14 +146,146 @@ public class EmailServiceImpl implements EmailService {
             return true;
 
         } catch (MessagingException e) {
+            recordFailure(type, start, e);
+            outcome = e.getClass().getSimpleName();
             // Log error
             System.err.println("❌ Failed to send email: " + e.getMessage());
             e.printStackTrace();
             return false;
         } catch (Exception e) {
+            recordFailure(type, start, e);
+            outcome = e.getClass().getSimpleName();
             System.err.println("❌ Unexpected error: " + e.getMessage());
             e.printStackTrace();
             return false;
+        } finally {
+            event.end();
+            // Only measure the message when the event is recorded (no flight recording, no cost)
+            if (event.shouldCommit()) {
+                event.recipientCount = recipientCount(emailDTO);
+                event.messageSize = message != null ? messageSize(message) : -1;
+                event.html = emailDTO.isHtml();
+                event.outcome = outcome;
+                event.commit();
+            }
+        }
+    }
+
+    /**
+     * Send many emails in one go
+     * All messages are handed to the mail sender in one call, so they share SMTP connections
+     */
+    @Override
+    public int sendBatch(List<EmailDTO> emails) {
+        List<MimeMessage> messages = new ArrayList<>(emails.size());
+        for (EmailDTO emailDTO : emails) {
+            try {
+                messages.add(createMimeMessage(emailDTO));
+            } catch (Exception e) {
+                System.err.println("❌ Failed to create email to " + emailDTO.getTo() + ": " + e.getMessage());
+            }
+        }
+
+        int failed = 0;
+        long start = System.nanoTime();
+        try {
+            mailSender.send(messages.toArray(new MimeMessage[0]));
+            batchSent.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        } catch (MailSendException e) {
+            recordFailure("batch", start, e);
+            failed = e.getFailedMessages().isEmpty() ? messages.size() : e.getFailedMessages().size();
+            System.err.println("❌ Failed to send " + failed + " email(s) of batch: " + e.getMessage());
+        } catch (Exception e) {
+            recordFailure("batch", start, e);
+            failed = messages.size();
+            System.err.println("❌ Unexpected error: " + e.getMessage());
+        }
+
+        int sent = messages.size() - failed;
+        System.out.println("✅ Email batch sent: " + sent + " of " + emails.size());
+        return sent;
+    }
+
+    private Timer sendTimer(String type, String outcome, String exception) {
+        return Timer.builder(SEND_METRIC)
+                .description("Time to build and send emails over SMTP")
+                .tags("type", type, "outcome", outcome, "exception", exception)
+                .register(meterRegistry);
+    }
+
+    private void recordFailure(String type, long startNanos, Exception e) {
+        sendTimer(type, "failure", e.getClass().getSimpleName())
+                .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private static int recipientCount(EmailDTO emailDTO) {
+        return 1
+                + (emailDTO.getCc() != null ? emailDTO.getCc().size() : 0)
+                + (emailDTO.getBcc() != null ? emailDTO.getBcc().size() : 0);
+    }
+
+    /**
+     * Size of the encoded message, by encoding it once more into a counting stream
+     */
+    private static long messageSize(MimeMessage message) {
+        CountingOutputStream out = new CountingOutputStream();
+        try {
+            message.writeTo(out);
+            return out.count;
+        } catch (MessagingException | IOException e) {
+            return -1;
+        }
+    }
+
+    private static class CountingOutputStream extends OutputStream {
+
+        long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Build a MimeMessage from an EmailDTO
+     */
+    private MimeMessage createMimeMessage(EmailDTO emailDTO)
+            throws MessagingException, UnsupportedEncodingException {
+        // MimeMessage is for HTML emails and advanced features
+        MimeMessage message = mailSender.createMimeMessage();
+
+        // MimeMessageHelper makes it easier to set email properties
+        // 'true' parameter enables multipart mode (needed for HTML)
+        MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
+
+        // Set sender information
+        helper.setFrom(fromAddress, fromName);
+
+        // Set recipient
+        helper.setTo(emailDTO.getTo());
+
+        // Set subject
+        helper.setSubject(emailDTO.getSubject());
+
+        // Set body content (text or HTML)
+        helper.setText(emailDTO.getBody(), emailDTO.isHtml());
+
+        // Add CC recipients if provided
+        if (emailDTO.getCc() != null && !emailDTO.getCc().isEmpty()) {
+            helper.setCc(emailDTO.getCc().toArray(new String[0]));
+        }
+
+        // Add BCC recipients if provided
+        if (emailDTO.getBcc() != null && !emailDTO.getBcc().isEmpty()) {
+            helper.setBcc(emailDTO.getBcc().toArray(new String[0]));
+        }
+
+        return message;
+    }
+}
@@ -0,0 +1,225 @@
+package se.lexicon.g58todoapp.service.impl;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import se.lexicon.g58todoapp.dto.AttachmentDTO;
+import se.lexicon.g58todoapp.entity.Attachment;
+import se.lexicon.g58todoapp.entity.AttachmentContent;
+import se.lexicon.g58todoapp.repo.AttachmentContentRepository;
+import se.lexicon.g58todoapp.service.AttachmentStorage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.util.HexFormat;
+import java.util.Optional;
+
+/**
+ * File System Attachment Storage
+ * Content-addressed storage: every file body is written once to
+ * {root}/{hash[0..2]}/{hash[2..4]}/{hash}, where hash is the SHA-256 of the content.
+ *
+ * Identical uploads share one file. The attachment_contents table counts the
+ * references, and the file is deleted when the last attachment using it is removed.
+ * The attachment row only keeps the metadata and the content hash.
+ *
+ * A content row is inserted (with no references) in its own transaction before it is
+ * locked, so concurrent first uploads of the same content wait for each other on the
+ * row lock instead of failing on the primary key.
+ *
+ * Files are only moved into place or deleted while the content row is locked. An upload
+ * that finds no references always moves its own file, and a file is only deleted (after
+ * a release or a rolled back upload) if its row still has no references.
+ *
+ * Enable with attachment.storage.type=filesystem
+ */
+@Service
+@ConditionalOnProperty(name = "attachment.storage.type", havingValue = "filesystem")
+public class FileSystemAttachmentStorage implements AttachmentStorage {
+
+    private final AttachmentContentRepository contentRepository;
+    private final TransactionTemplate separateTransaction;
+    private final Path root;
+    private final Path incoming;
+
+    public FileSystemAttachmentStorage(
+            AttachmentContentRepository contentRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${attachment.storage.filesystem.root:./data/attachments}") String root) throws IOException {
+        this.contentRepository = contentRepository;
+        // For the insert (a failure must not roll back the upload) and the cleanup after completion
+        this.separateTransaction = new TransactionTemplate(transactionManager);
+        this.separateTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.root = Paths.get(root).toAbsolutePath().normalize();
+        // Uploads are written here first, then moved into place once the hash is known
+        this.incoming = Files.createDirectories(this.root.resolve("incoming"));
+    }
+
+    /**
+     * Stream the upload to a temp file while hashing it, then either
+     * move it into place (new content) or drop it (content already stored)
+     */
+    @Override
+    @Transactional
+    public long store(Attachment attachment, InputStream content, long contentLength) throws IOException {
+        Path temp = Files.createTempFile(incoming, "upload-", ".tmp");
+        try {
+            DigestInputStream digestStream = new DigestInputStream(content, ContentHashing.newDigest());
+            long size = Files.copy(digestStream, temp, StandardCopyOption.REPLACE_EXISTING);
+            String hash = HexFormat.of().formatHex(digestStream.getMessageDigest().digest());
+
+            AttachmentContent stored = contentRepository.findForUpdate(hash).orElse(null);
+            if (stored == null) {
+                insertIfAbsent(hash, size);
+                stored = contentRepository.findForUpdate(hash).orElseThrow();
+            }
+            Path target = pathOf(hash);
+            if (stored.getRefCount() == 0 || !Files.exists(target)) {
+                // Unreferenced: a file left there is about to be deleted, so always use our own
+                Files.createDirectories(target.getParent());
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                deleteOnRollback(hash);
+            }
+            stored.setRefCount(stored.getRefCount() + 1);
+
+            attachment.setData(null);
+            attachment.setContentHash(hash);
+            return size;
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Make sure the content row exists, so findForUpdate has a row to lock
+     */
+    private void insertIfAbsent(String hash, long size) {
+        try {
+            separateTransaction.executeWithoutResult(status -> contentRepository.insertUnreferenced(hash, size));
+        } catch (DataIntegrityViolationException e) {
+            // Inserted by a concurrent upload of the same content
+        }
+    }
+
+    /**
+     * Remove a file moved into place by a transaction that is rolled back,
+     * unless a concurrent upload of the same content has referenced it meanwhile
+     */
+    private void deleteOnRollback(String hash) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_ROLLED_BACK) {
+                    deleteIfUnreferenced(hash);
+                }
+            }
+        });
+    }
+
+    /**
+     * Delete the content row and its file if nothing references it
+     * The file is deleted while the row is locked, so an upload of the same content either
+     * ran before (and referenced it) or waits and then moves its own file into place.
+     */
+    private void deleteIfUnreferenced(String hash) {
+        try {
+            separateTransaction.executeWithoutResult(status -> contentRepository.findForUpdate(hash)
+                    .filter(stored -> stored.getRefCount() == 0)
+                    .ifPresent(stored -> {
+                        try {
+                            Files.deleteIfExists(pathOf(hash));
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                        contentRepository.delete(stored);
+                    }));
+        } catch (RuntimeException e) {
+            System.err.println("⚠️  Could not delete attachment file " + hash + ": " + e.getMessage());
+        }
+    }
+
+    @Override
+    public long contentLength(AttachmentDTO attachment) {
+        try {
+            return Files.size(pathOf(attachment.getContentHash()));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Attachment content missing: " + attachment.getId(), e);
+        }
+    }
+
+    /**
+     * Copy the range with FileChannel.transferTo
+     * The kernel moves the bytes when the target allows it, otherwise the JDK
+     * uses a small fixed size buffer - the file is never loaded as a whole
+     */
+    @Override
+    public void writeContent(AttachmentDTO attachment, long offset, long length, OutputStream out) throws IOException {
+        WritableByteChannel target = Channels.newChannel(out);
+        try (FileChannel channel = FileChannel.open(pathOf(attachment.getContentHash()))) {
+            long position = offset;
+            long remaining = length;
+            while (remaining > 0) {
+                long sent = channel.transferTo(position, remaining, target);
+                if (sent <= 0) {
+                    break; // End of the file reached earlier than expected
+                }
+                position += sent;
+                remaining -= sent;
+            }
+        }
+        out.flush();
+    }
+
+    @Override
+    public Optional<Path> localFile(AttachmentDTO attachment) {
+        return Optional.of(pathOf(attachment.getContentHash()));
+    }
+
+    /**
+     * Drop one reference to the content
+     * Runs in its own transaction, because it is called after the removing transaction committed.
+     * The last reference leaves the row unreferenced; the row and the file are deleted after
+     * this transaction has committed, under the row lock again.
+     */
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void release(String contentHash) {
+        if (contentHash == null) {
+            return;
+        }
+        contentRepository.findForUpdate(contentHash).ifPresent(stored -> {
+            stored.setRefCount(Math.max(stored.getRefCount() - 1, 0));
+            if (stored.getRefCount() > 0) {
+                return;
+            }
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    deleteIfUnreferenced(contentHash);
+                }
+            });
+        });
+    }
+
+    private Path pathOf(String hash) {
+        return root.resolve(hash.substring(0, 2)).resolve(hash.substring(2, 4)).resolve(hash);
+    }
+}
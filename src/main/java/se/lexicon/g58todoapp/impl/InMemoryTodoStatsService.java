@@ -0,0 +1,137 @@
+package se.lexicon.g58todoapp.service.impl;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import se.lexicon.g58todoapp.dto.PersonTodoStats;
+import se.lexicon.g58todoapp.repo.TodoRepository;
+import se.lexicon.g58todoapp.service.TodoStatsService;
+import se.lexicon.g58todoapp.stats.PersonTodoCounters;
+import se.lexicon.g58todoapp.stats.TodoState;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * In-Memory Todo Stats Service
+ * Answers from PersonTodoCounters held in memory. getStats() is a map lookup, not a query.
+ *
+ * The counters are loaded on startup (two queries: one grouped count for all persons and
+ * one stream of upcoming due dates) and loaded again every reconcile-interval. A reload
+ * replaces counters that have drifted, e.g. after a change made outside the application,
+ * and logs how many persons were off. Until the first load is done, getStats() counts
+ * in the database.
+ *
+ * Like TrigramTodoSearchService, changes made during a reload are applied to the old
+ * counters and replayed on the new ones. A change committed just before the reload reads
+ * the database may be counted twice; the next reconciliation corrects it.
+ *
+ * Configuration (application.properties):
+ * - todo.counters.sweep-interval       how often todos that passed their due date are counted as overdue
+ * - todo.counters.reconcile-interval   how often everything is counted again from the database
+ */
+@Service
+public class InMemoryTodoStatsService implements TodoStatsService {
+
+    private final TodoRepository todoRepository;
+    private final TransactionTemplate readOnlyTransaction;
+
+    private final ReentrantLock reconcileLock = new ReentrantLock();
+    private final Object changeLock = new Object();
+    private volatile PersonTodoCounters counters = new PersonTodoCounters();
+    private List<Consumer<PersonTodoCounters>> changesDuringReconcile; // Guarded by changeLock
+    private volatile boolean ready;
+
+    public InMemoryTodoStatsService(TodoRepository todoRepository, PlatformTransactionManager transactionManager) {
+        this.todoRepository = todoRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    @Override
+    public PersonTodoStats getStats(Long personId) {
+        if (!ready) {
+            return todoRepository.countByAssignee(personId, LocalDateTime.now())
+                    .map(counts -> toStats(personId, counts))
+                    .orElseGet(() -> new PersonTodoStats(personId, 0, 0, 0, 0));
+        }
+        return counters.get(personId);
+    }
+
+    @Override
+    public void todoChanged(Long todoId, TodoState before, TodoState after) {
+        LocalDateTime now = LocalDateTime.now();
+        synchronized (changeLock) {
+            counters.apply(todoId, before, after, now);
+            if (changesDuringReconcile != null) {
+                changesDuringReconcile.add(target -> target.apply(todoId, before, after, now));
+            }
+        }
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${todo.counters.sweep-interval:1m}")
+    public void sweepOverdue() {
+        counters.sweep(LocalDateTime.now());
+    }
+
+    @Override
+    @Scheduled(initialDelay = 0, fixedDelayString = "${todo.counters.reconcile-interval:1h}")
+    public int reconcile() {
+        reconcileLock.lock();
+        try {
+            long start = System.nanoTime();
+            PersonTodoCounters fresh = new PersonTodoCounters();
+            synchronized (changeLock) {
+                changesDuringReconcile = new ArrayList<>();
+            }
+            try {
+                readOnlyTransaction.executeWithoutResult(status -> {
+                    LocalDateTime now = LocalDateTime.now();
+                    todoRepository.countAllByAssignee(now).forEach(counts -> fresh.load(
+                            counts.getAssigneeId(), counts.getTotal(), counts.getCompleted(), counts.getOverdue()));
+                    try (Stream<TodoRepository.UpcomingDueDate> upcoming = todoRepository.streamUpcomingDueDates(now)) {
+                        upcoming.forEach(todo -> fresh.loadUpcoming(todo.getId(), todo.getAssigneeId(), todo.getDueDate()));
+                    }
+                });
+            } catch (RuntimeException e) {
+                synchronized (changeLock) {
+                    changesDuringReconcile = null;
+                }
+                throw e;
+            }
+            int drifted;
+            synchronized (changeLock) {
+                changesDuringReconcile.forEach(change -> change.accept(fresh));
+                changesDuringReconcile = null;
+                fresh.sweep(LocalDateTime.now());
+                counters.sweep(LocalDateTime.now());
+                drifted = ready ? fresh.countDifferences(counters) : 0;
+                counters = fresh;
+            }
+            ready = true;
+            System.out.println("📊 Counted the todos of " + fresh.size() + " person(s) in "
+                    + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + " ms"
+                    + (drifted > 0 ? ", corrected " + drifted + " that had drifted" : ""));
+            return drifted;
+        } finally {
+            reconcileLock.unlock();
+        }
+    }
+
+    private static PersonTodoStats toStats(Long personId, TodoRepository.AssigneeTodoCounts counts) {
+        return PersonTodoStats.builder()
+                .personId(personId)
+                .total(counts.getTotal())
+                .completed(counts.getCompleted())
+                .pending(counts.getTotal() - counts.getCompleted())
+                .overdue(counts.getOverdue())
+                .build();
+    }
+}
@@ -0,0 +1,28 @@
+package se.lexicon.g58todoapp.service.impl;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import se.lexicon.g58todoapp.dto.EmailDTO;
+import se.lexicon.g58todoapp.entity.OutboxMessage;
+import se.lexicon.g58todoapp.repo.OutboxMessageRepository;
+import se.lexicon.g58todoapp.service.NotificationOutbox;
+
+/**
+ * Notification Outbox Implementation
+ */
+@Service
+public class NotificationOutboxImpl implements NotificationOutbox {
+
+    private final OutboxMessageRepository outboxRepository;
+
+    public NotificationOutboxImpl(OutboxMessageRepository outboxRepository) {
+        this.outboxRepository = outboxRepository;
+    }
+
+    @Override
+    @Transactional
+    public void enqueue(EmailDTO emailDTO) {
+        outboxRepository.save(new OutboxMessage(
+                emailDTO.getTo(), emailDTO.getSubject(), emailDTO.getBody(), emailDTO.isHtml()));
+    }
+}
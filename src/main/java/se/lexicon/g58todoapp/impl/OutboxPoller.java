@@ -0,0 +1,172 @@
+package se.lexicon.g58todoapp.service.impl;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import se.lexicon.g58todoapp.dto.EmailDTO;
+import se.lexicon.g58todoapp.entity.OutboxMessage;
+import se.lexicon.g58todoapp.repo.OutboxMessageRepository;
+import se.lexicon.g58todoapp.service.EmailService;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Outbox Poller
+ * Sends the emails stored in the notification outbox.
+ *
+ * Each poll:
+ * 1. claims a batch of due messages (FOR UPDATE SKIP LOCKED) and pushes their nextAttemptAt
+ *    forward by the lease time, so other nodes leave them alone while they are being sent
+ * 2. sends them outside any transaction (no row locks are held while talking to SMTP)
+ * 3. marks the batch in one transaction: SENT, or retried later with exponential backoff and jitter,
+ *    or FAILED after the maximum number of attempts
+ *
+ * Delivery is at-least-once: if the node dies after sending but before marking,
+ * the lease runs out and the message is sent again.
+ *
+ * Configuration (application.properties):
+ * - notification.outbox.poller.enabled  set to false to not send from this node
+ * - notification.outbox.poll-interval   pause between polls
+ * - notification.outbox.batch-size      messages claimed per poll
+ * - notification.outbox.lease           how long a claimed message is reserved for this node
+ * - notification.outbox.max-attempts    attempts before a message is marked FAILED
+ * - notification.outbox.backoff-initial delay before the first retry
+ * - notification.outbox.backoff-max     upper bound for the retry delay
+ */
+@Component
+@ConditionalOnProperty(name = "notification.outbox.poller.enabled", havingValue = "true", matchIfMissing = true)
+public class OutboxPoller {
+
+    private final OutboxMessageRepository outboxRepository;
+    private final EmailService emailService;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final Duration lease;
+    private final int maxAttempts;
+    private final Duration backoffInitial;
+    private final Duration backoffMax;
+
+    public OutboxPoller(
+            OutboxMessageRepository outboxRepository,
+            EmailService emailService,
+            PlatformTransactionManager transactionManager,
+            @Value("${notification.outbox.batch-size:50}") int batchSize,
+            @Value("${notification.outbox.lease:5m}") Duration lease,
+            @Value("${notification.outbox.max-attempts:8}") int maxAttempts,
+            @Value("${notification.outbox.backoff-initial:30s}") Duration backoffInitial,
+            @Value("${notification.outbox.backoff-max:1h}") Duration backoffMax) {
+        this.outboxRepository = outboxRepository;
+        this.emailService = emailService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.lease = lease;
+        this.maxAttempts = maxAttempts;
+        this.backoffInitial = backoffInitial;
+        this.backoffMax = backoffMax;
+    }
+
+    /**
+     * Scheduled entry point - keeps polling while full batches come back
+     */
+    @Scheduled(fixedDelayString = "${notification.outbox.poll-interval:5s}")
+    public void drain() {
+        while (pollOnce() == batchSize) {
+            // A full batch means more messages may be due
+        }
+    }
+
+    /**
+     * Claim, send and mark one batch of due messages
+     *
+     * @return number of messages claimed
+     */
+    public int pollOnce() {
+        LocalDateTime now = LocalDateTime.now();
+
+        List<OutboxMessage> batch = transactionTemplate.execute(status -> {
+            List<OutboxMessage> due = outboxRepository.findByStatusAndNextAttemptAtLessThanEqualOrderByIdAsc(
+                    OutboxMessage.Status.PENDING, now, Limit.of(batchSize));
+            LocalDateTime leaseEnd = now.plus(lease);
+            due.forEach(message -> message.setNextAttemptAt(leaseEnd));
+            return due;
+        });
+        if (batch == null || batch.isEmpty()) {
+            return 0;
+        }
+
+        // Send without a transaction: id -> error message (null = sent)
+        Map<Long, String> results = new HashMap<>();
+        for (OutboxMessage message : batch) {
+            results.put(message.getId(), send(message));
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            LocalDateTime finishedAt = LocalDateTime.now();
+            for (OutboxMessage message : outboxRepository.findAllById(results.keySet())) {
+                markAttempt(message, results.get(message.getId()), finishedAt);
+            }
+        });
+
+        System.out.println("📬 Outbox batch processed: " + batch.size() + " message(s)");
+        return batch.size();
+    }
+
+    private String send(OutboxMessage message) {
+        EmailDTO email = EmailDTO.builder()
+                .to(message.getRecipient())
+                .subject(message.getSubject())
+                .body(message.getBody())
+                .html(message.isHtml())
+                .build();
+        try {
+            return emailService.sendEmail(email) ? null : "Mail server did not accept the message";
+        } catch (RuntimeException e) {
+            return e.getClass().getSimpleName() + ": " + e.getMessage();
+        }
+    }
+
+    private void markAttempt(OutboxMessage message, String error, LocalDateTime finishedAt) {
+        message.setAttempts(message.getAttempts() + 1);
+        if (error == null) {
+            message.setStatus(OutboxMessage.Status.SENT);
+            message.setSentAt(finishedAt);
+            message.setLastError(null);
+            return;
+        }
+
+        message.setLastError(error.length() > 500 ? error.substring(0, 500) : error);
+        if (message.getAttempts() >= maxAttempts) {
+            message.setStatus(OutboxMessage.Status.FAILED);
+            System.err.println("❌ Outbox message " + message.getId() + " failed after "
+                    + message.getAttempts() + " attempts: " + error);
+        } else {
+            message.setNextAttemptAt(finishedAt.plus(backoffDelay(message.getAttempts())));
+        }
+    }
+
+    /**
+     * Delay before the next retry
+     * Exponential (initial * 2^(attempts-1), capped at max) with "equal jitter":
+     * a random value between half and all of that delay, so failed messages spread out
+     * instead of all retrying at the same moment.
+     *
+     * @param attempts number of attempts made so far (1 or more)
+     */
+    Duration backoffDelay(int attempts) {
+        long initial = backoffInitial.toMillis();
+        long max = backoffMax.toMillis();
+        int shift = Math.min(attempts - 1, 30);
+        long delay = initial > (max >> shift) ? max : Math.min(max, initial << shift);
+        long half = delay / 2;
+        return Duration.ofMillis(half + ThreadLocalRandom.current().nextLong(delay - half + 1));
+    }
+}
@@ -0,0 +1,229 @@
+package se.lexicon.g58todoapp.service.impl;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import se.lexicon.g58todoapp.dto.TodoChangeEvent;
+import se.lexicon.g58todoapp.feed.ReplayBuffer;
+import se.lexicon.g58todoapp.service.TodoChangeFeed;
+import se.lexicon.g58todoapp.stats.TodoState;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SSE Todo Change Feed
+ * Every subscriber has a bounded queue and a virtual thread that writes its events to the
+ * SseEmitter. An idle subscriber is a parked virtual thread and an async request, no
+ * platform thread, so thousands of them are cheap. Publishing only puts the event in the
+ * queues and never waits for a client.
+ *
+ * - Events get increasing ids and the last replay-size are kept (ReplayBuffer). A client that
+ *   reconnects with Last-Event-ID gets the events it missed first. If they are no longer
+ *   kept, it gets a "reset" event and should reload its todo list.
+ * - Ids start at the boot time in microseconds, so they are not given out again after a
+ *   restart. An id from before the restart (or one never given out) gets a "reset" too.
+ * - A subscriber whose queue is full (a client that does not keep up) is disconnected;
+ *   its EventSource reconnects and resumes from the replay buffer.
+ * - Idle connections get a comment every heartbeat, so proxies keep them open and
+ *   disconnected clients are noticed.
+ *
+ * Configuration (application.properties):
+ * - todo.feed.replay-size     events kept for resuming
+ * - todo.feed.queue-capacity  events waiting per subscriber before it is disconnected
+ * - todo.feed.heartbeat       time between heartbeats on an idle connection
+ * - todo.feed.timeout         subscriptions are closed after this long (clients reconnect)
+ */
+@Service
+public class SseTodoChangeFeed implements TodoChangeFeed {
+
+    private final ReplayBuffer replayBuffer;
+    private final int queueCapacity;
+    private final long heartbeatMillis;
+    private final long timeoutMillis;
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    // Ids of this run are greater than firstId - 1
+    private final long firstId;
+    private long lastId;
+
+    public SseTodoChangeFeed(
+            @Value("${todo.feed.replay-size:1000}") int replaySize,
+            @Value("${todo.feed.queue-capacity:256}") int queueCapacity,
+            @Value("${todo.feed.heartbeat:30s}") Duration heartbeat,
+            @Value("${todo.feed.timeout:30m}") Duration timeout) {
+        this.replayBuffer = new ReplayBuffer(replaySize);
+        this.queueCapacity = queueCapacity;
+        this.heartbeatMillis = heartbeat.toMillis();
+        this.timeoutMillis = timeout.toMillis();
+        this.lastId = System.currentTimeMillis() * 1000;
+        this.firstId = lastId + 1;
+    }
+
+    @Override
+    public void todoChanged(Long todoId, TodoState before, TodoState after) {
+        TodoState state = after != null ? after : before;
+        Long previousAssigneeId = before != null && after != null
+                && !Objects.equals(before.assigneeId(), after.assigneeId()) ? before.assigneeId() : null;
+
+        TodoChangeEvent event = TodoChangeEvent.builder()
+                .type(typeOf(before, after))
+                .todoId(todoId)
+                .assigneeId(state.assigneeId())
+                .previousAssigneeId(previousAssigneeId)
+                .completed(state.completed())
+                .dueDate(state.dueDate())
+                .occurredAt(LocalDateTime.now())
+                .build();
+
+        // Ids, the replay buffer and the queues change together, so a new subscriber
+        // gets every event exactly once: from the replay or from its queue
+        synchronized (this) {
+            event.setId(++lastId);
+            replayBuffer.append(event);
+            for (Subscriber subscriber : subscribers) {
+                if (subscriber.matches(event)) {
+                    subscriber.offer(event);
+                }
+            }
+        }
+    }
+
+    private static TodoChangeEvent.Type typeOf(TodoState before, TodoState after) {
+        if (before == null) {
+            return TodoChangeEvent.Type.CREATED;
+        }
+        if (after == null) {
+            return TodoChangeEvent.Type.DELETED;
+        }
+        return !before.completed() && after.completed()
+                ? TodoChangeEvent.Type.COMPLETED
+                : TodoChangeEvent.Type.UPDATED;
+    }
+
+    @Override
+    public SseEmitter subscribe(Long assigneeId, Long lastEventId) {
+        Subscriber subscriber = new Subscriber(assigneeId, newEmitter(timeoutMillis));
+        synchronized (this) {
+            if (lastEventId != null) {
+                List<TodoChangeEvent> missed = lastEventId >= firstId ? replayBuffer.after(lastEventId) : null;
+                if (missed == null) {
+                    subscriber.reset = true;
+                } else {
+                    subscriber.backlog = missed.stream().filter(subscriber::matches).toList();
+                }
+            }
+            subscribers.add(subscriber);
+        }
+        subscriber.emitter.onCompletion(subscriber::close);
+        subscriber.emitter.onTimeout(subscriber::close);
+        subscriber.emitter.onError(e -> subscriber.close());
+        subscriber.thread = Thread.ofVirtual().name("todo-feed").start(subscriber::run);
+        return subscriber.emitter;
+    }
+
+    SseEmitter newEmitter(long timeoutMillis) {
+        return new SseEmitter(timeoutMillis);
+    }
+
+    @Override
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.close();
+            subscriber.emitter.complete();
+        }
+    }
+
+    /**
+     * One open subscription
+     */
+    private final class Subscriber {
+
+        private final Long assigneeId;
+        private final SseEmitter emitter;
+        private final BlockingQueue<TodoChangeEvent> queue = new ArrayBlockingQueue<>(queueCapacity);
+
+        // Set before the thread starts
+        private boolean reset;
+        private List<TodoChangeEvent> backlog = List.of();
+
+        private volatile Thread thread;
+        private volatile boolean closed;
+
+        Subscriber(Long assigneeId, SseEmitter emitter) {
+            this.assigneeId = assigneeId;
+            this.emitter = emitter;
+        }
+
+        boolean matches(TodoChangeEvent event) {
+            return assigneeId == null
+                    || assigneeId.equals(event.getAssigneeId())
+                    || assigneeId.equals(event.getPreviousAssigneeId());
+        }
+
+        void offer(TodoChangeEvent event) {
+            if (!queue.offer(event)) {
+                // Too slow: disconnect, the client resumes from the replay buffer
+                close();
+                emitter.complete();
+            }
+        }
+
+        void close() {
+            if (!closed) {
+                closed = true;
+                subscribers.remove(this);
+                if (thread != null && thread != Thread.currentThread()) {
+                    thread.interrupt();
+                }
+            }
+        }
+
+        void run() {
+            try {
+                if (reset) {
+                    emitter.send(SseEmitter.event().name("reset").data("Missed events are no longer available, reload the todos"));
+                }
+                for (TodoChangeEvent event : backlog) {
+                    send(event);
+                }
+                backlog = null;
+                while (!closed) {
+                    TodoChangeEvent event = queue.poll(heartbeatMillis, TimeUnit.MILLISECONDS);
+                    if (event != null) {
+                        send(event);
+                    } else {
+                        emitter.send(SseEmitter.event().comment("heartbeat"));
+                    }
+                }
+            } catch (IOException | IllegalStateException e) {
+                // Client disconnected or emitter already completed
+                close();
+            } catch (InterruptedException e) {
+                // Closed
+            }
+        }
+
+        private void send(TodoChangeEvent event) throws IOException {
+            emitter.send(SseEmitter.event()
+                    .id(String.valueOf(event.getId()))
+                    .name(event.getType().name().toLowerCase())
+                    .data(event, MediaType.APPLICATION_JSON));
+        }
+    }
+}
@@ -0,0 +1,332 @@
+package se.lexicon.g58todoapp.service.impl;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Service;
+import se.lexicon.g58todoapp.repo.TodoRepository;
+import se.lexicon.g58todoapp.service.ReminderScheduler;
+import se.lexicon.g58todoapp.service.TodoNotificationService;
+import se.lexicon.g58todoapp.service.TodoStreamService;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Timing Wheel Reminder Scheduler
+ * Keeps upcoming reminders in memory in a two-level (hierarchical) timing wheel and sends
+ * each one when its time comes, instead of polling findByDueDateBetween on a timer.
+ *
+ * - The fine wheel has wheel-size slots of one tick each (default 3600 x 1s = one hour).
+ * - The coarse wheel has one slot per fine-wheel rotation (one hour) up to the horizon.
+ *   When the fine wheel starts a new rotation, that hour's coarse slot is moved into it.
+ * Every tick only looks at one fine slot, and each reminder is moved at most once,
+ * so the cost per reminder is O(1) no matter how far ahead it is.
+ *
+ * Memory is bounded by the horizon: only todos due within it are loaded, on startup and
+ * every (horizon - longest lead time) / 2 after that (one query for the new slice each time).
+ * A todo due at D is then loaded at least half of that interval before D - longest lead time,
+ * so even its earliest reminder is in the wheel before it has to fire.
+ * Changes come in through reschedule/cancel (called by TodoReminderListener) and are applied
+ * by the wheel thread, so the wheel itself needs no locking.
+ *
+ * A reminder whose time has already passed is not sent (also after a restart).
+ * Before sending, the todo is read again so completed or moved todos are skipped.
+ *
+ * Configuration (application.properties):
+ * - reminders.enabled     set to false to disable reminders
+ * - reminders.lead-times  how long before the due date reminders are sent, e.g. 24h,1h
+ * - reminders.tick        wheel resolution
+ * - reminders.wheel-size  slots in the fine wheel
+ * - reminders.horizon     how far ahead due dates are loaded (must be longer than the longest lead time)
+ */
+@Service
+@ConditionalOnProperty(name = "reminders.enabled", havingValue = "true", matchIfMissing = true)
+public class TimingWheelReminderScheduler implements ReminderScheduler, SmartLifecycle {
+
+    private final TodoRepository todoRepository;
+    private final TodoStreamService todoStreamService;
+    private final TodoNotificationService notificationService;
+    private final List<Duration> leadTimes;
+    private final long tickMillis;
+    private final Duration horizon;
+    private final long refreshMillis;
+
+    private final List<Entry>[] fineWheel;
+    private final List<Entry>[] coarseWheel;
+    private final Queue<Runnable> commands = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger scheduledCount = new AtomicInteger();
+
+    // Only used by the wheel thread
+    private final Map<Long, List<Entry>> entriesByTodo = new HashMap<>();
+    private long startMillis;
+    private long tick;
+    private LocalDateTime horizonEnd;
+    private long nextHorizonRefreshMillis;
+
+    private Thread wheelThread;
+    private ExecutorService senders;
+    private volatile boolean running;
+
+    @SuppressWarnings("unchecked")
+    public TimingWheelReminderScheduler(
+            TodoRepository todoRepository,
+            TodoStreamService todoStreamService,
+            TodoNotificationService notificationService,
+            @Value("${reminders.lead-times:24h,1h}") List<Duration> leadTimes,
+            @Value("${reminders.tick:1s}") Duration tick,
+            @Value("${reminders.wheel-size:3600}") int wheelSize,
+            @Value("${reminders.horizon:48h}") Duration horizon) {
+        Duration longestLead = leadTimes.stream().max(Duration::compareTo).orElse(Duration.ZERO);
+        if (horizon.compareTo(longestLead) <= 0) {
+            throw new IllegalArgumentException("reminders.horizon must be longer than the longest lead time");
+        }
+        this.todoRepository = todoRepository;
+        this.todoStreamService = todoStreamService;
+        this.notificationService = notificationService;
+        this.leadTimes = List.copyOf(leadTimes);
+        this.tickMillis = tick.toMillis();
+        this.horizon = horizon;
+        this.refreshMillis = horizon.minus(longestLead).toMillis() / 2;
+        this.fineWheel = new List[wheelSize];
+        // +2: the current rotation and a partly covered last one
+        long rotationMillis = tickMillis * wheelSize;
+        this.coarseWheel = new List[(int) (horizon.toMillis() / rotationMillis) + 2];
+    }
+
+    @Override
+    public void reschedule(Long todoId, LocalDateTime dueDate) {
+        commands.add(() -> add(todoId, dueDate));
+    }
+
+    @Override
+    public void cancel(Long todoId) {
+        commands.add(() -> remove(todoId));
+    }
+
+    @Override
+    public int getScheduledCount() {
+        return scheduledCount.get();
+    }
+
+    // ----- Lifecycle -----
+
+    @Override
+    public void start() {
+        startMillis = System.currentTimeMillis();
+        tick = 0;
+        senders = Executors.newVirtualThreadPerTaskExecutor();
+        running = true;
+        wheelThread = Thread.ofPlatform().name("reminder-wheel").daemon().start(this::runWheel);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        wheelThread.interrupt();
+        try {
+            wheelThread.join(TimeUnit.SECONDS.toMillis(5));
+            senders.shutdown();
+            senders.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // ----- Wheel thread -----
+
+    private void runWheel() {
+        LocalDateTime now = LocalDateTime.now();
+        horizonEnd = now.plus(horizon);
+        nextHorizonRefreshMillis = System.currentTimeMillis() + refreshMillis;
+        load(now, horizonEnd);
+
+        while (running) {
+            long tickEnd = startMillis + (tick + 1) * tickMillis;
+            long sleepMillis = tickEnd - System.currentTimeMillis();
+            if (sleepMillis > 0) {
+                try {
+                    Thread.sleep(sleepMillis);
+                } catch (InterruptedException e) {
+                    continue; // Stopping; the loop condition decides
+                }
+            }
+
+            Runnable command;
+            while ((command = commands.poll()) != null) {
+                command.run();
+            }
+
+            if (tick % fineWheel.length == 0) {
+                cascade(tick / fineWheel.length);
+            }
+            expire((int) (tick % fineWheel.length));
+            tick++;
+
+            if (System.currentTimeMillis() >= nextHorizonRefreshMillis) {
+                extendHorizon();
+            }
+        }
+    }
+
+    /**
+     * Load the pending todos due in a time window
+     */
+    private void load(LocalDateTime from, LocalDateTime to) {
+        try {
+            long count = todoStreamService.forEach(
+                    repository -> repository.streamByCompletedFalseAndDueDateBetween(from, to),
+                    todo -> add(todo.getId(), todo.getDueDate()));
+            System.out.println("⏰ Loaded " + count + " upcoming due date(s) until " + to);
+        } catch (RuntimeException e) {
+            System.err.println("❌ Could not load due dates: " + e.getMessage());
+        }
+    }
+
+    private void extendHorizon() {
+        LocalDateTime from = horizonEnd;
+        horizonEnd = LocalDateTime.now().plus(horizon);
+        nextHorizonRefreshMillis = System.currentTimeMillis() + refreshMillis;
+        load(from, horizonEnd);
+    }
+
+    private void add(Long todoId, LocalDateTime dueDate) {
+        remove(todoId);
+        if (dueDate.isAfter(horizonEnd)) {
+            return; // Loaded when the horizon gets there
+        }
+
+        long dueMillis = dueDate.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        long now = System.currentTimeMillis();
+        List<Entry> entries = new ArrayList<>(leadTimes.size());
+        for (Duration lead : leadTimes) {
+            long fireAt = dueMillis - lead.toMillis();
+            if (fireAt <= now) {
+                continue; // Too late for this reminder
+            }
+            // Slot t is handled at startMillis + (t + 1) * tick, so never before fireAt
+            long targetTick = Math.max(tick, Math.ceilDiv(fireAt - startMillis, tickMillis) - 1);
+            Entry entry = new Entry(todoId, dueDate, targetTick);
+            place(entry);
+            entries.add(entry);
+        }
+        if (!entries.isEmpty()) {
+            entriesByTodo.put(todoId, entries);
+            scheduledCount.addAndGet(entries.size());
+        }
+    }
+
+    private void remove(Long todoId) {
+        List<Entry> entries = entriesByTodo.remove(todoId);
+        if (entries != null) {
+            // Left in their slots and skipped there
+            entries.forEach(entry -> entry.done = true);
+            scheduledCount.addAndGet(-entries.size());
+        }
+    }
+
+    /**
+     * Put an entry in the fine wheel if it is due in the current rotation, else in the coarse wheel
+     */
+    private void place(Entry entry) {
+        long rotation = entry.targetTick / fineWheel.length;
+        if (rotation == tick / fineWheel.length) {
+            slot(fineWheel, (int) (entry.targetTick % fineWheel.length)).add(entry);
+        } else {
+            slot(coarseWheel, (int) (rotation % coarseWheel.length)).add(entry);
+        }
+    }
+
+    /**
+     * Move the entries of a new rotation from the coarse wheel into the fine wheel
+     */
+    private void cascade(long rotation) {
+        int index = (int) (rotation % coarseWheel.length);
+        List<Entry> entries = coarseWheel[index];
+        if (entries == null) {
+            return;
+        }
+        coarseWheel[index] = null;
+        for (Entry entry : entries) {
+            if (!entry.done) {
+                slot(fineWheel, (int) (entry.targetTick % fineWheel.length)).add(entry);
+            }
+        }
+    }
+
+    private void expire(int index) {
+        List<Entry> entries = fineWheel[index];
+        if (entries == null) {
+            return;
+        }
+        fineWheel[index] = null;
+        for (Entry entry : entries) {
+            if (entry.done) {
+                continue;
+            }
+            entry.done = true;
+            scheduledCount.decrementAndGet();
+            List<Entry> siblings = entriesByTodo.get(entry.todoId);
+            if (siblings != null && siblings.remove(entry) && siblings.isEmpty()) {
+                entriesByTodo.remove(entry.todoId);
+            }
+            senders.execute(() -> send(entry));
+        }
+    }
+
+    private static List<Entry> slot(List<Entry>[] wheel, int index) {
+        if (wheel[index] == null) {
+            wheel[index] = new ArrayList<>();
+        }
+        return wheel[index];
+    }
+
+    // ----- Sender threads -----
+
+    private void send(Entry entry) {
+        try {
+            todoRepository.findWithAssigneeById(entry.todoId)
+                    .filter(todo -> !Boolean.TRUE.equals(todo.getCompleted()))
+                    .filter(todo -> todo.getAssignedTo() != null)
+                    // The due date may have been moved after the reminder was scheduled
+                    .filter(todo -> todo.getDueDate() != null
+                            && Duration.between(todo.getDueDate(), entry.dueDate).abs().toSeconds() < 1)
+                    .ifPresent(todo -> notificationService.sendDueDateReminder(todo, todo.getAssignedTo()));
+        } catch (RuntimeException e) {
+            System.err.println("❌ Reminder for todo " + entry.todoId + " failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * One reminder: a todo and the tick it fires at
+     */
+    private static final class Entry {
+        private final Long todoId;
+        private final LocalDateTime dueDate;
+        private final long targetTick;
+        // Fired or cancelled (wheel thread only)
+        private boolean done;
+
+        private Entry(Long todoId, LocalDateTime dueDate, long targetTick) {
+            this.todoId = todoId;
+            this.dueDate = dueDate;
+            this.targetTick = targetTick;
+        }
+    }
+}
@@ -0,0 +1,331 @@
+package se.lexicon.g58todoapp.service.impl;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityNotFoundException;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import se.lexicon.g58todoapp.dto.TodoBulkUpdateResult;
+import se.lexicon.g58todoapp.dto.TodoSelection;
+import se.lexicon.g58todoapp.entity.Person;
+import se.lexicon.g58todoapp.entity.Todo;
+import se.lexicon.g58todoapp.repo.TodoListVersionRepository;
+import se.lexicon.g58todoapp.service.PersonLookupService;
+import se.lexicon.g58todoapp.service.ReminderScheduler;
+import se.lexicon.g58todoapp.service.TodoBulkUpdateService;
+import se.lexicon.g58todoapp.service.TodoChangeFeed;
+import se.lexicon.g58todoapp.service.TodoStatsService;
+import se.lexicon.g58todoapp.stats.TodoState;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.function.UnaryOperator;
+
+/**
+ * Todo Bulk Update Service Implementation
+ * Each chunk is one short transaction: a criteria query selects and locks the next
+ * chunk-size matching todos (in id order, continuing after the last chunk), and one
+ * UPDATE ... WHERE id IN (...) changes them. The rows stay locked until the commit, so the
+ * selected state is exactly the state the UPDATE changes, and every selected row is changed.
+ *
+ * No Todo is loaded, so @PreUpdate and the entity listeners do not run. Instead:
+ * - updatedAt is set to now by the UPDATE itself (like Todo.onUpdate)
+ * - the versions of the changed todo lists are incremented in the chunk's transaction
+ *   (like TodoListVersionListener)
+ * - after each commit, the ReminderScheduler, TodoStatsService and TodoChangeFeed are told
+ *   about every selected todo's old and new state (like TodoReminderListener,
+ *   TodoCounterListener and TodoChangeFeedListener)
+ * - the persistence context is cleared after each UPDATE, so no outdated Todo stays in it
+ * Titles and descriptions are never changed, so the search index needs no update.
+ *
+ * Configuration (application.properties):
+ * - todo.bulk-update.chunk-size   todos changed per transaction
+ */
+@Service
+public class TodoBulkUpdateServiceImpl implements TodoBulkUpdateService {
+
+    private final EntityManager entityManager;
+    private final PersonLookupService personLookupService;
+    private final ObjectProvider<ReminderScheduler> reminderScheduler;
+    private final ObjectProvider<TodoStatsService> todoStatsService;
+    private final ObjectProvider<TodoChangeFeed> todoChangeFeed;
+    private final ObjectProvider<TodoListVersionRepository> listVersionRepository;
+    private final TransactionTemplate transaction;
+    private final int chunkSize;
+
+    /**
+     * One matched row: the id and the state before the update
+     */
+    private record Row(Long id, TodoState state) {
+    }
+
+    public TodoBulkUpdateServiceImpl(
+            EntityManager entityManager,
+            PersonLookupService personLookupService,
+            ObjectProvider<ReminderScheduler> reminderScheduler,
+            ObjectProvider<TodoStatsService> todoStatsService,
+            ObjectProvider<TodoChangeFeed> todoChangeFeed,
+            ObjectProvider<TodoListVersionRepository> listVersionRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${todo.bulk-update.chunk-size:500}") int chunkSize) {
+        this.entityManager = entityManager;
+        this.personLookupService = personLookupService;
+        this.reminderScheduler = reminderScheduler;
+        this.todoStatsService = todoStatsService;
+        this.todoChangeFeed = todoChangeFeed;
+        this.listVersionRepository = listVersionRepository;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    public TodoBulkUpdateResult complete(TodoSelection selection) {
+        return update("Completed", selection, true,
+                (update, todo) -> update.set(todo.<Boolean>get("completed"), true),
+                before -> new TodoState(before.assigneeId(), true, before.dueDate()));
+    }
+
+    @Override
+    public TodoBulkUpdateResult reassign(TodoSelection selection, Long assigneeId) {
+        Person assignee = null;
+        if (assigneeId != null) {
+            personLookupService.findById(assigneeId)
+                    .orElseThrow(() -> new EntityNotFoundException("Person not found: " + assigneeId));
+            // A reference is enough to set the foreign key
+            assignee = entityManager.getReference(Person.class, assigneeId);
+        }
+        Person newAssignee = assignee;
+        return update("Reassigned", selection, false,
+                (update, todo) -> {
+                    Path<Person> assignedTo = todo.get("assignedTo");
+                    if (newAssignee != null) {
+                        update.set(assignedTo, newAssignee);
+                    } else {
+                        update.set(assignedTo, entityManager.getCriteriaBuilder().nullLiteral(Person.class));
+                    }
+                },
+                before -> new TodoState(assigneeId, before.completed(), before.dueDate()));
+    }
+
+    @Override
+    public TodoBulkUpdateResult reschedule(TodoSelection selection, LocalDateTime dueDate) {
+        return update("Rescheduled", selection, false,
+                (update, todo) -> {
+                    Path<LocalDateTime> due = todo.get("dueDate");
+                    if (dueDate != null) {
+                        update.set(due, dueDate);
+                    } else {
+                        update.set(due, entityManager.getCriteriaBuilder().nullLiteral(LocalDateTime.class));
+                    }
+                },
+                before -> new TodoState(before.assigneeId(), before.completed(), dueDate));
+    }
+
+    /**
+     * Run a bulk update chunk by chunk
+     *
+     * @param pendingOnly only change todos that are not completed
+     * @param set the SET clause
+     * @param change what the SET clause does to a todo, for the ReminderScheduler, TodoStatsService and TodoChangeFeed
+     */
+    private TodoBulkUpdateResult update(String action, TodoSelection selection, boolean pendingOnly,
+                                        BiConsumer<CriteriaUpdate<Todo>, Root<Todo>> set,
+                                        UnaryOperator<TodoState> change) {
+        validate(selection);
+        long start = System.nanoTime();
+        LocalDateTime now = Todo.now();
+        // Given ids are sorted and taken chunk-size at a time; otherwise each chunk continues after the last id
+        List<Long> ids = selection.getIds() != null
+                ? selection.getIds().stream().distinct().sorted().toList()
+                : null;
+        long updated = 0;
+        int chunks = 0;
+        int nextId = 0;
+        long afterId = 0;
+
+        while (ids == null || nextId < ids.size()) {
+            List<Long> chunkIds = ids != null ? ids.subList(nextId, Math.min(ids.size(), nextId + chunkSize)) : null;
+            long after = afterId;
+            List<Row> rows = new ArrayList<>();
+            int count = transaction.execute(status -> {
+                rows.addAll(selectChunk(selection, chunkIds, pendingOnly, now, after));
+                if (rows.isEmpty()) {
+                    return 0;
+                }
+                int changed = updateChunk(selection, pendingOnly, now, rows, set);
+                incrementListVersions(rows, change);
+                runAfterCommit(() -> notifyChanged(rows, change));
+                return changed;
+            });
+            updated += count;
+            if (!rows.isEmpty()) {
+                chunks++;
+            }
+            if (ids != null) {
+                nextId += chunkSize;
+            } else if (rows.size() < chunkSize) {
+                break;
+            } else {
+                afterId = rows.getLast().id();
+            }
+        }
+
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        System.out.println("🛠️ " + action + " " + updated + " todo(s) in " + chunks + " chunk(s), " + elapsedMillis + " ms");
+        return TodoBulkUpdateResult.builder()
+                .updated(updated)
+                .chunks(chunks)
+                .elapsedMillis(elapsedMillis)
+                .build();
+    }
+
+    /**
+     * SELECT id, assigned_to_id, completed, due_date FROM todos WHERE <selection> AND id IN (chunkIds) ORDER BY id
+     * or, without ids, WHERE <selection> AND id > afterId ORDER BY id LIMIT chunkSize, both FOR UPDATE
+     */
+    private List<Row> selectChunk(TodoSelection selection, List<Long> chunkIds, boolean pendingOnly,
+                                  LocalDateTime now, long afterId) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Todo> todo = query.from(Todo.class);
+        List<Predicate> where = conditions(cb, todo, selection, pendingOnly, now);
+        where.add(chunkIds != null
+                ? todo.get("id").in(chunkIds)
+                : cb.greaterThan(todo.get("id"), afterId));
+        query.multiselect(todo.get("id"), todo.get("assignedTo").get("id"), todo.get("completed"), todo.get("dueDate"))
+                .where(where.toArray(Predicate[]::new))
+                .orderBy(cb.asc(todo.get("id")));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(chunkSize)
+                .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+                .getResultStream()
+                .map(tuple -> new Row(tuple.get(0, Long.class), new TodoState(tuple.get(1, Long.class),
+                        Boolean.TRUE.equals(tuple.get(2, Boolean.class)), tuple.get(3, LocalDateTime.class))))
+                .toList();
+    }
+
+    /**
+     * UPDATE todos SET <set>, updated_at = now WHERE id IN (<rows>) AND <selection>
+     */
+    private int updateChunk(TodoSelection selection, boolean pendingOnly, LocalDateTime now, List<Row> rows,
+                            BiConsumer<CriteriaUpdate<Todo>, Root<Todo>> set) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<Todo> update = cb.createCriteriaUpdate(Todo.class);
+        Root<Todo> todo = update.from(Todo.class);
+        set.accept(update, todo);
+        update.set(todo.<LocalDateTime>get("updatedAt"), now);
+        List<Predicate> where = conditions(cb, todo, selection, pendingOnly, now);
+        where.add(todo.get("id").in(rows.stream().map(Row::id).toList()));
+        update.where(where.toArray(Predicate[]::new));
+
+        // Executing the UPDATE flushes pending changes first; cleared afterwards so that
+        // no Todo loaded earlier in the same transaction keeps its old values
+        int changed = entityManager.createQuery(update).executeUpdate();
+        entityManager.clear();
+        return changed;
+    }
+
+    /**
+     * The WHERE conditions of a selection
+     */
+    private static List<Predicate> conditions(CriteriaBuilder cb, Root<Todo> todo, TodoSelection selection,
+                                              boolean pendingOnly, LocalDateTime now) {
+        // The ids are added by the caller, one chunk at a time
+        List<Predicate> where = new ArrayList<>();
+        if (selection.getAssigneeId() != null) {
+            where.add(cb.equal(todo.get("assignedTo").get("id"), selection.getAssigneeId()));
+        }
+        if (pendingOnly || Boolean.TRUE.equals(selection.getOverdue())) {
+            where.add(cb.isFalse(todo.get("completed")));
+        }
+        if (Boolean.TRUE.equals(selection.getOverdue())) {
+            where.add(cb.lessThan(todo.get("dueDate"), now));
+        }
+        return where;
+    }
+
+    private static void validate(TodoSelection selection) {
+        if (selection == null || (selection.getIds() == null && selection.getAssigneeId() == null
+                && !Boolean.TRUE.equals(selection.getOverdue()))) {
+            throw new IllegalArgumentException("Select the todos to update with ids, assigneeId or overdue");
+        }
+        if (selection.getIds() != null && selection.getIds().isEmpty()) {
+            throw new IllegalArgumentException("ids must not be empty");
+        }
+    }
+
+    /**
+     * Increment the versions of the lists the rows were in or are moved to
+     */
+    private void incrementListVersions(List<Row> rows, UnaryOperator<TodoState> change) {
+        TodoListVersionRepository repository = listVersionRepository.getIfAvailable();
+        if (repository == null) {
+            return;
+        }
+        Set<Long> assigneeIds = new HashSet<>();
+        for (Row row : rows) {
+            assigneeIds.add(row.state().assigneeId());
+            assigneeIds.add(change.apply(row.state()).assigneeId());
+        }
+        repository.increment(assigneeIds);
+    }
+
+    /**
+     * Tell the ReminderScheduler, TodoStatsService and TodoChangeFeed about the updated rows
+     */
+    private void notifyChanged(List<Row> rows, UnaryOperator<TodoState> change) {
+        ReminderScheduler scheduler = reminderScheduler.getIfAvailable();
+        TodoStatsService stats = todoStatsService.getIfAvailable();
+        TodoChangeFeed feed = todoChangeFeed.getIfAvailable();
+        for (Row row : rows) {
+            TodoState before = row.state();
+            TodoState after = change.apply(before);
+            if (scheduler != null && (before.hasPendingDueDate() != after.hasPendingDueDate()
+                    || !Objects.equals(before.dueDate(), after.dueDate()))) {
+                if (after.hasPendingDueDate()) {
+                    scheduler.reschedule(row.id(), after.dueDate());
+                } else {
+                    scheduler.cancel(row.id());
+                }
+            }
+            if (stats != null) {
+                stats.todoChanged(row.id(), before, after);
+            }
+            if (feed != null) {
+                feed.todoChanged(row.id(), before, after);
+            }
+        }
+    }
+
+    private static void runAfterCommit(Runnable change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            change.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                change.run();
+            }
+        });
+    }
+}
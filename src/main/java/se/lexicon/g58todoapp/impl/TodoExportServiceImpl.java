@@ -0,0 +1,249 @@
+package se.lexicon.g58todoapp.service.impl;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import se.lexicon.g58todoapp.service.TodoExportService;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Todo Export Service Implementation
+ * Reads the todos with one query through a Hibernate StatelessSession and a forward-only
+ * cursor that fetches fetch-size rows at a time. Only scalar columns are selected, so no
+ * entity is created and there is no persistence context that grows while the export runs.
+ *
+ * The query joins the assignee and the attachments, so a todo with several attachments
+ * spans several consecutive rows (ordered by todo id). They are merged into one output
+ * row; only the current todo is held in memory.
+ *
+ * The output is flushed after the first todo (so the client gets the first byte right
+ * away) and then every fetch-size todos.
+ *
+ * Configuration (application.properties):
+ * - todo.export.fetch-size   rows read from the database per round trip
+ */
+@Service
+public class TodoExportServiceImpl implements TodoExportService {
+
+    private static final String EXPORT_QUERY = """
+            SELECT t.id, t.title, t.description, t.completed, t.dueDate, t.createdAt, t.updatedAt,
+                   p.email, a.id, a.fileName, a.fileType, a.fileSize
+            FROM Todo t
+            LEFT JOIN t.assignedTo p
+            LEFT JOIN t.attachments a
+            ORDER BY t.id, a.id
+            """;
+
+    private static final String CSV_HEADER = "id,title,description,completed,dueDate,createdAt,updatedAt,"
+            + "assigneeEmail,attachmentCount,attachmentSize,attachmentNames";
+
+    private final SessionFactory sessionFactory;
+    private final JsonFactory jsonFactory;
+    private final int fetchSize;
+
+    /**
+     * Attachment metadata of an exported todo
+     */
+    private record ExportedAttachment(Long id, String fileName, String fileType, Long fileSize) {
+    }
+
+    /**
+     * One todo with its attachments, collected from consecutive rows
+     */
+    private static final class ExportedTodo {
+        Long id;
+        String title;
+        String description;
+        boolean completed;
+        LocalDateTime dueDate;
+        LocalDateTime createdAt;
+        LocalDateTime updatedAt;
+        String assigneeEmail;
+        final List<ExportedAttachment> attachments = new ArrayList<>();
+    }
+
+    /**
+     * Writes todos in one of the formats
+     */
+    private interface RowWriter {
+        void write(ExportedTodo todo) throws IOException;
+
+        void flush() throws IOException;
+    }
+
+    public TodoExportServiceImpl(
+            EntityManagerFactory entityManagerFactory,
+            ObjectMapper objectMapper,
+            @Value("${todo.export.fetch-size:500}") int fetchSize) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        this.jsonFactory = objectMapper.getFactory();
+        this.fetchSize = fetchSize;
+    }
+
+    @Override
+    public long exportTodos(OutputStream output, Format format) throws IOException {
+        long start = System.nanoTime();
+        Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+        RowWriter rows = format == Format.CSV ? csvWriter(writer) : ndjsonWriter(writer);
+
+        long count = 0;
+        try (StatelessSession session = sessionFactory.openStatelessSession();
+             ScrollableResults<Object[]> results = session.createSelectionQuery(EXPORT_QUERY, Object[].class)
+                     .setFetchSize(fetchSize)
+                     .scroll(ScrollMode.FORWARD_ONLY)) {
+            ExportedTodo todo = null;
+            while (results.next()) {
+                Object[] row = results.get();
+                Long todoId = (Long) row[0];
+                if (todo == null || !todo.id.equals(todoId)) {
+                    if (todo != null) {
+                        write(rows, todo, ++count);
+                    }
+                    todo = toTodo(row);
+                }
+                if (row[8] != null) {
+                    todo.attachments.add(new ExportedAttachment(
+                            (Long) row[8], (String) row[9], (String) row[10], (Long) row[11]));
+                }
+            }
+            if (todo != null) {
+                write(rows, todo, ++count);
+            }
+        }
+        rows.flush();
+
+        System.out.println("📤 Exported " + count + " todo(s) as " + format + " in "
+                + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + " ms");
+        return count;
+    }
+
+    private void write(RowWriter rows, ExportedTodo todo, long count) throws IOException {
+        rows.write(todo);
+        if (count == 1 || count % fetchSize == 0) {
+            rows.flush();
+        }
+    }
+
+    private static ExportedTodo toTodo(Object[] row) {
+        ExportedTodo todo = new ExportedTodo();
+        todo.id = (Long) row[0];
+        todo.title = (String) row[1];
+        todo.description = (String) row[2];
+        todo.completed = Boolean.TRUE.equals(row[3]);
+        todo.dueDate = (LocalDateTime) row[4];
+        todo.createdAt = (LocalDateTime) row[5];
+        todo.updatedAt = (LocalDateTime) row[6];
+        todo.assigneeEmail = (String) row[7];
+        return todo;
+    }
+
+    // ----- Formats -----
+
+    private RowWriter ndjsonWriter(Writer writer) throws IOException {
+        JsonGenerator json = jsonFactory.createGenerator(writer);
+        json.setRootValueSeparator(null); // Lines are separated by '\n' below, not by a space
+        return new RowWriter() {
+            @Override
+            public void write(ExportedTodo todo) throws IOException {
+                json.writeStartObject();
+                json.writeNumberField("id", todo.id);
+                json.writeStringField("title", todo.title);
+                json.writeStringField("description", todo.description);
+                json.writeBooleanField("completed", todo.completed);
+                json.writeStringField("dueDate", format(todo.dueDate));
+                json.writeStringField("createdAt", format(todo.createdAt));
+                json.writeStringField("updatedAt", format(todo.updatedAt));
+                json.writeStringField("assigneeEmail", todo.assigneeEmail);
+                json.writeArrayFieldStart("attachments");
+                for (ExportedAttachment attachment : todo.attachments) {
+                    json.writeStartObject();
+                    json.writeNumberField("id", attachment.id());
+                    json.writeStringField("fileName", attachment.fileName());
+                    json.writeStringField("fileType", attachment.fileType());
+                    if (attachment.fileSize() != null) {
+                        json.writeNumberField("fileSize", attachment.fileSize());
+                    } else {
+                        json.writeNullField("fileSize");
+                    }
+                    json.writeEndObject();
+                }
+                json.writeEndArray();
+                json.writeEndObject();
+                json.writeRaw('\n');
+            }
+
+            @Override
+            public void flush() throws IOException {
+                json.flush(); // Also flushes the writer
+            }
+        };
+    }
+
+    private static RowWriter csvWriter(Writer writer) throws IOException {
+        writer.write(CSV_HEADER);
+        writer.write('\n');
+        return new RowWriter() {
+            @Override
+            public void write(ExportedTodo todo) throws IOException {
+                long size = 0;
+                List<String> names = new ArrayList<>(todo.attachments.size());
+                for (ExportedAttachment attachment : todo.attachments) {
+                    size += attachment.fileSize() != null ? attachment.fileSize() : 0;
+                    names.add(attachment.fileName());
+                }
+                writer.write(String.join(",",
+                        todo.id.toString(),
+                        csv(todo.title),
+                        csv(todo.description),
+                        Boolean.toString(todo.completed),
+                        csv(format(todo.dueDate)),
+                        csv(format(todo.createdAt)),
+                        csv(format(todo.updatedAt)),
+                        csv(todo.assigneeEmail),
+                        Integer.toString(todo.attachments.size()),
+                        Long.toString(size),
+                        csv(String.join("|", names))));
+                writer.write('\n');
+            }
+
+            @Override
+            public void flush() throws IOException {
+                writer.flush();
+            }
+        };
+    }
+
+    /**
+     * Quote a CSV value if needed, " inside quotes is written as ""
+     */
+    static String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    private static String format(LocalDateTime dateTime) {
+        return dateTime != null ? dateTime.toString() : null;
+    }
+}
@@ -0,0 +1,322 @@
+package se.lexicon.g58todoapp.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import se.lexicon.g58todoapp.dto.TodoImportResult;
+import se.lexicon.g58todoapp.dto.TodoImportRow;
+import se.lexicon.g58todoapp.entity.Person;
+import se.lexicon.g58todoapp.entity.Todo;
+import se.lexicon.g58todoapp.service.PersonLookupService;
+import se.lexicon.g58todoapp.service.TodoImportService;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Todo Import Service Implementation
+ * Reads the input one line at a time and saves the valid rows in chunks of chunk-size rows.
+ * Each chunk is one transaction: Hibernate sends its inserts in JDBC batches (pooled ids,
+ * hibernate.jdbc.batch_size), then the persistence context is flushed and cleared, so only
+ * one chunk is ever held in memory.
+ *
+ * Assignees are resolved through PersonLookupService (cached) and referenced by id,
+ * without loading the person.
+ *
+ * CSV values may be quoted ("a, b" and "say ""hi""") and may contain line breaks inside
+ * the quotes, like the CSV export writes them. Such a row is reported with its first line.
+ */
+@Service
+public class TodoImportServiceImpl implements TodoImportService {
+
+    private static final int MAX_REPORTED_ERRORS = 20;
+    // Longest CSV row read over several lines (title and description are at most 600 characters)
+    private static final int MAX_CSV_ROW_LENGTH = 8192;
+
+    private final EntityManager entityManager;
+    private final PersonLookupService personLookupService;
+    private final TransactionTemplate transaction;
+    private final ObjectReader rowReader;
+    private final int chunkSize;
+
+    /**
+     * A validated row, ready to be saved
+     */
+    private record PendingTodo(String title, String description, LocalDateTime dueDate,
+                               boolean completed, Long assigneeId) {
+    }
+
+    public TodoImportServiceImpl(
+            EntityManager entityManager,
+            PersonLookupService personLookupService,
+            PlatformTransactionManager transactionManager,
+            ObjectMapper objectMapper,
+            @Value("${todo.import.chunk-size:1000}") int chunkSize) {
+        this.entityManager = entityManager;
+        this.personLookupService = personLookupService;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.rowReader = objectMapper.readerFor(TodoImportRow.class);
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    public TodoImportResult importTodos(Reader input, Format format) throws IOException {
+        long start = System.nanoTime();
+        BufferedReader reader = new BufferedReader(input);
+        Progress progress = new Progress();
+        int lineNumber = 0;
+
+        Function<String, TodoImportRow> parser;
+        if (format == Format.CSV) {
+            String header = reader.readLine();
+            lineNumber++;
+            if (header == null) {
+                return progress.result(start);
+            }
+            parser = csvParser(header);
+        } else {
+            parser = this::parseJson;
+        }
+
+        List<PendingTodo> chunk = new ArrayList<>(chunkSize);
+        int chunkFirstLine = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            int rowLine = lineNumber;
+            int quotes = format == Format.CSV ? countQuotes(line) : 0;
+            if (quotes % 2 != 0) {
+                // A quoted value goes on over the next lines. Stops at MAX_CSV_ROW_LENGTH, so an
+                // unclosed quote is rejected instead of reading the rest of the input into one row
+                StringBuilder row = new StringBuilder(line);
+                String next;
+                while (quotes % 2 != 0 && row.length() < MAX_CSV_ROW_LENGTH && (next = reader.readLine()) != null) {
+                    lineNumber++;
+                    row.append('\n').append(next);
+                    quotes += countQuotes(next);
+                }
+                line = row.toString();
+            }
+            if (line.isBlank()) {
+                continue;
+            }
+            try {
+                chunk.add(validate(parser.apply(line)));
+            } catch (IllegalArgumentException e) {
+                progress.reject(1, "Line " + rowLine + ": " + e.getMessage());
+                continue;
+            }
+            if (chunk.size() == 1) {
+                chunkFirstLine = rowLine;
+            }
+            if (chunk.size() == chunkSize) {
+                save(chunk, chunkFirstLine, lineNumber, progress);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            save(chunk, chunkFirstLine, lineNumber, progress);
+        }
+
+        TodoImportResult result = progress.result(start);
+        System.out.println("📥 Imported " + result.getImported() + " todo(s), rejected " + result.getRejected()
+                + " (" + result.getRowsPerSecond() + " rows/s)");
+        return result;
+    }
+
+    /**
+     * Save one chunk in its own transaction
+     */
+    private void save(List<PendingTodo> chunk, int firstLine, int lastLine, Progress progress) {
+        try {
+            transaction.executeWithoutResult(status -> {
+                for (PendingTodo row : chunk) {
+                    Todo todo = new Todo(row.title(), row.description(), row.completed(), row.dueDate());
+                    if (row.assigneeId() != null) {
+                        // A reference is enough to set the foreign key, the person is not loaded
+                        todo.setAssignedTo(entityManager.getReference(Person.class, row.assigneeId()));
+                    }
+                    entityManager.persist(todo);
+                }
+                entityManager.flush();
+                entityManager.clear();
+            });
+            progress.imported += chunk.size();
+        } catch (DataAccessException e) {
+            // E.g. an assignee deleted during the import: the whole chunk is rolled back
+            progress.reject(chunk.size(), "Lines " + firstLine + "-" + lastLine + ": could not be saved: "
+                    + e.getMostSpecificCause().getMessage());
+        }
+    }
+
+    // ----- Parsing and validation -----
+
+    private TodoImportRow parseJson(String line) {
+        try {
+            return rowReader.readValue(line);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("invalid JSON: " + e.getOriginalMessage());
+        }
+    }
+
+    /**
+     * A parser for the CSV lines below the header
+     */
+    private static Function<String, TodoImportRow> csvParser(String header) {
+        Map<String, Integer> columns = new HashMap<>();
+        List<String> names = splitCsv(header);
+        for (int i = 0; i < names.size(); i++) {
+            columns.put(names.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        if (!columns.containsKey("title")) {
+            throw new IllegalArgumentException("The CSV header must have a title column");
+        }
+        return line -> {
+            List<String> values = splitCsv(line);
+            Function<String, String> value = name -> {
+                Integer index = columns.get(name);
+                if (index == null || index >= values.size() || values.get(index).isEmpty()) {
+                    return null;
+                }
+                return values.get(index);
+            };
+            String completed = value.apply("completed");
+            if (completed != null && !completed.equalsIgnoreCase("true") && !completed.equalsIgnoreCase("false")) {
+                throw new IllegalArgumentException("completed must be true or false");
+            }
+            return TodoImportRow.builder()
+                    .title(value.apply("title"))
+                    .description(value.apply("description"))
+                    .dueDate(value.apply("duedate"))
+                    .completed(completed != null ? Boolean.valueOf(completed) : null)
+                    .assigneeEmail(value.apply("assigneeemail"))
+                    .build();
+        };
+    }
+
+    /**
+     * Number of quotes in a CSV line
+     * An escaped quote ("") counts twice, so an odd count means a quoted value is still open.
+     */
+    private static int countQuotes(String line) {
+        int quotes = 0;
+        for (int i = 0; i < line.length(); i++) {
+            if (line.charAt(i) == '"') {
+                quotes++;
+            }
+        }
+        return quotes;
+    }
+
+    /**
+     * Split one CSV row into values, "" inside quotes is a quote
+     */
+    static List<String> splitCsv(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder value = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c != '"') {
+                    value.append(c);
+                } else if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    value.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(value.toString());
+                value.setLength(0);
+            } else {
+                value.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("unterminated quote");
+        }
+        values.add(value.toString());
+        return values;
+    }
+
+    private PendingTodo validate(TodoImportRow row) {
+        if (row == null || row.getTitle() == null || row.getTitle().isBlank()) {
+            throw new IllegalArgumentException("title is required");
+        }
+        if (row.getTitle().length() > 100) {
+            throw new IllegalArgumentException("title is longer than 100 characters");
+        }
+        if (row.getDescription() != null && row.getDescription().length() > 500) {
+            throw new IllegalArgumentException("description is longer than 500 characters");
+        }
+        Long assigneeId = null;
+        if (row.getAssigneeEmail() != null && !row.getAssigneeEmail().isBlank()) {
+            assigneeId = personLookupService.findByEmail(row.getAssigneeEmail().trim())
+                    .orElseThrow(() -> new IllegalArgumentException("unknown assignee " + row.getAssigneeEmail()))
+                    .getId();
+        }
+        return new PendingTodo(row.getTitle(), row.getDescription(), parseDueDate(row.getDueDate()),
+                Boolean.TRUE.equals(row.getCompleted()), assigneeId);
+    }
+
+    private static LocalDateTime parseDueDate(String dueDate) {
+        if (dueDate == null || dueDate.isBlank()) {
+            return null;
+        }
+        try {
+            return dueDate.length() == 10
+                    ? LocalDate.parse(dueDate).atStartOfDay()
+                    : LocalDateTime.parse(dueDate);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("invalid dueDate " + dueDate);
+        }
+    }
+
+    /**
+     * Counters of one import
+     */
+    private static final class Progress {
+
+        private long imported;
+        private long rejected;
+        private final List<String> errors = new ArrayList<>();
+
+        void reject(int rows, String error) {
+            rejected += rows;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(error);
+            }
+        }
+
+        TodoImportResult result(long startNanos) {
+            long elapsedNanos = System.nanoTime() - startNanos;
+            return TodoImportResult.builder()
+                    .imported(imported)
+                    .rejected(rejected)
+                    .errors(errors)
+                    .elapsedMillis(TimeUnit.NANOSECONDS.toMillis(elapsedNanos))
+                    .rowsPerSecond(elapsedNanos > 0 ? imported * 1_000_000_000L / elapsedNanos : 0)
+                    .build();
+        }
+    }
+}
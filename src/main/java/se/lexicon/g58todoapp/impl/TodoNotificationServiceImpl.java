@@ -1,32 +1,101 @@
 package se.lexicon.g58todoapp.service.impl;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import se.lexicon.g58todoapp.dto.EmailDTO;
 import se.lexicon.g58todoapp.entity.Person;
 import se.lexicon.g58todoapp.entity.Todo;
+import se.lexicon.g58todoapp.jfr.TemplateRenderEvent;
+import se.lexicon.g58todoapp.service.EmailDispatcher;
 import se.lexicon.g58todoapp.service.EmailService;
+import se.lexicon.g58todoapp.service.NotificationOutbox;
 import se.lexicon.g58todoapp.service.TodoNotificationService;
+import se.lexicon.g58todoapp.template.TemplateEngine;
 
+import java.nio.charset.StandardCharsets;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
 /**
  * Todo Notification Service Implementation
  * Creates and sends email notifications for todo-related events
+ * Email bodies are rendered from the templates in resources/templates
+ *
+ * Each notification type (created, assigned, completed, reminder, daily-summary) is timed twice:
+ * - notification.render   rendering the email body
+ * - notification.deliver  handing it over (sending in DIRECT mode, queueing in ASYNC/OUTBOX),
+ *                         tagged with the delivery mode and the outcome
+ * Rendering is also recorded as a JFR event (TemplateRenderEvent) when a recording is running.
  */
 @Service
 public class TodoNotificationServiceImpl implements TodoNotificationService {
 
+    /**
+     * How notifications are handed to the mail server (property email.delivery.mode)
+     */
+    public enum DeliveryMode {
+        /** Send on the caller's thread and return the SMTP result */
+        DIRECT,
+        /** Queue in the EmailDispatcher and return at once (true = accepted) */
+        ASYNC,
+        /** Store in the notification outbox within the caller's transaction (true = stored) */
+        OUTBOX
+    }
+
     private final EmailService emailService;
+    private final EmailDispatcher emailDispatcher;
+    private final NotificationOutbox notificationOutbox;
+    private final TemplateEngine templateEngine;
+    private final DeliveryMode deliveryMode;
+
+    // Timers per notification type, created once
+    private final Map<String, NotificationMeters> meters = new HashMap<>();
+
+    private record NotificationMeters(Timer render, Timer delivered, Timer failed) {
+    }
 
     // Date formatter for displaying dates in emails
     private static final DateTimeFormatter DATE_FORMATTER =
             DateTimeFormatter.ofPattern("MMM dd, yyyy 'at' HH:mm");
 
     /**
-     * Constructor injection of EmailService
+     * Constructor injection of the delivery services and the TemplateEngine
      */
-    public TodoNotificationServiceImpl(EmailService emailService) {
+    public TodoNotificationServiceImpl(
+            EmailService emailService,
+            EmailDispatcher emailDispatcher,
+            NotificationOutbox notificationOutbox,
+            TemplateEngine templateEngine,
+            @Value("${email.delivery.mode:DIRECT}") DeliveryMode deliveryMode,
+            MeterRegistry meterRegistry) {
         this.emailService = emailService;
+        this.emailDispatcher = emailDispatcher;
+        this.notificationOutbox = notificationOutbox;
+        this.templateEngine = templateEngine;
+        this.deliveryMode = deliveryMode;
+        for (String type : List.of("created", "assigned", "completed", "reminder", "daily-summary")) {
+            meters.put(type, new NotificationMeters(
+                    Timer.builder("notification.render")
+                            .description("Time to render notification emails")
+                            .tag("type", type)
+                            .register(meterRegistry),
+                    deliverTimer(meterRegistry, type, "success"),
+                    deliverTimer(meterRegistry, type, "failure")));
+        }
+    }
+
+    private Timer deliverTimer(MeterRegistry meterRegistry, String type, String outcome) {
+        return Timer.builder("notification.deliver")
+                .description("Time to send or queue notification emails")
+                .tags("type", type, "mode", deliveryMode.name(), "outcome", outcome)
+                .register(meterRegistry);
     }
 
     /**
@@ -36,21 +105,14 @@ public class TodoNotificationServiceImpl implements TodoNotificationService {
     public boolean notifyTodoCreated(Todo todo, Person recipient) {
         String subject = "New Task Created: " + todo.getTitle();
 
-        String body = String.format(
-                "Hello %s,\n\n" +
-                        "A new task has been created:\n\n" +
-                        "Title: %s\n" +
-                        "Description: %s\n" +
-                        "Due Date: %s\n\n" +
-                        "Best regards,\n" +
-                        "Todo App",
-                recipient.getName(),
-                todo.getTitle(),
-                todo.getDescription() != null ? todo.getDescription() : "No description",
-                todo.getDueDate() != null ? todo.getDueDate().format(DATE_FORMATTER) : "No due date"
-        );
-
-        return emailService.sendSimpleEmail(recipient.getEmail(), subject, body);
+        String body = render("created", "todo-created.txt", () -> Map.of(
+                "name", recipient.getName(),
+                "title", todo.getTitle(),
+                "description", describe(todo, "No description"),
+                "dueDate", formatDueDate(todo)
+        ));
+
+        return deliver("created", recipient.getEmail(), subject, body, false);
     }
 
     /**
@@ -60,31 +122,16 @@ public class TodoNotificationServiceImpl implements TodoNotificationService {
     public boolean notifyTodoAssigned(Todo todo, Person assignee) {
         String subject = "Task Assigned to You: " + todo.getTitle();
 
-        // Create HTML email for better formatting
-        String htmlBody = String.format(
-                "<html>" +
-                        "<body style='font-family: Arial, sans-serif;'>" +
-                        "<h2 style='color: #4CAF50;'>New Task Assignment</h2>" +
-                        "<p>Hello <strong>%s</strong>,</p>" +
-                        "<p>A task has been assigned to you:</p>" +
-                        "<div style='background-color: #f5f5f5; padding: 15px; border-left: 4px solid #4CAF50;'>" +
-                        "<h3 style='margin-top: 0;'>%s</h3>" +
-                        "<p><strong>Description:</strong> %s</p>" +
-                        "<p><strong>Due Date:</strong> %s</p>" +
-                        "<p><strong>Status:</strong> %s</p>" +
-                        "</div>" +
-                        "<p>Please complete this task by the due date.</p>" +
-                        "<p>Best regards,<br>Todo App Team</p>" +
-                        "</body>" +
-                        "</html>",
-                assignee.getName(),
-                todo.getTitle(),
-                todo.getDescription() != null ? todo.getDescription() : "No description",
-                todo.getDueDate() != null ? todo.getDueDate().format(DATE_FORMATTER) : "No due date",
-                todo.getCompleted() ? "Completed ✅" : "Pending ⏳"
-        );
-
-        return emailService.sendHtmlEmail(assignee.getEmail(), subject, htmlBody);
+        // HTML email for better formatting
+        String htmlBody = render("assigned", "todo-assigned.html", () -> Map.of(
+                "name", assignee.getName(),
+                "title", todo.getTitle(),
+                "description", describe(todo, "No description"),
+                "dueDate", formatDueDate(todo),
+                "status", todo.getCompleted() ? "Completed ✅" : "Pending ⏳"
+        ));
+
+        return deliver("assigned", assignee.getEmail(), subject, htmlBody, true);
     }
 
     /**
@@ -94,26 +141,13 @@ public class TodoNotificationServiceImpl implements TodoNotificationService {
     public boolean notifyTodoCompleted(Todo todo, Person recipient) {
         String subject = "Task Completed: " + todo.getTitle();
 
-        String htmlBody = String.format(
-                "<html>" +
-                        "<body style='font-family: Arial, sans-serif;'>" +
-                        "<h2 style='color: #2196F3;'>Task Completed! 🎉</h2>" +
-                        "<p>Hello <strong>%s</strong>,</p>" +
-                        "<p>Great news! The following task has been completed:</p>" +
-                        "<div style='background-color: #e3f2fd; padding: 15px; border-left: 4px solid #2196F3;'>" +
-                        "<h3 style='margin-top: 0;'>%s</h3>" +
-                        "<p>%s</p>" +
-                        "</div>" +
-                        "<p>Keep up the great work!</p>" +
-                        "<p>Best regards,<br>Todo App Team</p>" +
-                        "</body>" +
-                        "</html>",
-                recipient.getName(),
-                todo.getTitle(),
-                todo.getDescription() != null ? todo.getDescription() : ""
-        );
-
-        return emailService.sendHtmlEmail(recipient.getEmail(), subject, htmlBody);
+        String htmlBody = render("completed", "todo-completed.html", () -> Map.of(
+                "name", recipient.getName(),
+                "title", todo.getTitle(),
+                "description", describe(todo, "")
+        ));
+
+        return deliver("completed", recipient.getEmail(), subject, htmlBody, true);
     }
 
     /**
@@ -123,28 +157,14 @@ public class TodoNotificationServiceImpl implements TodoNotificationService {
     public boolean sendDueDateReminder(Todo todo, Person recipient) {
         String subject = "⚠️ Reminder: Task Due Soon - " + todo.getTitle();
 
-        String htmlBody = String.format(
-                "<html>" +
-                        "<body style='font-family: Arial, sans-serif;'>" +
-                        "<h2 style='color: #FF9800;'>Task Reminder</h2>" +
-                        "<p>Hello <strong>%s</strong>,</p>" +
-                        "<p>This is a friendly reminder that the following task is due soon:</p>" +
-                        "<div style='background-color: #fff3e0; padding: 15px; border-left: 4px solid #FF9800;'>" +
-                        "<h3 style='margin-top: 0;'>%s</h3>" +
-                        "<p><strong>Description:</strong> %s</p>" +
-                        "<p><strong>⏰ Due Date:</strong> <span style='color: #FF9800; font-weight: bold;'>%s</span></p>" +
-                        "</div>" +
-                        "<p>Please complete this task before the deadline.</p>" +
-                        "<p>Best regards,<br>Todo App Team</p>" +
-                        "</body>" +
-                        "</html>",
-                recipient.getName(),
-                todo.getTitle(),
-                todo.getDescription() != null ? todo.getDescription() : "No description",
-                todo.getDueDate() != null ? todo.getDueDate().format(DATE_FORMATTER) : "No due date"
-        );
-
-        return emailService.sendHtmlEmail(recipient.getEmail(), subject, htmlBody);
+        String htmlBody = render("reminder", "due-date-reminder.html", () -> Map.of(
+                "name", recipient.getName(),
+                "title", todo.getTitle(),
+                "description", describe(todo, "No description"),
+                "dueDate", formatDueDate(todo)
+        ));
+
+        return deliver("reminder", recipient.getEmail(), subject, htmlBody, true);
     }
 
     /**
@@ -154,46 +174,90 @@ public class TodoNotificationServiceImpl implements TodoNotificationService {
     public boolean sendDailySummary(Person person, List<Todo> todos) {
         String subject = "Daily Todo Summary - " + todos.size() + " Pending Tasks";
 
-        // Build HTML table of todos
-        StringBuilder todoList = new StringBuilder();
-        todoList.append("<table style='width: 100%; border-collapse: collapse;'>");
-        todoList.append("<tr style='background-color: #4CAF50; color: white;'>");
-        todoList.append("<th style='padding: 10px; text-align: left;'>Title</th>");
-        todoList.append("<th style='padding: 10px; text-align: left;'>Due Date</th>");
-        todoList.append("<th style='padding: 10px; text-align: left;'>Status</th>");
-        todoList.append("</tr>");
-
-        for (Todo todo : todos) {
-            String rowColor = todo.getCompleted() ? "#f1f8e9" : "#fff3e0";
-            todoList.append(String.format(
-                    "<tr style='background-color: %s;'>" +
-                            "<td style='padding: 10px; border-bottom: 1px solid #ddd;'>%s</td>" +
-                            "<td style='padding: 10px; border-bottom: 1px solid #ddd;'>%s</td>" +
-                            "<td style='padding: 10px; border-bottom: 1px solid #ddd;'>%s</td>" +
-                            "</tr>",
-                    rowColor,
-                    todo.getTitle(),
-                    todo.getDueDate() != null ? todo.getDueDate().format(DATE_FORMATTER) : "No due date",
-                    todo.getCompleted() ? "✅ Done" : "⏳ Pending"
-            ));
+        String htmlBody = render("daily-summary", "daily-summary.html", () -> {
+            // One row per todo in the HTML table
+            List<Map<String, String>> rows = new ArrayList<>(todos.size());
+            for (Todo todo : todos) {
+                rows.add(Map.of(
+                        "rowColor", todo.getCompleted() ? "#f1f8e9" : "#fff3e0",
+                        "title", todo.getTitle(),
+                        "dueDate", formatDueDate(todo),
+                        "status", todo.getCompleted() ? "✅ Done" : "⏳ Pending"
+                ));
+            }
+
+            return Map.of(
+                    "name", person.getName(),
+                    "todos", rows
+            );
+        });
+
+        return deliver("daily-summary", person.getEmail(), subject, htmlBody, true);
+    }
+
+    private static String describe(Todo todo, String fallback) {
+        return todo.getDescription() != null ? todo.getDescription() : fallback;
+    }
+
+    private static String formatDueDate(Todo todo) {
+        return todo.getDueDate() != null ? todo.getDueDate().format(DATE_FORMATTER) : "No due date";
+    }
+
+    /**
+     * Render a template, timed by notification.render and recorded as a TemplateRenderEvent
+     * Building the model counts as rendering
+     */
+    private String render(String type, String template, Supplier<Map<String, ?>> model) {
+        TemplateRenderEvent event = new TemplateRenderEvent();
+        event.begin();
+        String body = meters.get(type).render().record(() -> templateEngine.render(template, model.get()));
+        event.end();
+        if (event.shouldCommit()) {
+            event.template = template;
+            event.notificationType = type;
+            event.byteSize = body.getBytes(StandardCharsets.UTF_8).length;
+            event.commit();
+        }
+        return body;
+    }
+
+    /**
+     * Deliver a notification and time it
+     * Exceptions (e.g. from the outbox) are counted as failures and passed on
+     */
+    private boolean deliver(String type, String to, String subject, String body, boolean html) {
+        NotificationMeters typeMeters = meters.get(type);
+        long start = System.nanoTime();
+        boolean delivered = false;
+        try {
+            delivered = deliver(to, subject, body, html);
+            return delivered;
+        } finally {
+            (delivered ? typeMeters.delivered() : typeMeters.failed())
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Hand a notification to the mail server according to the delivery mode
+     * In ASYNC and OUTBOX mode the result only tells whether the email was accepted for sending
+     */
+    private boolean deliver(String to, String subject, String body, boolean html) {
+        if (deliveryMode == DeliveryMode.DIRECT) {
+            return html
+                    ? emailService.sendHtmlEmail(to, subject, body)
+                    : emailService.sendSimpleEmail(to, subject, body);
+        }
+        EmailDTO email = EmailDTO.builder()
+                .to(to)
+                .subject(subject)
+                .body(body)
+                .html(html)
+                .build();
+        if (deliveryMode == DeliveryMode.OUTBOX) {
+            notificationOutbox.enqueue(email);
+            return true;
         }
-        todoList.append("</table>");
-
-        String htmlBody = String.format(
-                "<html>" +
-                        "<body style='font-family: Arial, sans-serif;'>" +
-                        "<h2 style='color: #4CAF50;'>Your Daily Todo Summary</h2>" +
-                        "<p>Hello <strong>%s</strong>,</p>" +
-                        "<p>Here's your todo list for today:</p>" +
-                        "%s" +
-                        "<p style='margin-top: 20px;'>Have a productive day!</p>" +
-                        "<p>Best regards,<br>Todo App Team</p>" +
-                        "</body>" +
-                        "</html>",
-                person.getName(),
-                todoList.toString()
-        );
-
-        return emailService.sendHtmlEmail(person.getEmail(), subject, htmlBody);
+        return !emailDispatcher.dispatch(email).isCompletedExceptionally();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,174 @@
+package se.lexicon.g58todoapp.service.impl;
+
+import jakarta.persistence.EntityNotFoundException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import se.lexicon.g58todoapp.dto.TodoDTO;
+import se.lexicon.g58todoapp.entity.Person;
+import se.lexicon.g58todoapp.entity.Todo;
+import se.lexicon.g58todoapp.repo.PersonRepository;
+import se.lexicon.g58todoapp.repo.TodoListVersionRepository;
+import se.lexicon.g58todoapp.repo.TodoRepository;
+import se.lexicon.g58todoapp.service.PersonLookupService;
+import se.lexicon.g58todoapp.service.TodoETags;
+import se.lexicon.g58todoapp.service.TodoService;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Todo Service Implementation
+ * - getETag reads only updated_at by primary key; getListETag reads a person's list version
+ *   by primary key, or for all todos the last updated_at and deletion from the end of two
+ *   indexes (see TodoListVersionRepository)
+ * - lists are keyset pages (id > afterId), so deep pages cost the same as the first
+ * - a conditional update or delete locks the row before comparing If-Match, so two clients
+ *   holding the same ETag cannot both write (the second one gets a precondition failure)
+ *
+ * Saves go through the entity, so the Todo listeners (reminders, search index, counters,
+ * change feed) see them like any other change.
+ */
+@Service
+public class TodoServiceImpl implements TodoService {
+
+    // Upper limit of the page size
+    static final int MAX_PAGE_SIZE = 500;
+
+    private final TodoRepository todoRepository;
+    private final PersonRepository personRepository;
+    private final TodoListVersionRepository listVersionRepository;
+    private final PersonLookupService personLookupService;
+
+    public TodoServiceImpl(
+            TodoRepository todoRepository,
+            PersonRepository personRepository,
+            TodoListVersionRepository listVersionRepository,
+            PersonLookupService personLookupService) {
+        this.todoRepository = todoRepository;
+        this.personRepository = personRepository;
+        this.listVersionRepository = listVersionRepository;
+        this.personLookupService = personLookupService;
+    }
+
+    @Override
+    public Optional<String> getETag(Long id) {
+        return todoRepository.findUpdatedAtById(id).map(updatedAt -> TodoETags.of(id, updatedAt));
+    }
+
+    @Override
+    public String getListETag(Long assigneeId, long afterId, int size) {
+        validatePage(afterId, size);
+        if (assigneeId != null) {
+            return TodoETags.ofList(assigneeId, listVersionRepository.findVersion(assigneeId), afterId, size);
+        }
+        TodoListVersionRepository.AllTodosVersion all = listVersionRepository.findAllTodosVersion();
+        return TodoETags.ofAllList(all.lastUpdatedAt(), all.lastDeletionId(), afterId, size);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public TodoDTO findById(Long id) {
+        return toDTO(todoRepository.findById(id)
+                .orElseThrow(() -> new EntityNotFoundException("Todo not found: " + id)));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<TodoDTO> findPage(Long assigneeId, long afterId, int size) {
+        validatePage(afterId, size);
+        List<Todo> todos = assigneeId != null
+                ? todoRepository.findByAssignedToIdAndIdGreaterThanOrderByIdAsc(assigneeId, afterId, Limit.of(size))
+                : todoRepository.findByIdGreaterThanOrderByIdAsc(afterId, Limit.of(size));
+        return todos.stream().map(TodoServiceImpl::toDTO).toList();
+    }
+
+    @Override
+    @Transactional
+    public TodoDTO create(TodoDTO request) {
+        validate(request);
+        Todo todo = new Todo(request.getTitle(), request.getDescription(), request.isCompleted(), request.getDueDate());
+        todo.setAssignedTo(assignee(request.getAssigneeId()));
+        return toDTO(todoRepository.save(todo));
+    }
+
+    @Override
+    @Transactional
+    public TodoDTO update(Long id, TodoDTO request, String ifMatch) {
+        validate(request);
+        Todo todo = findForWrite(id, ifMatch);
+        todo.setTitle(request.getTitle());
+        todo.setDescription(request.getDescription());
+        todo.setCompleted(request.isCompleted());
+        todo.setDueDate(request.getDueDate());
+        todo.setAssignedTo(assignee(request.getAssigneeId()));
+        // Flush now, so @PreUpdate has set the new updatedAt before the DTO is built
+        return toDTO(todoRepository.saveAndFlush(todo));
+    }
+
+    @Override
+    @Transactional
+    public void delete(Long id, String ifMatch) {
+        todoRepository.delete(findForWrite(id, ifMatch));
+    }
+
+    /**
+     * Load a todo that is about to change, checking If-Match against it if given
+     */
+    private Todo findForWrite(Long id, String ifMatch) {
+        Optional<Todo> todo = ifMatch != null ? todoRepository.findForUpdateById(id) : todoRepository.findById(id);
+        Todo current = todo.orElseThrow(() -> new EntityNotFoundException("Todo not found: " + id));
+        String etag = TodoETags.of(id, current.getUpdatedAt() != null ? current.getUpdatedAt() : current.getCreatedAt());
+        if (ifMatch != null && !TodoETags.matches(ifMatch, etag)) {
+            throw new OptimisticLockingFailureException("Todo " + id + " was changed, its current ETag is " + etag);
+        }
+        return current;
+    }
+
+    private Person assignee(Long assigneeId) {
+        if (assigneeId == null) {
+            return null;
+        }
+        personLookupService.findById(assigneeId)
+                .orElseThrow(() -> new EntityNotFoundException("Person not found: " + assigneeId));
+        // A reference is enough to set the foreign key
+        return personRepository.getReferenceById(assigneeId);
+    }
+
+    private static void validatePage(long afterId, int size) {
+        if (afterId < 0) {
+            throw new IllegalArgumentException("afterId must not be negative");
+        }
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+    }
+
+    private static void validate(TodoDTO request) {
+        if (request == null || request.getTitle() == null || request.getTitle().isBlank()) {
+            throw new IllegalArgumentException("title is required");
+        }
+        if (request.getTitle().length() > 100) {
+            throw new IllegalArgumentException("title is longer than 100 characters");
+        }
+        if (request.getDescription() != null && request.getDescription().length() > 500) {
+            throw new IllegalArgumentException("description is longer than 500 characters");
+        }
+    }
+
+    private static TodoDTO toDTO(Todo todo) {
+        // getId() on a lazy assignee does not load it
+        Person assignee = todo.getAssignedTo();
+        return TodoDTO.builder()
+                .id(todo.getId())
+                .title(todo.getTitle())
+                .description(todo.getDescription())
+                .completed(Boolean.TRUE.equals(todo.getCompleted()))
+                .dueDate(todo.getDueDate())
+                .assigneeId(assignee != null ? assignee.getId() : null)
+                .createdAt(todo.getCreatedAt())
+                .updatedAt(todo.getUpdatedAt() != null ? todo.getUpdatedAt() : todo.getCreatedAt())
+                .build();
+    }
+}
@@ -0,0 +1,52 @@
+package se.lexicon.g58todoapp.service.impl;
+
+import jakarta.persistence.EntityManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import se.lexicon.g58todoapp.entity.Todo;
+import se.lexicon.g58todoapp.repo.TodoRepository;
+import se.lexicon.g58todoapp.service.TodoStreamService;
+
+import java.util.Iterator;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Todo Stream Service Implementation
+ * Keeps the cursor open in a read-only transaction and empties the persistence
+ * context as it goes
+ */
+@Service
+public class TodoStreamServiceImpl implements TodoStreamService {
+
+    // Clear the whole persistence context (including loaded persons) every this many rows
+    private static final int CLEAR_INTERVAL = Integer.parseInt(TodoRepository.STREAM_FETCH_SIZE);
+
+    private final TodoRepository todoRepository;
+    private final EntityManager entityManager;
+
+    public TodoStreamServiceImpl(TodoRepository todoRepository, EntityManager entityManager) {
+        this.todoRepository = todoRepository;
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long forEach(Function<TodoRepository, Stream<Todo>> query, Consumer<Todo> action) {
+        long count = 0;
+        try (Stream<Todo> stream = query.apply(todoRepository)) {
+            Iterator<Todo> rows = stream.iterator();
+            while (rows.hasNext()) {
+                Todo todo = rows.next();
+                action.accept(todo);
+                entityManager.detach(todo);
+
+                if (++count % CLEAR_INTERVAL == 0) {
+                    entityManager.clear();
+                }
+            }
+        }
+        return count;
+    }
+}
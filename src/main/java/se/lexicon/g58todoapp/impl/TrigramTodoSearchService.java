@@ -0,0 +1,161 @@
+package se.lexicon.g58todoapp.service.impl;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Service;
+import se.lexicon.g58todoapp.dto.TodoSearchResult;
+import se.lexicon.g58todoapp.dto.TodoSearchStats;
+import se.lexicon.g58todoapp.repo.TodoRepository;
+import se.lexicon.g58todoapp.search.TrigramIndex;
+import se.lexicon.g58todoapp.service.TodoSearchService;
+import se.lexicon.g58todoapp.service.TodoStreamService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Trigram Todo Search Service
+ * Answers searches from a TrigramIndex held in memory.
+ *
+ * The index is loaded from the database in the background on startup (isReady() is false
+ * until then) and can be rebuilt at any time. A rebuild fills a new index while searches
+ * keep using the old one; changes made meanwhile are applied to both, and replayed on the
+ * new index once it is loaded, so nothing committed during the rebuild is lost.
+ *
+ * Configuration (application.properties):
+ * - search.index.enabled        set to false to disable the index (and the search endpoint)
+ * - search.index.max-page-size  largest page size a client may ask for
+ */
+@Service
+@ConditionalOnProperty(name = "search.index.enabled", havingValue = "true", matchIfMissing = true)
+public class TrigramTodoSearchService implements TodoSearchService, SmartLifecycle {
+
+    private final TodoStreamService todoStreamService;
+    private final int maxPageSize;
+
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    private final Object changeLock = new Object();
+    private volatile TrigramIndex index = new TrigramIndex();
+    private List<Consumer<TrigramIndex>> changesDuringRebuild; // Guarded by changeLock
+    private volatile boolean ready;
+
+    private Thread loader;
+    private volatile boolean running;
+
+    public TrigramTodoSearchService(
+            TodoStreamService todoStreamService,
+            @Value("${search.index.max-page-size:100}") int maxPageSize) {
+        this.todoStreamService = todoStreamService;
+        this.maxPageSize = maxPageSize;
+    }
+
+    @Override
+    public TodoSearchResult search(String query, int page, int size) {
+        if (page < 0) {
+            throw new IllegalArgumentException("Page must be 0 or more");
+        }
+        if (size < 1 || size > maxPageSize) {
+            throw new IllegalArgumentException("Size must be between 1 and " + maxPageSize);
+        }
+        return index.search(query, page, size);
+    }
+
+    @Override
+    public void index(Long todoId, String title, String description) {
+        apply(target -> target.put(todoId, title, description));
+    }
+
+    @Override
+    public void remove(Long todoId) {
+        apply(target -> target.remove(todoId));
+    }
+
+    @Override
+    public long rebuild() {
+        if (!rebuildLock.tryLock()) {
+            throw new IllegalStateException("The search index is already being rebuilt");
+        }
+        try {
+            long start = System.nanoTime();
+            TrigramIndex fresh = new TrigramIndex();
+            synchronized (changeLock) {
+                changesDuringRebuild = new ArrayList<>();
+            }
+            long count;
+            try {
+                count = todoStreamService.forEach(
+                        TodoRepository::streamAllOrderById,
+                        todo -> fresh.put(todo.getId(), todo.getTitle(), todo.getDescription()));
+            } catch (RuntimeException e) {
+                synchronized (changeLock) {
+                    changesDuringRebuild = null;
+                }
+                throw e;
+            }
+            fresh.trim();
+            synchronized (changeLock) {
+                changesDuringRebuild.forEach(change -> change.accept(fresh));
+                changesDuringRebuild = null;
+                index = fresh;
+            }
+            ready = true;
+            System.out.println("🔎 Indexed " + count + " todo(s) for search in "
+                    + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + " ms");
+            return count;
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    @Override
+    public boolean isReady() {
+        return ready;
+    }
+
+    @Override
+    public TodoSearchStats getStats() {
+        return index.getStats(ready);
+    }
+
+    private void apply(Consumer<TrigramIndex> change) {
+        synchronized (changeLock) {
+            change.accept(index);
+            if (changesDuringRebuild != null) {
+                changesDuringRebuild.add(change);
+            }
+        }
+    }
+
+    // ----- Lifecycle -----
+
+    @Override
+    public void start() {
+        running = true;
+        loader = Thread.ofVirtual().name("search-index-loader").start(() -> {
+            try {
+                rebuild();
+            } catch (RuntimeException e) {
+                System.err.println("❌ Could not load the search index: " + e.getMessage());
+            }
+        });
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        try {
+            loader.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+}
@@ -0,0 +1,34 @@
+package se.lexicon.g58todoapp.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JFR event: an email was built and sent over SMTP (the event duration)
+ */
+@Name("se.lexicon.todo.EmailSend")
+@Label("Email Send")
+@Category({"Todo App", "Email"})
+@Description("Building and sending one email with EmailService.sendEmail")
+public class EmailSendEvent extends Event {
+
+    @Label("Recipients")
+    @Description("To, Cc and Bcc addresses")
+    public int recipientCount;
+
+    @Label("Message Size")
+    @Description("Size of the encoded MIME message, -1 if it was not built")
+    @DataAmount
+    public long messageSize;
+
+    @Label("HTML")
+    public boolean html;
+
+    @Label("Outcome")
+    @Description("success, or the simple name of the exception")
+    public String outcome;
+}
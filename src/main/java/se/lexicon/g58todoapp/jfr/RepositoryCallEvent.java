@@ -0,0 +1,30 @@
+package se.lexicon.g58todoapp.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JFR event: a Spring Data repository method was called (see RepositoryEventInterceptor)
+ */
+@Name("se.lexicon.todo.RepositoryCall")
+@Label("Repository Call")
+@Category({"Todo App", "Database"})
+@Description("One call of a repository method, e.g. TodoRepository.findByAssignedTo")
+public class RepositoryCallEvent extends Event {
+
+    @Label("Repository")
+    public String repository;
+
+    @Label("Method")
+    public String method;
+
+    @Label("Row Count")
+    @Description("Rows (entities or values) returned, -1 if unknown (streams, void, failures)")
+    public long rowCount;
+
+    @Label("Success")
+    public boolean success;
+}
@@ -0,0 +1,76 @@
+package se.lexicon.g58todoapp.jfr;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Window;
+
+import java.util.Collection;
+import java.util.Optional;
+import java.util.stream.BaseStream;
+
+/**
+ * Records every call of a repository method as a RepositoryCallEvent
+ * Added to each repository proxy by RepositoryEventsConfig.
+ *
+ * Without a running recording the event is disabled and the call goes straight through.
+ */
+public class RepositoryEventInterceptor implements MethodInterceptor {
+
+    private final String repository;
+
+    public RepositoryEventInterceptor(Class<?> repositoryInterface) {
+        this.repository = repositoryInterface.getSimpleName();
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        RepositoryCallEvent event = new RepositoryCallEvent();
+        if (!event.isEnabled()) {
+            return invocation.proceed();
+        }
+        event.begin();
+        Object result = null;
+        boolean success = false;
+        try {
+            result = invocation.proceed();
+            success = true;
+            return result;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.repository = repository;
+                event.method = invocation.getMethod().getName();
+                event.success = success;
+                event.rowCount = success && invocation.getMethod().getReturnType() != void.class ? rowCount(result) : -1;
+                event.commit();
+            }
+        }
+    }
+
+    /**
+     * Rows in a method result: the size of a collection or page, 0 or 1 for a single value,
+     * -1 for results that are read later (streams, iterables)
+     */
+    static long rowCount(Object result) {
+        if (result == null) {
+            return 0;
+        }
+        if (result instanceof Collection<?> collection) {
+            return collection.size();
+        }
+        if (result instanceof Slice<?> slice) {
+            return slice.getNumberOfElements();
+        }
+        if (result instanceof Window<?> window) {
+            return window.size();
+        }
+        if (result instanceof Optional<?> optional) {
+            return optional.isPresent() ? 1 : 0;
+        }
+        if (result instanceof Iterable<?> || result instanceof BaseStream<?, ?>) {
+            return -1;
+        }
+        return 1;
+    }
+}
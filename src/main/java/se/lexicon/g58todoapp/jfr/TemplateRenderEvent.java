@@ -0,0 +1,29 @@
+package se.lexicon.g58todoapp.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JFR event: a notification email body was rendered
+ */
+@Name("se.lexicon.todo.TemplateRender")
+@Label("Template Render")
+@Category({"Todo App", "Email"})
+@Description("Rendering of a notification email from its template")
+public class TemplateRenderEvent extends Event {
+
+    @Label("Template")
+    public String template;
+
+    @Label("Notification Type")
+    public String notificationType;
+
+    @Label("Byte Size")
+    @Description("Size of the rendered body in UTF-8")
+    @DataAmount
+    public long byteSize;
+}
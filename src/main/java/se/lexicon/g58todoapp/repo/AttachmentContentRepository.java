@@ -0,0 +1,43 @@
+package se.lexicon.g58todoapp.repo;
+
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import se.lexicon.g58todoapp.entity.AttachmentContent;
+
+import java.util.Optional;
+
+/**
+ * Repository interface for AttachmentContent entity
+ * Keeps the reference counts of the deduplicated attachment files
+ */
+public interface AttachmentContentRepository extends JpaRepository<AttachmentContent, String> {
+
+    /**
+     * Find a content row and lock it (SELECT ... FOR UPDATE)
+     * The lock makes concurrent reference count changes for the same file safe
+     *
+     * @param contentHash the SHA-256 hash of the content
+     * @return Optional containing the content row if found, empty otherwise
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM AttachmentContent c WHERE c.contentHash = :contentHash")
+    Optional<AttachmentContent> findForUpdate(@Param("contentHash") String contentHash);
+
+    /**
+     * Insert a content row without references
+     * Fails with a duplicate key if the row exists already. Used to make sure the row
+     * exists before it is locked with findForUpdate.
+     *
+     * @param contentHash the SHA-256 hash of the content
+     * @param size the size of the content in bytes
+     * @return the number of inserted rows
+     */
+    @Modifying
+    @Query(value = "INSERT INTO attachment_contents (content_hash, size, ref_count, created_at) " +
+            "VALUES (:contentHash, :size, 0, CURRENT_TIMESTAMP)", nativeQuery = true)
+    int insertUnreferenced(@Param("contentHash") String contentHash, @Param("size") long size);
+}
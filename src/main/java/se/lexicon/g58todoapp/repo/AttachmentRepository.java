@@ -1,10 +1,17 @@
 package se.lexicon.g58todoapp.repo;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import se.lexicon.g58todoapp.dto.AttachmentDTO;
+import se.lexicon.g58todoapp.dto.AttachmentSummary;
 import se.lexicon.g58todoapp.entity.Attachment;
 import se.lexicon.g58todoapp.entity.Todo;
 
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Repository interface for Attachment entity
@@ -36,4 +43,99 @@ public interface AttachmentRepository extends JpaRepository<Attachment, Long> {
      * @return List of attachments with matching file names
      */
     List<Attachment> findByFileNameContainingIgnoreCase(String fileName);
-}
\ No newline at end of file
+
+    // ========================================
+    // METADATA-ONLY QUERIES (never read the file content)
+    // ========================================
+
+    /**
+     * List the attachments of a todo without their content
+     * Only id, name, type, size and checksum are selected
+     *
+     * @param todo the todo task to find attachments for
+     * @return List of attachment summaries for this todo
+     */
+    List<AttachmentSummary> findSummariesByTodo(Todo todo);
+
+    /**
+     * List the attachments of a todo by todo id without their content
+     *
+     * @param todoId the id of the todo
+     * @return List of attachment summaries for this todo
+     */
+    List<AttachmentSummary> findSummariesByTodoId(Long todoId);
+
+    /**
+     * List attachments by file type without their content
+     *
+     * @param fileType the MIME type to search for (e.g., "application/pdf")
+     * @return List of attachment summaries with matching file type
+     */
+    List<AttachmentSummary> findSummariesByFileType(String fileType);
+
+    /**
+     * List attachments by file name (case-insensitive partial match) without their content
+     *
+     * @param fileName the name or part of name to search for
+     * @return List of attachment summaries with matching file names
+     */
+    List<AttachmentSummary> findSummariesByFileNameContainingIgnoreCase(String fileName);
+
+    /**
+     * Find the metadata of an attachment without loading the entity (and its BLOB)
+     * The size comes from the fileSize column (0 for rows stored before it existed)
+     *
+     * @param id the attachment id
+     * @return Optional containing the metadata if found, empty otherwise
+     */
+    @Query("SELECT new se.lexicon.g58todoapp.dto.AttachmentDTO(a.id, a.fileName, a.fileType, " +
+            "COALESCE(a.fileSize, 0L), t.id, a.contentHash) " +
+            "FROM Attachment a LEFT JOIN a.todo t WHERE a.id = :id")
+    Optional<AttachmentDTO> findMetadataById(@Param("id") Long id);
+
+    /**
+     * Get the size of the stored file in bytes without reading the content
+     *
+     * @param id the attachment id
+     * @return size in bytes, or null if no attachment has this id
+     */
+    @Query(value = "SELECT OCTET_LENGTH(data) FROM attachments WHERE id = :id", nativeQuery = true)
+    Long findContentLengthById(@Param("id") Long id);
+
+    /**
+     * Read one slice of the stored file
+     * Used to stream a download in fixed size chunks, so only one chunk is in memory at a time
+     *
+     * @param id the attachment id
+     * @param position 1-based position of the first byte (SQL SUBSTRING semantics)
+     * @param length the maximum number of bytes to read
+     * @return the bytes of this slice (may be shorter than length at the end of the file)
+     */
+    @Query(value = "SELECT SUBSTRING(data, :position, :length) FROM attachments WHERE id = :id", nativeQuery = true)
+    byte[] readContentChunk(@Param("id") Long id, @Param("position") long position, @Param("length") int length);
+
+    /**
+     * Find the ids of attachments that still keep their content in the BLOB column
+     * Used by the storage migration, one page at a time in id order
+     *
+     * @param afterId only ids greater than this are returned (0 for the first page)
+     * @param limit maximum number of ids to return
+     * @return ids in ascending order
+     */
+    @Query("SELECT a.id FROM Attachment a WHERE a.data IS NOT NULL AND a.id > :afterId ORDER BY a.id")
+    List<Long> findIdsWithDatabaseContent(@Param("afterId") Long afterId, Limit limit);
+
+    /**
+     * Point an attachment at its content in the filesystem storage and clear the BLOB column
+     * Used by the storage migration, so the attachment is not loaded
+     *
+     * @param id the attachment id
+     * @param contentHash the hash the storage keeps the content under
+     * @param fileSize the size of the content in bytes
+     * @return the number of updated rows
+     */
+    @Modifying
+    @Query("UPDATE Attachment a SET a.data = NULL, a.contentHash = :contentHash, a.fileSize = :fileSize WHERE a.id = :id")
+    int moveContentToStorage(@Param("id") Long id, @Param("contentHash") String contentHash,
+                             @Param("fileSize") long fileSize);
+}
@@ -0,0 +1,10 @@
+package se.lexicon.g58todoapp.repo;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import se.lexicon.g58todoapp.entity.JobCheckpoint;
+
+/**
+ * Repository interface for JobCheckpoint entity
+ */
+public interface JobCheckpointRepository extends JpaRepository<JobCheckpoint, String> {
+}
@@ -0,0 +1,41 @@
+package se.lexicon.g58todoapp.repo;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.QueryHints;
+import se.lexicon.g58todoapp.entity.OutboxMessage;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repository interface for OutboxMessage entity
+ */
+public interface OutboxMessageRepository extends JpaRepository<OutboxMessage, Long> {
+
+    /**
+     * Claim a batch of messages that are due for sending
+     *
+     * Runs SELECT ... FOR UPDATE SKIP LOCKED (lock timeout -2 = skip locked in Hibernate):
+     * rows locked by another node are skipped instead of waited for, so several
+     * nodes can drain the outbox in parallel without taking the same message.
+     *
+     * @param status the status to look for (PENDING)
+     * @param now messages with nextAttemptAt at or before this time are due
+     * @param limit maximum number of messages to claim
+     * @return due messages, oldest first
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    List<OutboxMessage> findByStatusAndNextAttemptAtLessThanEqualOrderByIdAsc(
+            OutboxMessage.Status status, LocalDateTime now, Limit limit);
+
+    /**
+     * Count messages with a status
+     * Useful for monitoring the outbox backlog
+     */
+    long countByStatus(OutboxMessage.Status status);
+}
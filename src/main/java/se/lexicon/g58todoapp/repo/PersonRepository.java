@@ -1,9 +1,17 @@
 package se.lexicon.g58todoapp.repo;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import se.lexicon.g58todoapp.entity.Person;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface PersonRepository extends JpaRepository<Person, Long> {
 
@@ -35,4 +43,24 @@ public interface PersonRepository extends JpaRepository<Person, Long> {
      * @return true if person exists, false otherwise
      */
     boolean existsByEmail(String email);
-}
\ No newline at end of file
+
+    /**
+     * Stream the email addresses of all persons (only the email column is read)
+     * Used to fill the Bloom filter of PersonLookupService; must be consumed inside a transaction
+     */
+    @Query("SELECT p.email FROM Person p")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = TodoRepository.STREAM_FETCH_SIZE))
+    Stream<String> streamAllEmails();
+
+    /**
+     * Email addresses of all persons, e.g. for an announcement to everyone
+     */
+    @Query("SELECT p.email FROM Person p ORDER BY p.id")
+    List<String> findAllEmails();
+
+    /**
+     * Email addresses of the given persons
+     */
+    @Query("SELECT p.email FROM Person p WHERE p.id IN :ids ORDER BY p.id")
+    List<String> findEmailsByIdIn(@Param("ids") Collection<Long> ids);
+}
@@ -0,0 +1,133 @@
+package se.lexicon.g58todoapp.repo;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Repository for the todo list versions, used for the ETags of the lists
+ * - a person's list: one row per assignee in todo_list_versions, incremented with every
+ *   change of a todo in the list, so the ETag is one primary key read
+ * - all todos: MAX(updated_at) (from the end of idx_todos_updated_at) and the last id of
+ *   todo_deletions, so no single row is written (and locked) by every todo write
+ *
+ * Uses plain JDBC on the transaction's connection, because it is called from the Todo entity
+ * listeners while Hibernate flushes, where the EntityManager must not be used.
+ */
+@Repository
+public class TodoListVersionRepository {
+
+    /**
+     * Version of the list of all todos
+     *
+     * @param lastUpdatedAt the newest updated_at, null without todos
+     * @param lastDeletionId the id of the last deleted todo's entry in todo_deletions, 0 if none
+     */
+    public record AllTodosVersion(LocalDateTime lastUpdatedAt, long lastDeletionId) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public TodoListVersionRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Current version of a person's list, 0 if it never changed
+     */
+    public long findVersion(Long assigneeId) {
+        List<Long> version = jdbcTemplate.queryForList(
+                "SELECT version FROM todo_list_versions WHERE assignee_id = ?", Long.class, assigneeId);
+        return version.isEmpty() ? 0 : version.getFirst();
+    }
+
+    /**
+     * Current version of the list of all todos, in one round trip
+     */
+    public AllTodosVersion findAllTodosVersion() {
+        return jdbcTemplate.queryForObject(
+                "SELECT (SELECT MAX(updated_at) FROM todos), (SELECT MAX(id) FROM todo_deletions)",
+                (rs, rowNum) -> new AllTodosVersion(
+                        rs.getObject(1, LocalDateTime.class),
+                        rs.getLong(2)));
+    }
+
+    /**
+     * Log a deleted todo, which changes the version of the list of all todos
+     * An insert only, so concurrent deletes do not wait for each other.
+     */
+    public void recordDeletion(Long todoId, LocalDateTime deletedAt) {
+        jdbcTemplate.update("INSERT INTO todo_deletions (todo_id, deleted_at) VALUES (?, ?)", todoId, deletedAt);
+    }
+
+    /**
+     * Increment the versions of the given assignees' lists
+     * Must run in the transaction that changes the todos. The rows stay locked until it ends,
+     * and are always locked in the same order (by id), so two transactions cannot wait for
+     * each other. Unassigned todos are only in the list of all todos, which has no row.
+     * Each list is incremented at most once per transaction: once is enough to change its
+     * ETag, so saving many todos in one transaction costs one UPDATE per list, not per todo.
+     *
+     * @param assigneeIds the persons whose lists changed, null elements are ignored
+     */
+    public void increment(Collection<Long> assigneeIds) {
+        TreeSet<Long> ids = new TreeSet<>();
+        assigneeIds.stream().filter(Objects::nonNull).forEach(ids::add);
+        Set<Long> incremented = incrementedInTransaction();
+        for (Long id : ids) {
+            if (incremented.add(id)) {
+                increment(id);
+            }
+        }
+    }
+
+    /**
+     * The lists already incremented by the current transaction
+     */
+    @SuppressWarnings("unchecked")
+    private Set<Long> incrementedInTransaction() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return new HashSet<>();
+        }
+        Set<Long> incremented = (Set<Long>) TransactionSynchronizationManager.getResource(this);
+        if (incremented == null) {
+            Set<Long> fresh = new HashSet<>();
+            TransactionSynchronizationManager.bindResource(this, fresh);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(TodoListVersionRepository.this);
+                }
+            });
+            incremented = fresh;
+        }
+        return incremented;
+    }
+
+    private void increment(long assigneeId) {
+        if (update(assigneeId) > 0) {
+            return;
+        }
+        try {
+            jdbcTemplate.update("INSERT INTO todo_list_versions (assignee_id, version) VALUES (?, 1)", assigneeId);
+        } catch (DuplicateKeyException e) {
+            // Inserted by a concurrent first change of the same list
+            update(assigneeId);
+        }
+    }
+
+    private int update(long assigneeId) {
+        return jdbcTemplate.update(
+                "UPDATE todo_list_versions SET version = version + 1 WHERE assignee_id = ?", assigneeId);
+    }
+}
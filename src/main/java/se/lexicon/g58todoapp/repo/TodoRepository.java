@@ -1,15 +1,32 @@
 package se.lexicon.g58todoapp.repo;
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import se.lexicon.g58todoapp.entity.Person;
 import se.lexicon.g58todoapp.entity.Todo;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface TodoRepository extends JpaRepository<Todo, Long> {
+
+    /**
+     * Number of rows the JDBC driver fetches per round trip for the stream* methods
+     * (on MySQL this needs useCursorFetch=true in the connection URL)
+     */
+    String STREAM_FETCH_SIZE = "500";
     
     
     // TODO : Tasks assigned to a specific Person
@@ -73,6 +90,9 @@ public interface TodoRepository extends JpaRepository<Todo, Long> {
      *
      * Example: keyword "shop" will find "Shopping", "SHOP", "workshop"
      *
+     * No index can serve a leading wildcard, so this reads every row.
+     * For user-facing search use TodoSearchService, which answers from memory.
+     *
      * @param keyword the text to search for in titles
      * @return List of todos with matching titles
      */
@@ -149,4 +169,305 @@ public interface TodoRepository extends JpaRepository<Todo, Long> {
      * @return List of todos without a due date
      */
     List<Todo> findByDueDateIsNull();
-}
\ No newline at end of file
+
+    // ========================================
+    // QUERIES THAT FETCH THE ASSIGNEE
+    // ========================================
+    // Todo.assignedTo is LAZY. Use these variants when the caller reads the assignee
+    // of every todo (e.g. to send notifications): the person is fetched with a join
+    // in the same query instead of one SELECT per person.
+    // findByAssignedTo needs no such variant, the caller already has the person.
+
+    /**
+     * findByCompleted, fetching the assignee in the same query
+     */
+    @EntityGraph(attributePaths = "assignedTo")
+    List<Todo> findWithAssigneeByCompleted(boolean completed);
+
+    /**
+     * findByDueDateBetween, fetching the assignee in the same query
+     */
+    @EntityGraph(attributePaths = "assignedTo")
+    List<Todo> findWithAssigneeByDueDateBetween(LocalDateTime startDate, LocalDateTime endDate);
+
+    /**
+     * findByDueDateBeforeAndCompleted, fetching the assignee in the same query
+     */
+    @EntityGraph(attributePaths = "assignedTo")
+    List<Todo> findWithAssigneeByDueDateBeforeAndCompleted(LocalDateTime date, boolean completed);
+
+    /**
+     * findOverdueTasks, fetching the assignee in the same query
+     */
+    @EntityGraph(attributePaths = "assignedTo")
+    @Query("SELECT t FROM Todo t WHERE t.completed = false AND t.dueDate < :now")
+    List<Todo> findOverdueTasksWithAssignee(@Param("now") LocalDateTime now);
+
+    /**
+     * findByTitleContainingIgnoreCase, fetching the assignee in the same query
+     */
+    @EntityGraph(attributePaths = "assignedTo")
+    List<Todo> findWithAssigneeByTitleContainingIgnoreCase(String keyword);
+
+    /**
+     * findById, fetching the assignee in the same query
+     */
+    @EntityGraph(attributePaths = "assignedTo")
+    Optional<Todo> findWithAssigneeById(Long id);
+
+    // ========================================
+    // KEYSET (SEEK) PAGINATION
+    // ========================================
+    // Every finder above also exists as a keyset-paginated variant.
+    // Each page continues after the last row of the previous page (WHERE id > ?),
+    // so page 1000 costs the same as page 1 and only one page is in memory.
+    //
+    // Example:
+    // Window<Todo> page = todoRepository.findByCompletedOrderByIdAsc(false, ScrollPosition.keyset(), Limit.of(100));
+    // while (!page.isEmpty()) {
+    //     ... use page.getContent() ...
+    //     if (!page.hasNext()) break;
+    //     page = todoRepository.findByCompletedOrderByIdAsc(false, page.positionAt(page.size() - 1), Limit.of(100));
+    // }
+    // Or use WindowIterator from Spring Data to do the loop.
+
+    /**
+     * Keyset-paginated variant of findByAssignedTo, ordered by id
+     */
+    Window<Todo> findByAssignedToOrderByIdAsc(Person person, ScrollPosition position, Limit limit);
+
+    /**
+     * Keyset-paginated variant of findByCompletedAndAssignedTo, ordered by id
+     */
+    Window<Todo> findByCompletedAndAssignedToOrderByIdAsc(boolean completed, Person person,
+                                                          ScrollPosition position, Limit limit);
+
+    /**
+     * Keyset-paginated variant of findByTitleContainingIgnoreCase, ordered by id
+     */
+    Window<Todo> findByTitleContainingIgnoreCaseOrderByIdAsc(String keyword, ScrollPosition position, Limit limit);
+
+    /**
+     * Keyset-paginated variant of findByCompleted, ordered by id
+     */
+    Window<Todo> findByCompletedOrderByIdAsc(boolean completed, ScrollPosition position, Limit limit);
+
+    /**
+     * Keyset-paginated variant of findByDueDateBetween, ordered by (dueDate, id)
+     */
+    Window<Todo> findByDueDateBetweenOrderByDueDateAscIdAsc(LocalDateTime startDate, LocalDateTime endDate,
+                                                             ScrollPosition position, Limit limit);
+
+    /**
+     * Keyset-paginated variant of findByDueDateBeforeAndCompleted, ordered by (dueDate, id)
+     */
+    Window<Todo> findByDueDateBeforeAndCompletedOrderByDueDateAscIdAsc(LocalDateTime date, boolean completed,
+                                                                        ScrollPosition position, Limit limit);
+
+    /**
+     * Keyset-paginated variant of findOverdueTasks, ordered by (dueDate, id)
+     * Same condition as the JPQL query: completed = false AND dueDate < now
+     */
+    Window<Todo> findByCompletedFalseAndDueDateBeforeOrderByDueDateAscIdAsc(LocalDateTime now,
+                                                                          ScrollPosition position, Limit limit);
+
+    /**
+     * Keyset-paginated variant of findByAssignedToIsNull, ordered by id
+     */
+    Window<Todo> findByAssignedToIsNullOrderByIdAsc(ScrollPosition position, Limit limit);
+
+    /**
+     * Keyset-paginated variant of findByDueDateIsNull, ordered by id
+     */
+    Window<Todo> findByDueDateIsNullOrderByIdAsc(ScrollPosition position, Limit limit);
+
+    // ========================================
+    // STREAMING QUERIES
+    // ========================================
+    // Every finder above also exists as a Stream that is read from an open cursor,
+    // STREAM_FETCH_SIZE rows at a time. A Stream must be consumed inside a transaction
+    // and closed afterwards - use TodoStreamService, which also detaches each row
+    // so the persistence context does not grow with the result.
+
+    /**
+     * Streaming variant of findByAssignedTo
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    Stream<Todo> streamByAssignedTo(Person person);
+
+    /**
+     * Streaming variant of findByCompletedAndAssignedTo
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    Stream<Todo> streamByCompletedAndAssignedTo(boolean completed, Person person);
+
+    /**
+     * Streaming variant of findByTitleContainingIgnoreCase
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    Stream<Todo> streamByTitleContainingIgnoreCase(String keyword);
+
+    /**
+     * Streaming variant of findByCompleted
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    Stream<Todo> streamByCompleted(boolean completed);
+
+    /**
+     * Streaming variant of findByDueDateBetween
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    Stream<Todo> streamByDueDateBetween(LocalDateTime startDate, LocalDateTime endDate);
+
+    /**
+     * Streaming variant of findByDueDateBeforeAndCompleted
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    Stream<Todo> streamByDueDateBeforeAndCompleted(LocalDateTime date, boolean completed);
+
+    /**
+     * Streaming variant of findOverdueTasks
+     */
+    @Query("SELECT t FROM Todo t WHERE t.completed = false AND t.dueDate < :now")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    Stream<Todo> streamOverdueTasks(@Param("now") LocalDateTime now);
+
+    /**
+     * Streaming variant of findByAssignedToIsNull
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    Stream<Todo> streamByAssignedToIsNull();
+
+    /**
+     * Streaming variant of findByDueDateIsNull
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    Stream<Todo> streamByDueDateIsNull();
+
+    /**
+     * Stream pending todos due in a time window
+     * Used to load upcoming due dates into the ReminderScheduler
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    Stream<Todo> streamByCompletedFalseAndDueDateBetween(LocalDateTime startDate, LocalDateTime endDate);
+
+    /**
+     * Stream all todos in id order
+     * Used to build the search index: ids arrive in ascending order, so the index only appends
+     */
+    @Query("SELECT t FROM Todo t ORDER BY t.id")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    Stream<Todo> streamAllOrderById();
+
+    /**
+     * Stream all pending todos with their assignee, grouped by assignee (ordered by person id)
+     * One query for the whole user base, used by the daily summary job
+     *
+     * @param afterPersonId only todos of persons with a greater id (0 = everyone), for resuming
+     */
+    @Query("SELECT t FROM Todo t JOIN FETCH t.assignedTo p " +
+            "WHERE t.completed = false AND p.id > :afterPersonId ORDER BY p.id, t.dueDate, t.id")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    Stream<Todo> streamPendingGroupedByAssignee(@Param("afterPersonId") Long afterPersonId);
+
+    // ========================================
+    // PER-PERSON COUNTS
+    // ========================================
+    // Used to load and reconcile the in-memory counters of TodoStatsService.
+    // Dashboards should read TodoStatsService instead of counting on every request.
+
+    /**
+     * Todo counts of one assignee
+     */
+    interface AssigneeTodoCounts {
+        Long getAssigneeId();
+        long getTotal();
+        long getCompleted();
+        long getOverdue();
+    }
+
+    /**
+     * A pending todo with a future due date
+     */
+    interface UpcomingDueDate {
+        Long getId();
+        Long getAssigneeId();
+        LocalDateTime getDueDate();
+    }
+
+    /**
+     * Total, completed and overdue todos of every assignee, in one grouped query
+     */
+    @Query("SELECT t.assignedTo.id AS assigneeId, COUNT(t) AS total, " +
+            "SUM(CASE WHEN t.completed = true THEN 1 ELSE 0 END) AS completed, " +
+            "SUM(CASE WHEN t.completed = false AND t.dueDate < :now THEN 1 ELSE 0 END) AS overdue " +
+            "FROM Todo t WHERE t.assignedTo IS NOT NULL GROUP BY t.assignedTo.id")
+    List<AssigneeTodoCounts> countAllByAssignee(@Param("now") LocalDateTime now);
+
+    /**
+     * Total, completed and overdue todos of one assignee (empty if the person has no todos)
+     */
+    @Query("SELECT t.assignedTo.id AS assigneeId, COUNT(t) AS total, " +
+            "SUM(CASE WHEN t.completed = true THEN 1 ELSE 0 END) AS completed, " +
+            "SUM(CASE WHEN t.completed = false AND t.dueDate < :now THEN 1 ELSE 0 END) AS overdue " +
+            "FROM Todo t WHERE t.assignedTo.id = :personId GROUP BY t.assignedTo.id")
+    Optional<AssigneeTodoCounts> countByAssignee(@Param("personId") Long personId, @Param("now") LocalDateTime now);
+
+    /**
+     * Stream the assigned, pending todos that are due at or after now
+     */
+    @Query("SELECT t.id AS id, t.assignedTo.id AS assigneeId, t.dueDate AS dueDate FROM Todo t " +
+            "WHERE t.completed = false AND t.dueDate >= :now AND t.assignedTo IS NOT NULL")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE))
+    Stream<UpcomingDueDate> streamUpcomingDueDates(@Param("now") LocalDateTime now);
+
+    // ========================================
+    // REST API (TodoController)
+    // ========================================
+
+    /**
+     * Last change of one todo, without loading it (primary key lookup), for its ETag
+     * Todos saved before updated_at was always set fall back to createdAt.
+     */
+    @Query("SELECT COALESCE(t.updatedAt, t.createdAt) FROM Todo t WHERE t.id = :id")
+    Optional<LocalDateTime> findUpdatedAtById(@Param("id") Long id);
+
+    /**
+     * Keyset pages for the todo list: the next limit todos after an id
+     */
+    List<Todo> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    List<Todo> findByAssignedToIdAndIdGreaterThanOrderByIdAsc(Long assigneeId, Long id, Limit limit);
+
+    /**
+     * Load a todo and lock its row until the transaction ends, so a conditional update
+     * (If-Match) cannot be overtaken by another write between the check and the save
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT t FROM Todo t WHERE t.id = :id")
+    Optional<Todo> findForUpdateById(@Param("id") Long id);
+}
@@ -0,0 +1,334 @@
+package se.lexicon.g58todoapp.search;
+
+import java.util.Arrays;
+
+/**
+ * Posting List
+ * A sorted set of todo ids in a compact format: each id is stored as the difference to the
+ * previous one (delta) in a variable number of bytes (varint, 7 bits per byte). Ids that are
+ * close together, like auto-increment ids, take 1-2 bytes instead of 8.
+ *
+ * Every SKIP_INTERVAL appended ids a skip entry (previous id, byte offset) is recorded, so a
+ * Cursor can jump close to an id with a binary search instead of decoding everything before it.
+ *
+ * Appending a greater id is O(1). Inserting a smaller id or removing one only decodes the
+ * block it is in and moves the bytes after it.
+ *
+ * Not thread-safe, TrigramIndex guards it with its lock.
+ */
+public final class PostingList {
+
+    /**
+     * Returned by the cursor when there are no more ids
+     */
+    public static final long END = Long.MAX_VALUE;
+
+    static final int SKIP_INTERVAL = 128;
+
+    private static final long[] NO_IDS = new long[0];
+    private static final int[] NO_OFFSETS = new int[0];
+
+    private byte[] data = new byte[4];
+    private int length;
+    private int size;
+    private long lastId;
+
+    // Skip entry k: block k + 1 starts at byte skipOffsets[k], right after id skipIds[k]
+    // (block 0 starts at byte 0, after the implicit id 0)
+    private long[] skipIds = NO_IDS;
+    private int[] skipOffsets = NO_OFFSETS;
+    private int skipCount;
+    private int sinceSkip;
+
+    /**
+     * Add an id
+     *
+     * @param id a positive id
+     * @return false if the id was already in the list
+     */
+    public boolean add(long id) {
+        if (id <= 0) {
+            throw new IllegalArgumentException("Ids must be positive: " + id);
+        }
+        if (id > lastId) {
+            append(id);
+            return true;
+        }
+        return insert(id);
+    }
+
+    /**
+     * Remove an id
+     *
+     * @return false if the id was not in the list
+     */
+    public boolean remove(long id) {
+        if (id <= 0 || id > lastId) {
+            return false;
+        }
+        int block = blockOf(id);
+        int offset = blockStart(block);
+        long previous = blockBase(block);
+        int[] position = new int[1];
+        while (offset < length) {
+            position[0] = offset;
+            long current = previous + readVarLong(data, position);
+            if (current == id) {
+                int end = position[0];
+                if (end == length) {
+                    // Last id: cut it off, with any blocks that are now past the end
+                    length = offset;
+                    lastId = previous;
+                    while (skipCount > 0 && skipOffsets[skipCount - 1] >= length) {
+                        skipCount--;
+                    }
+                } else {
+                    long next = current + readVarLong(data, position);
+                    replace(offset, position[0], encode(next - previous));
+                    // If the next id started a block, the merged delta now starts it
+                    for (int k = block; k < skipCount && skipOffsets[k] == end; k++) {
+                        skipOffsets[k] = offset;
+                        skipIds[k] = previous;
+                    }
+                }
+                size--;
+                return true;
+            }
+            if (current > id) {
+                return false;
+            }
+            previous = current;
+            offset = position[0];
+        }
+        return false;
+    }
+
+    /**
+     * Whether the list has the id
+     */
+    public boolean contains(long id) {
+        return id > 0 && cursor().advance(id) == id;
+    }
+
+    /**
+     * Number of ids
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Bytes of memory used by the ids and skip entries (excluding object headers)
+     */
+    public long memoryBytes() {
+        return data.length + skipIds.length * 8L + skipOffsets.length * 4L;
+    }
+
+    /**
+     * Release unused capacity, e.g. after a rebuild
+     */
+    public void trim() {
+        data = Arrays.copyOf(data, Math.max(length, 1));
+        skipIds = Arrays.copyOf(skipIds, skipCount);
+        skipOffsets = Arrays.copyOf(skipOffsets, skipCount);
+    }
+
+    /**
+     * All ids in ascending order
+     */
+    public long[] toArray() {
+        long[] ids = new long[size];
+        Cursor cursor = cursor();
+        for (int i = 0; i < size; i++) {
+            ids[i] = cursor.next();
+        }
+        return ids;
+    }
+
+    /**
+     * A cursor positioned before the first id
+     * Only valid until the list is changed
+     */
+    public Cursor cursor() {
+        return new Cursor();
+    }
+
+    /**
+     * Reads the ids in ascending order
+     */
+    public final class Cursor {
+
+        private final int[] position = new int[1];
+        private long current;
+        private int nextSkip;
+
+        /**
+         * The next id, or END
+         */
+        public long next() {
+            if (current == END || position[0] >= length) {
+                current = END;
+                return END;
+            }
+            current += readVarLong(data, position);
+            return current;
+        }
+
+        /**
+         * The first id greater than or equal to the target, or END
+         * Uses the skip entries to jump over whole blocks
+         */
+        public long advance(long target) {
+            if (current >= target) {
+                return current;
+            }
+            // Only search the skip entries when the target is past the next one
+            if (nextSkip < skipCount && skipIds[nextSkip] < target) {
+                int block = blockOf(target);
+                if (skipOffsets[block - 1] > position[0]) {
+                    position[0] = skipOffsets[block - 1];
+                    current = skipIds[block - 1];
+                }
+                nextSkip = block;
+            }
+            long id;
+            do {
+                id = next();
+            } while (id < target);
+            return id;
+        }
+
+        /**
+         * Number of ids in the list, used to start an intersection with the shortest list
+         */
+        public int size() {
+            return size;
+        }
+    }
+
+    // ----- Encoding -----
+
+    private void append(long id) {
+        if (sinceSkip == SKIP_INTERVAL) {
+            if (skipCount == skipIds.length) {
+                int capacity = Math.max(4, skipCount * 2);
+                skipIds = Arrays.copyOf(skipIds, capacity);
+                skipOffsets = Arrays.copyOf(skipOffsets, capacity);
+            }
+            skipIds[skipCount] = lastId;
+            skipOffsets[skipCount] = length;
+            skipCount++;
+            sinceSkip = 0;
+        }
+        ensureCapacity(length + 10);
+        length = writeVarLong(data, length, id - lastId);
+        lastId = id;
+        size++;
+        sinceSkip++;
+    }
+
+    private boolean insert(long id) {
+        // id < lastId, so there is a greater id in the same block to insert it before
+        int block = blockOf(id);
+        int offset = blockStart(block);
+        long previous = blockBase(block);
+        int[] position = new int[1];
+        while (true) {
+            position[0] = offset;
+            long current = previous + readVarLong(data, position);
+            if (current == id) {
+                return false;
+            }
+            if (current > id) {
+                byte[] both = concat(encode(id - previous), encode(current - id));
+                replace(offset, position[0], both);
+                size++;
+                return true;
+            }
+            previous = current;
+            offset = position[0];
+        }
+    }
+
+    /**
+     * Index of the block the id falls in: the last block whose previous id is smaller
+     * (0 = the first block, k > 0 = skip entry k - 1)
+     */
+    private int blockOf(long id) {
+        int low = 0;
+        int high = skipCount - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            if (skipIds[middle] < id) {
+                low = middle + 1;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return low;
+    }
+
+    private int blockStart(int block) {
+        return block == 0 ? 0 : skipOffsets[block - 1];
+    }
+
+    private long blockBase(int block) {
+        return block == 0 ? 0 : skipIds[block - 1];
+    }
+
+    /**
+     * Replace data[from, to) with the given bytes and move the skip offsets after it
+     */
+    private void replace(int from, int to, byte[] bytes) {
+        int shift = bytes.length - (to - from);
+        ensureCapacity(length + shift);
+        System.arraycopy(data, to, data, to + shift, length - to);
+        System.arraycopy(bytes, 0, data, from, bytes.length);
+        length += shift;
+        for (int k = 0; k < skipCount; k++) {
+            if (skipOffsets[k] >= to) {
+                skipOffsets[k] += shift;
+            }
+        }
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > data.length) {
+            data = Arrays.copyOf(data, Math.max(capacity, data.length + (data.length >> 1)));
+        }
+    }
+
+    private static byte[] encode(long value) {
+        byte[] buffer = new byte[10];
+        return Arrays.copyOf(buffer, writeVarLong(buffer, 0, value));
+    }
+
+    private static byte[] concat(byte[] first, byte[] second) {
+        byte[] both = Arrays.copyOf(first, first.length + second.length);
+        System.arraycopy(second, 0, both, first.length, second.length);
+        return both;
+    }
+
+    static int writeVarLong(byte[] buffer, int offset, long value) {
+        while ((value & ~0x7FL) != 0) {
+            buffer[offset++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[offset++] = (byte) value;
+        return offset;
+    }
+
+    static long readVarLong(byte[] buffer, int[] position) {
+        int offset = position[0];
+        long value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = buffer[offset++];
+            value |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while (b < 0);
+        position[0] = offset;
+        return value;
+    }
+}
@@ -0,0 +1,367 @@
+package se.lexicon.g58todoapp.search;
+
+import se.lexicon.g58todoapp.dto.TodoSearchHit;
+import se.lexicon.g58todoapp.dto.TodoSearchResult;
+import se.lexicon.g58todoapp.dto.TodoSearchStats;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Trigram Index
+ * In-memory inverted index for case-insensitive substring search in todo titles and descriptions,
+ * which LIKE '%keyword%' can only answer by reading every row.
+ *
+ * Every three-character sequence (trigram) of the text points to a PostingList of the todos
+ * that contain it. "shopping" is split into "sho", "hop", "opp", "ppi", "pin", "ing", and only
+ * the todos in all six lists can contain it. Those candidates are then checked against the
+ * stored text, so the result is exact.
+ *
+ * A query is split on whitespace, every term must match (in the title or the description).
+ * Terms shorter than three characters have no trigrams: they only filter the candidates of the
+ * longer terms, and a query with only short terms checks every todo.
+ *
+ * Ranking per term: title match 2, +1 if it starts a word in the title, description-only match 1.
+ * Equal scores are ordered newest (highest id) first.
+ *
+ * Thread-safe: searches share a read lock, changes take the write lock.
+ */
+public class TrigramIndex {
+
+    private static final Comparator<TodoSearchHit> RANKING = Comparator
+            .comparingInt(TodoSearchHit::getScore).reversed()
+            .thenComparing(TodoSearchHit::getId, Comparator.reverseOrder());
+
+    private final Map<Long, PostingList> postings = new HashMap<>();
+    private final Map<Long, Document> documents = new HashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private long postingCount;
+
+    /**
+     * What is kept per todo: the title to show, and title + newline + description
+     * lower-cased to match against (so a term cannot match across the two)
+     */
+    private record Document(String title, String text) {
+
+        static Document of(String title, String description) {
+            title = title != null ? title : "";
+            return new Document(title, lowerCase(title) + "\n" + lowerCase(description != null ? description : ""));
+        }
+
+        boolean inTitle(int index) {
+            return index < title.length();
+        }
+    }
+
+    /**
+     * Add a todo or replace its text
+     * Only the trigrams that changed are updated, so re-indexing unchanged text is cheap
+     */
+    public void put(long id, String title, String description) {
+        Document document = Document.of(title, description);
+        lock.writeLock().lock();
+        try {
+            Document old = documents.put(id, document);
+            if (document.equals(old)) {
+                return;
+            }
+            long[] added = trigrams(document.text());
+            long[] removed = old != null ? trigrams(old.text()) : new long[0];
+            // Both are sorted: walk them together and only touch the differences
+            int a = 0;
+            int r = 0;
+            while (a < added.length || r < removed.length) {
+                if (r == removed.length || (a < added.length && added[a] < removed[r])) {
+                    addPosting(added[a++], id);
+                } else if (a == added.length || removed[r] < added[a]) {
+                    removePosting(removed[r++], id);
+                } else {
+                    a++;
+                    r++;
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove a todo
+     *
+     * @return false if the todo was not indexed
+     */
+    public boolean remove(long id) {
+        lock.writeLock().lock();
+        try {
+            Document old = documents.remove(id);
+            if (old == null) {
+                return false;
+            }
+            for (long trigram : trigrams(old.text())) {
+                removePosting(trigram, id);
+            }
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Find the todos containing every term of the query
+     *
+     * @param query search text, terms separated by whitespace
+     * @param page page number, starting at 0
+     * @param size hits per page
+     * @return the requested page of hits, best match first, and the total number of matches
+     */
+    public TodoSearchResult search(String query, int page, int size) {
+        List<String> terms = terms(query);
+        int limit = (int) Math.min(Integer.MAX_VALUE, (long) (page + 1) * size);
+        // Worst hit at the head, so only the best "limit" hits are kept
+        PriorityQueue<TodoSearchHit> best = new PriorityQueue<>(RANKING.reversed());
+        int total = 0;
+
+        lock.readLock().lock();
+        try {
+            if (!terms.isEmpty()) {
+                long[] candidates = candidates(terms);
+                for (long id : candidates) {
+                    Document document = documents.get(id);
+                    int score = score(document, terms);
+                    if (score == 0) {
+                        continue;
+                    }
+                    total++;
+                    // Only create a hit if it makes it into the best ones so far
+                    TodoSearchHit worst = best.size() == limit ? best.peek() : null;
+                    if (worst == null || score > worst.getScore()
+                            || (score == worst.getScore() && id > worst.getId())) {
+                        best.add(new TodoSearchHit(id, document.title(), score));
+                        if (best.size() > limit) {
+                            best.poll();
+                        }
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        List<TodoSearchHit> ranked = new ArrayList<>(best);
+        ranked.sort(RANKING);
+        int from = (int) Math.min(ranked.size(), (long) page * size);
+        return TodoSearchResult.builder()
+                .query(query)
+                .page(page)
+                .size(size)
+                .total(total)
+                .hits(new ArrayList<>(ranked.subList(from, ranked.size())))
+                .build();
+    }
+
+    /**
+     * Number of indexed todos
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Size of the index
+     *
+     * @param ready passed through to the result
+     */
+    public TodoSearchStats getStats(boolean ready) {
+        lock.readLock().lock();
+        try {
+            long bytes = 0;
+            for (PostingList list : postings.values()) {
+                bytes += list.memoryBytes();
+            }
+            return TodoSearchStats.builder()
+                    .ready(ready)
+                    .documents(documents.size())
+                    .trigrams(postings.size())
+                    .postings(postingCount)
+                    .postingBytes(bytes)
+                    .build();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Release unused capacity of the posting lists, e.g. after loading all todos
+     */
+    public void trim() {
+        lock.writeLock().lock();
+        try {
+            postings.values().forEach(PostingList::trim);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // ----- Searching -----
+
+    /**
+     * Ids of the todos that contain all trigrams of the terms
+     */
+    private long[] candidates(List<String> terms) {
+        Set<Long> trigrams = new LinkedHashSet<>();
+        for (String term : terms) {
+            for (long trigram : trigrams(term)) {
+                trigrams.add(trigram);
+            }
+        }
+        if (trigrams.isEmpty()) {
+            // Only short terms: check every todo
+            return documents.keySet().stream().mapToLong(Long::longValue).toArray();
+        }
+
+        PostingList.Cursor[] cursors = new PostingList.Cursor[trigrams.size()];
+        int n = 0;
+        for (Long trigram : trigrams) {
+            PostingList list = postings.get(trigram);
+            if (list == null) {
+                return new long[0];
+            }
+            cursors[n++] = list.cursor();
+        }
+        // Drive the intersection with the shortest list, the others jump ahead with advance()
+        Arrays.sort(cursors, Comparator.comparingInt(PostingList.Cursor::size));
+
+        long[] result = new long[cursors[0].size()];
+        int count = 0;
+        long candidate = cursors[0].next();
+        outer:
+        while (candidate != PostingList.END) {
+            for (int i = 1; i < cursors.length; i++) {
+                long id = cursors[i].advance(candidate);
+                if (id != candidate) {
+                    candidate = id == PostingList.END ? PostingList.END : cursors[0].advance(id);
+                    continue outer;
+                }
+            }
+            result[count++] = candidate;
+            candidate = cursors[0].next();
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    /**
+     * Check the terms against the text and score the todo
+     *
+     * @return the score, or 0 if a term does not match
+     */
+    private static int score(Document document, List<String> terms) {
+        String text = document.text();
+        int score = 0;
+        for (String term : terms) {
+            int index = text.indexOf(term);
+            if (index < 0) {
+                return 0;
+            }
+            if (document.inTitle(index)) {
+                score += 2;
+                if (index == 0 || !Character.isLetterOrDigit(text.charAt(index - 1))) {
+                    score++;
+                }
+            } else {
+                score++;
+            }
+        }
+        return score;
+    }
+
+    /**
+     * Lower-cased, distinct, whitespace-separated terms
+     */
+    private static List<String> terms(String query) {
+        if (query == null) {
+            return List.of();
+        }
+        Set<String> terms = new LinkedHashSet<>();
+        for (String term : query.trim().split("\\s+")) {
+            if (!term.isEmpty()) {
+                terms.add(lowerCase(term));
+            }
+        }
+        return new ArrayList<>(terms);
+    }
+
+    private static String lowerCase(String text) {
+        char[] chars = text.toCharArray();
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = Character.toLowerCase(chars[i]);
+        }
+        return new String(chars);
+    }
+
+    // ----- Trigrams -----
+
+    private void addPosting(long trigram, long id) {
+        if (postings.computeIfAbsent(trigram, key -> new PostingList()).add(id)) {
+            postingCount++;
+        }
+    }
+
+    private void removePosting(long trigram, long id) {
+        PostingList list = postings.get(trigram);
+        if (list != null && list.remove(id)) {
+            postingCount--;
+            if (list.size() == 0) {
+                postings.remove(trigram);
+            }
+        }
+    }
+
+    /**
+     * The distinct trigrams of a text, sorted
+     * Each one is three lower-cased chars packed into a long; sequences with whitespace are skipped
+     */
+    static long[] trigrams(String text) {
+        int length = text.length();
+        if (length < 3) {
+            return new long[0];
+        }
+        long[] trigrams = new long[length - 2];
+        int count = 0;
+        for (int i = 0; i + 2 < length; i++) {
+            char c1 = text.charAt(i);
+            char c2 = text.charAt(i + 1);
+            char c3 = text.charAt(i + 2);
+            if (Character.isWhitespace(c1) || Character.isWhitespace(c2) || Character.isWhitespace(c3)) {
+                continue;
+            }
+            trigrams[count++] = (long) Character.toLowerCase(c1) << 32
+                    | (long) Character.toLowerCase(c2) << 16
+                    | Character.toLowerCase(c3);
+        }
+        return sortedDistinct(trigrams, count);
+    }
+
+    private static long[] sortedDistinct(long[] values, int count) {
+        Arrays.sort(values, 0, count);
+        int distinct = 0;
+        for (int i = 0; i < count; i++) {
+            if (distinct == 0 || values[i] != values[distinct - 1]) {
+                values[distinct++] = values[i];
+            }
+        }
+        return Arrays.copyOf(values, distinct);
+    }
+}
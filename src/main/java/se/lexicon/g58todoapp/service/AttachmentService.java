@@ -0,0 +1,76 @@
+package se.lexicon.g58todoapp.service;
+
+import se.lexicon.g58todoapp.dto.AttachmentDTO;
+import se.lexicon.g58todoapp.dto.AttachmentSummary;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Attachment Service Interface
+ * Moves file content between the caller and the AttachmentStorage as streams,
+ * so memory use per request does not depend on the file size
+ */
+public interface AttachmentService {
+
+    /**
+     * Store a new attachment for a todo
+     *
+     * @param todoId the todo to attach the file to
+     * @param fileName the name of the file
+     * @param fileType the MIME type of the file
+     * @param content the file content, read until end of stream
+     * @param contentLength the number of bytes in content, or -1 if unknown
+     * @return metadata of the stored attachment
+     * @throws IOException if reading the content fails
+     */
+    AttachmentDTO upload(Long todoId, String fileName, String fileType,
+                         InputStream content, long contentLength) throws IOException;
+
+    /**
+     * Get the metadata of an attachment
+     *
+     * @param id the attachment id
+     * @return metadata of the attachment
+     */
+    AttachmentDTO getAttachment(Long id);
+
+    /**
+     * List the attachments of a todo (metadata only)
+     *
+     * @param todoId the id of the todo
+     * @return List of attachment summaries
+     */
+    List<AttachmentSummary> listAttachments(Long todoId);
+
+    /**
+     * Write a byte range of the attachment content to an output stream
+     *
+     * @param attachment the attachment metadata (from getAttachment)
+     * @param offset the 0-based position of the first byte to write
+     * @param length the number of bytes to write
+     * @param out where to write the bytes
+     * @throws IOException if writing to out fails
+     */
+    void writeContent(AttachmentDTO attachment, long offset, long length, OutputStream out) throws IOException;
+
+    /**
+     * Get the local file holding the content, if the storage keeps one
+     *
+     * @param attachment the attachment metadata (from getAttachment)
+     * @return Optional containing the file, empty otherwise
+     */
+    Optional<Path> localFile(AttachmentDTO attachment);
+
+    /**
+     * Delete an attachment
+     * The content is released by the storage once the deletion has committed
+     *
+     * @param id the attachment id
+     */
+    void delete(Long id);
+}
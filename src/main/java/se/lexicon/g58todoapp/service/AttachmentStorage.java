@@ -0,0 +1,71 @@
+package se.lexicon.g58todoapp.service;
+
+import se.lexicon.g58todoapp.dto.AttachmentDTO;
+import se.lexicon.g58todoapp.entity.Attachment;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.util.Optional;
+
+/**
+ * Attachment Storage Interface
+ * Decides where the file content of an attachment is kept.
+ * The attachment row always holds the metadata, the storage holds the bytes.
+ *
+ * Select the implementation with the property attachment.storage.type:
+ * - database   (default) content in the attachments.data BLOB column
+ * - filesystem content in a local directory, deduplicated by SHA-256
+ */
+public interface AttachmentStorage {
+
+    /**
+     * Store the content of a new attachment
+     * Sets the storage fields of the attachment (data and/or contentHash).
+     * The implementation may save and flush the attachment.
+     *
+     * @param attachment the new attachment
+     * @param content the file content, read until end of stream
+     * @param contentLength the number of bytes in content, or -1 if unknown
+     * @return the number of bytes stored
+     * @throws IOException if reading or writing the content fails
+     */
+    long store(Attachment attachment, InputStream content, long contentLength) throws IOException;
+
+    /**
+     * Get the size of the content in bytes
+     *
+     * @param attachment the attachment metadata
+     * @return size in bytes
+     */
+    long contentLength(AttachmentDTO attachment);
+
+    /**
+     * Write a byte range of the content to an output stream
+     *
+     * @param attachment the attachment metadata
+     * @param offset the 0-based position of the first byte to write
+     * @param length the number of bytes to write
+     * @param out where to write the bytes
+     * @throws IOException if reading or writing fails
+     */
+    void writeContent(AttachmentDTO attachment, long offset, long length, OutputStream out) throws IOException;
+
+    /**
+     * Get the local file that holds the content, if the storage keeps one
+     * Lets the web server send the file with zero-copy sendfile
+     *
+     * @param attachment the attachment metadata
+     * @return Optional containing the file, empty if the content is not a local file
+     */
+    Optional<Path> localFile(AttachmentDTO attachment);
+
+    /**
+     * Release the content of a removed attachment
+     * Called after the transaction that removed the attachment has committed
+     *
+     * @param contentHash the content hash of the removed attachment (may be null)
+     */
+    void release(String contentHash);
+}
@@ -0,0 +1,42 @@
+package se.lexicon.g58todoapp.service;
+
+import se.lexicon.g58todoapp.dto.BroadcastResult;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Broadcast Service Interface
+ * Sends the same email to many recipients: the body is rendered once and the recipients
+ * are split into chunks that each go out as ONE email with the addresses in BCC.
+ * N recipients take N / chunk size SMTP transactions instead of N.
+ *
+ * Recipients do not see each other. Every chunk is sent on its own, so a failed chunk
+ * does not stop the others; the result tells which chunks were sent.
+ */
+public interface BroadcastService {
+
+    /**
+     * Send an announcement to persons
+     * Rendered with the announcement.html template.
+     *
+     * @param personIds the persons to send it to, null or empty for everyone
+     * @param subject email subject
+     * @param message the announcement text
+     * @return delivery result per chunk
+     */
+    BroadcastResult announce(List<Long> personIds, String subject, String message);
+
+    /**
+     * Render a template once and send it to every recipient
+     * Duplicate and blank addresses are skipped.
+     *
+     * @param recipients email addresses
+     * @param subject email subject
+     * @param template template file name, e.g. "announcement.html"
+     * @param model values used by the template (the same for every recipient)
+     * @return delivery result per chunk
+     */
+    BroadcastResult broadcast(Collection<String> recipients, String subject, String template, Map<String, ?> model);
+}
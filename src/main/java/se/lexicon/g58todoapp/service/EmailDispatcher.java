@@ -0,0 +1,42 @@
+package se.lexicon.g58todoapp.service;
+
+import se.lexicon.g58todoapp.dto.EmailDTO;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Email Dispatcher Interface
+ * Sends emails in the background, so the caller never waits for the SMTP server.
+ * Emails are put in a bounded queue that is drained by worker threads.
+ */
+public interface EmailDispatcher {
+
+    /**
+     * What to do when the queue is full
+     */
+    enum OverflowPolicy {
+        /** Wait until there is room in the queue */
+        BLOCK,
+        /** Drop the oldest queued email to make room for the new one */
+        DROP_OLDEST,
+        /** Reject the new email */
+        REJECT
+    }
+
+    /**
+     * Queue an email for sending and return at once
+     *
+     * The future completes with the result of EmailService.sendEmail (true if sent),
+     * or exceptionally with RejectedExecutionException if the email was rejected,
+     * dropped from a full queue, or still queued when the application shut down.
+     *
+     * @param emailDTO the email to send
+     * @return future that completes when the email has been handled
+     */
+    CompletableFuture<Boolean> dispatch(EmailDTO emailDTO);
+
+    /**
+     * Number of emails waiting in the queue
+     */
+    int getQueueSize();
+}
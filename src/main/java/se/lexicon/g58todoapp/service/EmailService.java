@@ -2,6 +2,8 @@ package se.lexicon.g58todoapp.service;
 
 import se.lexicon.g58todoapp.dto.EmailDTO;
 
+import java.util.List;
+
 /**
  * Email Service Interface
  * Defines methods for sending different types of emails
@@ -36,4 +38,13 @@ public interface EmailService {
      * @return true if sent successfully, false otherwise
      */
     boolean sendHtmlEmail(String to, String subject, String htmlBody);
-}
\ No newline at end of file
+
+    /**
+     * Send many emails in one go
+     * The messages share SMTP connections instead of opening one connection per email
+     *
+     * @param emails the emails to send
+     * @return number of emails sent successfully
+     */
+    int sendBatch(List<EmailDTO> emails);
+}
@@ -0,0 +1,19 @@
+package se.lexicon.g58todoapp.service;
+
+import se.lexicon.g58todoapp.dto.EmailDTO;
+
+/**
+ * Notification Outbox Interface
+ * Stores emails in the notification_outbox table instead of sending them.
+ * The OutboxPoller sends them later and retries failures with backoff.
+ */
+public interface NotificationOutbox {
+
+    /**
+     * Store an email for sending
+     * Joins the caller's transaction, so the email is only sent if that transaction commits
+     *
+     * @param emailDTO the email to send (to, subject, body and html are used)
+     */
+    void enqueue(EmailDTO emailDTO);
+}
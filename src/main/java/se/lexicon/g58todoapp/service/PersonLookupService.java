@@ -0,0 +1,54 @@
+package se.lexicon.g58todoapp.service;
+
+import se.lexicon.g58todoapp.dto.PersonCacheStats;
+import se.lexicon.g58todoapp.entity.Person;
+
+import java.util.Optional;
+
+/**
+ * Person Lookup Service Interface
+ * Cached lookups of persons by id and email, for hot paths (login, assignment,
+ * duplicate checks on signup) that would otherwise query the database on every call.
+ *
+ * The persons returned are detached copies: read them, or use them as a reference
+ * (e.g. todo.setAssignedTo(person)), but load through PersonRepository to change them.
+ * Kept up to date by PersonCacheListener.
+ */
+public interface PersonLookupService {
+
+    /**
+     * Find a person by email (cached, also when not found)
+     */
+    Optional<Person> findByEmail(String email);
+
+    /**
+     * Find a person by id (cached, also when not found)
+     */
+    Optional<Person> findById(Long id);
+
+    /**
+     * Whether a person has this email
+     * Addresses that were never registered are usually answered without the database
+     */
+    boolean existsByEmail(String email);
+
+    /**
+     * Forget everything cached about a person
+     * Called after a person is created, updated or deleted
+     *
+     * @param personId the person
+     * @param email its (new) email
+     */
+    void evict(Long personId, String email);
+
+    /**
+     * Load the email Bloom filter again from the database
+     * Deleted emails are only forgotten by a rebuild
+     */
+    void rebuildEmailFilter();
+
+    /**
+     * Cache statistics since startup
+     */
+    PersonCacheStats getStats();
+}
@@ -0,0 +1,29 @@
+package se.lexicon.g58todoapp.service;
+
+import java.time.LocalDateTime;
+
+/**
+ * Reminder Scheduler Interface
+ * Sends due date reminders at the configured lead times before each todo's due date.
+ * Kept up to date by TodoReminderListener when todos are created, updated or deleted.
+ */
+public interface ReminderScheduler {
+
+    /**
+     * Replace the reminders of a todo
+     *
+     * @param todoId the todo
+     * @param dueDate its due date; reminders are only scheduled for lead times that are still ahead
+     */
+    void reschedule(Long todoId, LocalDateTime dueDate);
+
+    /**
+     * Remove all reminders of a todo (completed, no due date or deleted)
+     */
+    void cancel(Long todoId);
+
+    /**
+     * Number of reminders waiting to fire
+     */
+    int getScheduledCount();
+}
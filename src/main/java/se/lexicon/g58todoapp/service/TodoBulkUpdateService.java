@@ -0,0 +1,36 @@
+package se.lexicon.g58todoapp.service;
+
+import se.lexicon.g58todoapp.dto.TodoBulkUpdateResult;
+import se.lexicon.g58todoapp.dto.TodoSelection;
+
+import java.time.LocalDateTime;
+
+/**
+ * Todo Bulk Update Service Interface
+ * Changes many todos with UPDATE statements instead of loading and saving each one.
+ * The work is split into chunks, each committed on its own, so row locks are held briefly.
+ * If an update fails part way, the chunks committed before stay changed.
+ */
+public interface TodoBulkUpdateService {
+
+    /**
+     * Mark the selected todos as completed
+     *
+     * @return number of todos that were not completed before
+     */
+    TodoBulkUpdateResult complete(TodoSelection selection);
+
+    /**
+     * Assign the selected todos to a person
+     *
+     * @param assigneeId the new assignee, or null to unassign
+     */
+    TodoBulkUpdateResult reassign(TodoSelection selection, Long assigneeId);
+
+    /**
+     * Give the selected todos a new due date
+     *
+     * @param dueDate the new due date, or null to remove it
+     */
+    TodoBulkUpdateResult reschedule(TodoSelection selection, LocalDateTime dueDate);
+}
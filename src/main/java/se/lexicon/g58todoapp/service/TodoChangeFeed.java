@@ -0,0 +1,35 @@
+package se.lexicon.g58todoapp.service;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import se.lexicon.g58todoapp.stats.TodoState;
+
+/**
+ * Todo Change Feed Interface
+ * Pushes committed todo changes to clients as Server-Sent Events, so they do not have
+ * to poll the todo list. Told about changes by TodoChangeFeedListener and TodoBulkUpdateService.
+ */
+public interface TodoChangeFeed {
+
+    /**
+     * A todo was created, changed or deleted (called after commit)
+     *
+     * @param before the todo before the change, or null if it was created
+     * @param after the todo after the change, or null if it was deleted
+     */
+    void todoChanged(Long todoId, TodoState before, TodoState after);
+
+    /**
+     * Open a subscription
+     *
+     * @param assigneeId only changes of this person's todos (including todos assigned away
+     *                   from them), or null for all changes
+     * @param lastEventId the last event the client has seen, to resume after a reconnect, or null
+     * @return the emitter to return from the controller
+     */
+    SseEmitter subscribe(Long assigneeId, Long lastEventId);
+
+    /**
+     * Number of open subscriptions
+     */
+    int getSubscriberCount();
+}
@@ -0,0 +1,64 @@
+package se.lexicon.g58todoapp.service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Todo ETags
+ * ETags built from Todo.updatedAt or the list version (see TodoListVersionRepository),
+ * which change with every write, so they can be checked with one small query instead of
+ * loading and serializing the todos.
+ *
+ * A todo's ETag is strong: updatedAt identifies its stored version exactly, and If-Match
+ * (RFC 9110) only accepts strong ETags. The list ETags are weak, for If-None-Match only.
+ *
+ * - one todo:        "<id>-<updatedAt in microseconds>"
+ * - a person's page: W/"assignee<id>-<list version>-<afterId>-<size>"
+ * - a page of all:   W/"all-<last updatedAt in microseconds>.<last deletion>-<afterId>-<size>"
+ */
+public final class TodoETags {
+
+    private TodoETags() {
+    }
+
+    public static String of(Long id, LocalDateTime updatedAt) {
+        return "\"" + id + "-" + micros(updatedAt) + "\"";
+    }
+
+    public static String ofList(Long assigneeId, long version, long afterId, int size) {
+        return "W/\"assignee" + assigneeId + "-" + version + "-" + afterId + "-" + size + "\"";
+    }
+
+    public static String ofAllList(LocalDateTime lastUpdatedAt, long lastDeletionId, long afterId, int size) {
+        return "W/\"all-" + micros(lastUpdatedAt) + "." + lastDeletionId + "-" + afterId + "-" + size + "\"";
+    }
+
+    /**
+     * Whether an If-Match header matches the current ETag
+     * Strong comparison (RFC 9110 13.1.1): a weak ETag never matches, so clients must send
+     * the todo's ETag as it was returned, or "*".
+     *
+     * @param ifMatch the header value: "*" or a comma-separated list of ETags
+     */
+    public static boolean matches(String ifMatch, String etag) {
+        if (ifMatch.trim().equals("*")) {
+            return true;
+        }
+        if (etag.startsWith("W/")) {
+            return false;
+        }
+        for (String candidate : ifMatch.split(",")) {
+            if (candidate.trim().equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static long micros(LocalDateTime time) {
+        if (time == null) {
+            return 0;
+        }
+        return time.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + time.getNano() / 1_000;
+    }
+}
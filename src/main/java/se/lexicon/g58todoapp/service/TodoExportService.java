@@ -0,0 +1,38 @@
+package se.lexicon.g58todoapp.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Todo Export Service Interface
+ * Writes every todo, with its assignee's email and the metadata (never the content) of its
+ * attachments, to a stream. Rows are written as they are read from the database, so memory
+ * use does not depend on the size of the table and the first row is sent right away.
+ */
+public interface TodoExportService {
+
+    /**
+     * Output formats
+     */
+    enum Format {
+        /**
+         * One JSON object per todo and line, attachments as a nested array
+         */
+        NDJSON,
+        /**
+         * Comma-separated values with a header line, attachments as count, total size and names
+         * The title, description, dueDate, completed and assigneeEmail columns can be imported again
+         */
+        CSV
+    }
+
+    /**
+     * Export all todos, ordered by id
+     * The output is flushed but not closed.
+     *
+     * @param output where the rows are written (UTF-8)
+     * @param format how the rows are written
+     * @return number of todos written
+     */
+    long exportTodos(OutputStream output, Format format) throws IOException;
+}
@@ -0,0 +1,39 @@
+package se.lexicon.g58todoapp.service;
+
+import se.lexicon.g58todoapp.dto.TodoImportResult;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Todo Import Service Interface
+ * Bulk-loads todos from a stream of rows (see TodoImportRow for the format).
+ * The input is read line by line and saved in chunks, so memory use does not depend on its size.
+ */
+public interface TodoImportService {
+
+    /**
+     * Input formats
+     */
+    enum Format {
+        /**
+         * One JSON object per line
+         */
+        NDJSON,
+        /**
+         * Comma-separated values with a header line, quoted values may contain line breaks
+         */
+        CSV
+    }
+
+    /**
+     * Import todos
+     * Invalid rows are skipped and reported, the valid ones are saved. Every chunk is
+     * committed on its own, so the rows of completed chunks stay saved if the import fails later.
+     *
+     * @param input the rows, read until the end
+     * @param format how the rows are written
+     * @return counts and the first errors
+     */
+    TodoImportResult importTodos(Reader input, Format format) throws IOException;
+}
@@ -0,0 +1,52 @@
+package se.lexicon.g58todoapp.service;
+
+import se.lexicon.g58todoapp.dto.TodoSearchResult;
+import se.lexicon.g58todoapp.dto.TodoSearchStats;
+
+/**
+ * Todo Search Service Interface
+ * Substring search in todo titles and descriptions, served from an in-memory index
+ * instead of LIKE '%keyword%' queries. Kept up to date by TodoSearchListener.
+ */
+public interface TodoSearchService {
+
+    /**
+     * Find the todos containing every whitespace-separated term of the query (case-insensitive)
+     *
+     * @param query search text
+     * @param page page number, starting at 0
+     * @param size hits per page
+     * @return one page of hits, best match first
+     * @throws IllegalArgumentException if page or size is out of range
+     */
+    TodoSearchResult search(String query, int page, int size);
+
+    /**
+     * Add a todo to the index or replace its text
+     */
+    void index(Long todoId, String title, String description);
+
+    /**
+     * Remove a deleted todo from the index
+     */
+    void remove(Long todoId);
+
+    /**
+     * Build the index again from the database
+     * Searches keep using the old index until the new one is complete
+     *
+     * @return number of indexed todos
+     * @throws IllegalStateException if a rebuild is already running
+     */
+    long rebuild();
+
+    /**
+     * Whether the index has been loaded since startup
+     */
+    boolean isReady();
+
+    /**
+     * Size of the index
+     */
+    TodoSearchStats getStats();
+}
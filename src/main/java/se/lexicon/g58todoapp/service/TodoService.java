@@ -0,0 +1,61 @@
+package se.lexicon.g58todoapp.service;
+
+import se.lexicon.g58todoapp.dto.TodoDTO;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Todo Service Interface
+ * Create, read, update and delete single todos (the REST API of TodoController)
+ *
+ * The ETag methods only read updatedAt or the list version, so a client's cached copy can be
+ * validated without loading the todos (see TodoETags).
+ */
+public interface TodoService {
+
+    /**
+     * Current ETag of a todo, empty if it does not exist
+     */
+    Optional<String> getETag(Long id);
+
+    /**
+     * Current ETag of a page of the todo list (see findPage)
+     *
+     * @param assigneeId only this person's todos, or null for all todos
+     * @throws IllegalArgumentException if afterId or size is out of range
+     */
+    String getListETag(Long assigneeId, long afterId, int size);
+
+    /**
+     * @throws jakarta.persistence.EntityNotFoundException if there is no todo with that id
+     */
+    TodoDTO findById(Long id);
+
+    /**
+     * A page of the todo list, in id order
+     *
+     * @param assigneeId only this person's todos, or null for all todos
+     * @param afterId the last id of the previous page (0 for the first page)
+     * @param size todos per page
+     * @throws IllegalArgumentException if afterId or size is out of range
+     */
+    List<TodoDTO> findPage(Long assigneeId, long afterId, int size);
+
+    TodoDTO create(TodoDTO todo);
+
+    /**
+     * Replace the fields of a todo
+     *
+     * @param ifMatch If-Match header, or null to update unconditionally
+     * @throws org.springframework.dao.OptimisticLockingFailureException if ifMatch does not match
+     *         the current ETag (the todo was changed since the client read it)
+     */
+    TodoDTO update(Long id, TodoDTO todo, String ifMatch);
+
+    /**
+     * @param ifMatch If-Match header, or null to delete unconditionally
+     * @throws org.springframework.dao.OptimisticLockingFailureException if ifMatch does not match
+     */
+    void delete(Long id, String ifMatch);
+}
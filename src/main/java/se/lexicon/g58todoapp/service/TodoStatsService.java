@@ -0,0 +1,38 @@
+package se.lexicon.g58todoapp.service;
+
+import se.lexicon.g58todoapp.dto.PersonTodoStats;
+import se.lexicon.g58todoapp.stats.TodoState;
+
+/**
+ * Todo Stats Service Interface
+ * Per-person todo counts (total, completed, pending, overdue), kept up to date as todos
+ * change instead of being counted on every request.
+ * Kept up to date by TodoCounterListener and TodoBulkUpdateService.
+ */
+public interface TodoStatsService {
+
+    /**
+     * Todo counts of a person
+     */
+    PersonTodoStats getStats(Long personId);
+
+    /**
+     * A todo was created, changed or deleted (called after commit)
+     *
+     * @param before the todo before the change, or null if it was created
+     * @param after the todo after the change, or null if it was deleted
+     */
+    void todoChanged(Long todoId, TodoState before, TodoState after);
+
+    /**
+     * Count todos whose due date has passed since the last sweep as overdue
+     */
+    void sweepOverdue();
+
+    /**
+     * Count everything again from the database, fixing any drift
+     *
+     * @return number of persons whose counts were wrong
+     */
+    int reconcile();
+}
@@ -0,0 +1,31 @@
+package se.lexicon.g58todoapp.service;
+
+import se.lexicon.g58todoapp.entity.Todo;
+import se.lexicon.g58todoapp.repo.TodoRepository;
+
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Todo Stream Service Interface
+ * Runs one of the TodoRepository stream* queries and hands every row to a callback.
+ * Rows are detached after the callback, so memory use stays flat however large the result is.
+ *
+ * Example:
+ * todoStreamService.forEach(repo -> repo.streamOverdueTasks(LocalDateTime.now()),
+ *                           todo -> System.out.println(todo.getTitle()));
+ */
+public interface TodoStreamService {
+
+    /**
+     * Stream the result of a query row by row
+     * The callback must not keep references to the todos it receives,
+     * they are detached (and lazy associations are no longer loadable) right after it returns.
+     *
+     * @param query selects the stream* repository method to run
+     * @param action called once for every row, in query order
+     * @return number of rows processed
+     */
+    long forEach(Function<TodoRepository, Stream<Todo>> query, Consumer<Todo> action);
+}
@@ -0,0 +1,176 @@
+package se.lexicon.g58todoapp.stats;
+
+import se.lexicon.g58todoapp.dto.PersonTodoStats;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Person Todo Counters
+ * Total, completed and overdue todo counts per person, changed by deltas (one per saved
+ * or deleted todo) instead of being counted again. Reading the counts of a person is a map lookup.
+ *
+ * Overdue also changes without any save: a pending todo becomes overdue when its due date
+ * passes. Pending todos with a future due date are therefore kept in a set ordered by
+ * due date, and sweep() moves the ones whose due date has passed to the overdue count.
+ * Whoever removes a todo from that set first (the sweep or a delta) decides whether it was
+ * counted as overdue, so the two never count it twice.
+ *
+ * Thread-safe: counters are LongAdders, so concurrent saves of the same person do not contend.
+ */
+public class PersonTodoCounters {
+
+    private static final Comparator<Upcoming> BY_DUE_DATE =
+            Comparator.comparing(Upcoming::dueDate).thenComparingLong(Upcoming::todoId);
+
+    private final Map<Long, Counters> byPerson = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListSet<Upcoming> upcoming = new ConcurrentSkipListSet<>(BY_DUE_DATE);
+
+    /**
+     * A pending todo that is not overdue yet
+     */
+    private record Upcoming(LocalDateTime dueDate, long todoId, long personId) {
+    }
+
+    private static final class Counters {
+        final LongAdder total = new LongAdder();
+        final LongAdder completed = new LongAdder();
+        final LongAdder overdue = new LongAdder();
+    }
+
+    /**
+     * Add counts from the database
+     */
+    public void load(long personId, long total, long completed, long overdue) {
+        Counters counters = countersOf(personId);
+        counters.total.add(total);
+        counters.completed.add(completed);
+        counters.overdue.add(overdue);
+    }
+
+    /**
+     * Add a pending todo from the database whose due date has not passed yet
+     */
+    public void loadUpcoming(long todoId, long personId, LocalDateTime dueDate) {
+        upcoming.add(new Upcoming(dueDate, todoId, personId));
+    }
+
+    /**
+     * Apply a saved or deleted todo
+     *
+     * @param before the todo before the change, or null if it was created
+     * @param after the todo after the change, or null if it was deleted
+     * @param now when the change happened
+     */
+    public void apply(long todoId, TodoState before, TodoState after, LocalDateTime now) {
+        if (Objects.equals(before, after)) {
+            return;
+        }
+        if (before != null && before.assigneeId() != null) {
+            Counters counters = countersOf(before.assigneeId());
+            counters.total.decrement();
+            if (before.completed()) {
+                counters.completed.decrement();
+            } else if (before.dueDate() != null
+                    && !upcoming.remove(new Upcoming(before.dueDate(), todoId, before.assigneeId()))) {
+                // No longer upcoming, so it had been counted as overdue
+                counters.overdue.decrement();
+            }
+        }
+        if (after != null && after.assigneeId() != null) {
+            Counters counters = countersOf(after.assigneeId());
+            counters.total.increment();
+            if (after.completed()) {
+                counters.completed.increment();
+            } else if (after.dueDate() != null) {
+                if (after.dueDate().isAfter(now)) {
+                    upcoming.add(new Upcoming(after.dueDate(), todoId, after.assigneeId()));
+                } else {
+                    counters.overdue.increment();
+                }
+            }
+        }
+    }
+
+    /**
+     * Count the todos whose due date has passed as overdue
+     *
+     * @return number of todos that became overdue
+     */
+    public int sweep(LocalDateTime now) {
+        int count = 0;
+        for (Upcoming next = first(); next != null && !next.dueDate().isAfter(now); next = first()) {
+            if (upcoming.remove(next)) {
+                countersOf(next.personId()).overdue.increment();
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Counts of one person (zeros if the person has no todos)
+     */
+    public PersonTodoStats get(long personId) {
+        Counters counters = byPerson.get(personId);
+        if (counters == null) {
+            return new PersonTodoStats(personId, 0, 0, 0, 0);
+        }
+        long total = counters.total.sum();
+        long completed = counters.completed.sum();
+        return PersonTodoStats.builder()
+                .personId(personId)
+                .total(total)
+                .completed(completed)
+                .pending(total - completed)
+                .overdue(counters.overdue.sum())
+                .build();
+    }
+
+    /**
+     * Number of persons whose counts differ from the other counters
+     */
+    public int countDifferences(PersonTodoCounters other) {
+        Set<Long> persons = new HashSet<>(byPerson.keySet());
+        persons.addAll(other.byPerson.keySet());
+        int differences = 0;
+        for (Long personId : persons) {
+            if (!get(personId).equals(other.get(personId))) {
+                differences++;
+            }
+        }
+        return differences;
+    }
+
+    /**
+     * Number of persons with counters
+     */
+    public int size() {
+        return byPerson.size();
+    }
+
+    /**
+     * Number of pending todos waiting for their due date
+     */
+    public int upcomingSize() {
+        return upcoming.size();
+    }
+
+    private Upcoming first() {
+        // Not isEmpty() + first(), which throws if a delta removes the last entry in between
+        Iterator<Upcoming> iterator = upcoming.iterator();
+        return iterator.hasNext() ? iterator.next() : null;
+    }
+
+    private Counters countersOf(long personId) {
+        return byPerson.computeIfAbsent(personId, id -> new Counters());
+    }
+}
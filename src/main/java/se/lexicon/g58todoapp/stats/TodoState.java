@@ -0,0 +1,21 @@
+package se.lexicon.g58todoapp.stats;
+
+import java.time.LocalDateTime;
+
+/**
+ * Todo State
+ * The fields of a todo that the per-person counters depend on
+ *
+ * @param assigneeId the assigned person, or null
+ * @param completed whether the todo is done
+ * @param dueDate the due date, or null
+ */
+public record TodoState(Long assigneeId, boolean completed, LocalDateTime dueDate) {
+
+    /**
+     * Not completed and with a due date, so it is or will become overdue
+     */
+    public boolean hasPendingDueDate() {
+        return !completed && dueDate != null;
+    }
+}
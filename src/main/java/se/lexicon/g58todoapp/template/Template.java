@@ -0,0 +1,234 @@
+package se.lexicon.g58todoapp.template;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compiled Template
+ * A template is parsed once into a list of nodes and can then be rendered many times
+ * without parsing or formatting the source again.
+ *
+ * Syntax (a small subset of Mustache):
+ * - {{name}}           value, HTML-escaped in HTML templates
+ * - {{{name}}}         value, never escaped
+ * - {{#name}}...{{/name}} section: repeated for every item of a list (item keys become visible),
+ *                      rendered once for true or any other non-empty value
+ * - {{^name}}...{{/name}} inverted section: rendered when the value is missing, false or an empty list
+ * - {{.}}              the current list item itself
+ *
+ * Names are looked up in the current list item first, then in the enclosing ones, then in the model.
+ * Missing values render as nothing.
+ */
+public final class Template {
+
+    private final String name;
+    private final Node[] nodes;
+
+    private Template(String name, Node[] nodes) {
+        this.name = name;
+        this.nodes = nodes;
+    }
+
+    /**
+     * Parse a template
+     *
+     * @param name name used in error messages
+     * @param source template text
+     * @param escapeHtml true to HTML-escape {{name}} values
+     * @throws IllegalArgumentException if a tag or section is not closed
+     */
+    public static Template compile(String name, String source, boolean escapeHtml) {
+        Parser parser = new Parser(name, source, escapeHtml);
+        List<Node> nodes = parser.parse(null);
+        return new Template(name, nodes.toArray(new Node[0]));
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Render into a new String
+     */
+    public String render(Map<String, ?> model) {
+        StringBuilder out = new StringBuilder(256);
+        render(model, out);
+        return out.toString();
+    }
+
+    /**
+     * Render by appending to an existing StringBuilder (so the caller can reuse its buffer)
+     */
+    public void render(Map<String, ?> model, StringBuilder out) {
+        Scope scope = new Scope(model, null);
+        renderNodes(nodes, scope, out);
+    }
+
+    private static void renderNodes(Node[] nodes, Scope scope, StringBuilder out) {
+        for (Node node : nodes) {
+            switch (node) {
+                case Text text -> out.append(text.value());
+                case Variable variable -> {
+                    Object value = scope.lookup(variable.name());
+                    if (value != null) {
+                        if (variable.escape()) {
+                            escapeHtml(value.toString(), out);
+                        } else {
+                            out.append(value);
+                        }
+                    }
+                }
+                case Section section -> renderSection(section, scope.lookup(section.name()), scope, out);
+            }
+        }
+    }
+
+    private static void renderSection(Section section, Object value, Scope scope, StringBuilder out) {
+        boolean empty = value == null
+                || Boolean.FALSE.equals(value)
+                || (value instanceof Iterable<?> items && !items.iterator().hasNext());
+        if (section.inverted()) {
+            if (empty) {
+                renderNodes(section.children(), scope, out);
+            }
+            return;
+        }
+        if (empty) {
+            return;
+        }
+        if (value instanceof Iterable<?> items) {
+            for (Object item : items) {
+                renderNodes(section.children(), new Scope(item, scope), out);
+            }
+        } else if (Boolean.TRUE.equals(value)) {
+            renderNodes(section.children(), scope, out);
+        } else {
+            renderNodes(section.children(), new Scope(value, scope), out);
+        }
+    }
+
+    /**
+     * Append text with the HTML special characters replaced by entities
+     * Runs of safe characters are appended in one call
+     */
+    static void escapeHtml(String text, StringBuilder out) {
+        int start = 0;
+        for (int i = 0; i < text.length(); i++) {
+            String entity = switch (text.charAt(i)) {
+                case '&' -> "&amp;";
+                case '<' -> "&lt;";
+                case '>' -> "&gt;";
+                case '"' -> "&quot;";
+                case '\'' -> "&#39;";
+                default -> null;
+            };
+            if (entity != null) {
+                out.append(text, start, i).append(entity);
+                start = i + 1;
+            }
+        }
+        out.append(text, start, text.length());
+    }
+
+    // ----- Compiled form -----
+
+    private sealed interface Node permits Text, Variable, Section {
+    }
+
+    private record Text(String value) implements Node {
+    }
+
+    private record Variable(String name, boolean escape) implements Node {
+    }
+
+    private record Section(String name, boolean inverted, Node[] children) implements Node {
+    }
+
+    /**
+     * One level of the lookup chain: the model, or a list item inside a section
+     */
+    private record Scope(Object value, Scope parent) {
+
+        Object lookup(String key) {
+            if (".".equals(key)) {
+                return value;
+            }
+            for (Scope scope = this; scope != null; scope = scope.parent) {
+                if (scope.value instanceof Map<?, ?> map && map.containsKey(key)) {
+                    return map.get(key);
+                }
+            }
+            return null;
+        }
+    }
+
+    // ----- Parser -----
+
+    private static final class Parser {
+
+        private final String name;
+        private final String source;
+        private final boolean escapeHtml;
+        private int position;
+
+        Parser(String name, String source, boolean escapeHtml) {
+            this.name = name;
+            this.source = source;
+            this.escapeHtml = escapeHtml;
+        }
+
+        /**
+         * Parse until the end of the source or until {{/closing}}
+         */
+        List<Node> parse(String closing) {
+            List<Node> nodes = new ArrayList<>();
+            while (position < source.length()) {
+                int open = source.indexOf("{{", position);
+                if (open < 0) {
+                    nodes.add(new Text(source.substring(position)));
+                    position = source.length();
+                    break;
+                }
+                if (open > position) {
+                    nodes.add(new Text(source.substring(position, open)));
+                }
+
+                boolean triple = source.startsWith("{{{", open);
+                String end = triple ? "}}}" : "}}";
+                int close = source.indexOf(end, open);
+                if (close < 0) {
+                    throw error("Unclosed tag", open);
+                }
+                String tag = source.substring(open + (triple ? 3 : 2), close).trim();
+                position = close + end.length();
+
+                if (triple) {
+                    nodes.add(new Variable(tag, false));
+                } else if (tag.startsWith("#") || tag.startsWith("^")) {
+                    String sectionName = tag.substring(1).trim();
+                    List<Node> children = parse(sectionName);
+                    nodes.add(new Section(sectionName, tag.startsWith("^"), children.toArray(new Node[0])));
+                } else if (tag.startsWith("/")) {
+                    String sectionName = tag.substring(1).trim();
+                    if (!sectionName.equals(closing)) {
+                        throw error("Unexpected {{/" + sectionName + "}}", open);
+                    }
+                    return nodes;
+                } else if (tag.startsWith("!")) {
+                    // Comment
+                } else {
+                    nodes.add(new Variable(tag, escapeHtml));
+                }
+            }
+            if (closing != null) {
+                throw error("Section {{#" + closing + "}} is not closed", source.length());
+            }
+            return nodes;
+        }
+
+        private IllegalArgumentException error(String message, int at) {
+            return new IllegalArgumentException(message + " in template '" + name + "' at offset " + at);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package se.lexicon.g58todoapp.template;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Template Engine
+ * Loads and compiles every template in the template location once at startup,
+ * then renders them by name.
+ *
+ * Templates ending in .html escape {{name}} values; other templates (e.g. .txt) do not.
+ */
+@Component
+public class TemplateEngine {
+
+    // Keep reused buffers below this size so one huge email does not pin memory per thread
+    private static final int MAX_REUSED_BUFFER = 64 * 1024;
+
+    private final Map<String, Template> templates = new HashMap<>();
+
+    // One output buffer per thread, reused for every render
+    private final ThreadLocal<StringBuilder> buffers = ThreadLocal.withInitial(() -> new StringBuilder(4096));
+
+    public TemplateEngine(@Value("${email.templates.location:classpath:templates/}") String location) {
+        try {
+            Resource[] resources = new PathMatchingResourcePatternResolver().getResources(location + "*.*");
+            for (Resource resource : resources) {
+                String fileName = resource.getFilename();
+                String source = resource.getContentAsString(StandardCharsets.UTF_8);
+                templates.put(fileName, Template.compile(fileName, source, fileName.endsWith(".html")));
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not load templates from " + location, e);
+        }
+        System.out.println("📝 Compiled " + templates.size() + " template(s) from " + location);
+    }
+
+    /**
+     * Render a template to a String
+     *
+     * @param name template file name, e.g. "todo-assigned.html"
+     * @param model values used by the template
+     * @throws IllegalArgumentException if there is no template with that name
+     */
+    public String render(String name, Map<String, ?> model) {
+        StringBuilder out = buffers.get();
+        out.setLength(0);
+        getTemplate(name).render(model, out);
+        String result = out.toString();
+        if (out.capacity() > MAX_REUSED_BUFFER) {
+            buffers.remove();
+        }
+        return result;
+    }
+
+    /**
+     * Render a template by appending to the caller's buffer
+     */
+    public void render(String name, Map<String, ?> model, StringBuilder out) {
+        getTemplate(name).render(model, out);
+    }
+
+    /**
+     * Get a compiled template by name
+     */
+    public Template getTemplate(String name) {
+        Template template = templates.get(name);
+        if (template == null) {
+            throw new IllegalArgumentException("Unknown template: " + name);
+        }
+        return template;
+    }
+}
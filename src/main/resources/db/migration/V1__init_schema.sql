@@ -0,0 +1,70 @@
+-- Initial schema: the tables as Hibernate created them with ddl-auto=create.
+-- Kept to SQL that both MySQL 8 (InnoDB is the default engine) and H2 accept,
+-- so the tests run the same migrations as production.
+
+create table people (
+    id bigint not null auto_increment,
+    name varchar(100) not null,
+    email varchar(150) not null,
+    birth_date date,
+    created_at date not null,
+    primary key (id),
+    constraint uk_people_email unique (email)
+);
+
+create table todos (
+    id bigint not null auto_increment,
+    title varchar(100) not null,
+    description varchar(500),
+    completed bit not null,
+    created_at datetime(6) not null,
+    updated_at datetime(6),
+    due_date datetime(6),
+    assigned_to_id bigint,
+    primary key (id),
+    constraint fk_todos_assigned_to foreign key (assigned_to_id) references people (id)
+);
+
+create table attachment_contents (
+    content_hash varchar(64) not null,
+    size bigint not null,
+    ref_count integer not null,
+    created_at datetime(6) not null,
+    primary key (content_hash)
+);
+
+create table attachments (
+    id bigint not null auto_increment,
+    file_name varchar(255) not null,
+    file_type varchar(100) not null,
+    data longblob,
+    content_hash varchar(64),
+    file_size bigint,
+    todo_id bigint,
+    primary key (id),
+    constraint fk_attachments_todo foreign key (todo_id) references todos (id)
+);
+
+create table notification_outbox (
+    id bigint not null auto_increment,
+    recipient varchar(150) not null,
+    subject varchar(255) not null,
+    body mediumtext not null,
+    html bit not null,
+    status enum ('FAILED','PENDING','SENT') not null,
+    attempts integer not null,
+    next_attempt_at datetime(6) not null,
+    last_error varchar(500),
+    created_at datetime(6) not null,
+    sent_at datetime(6),
+    primary key (id)
+);
+
+create table job_checkpoints (
+    job_name varchar(50) not null,
+    run_date date not null,
+    last_person_id bigint not null,
+    completed bit not null,
+    updated_at datetime(6) not null,
+    primary key (job_name)
+);
@@ -0,0 +1,27 @@
+-- Indexes for the repository queries. Without them every query below scans the whole table.
+-- InnoDB appends the primary key to every secondary index, so each one is also ordered by id
+-- within equal values (used by the keyset "... OrderByIdAsc" finders).
+
+-- TodoRepository: findByCompleted, findOverdueTasks (completed = false AND due_date < ?),
+-- findByDueDateBeforeAndCompleted, streamByCompletedFalseAndDueDateBetween (reminder loading)
+-- and the keyset variants ordered by due_date, id
+create index idx_todos_completed_due_date on todos (completed, due_date);
+
+-- TodoRepository: findByAssignedTo, findByCompletedAndAssignedTo,
+-- streamPendingGroupedByAssignee (daily summary, ordered by assignee).
+-- Also serves the foreign key to people (MySQL then drops its implicit fk_todos_assigned_to index).
+create index idx_todos_assigned_to_completed on todos (assigned_to_id, completed);
+
+-- TodoRepository: findByDueDateBetween and its keyset/stream variants (no completed filter)
+create index idx_todos_due_date on todos (due_date);
+
+-- AttachmentRepository: findByTodo, findSummariesByTodo(Id), and loading Todo.attachments.
+-- Also serves the foreign key to todos (MySQL then drops its implicit fk_attachments_todo index).
+create index idx_attachments_todo_id on attachments (todo_id);
+
+-- AttachmentRepository: findByFileType, findSummariesByFileType
+create index idx_attachments_file_type on attachments (file_type);
+
+-- OutboxMessageRepository: findByStatusAndNextAttemptAtLessThanEqualOrderByIdAsc (poller claim)
+create index idx_outbox_status_next_attempt on notification_outbox (status, next_attempt_at);
+
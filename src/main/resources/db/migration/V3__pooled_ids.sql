@@ -0,0 +1,18 @@
+-- Ids of people, todos and attachments are no longer generated by auto_increment on insert,
+-- but by Hibernate from this table in blocks of 50 (pooled optimizer), so inserts can be batched.
+-- Hibernate reads next_val, stores next_val + 50 and hands out the 50 ids ending at next_val + 1,
+-- so each table is seeded with its highest id + 49 to continue right after it.
+-- The allocation size (50) must match @TableGenerator in the entities.
+--
+-- The id columns keep auto_increment, but rows should only be inserted through the application:
+-- a row inserted by hand without an id gets an auto_increment id that Hibernate may hand out again.
+
+create table id_sequences (
+    sequence_name varchar(255) not null,
+    next_val bigint,
+    primary key (sequence_name)
+);
+
+insert into id_sequences (sequence_name, next_val) select 'people', coalesce(max(id), 0) + 49 from people;
+insert into id_sequences (sequence_name, next_val) select 'todos', coalesce(max(id), 0) + 49 from todos;
+insert into id_sequences (sequence_name, next_val) select 'attachments', coalesce(max(id), 0) + 49 from attachments;
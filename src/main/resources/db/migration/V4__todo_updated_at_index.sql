@@ -0,0 +1,3 @@
+-- ETags of the todo list (TodoController): MAX(updated_at) of all todos is read from the end
+-- of this index instead of scanning the table.
+create index idx_todos_updated_at on todos (updated_at);
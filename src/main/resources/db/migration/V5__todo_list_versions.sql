@@ -0,0 +1,14 @@
+-- ETags of the todo list (TodoController): a version per list, incremented in the same
+-- transaction as every change of a todo in it (TodoListVersionListener), so the ETag is
+-- read by primary key instead of from COUNT/MAX(updated_at) over the todos.
+-- assignee_id 0 is the list of all todos. Rows of persons added later are inserted on
+-- their first change.
+
+create table todo_list_versions (
+    assignee_id bigint not null,
+    version bigint not null,
+    primary key (assignee_id)
+);
+
+insert into todo_list_versions (assignee_id, version) values (0, 0);
+insert into todo_list_versions (assignee_id, version) select id, 0 from people;
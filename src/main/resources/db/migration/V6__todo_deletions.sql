@@ -0,0 +1,13 @@
+-- ETag of the list of all todos (TodoController): MAX(updated_at) from the end of
+-- idx_todos_updated_at changes with every insert and update, and the last id of this log
+-- changes with every delete. Replaces the all-todos row of todo_list_versions, which every
+-- todo write had to update (and lock until its commit).
+
+delete from todo_list_versions where assignee_id = 0;
+
+create table todo_deletions (
+    id bigint not null auto_increment,
+    todo_id bigint not null,
+    deleted_at datetime(6) not null,
+    primary key (id)
+);
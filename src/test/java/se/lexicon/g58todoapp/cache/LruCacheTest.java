@@ -0,0 +1,71 @@
+package se.lexicon.g58todoapp.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * LruCache and BloomFilter Test
+ */
+class LruCacheTest {
+
+    @Test
+    void testLeastRecentlyUsedEntryIsEvicted() {
+        // 16 segments of 1 entry: keys in the same segment evict each other
+        LruCache<Integer, String> cache = new LruCache<>(16, () -> 0);
+        cache.put(0, "a", 1_000);
+        cache.put(16, "b", 1_000);
+
+        assertNull(cache.get(0));
+        assertEquals("b", cache.get(16));
+        assertEquals(1, cache.getEvictions());
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+    }
+
+    @Test
+    void testRecentlyReadEntryIsKept() {
+        LruCache<Integer, String> cache = new LruCache<>(32, () -> 0); // 2 entries per segment
+        cache.put(0, "a", 1_000);
+        cache.put(16, "b", 1_000);
+        cache.get(0);
+        cache.put(32, "c", 1_000);
+
+        assertEquals("a", cache.get(0));
+        assertNull(cache.get(16));
+    }
+
+    @Test
+    void testEntriesExpireAfterTheirTimeToLive() {
+        AtomicLong now = new AtomicLong();
+        LruCache<String, String> cache = new LruCache<>(100, now::get);
+        cache.put("short", "x", 10);
+        cache.put("long", "y", 1_000);
+
+        now.set(10);
+
+        assertNull(cache.get("short"));
+        assertEquals("y", cache.get("long"));
+        assertEquals(1, cache.getExpirations());
+    }
+
+    @Test
+    void testBloomFilterHasNoFalseNegativesAndFewFalsePositives() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("user" + i + "@example.com");
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(filter.mightContain("user" + i + "@example.com"));
+            if (filter.mightContain("other" + i + "@example.com")) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < 200, "false positives: " + falsePositives);
+        assertEquals(7, filter.getHashCount());
+    }
+}
@@ -0,0 +1,168 @@
+package se.lexicon.g58todoapp.config;
+
+import com.icegreen.greenmail.util.GreenMail;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pooled JavaMailSender Test
+ * Sends to a local GreenMail SMTP server and compares connections (and, for information,
+ * throughput) with the plain JavaMailSenderImpl
+ */
+class PooledJavaMailSenderTest {
+
+    private static final int MESSAGES = 100;
+
+    private GreenMail greenMail;
+    private PooledJavaMailSender pooledSender;
+
+    @BeforeEach
+    void setUp() {
+        greenMail = new GreenMail(ServerSetupTest.SMTP.dynamicPort());
+        greenMail.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (pooledSender != null) {
+            pooledSender.destroy();
+        }
+        greenMail.stop();
+    }
+
+    @Test
+    void testConnectionIsReusedAcrossSends() {
+        pooledSender = pooled(100, Duration.ofSeconds(30));
+
+        for (int i = 0; i < 10; i++) {
+            pooledSender.send(message(i));
+        }
+
+        assertEquals(10, greenMail.getReceivedMessages().length);
+        assertEquals(1, pooledSender.getConnectionsOpened());
+        assertEquals(1, pooledSender.getIdleConnections());
+    }
+
+    @Test
+    void testConnectionIsReplacedAfterMaxMessages() {
+        pooledSender = pooled(3, Duration.ofSeconds(30));
+
+        for (int i = 0; i < 10; i++) {
+            pooledSender.send(message(i));
+        }
+
+        assertEquals(10, greenMail.getReceivedMessages().length);
+        assertEquals(4, pooledSender.getConnectionsOpened());
+    }
+
+    @Test
+    void testBatchIsSentOverOneConnection() {
+        pooledSender = pooled(100, Duration.ofSeconds(30));
+        SimpleMailMessage[] batch = new SimpleMailMessage[50];
+        for (int i = 0; i < batch.length; i++) {
+            batch[i] = message(i);
+        }
+
+        pooledSender.send(batch);
+
+        assertEquals(50, greenMail.getReceivedMessages().length);
+        assertEquals(1, pooledSender.getConnectionsOpened());
+    }
+
+    @Test
+    void testIdleConnectionsAreEvicted() throws Exception {
+        pooledSender = pooled(100, Duration.ofMillis(50));
+        pooledSender.send(message(1));
+        Thread.sleep(100);
+
+        pooledSender.evictIdle();
+
+        assertEquals(0, pooledSender.getIdleConnections());
+        pooledSender.send(message(2));
+        assertEquals(2, pooledSender.getConnectionsOpened());
+    }
+
+    @Test
+    void testConcurrentSendersShareTheBoundedPool() throws Exception {
+        pooledSender = pooled(100, Duration.ofSeconds(30));
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<?>> futures = new ArrayList<>();
+
+        for (int i = 0; i < 200; i++) {
+            int n = i;
+            futures.add(executor.submit(() -> pooledSender.send(message(n))));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        assertEquals(200, greenMail.getReceivedMessages().length);
+        // Pool size is 2 and each connection carries up to 100 messages
+        assertTrue(pooledSender.getConnectionsOpened() <= 4,
+                "opened " + pooledSender.getConnectionsOpened() + " connections");
+    }
+
+    @Test
+    void testPooledSenderOpensFewerConnectionsThanUnpooled() {
+        JavaMailSenderImpl plainSender = configure(new JavaMailSenderImpl());
+        pooledSender = pooled(100, Duration.ofSeconds(30));
+
+        // Warm up both paths (class loading, JIT) so the printed rates are comparable
+        sendAll(plainSender, 20);
+        sendAll(pooledSender, 20);
+
+        double plainRate = sendAll(plainSender, MESSAGES);
+        double pooledRate = sendAll(pooledSender, MESSAGES);
+
+        // Throughput depends on the machine and is only printed; the connection count does not.
+        // The plain sender opens one connection per message.
+        System.out.printf("📊 SMTP throughput: unpooled %.0f msg/s, pooled %.0f msg/s (%.1fx)%n",
+                plainRate, pooledRate, pooledRate / plainRate);
+        assertEquals(2 * (20 + MESSAGES), greenMail.getReceivedMessages().length);
+        // 120 messages at up to 100 per connection
+        assertEquals(2, pooledSender.getConnectionsOpened());
+    }
+
+    private double sendAll(JavaMailSenderImpl sender, int count) {
+        long start = System.nanoTime();
+        for (int i = 0; i < count; i++) {
+            sender.send(message(i));
+        }
+        return count / ((System.nanoTime() - start) / 1e9);
+    }
+
+    private PooledJavaMailSender pooled(int maxMessagesPerConnection, Duration idleTimeout) {
+        return configure(new PooledJavaMailSender(2, maxMessagesPerConnection,
+                idleTimeout, Duration.ofSeconds(5), Duration.ofSeconds(10)));
+    }
+
+    private <T extends JavaMailSenderImpl> T configure(T sender) {
+        sender.setHost("localhost");
+        sender.setPort(greenMail.getSmtp().getPort());
+        return sender;
+    }
+
+    private static SimpleMailMessage message(int n) {
+        SimpleMailMessage message = new SimpleMailMessage();
+        message.setFrom("todo@example.com");
+        message.setTo("user" + n + "@example.com");
+        message.setSubject("Reminder " + n);
+        message.setText("Your task is due soon.");
+        return message;
+    }
+}
@@ -0,0 +1,60 @@
+package se.lexicon.g58todoapp.feed;
+
+import org.junit.jupiter.api.Test;
+import se.lexicon.g58todoapp.dto.TodoChangeEvent;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * ReplayBuffer Test
+ */
+class ReplayBufferTest {
+
+    private final ReplayBuffer buffer = new ReplayBuffer(3);
+
+    @Test
+    void testEventsAfterAnIdAreReplayedInOrder() {
+        append(1, 2, 3);
+
+        assertEquals(List.of(2L, 3L), ids(buffer.after(1)));
+        assertEquals(List.of(1L, 2L, 3L), ids(buffer.after(0)));
+        assertEquals(List.of(), buffer.after(3));
+    }
+
+    @Test
+    void testOnlyTheLastEventsAreKept() {
+        append(1, 2, 3, 4, 5);
+
+        assertEquals(5, buffer.getLastId());
+        assertEquals(List.of(3L, 4L, 5L), ids(buffer.after(2)));
+        // Event 2 is gone, so a client that saw only event 1 cannot resume
+        assertNull(buffer.after(1));
+    }
+
+    @Test
+    void testUnknownIdsCannotBeResumed() {
+        append(1, 2);
+
+        // e.g. an id from before a restart
+        assertNull(buffer.after(7));
+    }
+
+    @Test
+    void testEmptyBuffer() {
+        assertEquals(0, buffer.getLastId());
+        assertEquals(List.of(), buffer.after(0));
+        assertNull(buffer.after(4));
+    }
+
+    private void append(long... ids) {
+        for (long id : ids) {
+            buffer.append(TodoChangeEvent.builder().id(id).type(TodoChangeEvent.Type.UPDATED).todoId(id).build());
+        }
+    }
+
+    private static List<Long> ids(List<TodoChangeEvent> events) {
+        return events.stream().map(TodoChangeEvent::getId).toList();
+    }
+}
@@ -0,0 +1,39 @@
+package se.lexicon.g58todoapp.jfr;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Repository Event Interceptor Test
+ * Checks how many rows are reported for the different repository return types
+ */
+class RepositoryEventInterceptorTest {
+
+    @Test
+    void testRowCountOfCollectionsAndPages() {
+        assertEquals(3, RepositoryEventInterceptor.rowCount(List.of("a", "b", "c")));
+        assertEquals(2, RepositoryEventInterceptor.rowCount(new PageImpl<>(List.of("a", "b"), PageRequest.of(0, 2), 10)));
+    }
+
+    @Test
+    void testRowCountOfSingleValues() {
+        assertEquals(0, RepositoryEventInterceptor.rowCount(null));
+        assertEquals(0, RepositoryEventInterceptor.rowCount(Optional.empty()));
+        assertEquals(1, RepositoryEventInterceptor.rowCount(Optional.of("a")));
+        assertEquals(1, RepositoryEventInterceptor.rowCount(42L));
+    }
+
+    @Test
+    void testRowCountOfLazyResultsIsUnknown() {
+        try (Stream<String> stream = Stream.of("a", "b")) {
+            assertEquals(-1, RepositoryEventInterceptor.rowCount(stream));
+        }
+    }
+}
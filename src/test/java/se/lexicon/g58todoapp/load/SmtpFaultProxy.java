@@ -0,0 +1,115 @@
+package se.lexicon.g58todoapp.load;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * SMTP Fault Proxy
+ * A TCP proxy between the application and the GreenMail SMTP server that makes the server
+ * slow or unavailable on purpose:
+ * - every reply of the server (greeting, and the answer to each command) is held back for replyDelay
+ * - failureRate of the connections are refused with "421 Service not available"
+ *
+ * Each connection is served by two virtual threads, one per direction.
+ */
+class SmtpFaultProxy implements AutoCloseable {
+
+    private static final byte[] UNAVAILABLE = "421 4.3.2 Service not available\r\n".getBytes(StandardCharsets.US_ASCII);
+
+    private final int upstreamPort;
+    private final Duration replyDelay;
+    private final double failureRate;
+    private final ServerSocket serverSocket;
+    private final AtomicLong connections = new AtomicLong();
+    private final AtomicLong refused = new AtomicLong();
+
+    SmtpFaultProxy(int upstreamPort, Duration replyDelay, double failureRate) throws IOException {
+        this.upstreamPort = upstreamPort;
+        this.replyDelay = replyDelay;
+        this.failureRate = failureRate;
+        this.serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        Thread.ofVirtual().name("smtp-proxy-accept").start(this::acceptLoop);
+    }
+
+    int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    long getConnections() {
+        return connections.get();
+    }
+
+    long getRefused() {
+        return refused.get();
+    }
+
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+    }
+
+    private void acceptLoop() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket client = serverSocket.accept();
+                connections.incrementAndGet();
+                Thread.ofVirtual().start(() -> serve(client));
+            } catch (IOException e) {
+                // Closed
+            }
+        }
+    }
+
+    private void serve(Socket client) {
+        try (client) {
+            if (ThreadLocalRandom.current().nextDouble() < failureRate) {
+                refused.incrementAndGet();
+                client.getOutputStream().write(UNAVAILABLE);
+                return;
+            }
+            try (Socket upstream = new Socket(InetAddress.getLoopbackAddress(), upstreamPort)) {
+                Thread requests = Thread.ofVirtual().start(() -> pipe(client, upstream, Duration.ZERO));
+                pipe(upstream, client, replyDelay);
+                requests.join();
+            }
+        } catch (IOException | InterruptedException e) {
+            // Connection closed by either side
+        }
+    }
+
+    /**
+     * Copy until the end of the stream, waiting delay before each chunk
+     * (a chunk from the server is one reply, SMTP clients wait for it before sending on)
+     */
+    private static void pipe(Socket from, Socket to, Duration delay) {
+        byte[] buffer = new byte[8192];
+        try {
+            InputStream in = from.getInputStream();
+            OutputStream out = to.getOutputStream();
+            int read;
+            while ((read = in.read(buffer)) >= 0) {
+                if (!delay.isZero()) {
+                    Thread.sleep(delay);
+                }
+                out.write(buffer, 0, read);
+                out.flush();
+            }
+        } catch (IOException | InterruptedException e) {
+            // Connection closed by either side
+        } finally {
+            try {
+                to.shutdownOutput();
+            } catch (IOException e) {
+                // Already closed
+            }
+        }
+    }
+}
@@ -0,0 +1,330 @@
+package se.lexicon.g58todoapp.load;
+
+import com.icegreen.greenmail.util.GreenMail;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestPropertySource;
+import se.lexicon.g58todoapp.entity.Person;
+import se.lexicon.g58todoapp.entity.Todo;
+import se.lexicon.g58todoapp.repo.PersonRepository;
+import se.lexicon.g58todoapp.repo.TodoRepository;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Todo App Load Test
+ * Boots the whole application on H2, with GreenMail as the SMTP server behind an
+ * SmtpFaultProxy, and sends concurrent HTTP requests to the todo, person and email endpoints.
+ * Prints throughput and the latency distribution (HdrHistogram) per endpoint, and writes
+ * one .hgrm file per endpoint to target/load-test (can be plotted with HdrHistogram's plotter).
+ *
+ * Not part of the normal build (tag "load"). Run it with the load-test profile:
+ *
+ * ./mvnw test -Pload-test
+ * ./mvnw test -Pload-test -Dload.smtp.delay=50ms -Dload.smtp.failure-rate=0.05 -Dload.delivery-mode=ASYNC
+ *
+ * Settings (system properties):
+ * - load.workers            concurrent clients (default 32)
+ * - load.duration           how long to measure, after load.warmup (default 30s, warmup 10s)
+ * - load.rate               requests per second for all workers together, 0 = as fast as possible (default 0)
+ * - load.smtp.delay         delay of every SMTP server reply (default 0ms)
+ * - load.smtp.failure-rate  fraction of SMTP connections refused (default 0)
+ * - load.delivery-mode      email.delivery.mode of the application (default DIRECT, so SMTP latency
+ *                           is part of the email request latency; ASYNC or OUTBOX decouple it)
+ *
+ * With load.rate set, latency is measured from when a request should have been sent, not from
+ * when it was sent, so a stalled server is not hidden by clients that wait for it (coordinated omission).
+ */
+@Tag("load")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.jpa.show-sql=false",
+        "logging.level.org.springframework.mail=INFO"})
+@TestPropertySource(locations = "classpath:application-test.properties")
+class TodoAppLoadTest {
+
+    private static final int WORKERS = Integer.getInteger("load.workers", 32);
+    private static final Duration WARMUP = duration("load.warmup", "10s");
+    private static final Duration DURATION = duration("load.duration", "30s");
+    private static final double RATE = Double.parseDouble(System.getProperty("load.rate", "0"));
+    private static final Duration SMTP_DELAY = duration("load.smtp.delay", "0ms");
+    private static final double SMTP_FAILURE_RATE = Double.parseDouble(System.getProperty("load.smtp.failure-rate", "0"));
+    private static final String DELIVERY_MODE = System.getProperty("load.delivery-mode", "DIRECT");
+
+    // Dataset
+    private static final int PERSONS = 50;
+    private static final int TODOS_PER_PERSON = 20;
+
+    // Highest latency that can be recorded: 1 minute, in microseconds, with 3 significant digits
+    private static final long MAX_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    private static final GreenMail greenMail = new GreenMail(ServerSetupTest.SMTP.dynamicPort());
+    private static final SmtpFaultProxy smtpProxy;
+
+    static {
+        greenMail.start();
+        try {
+            smtpProxy = new SmtpFaultProxy(greenMail.getSmtp().getPort(), SMTP_DELAY, SMTP_FAILURE_RATE);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private PersonRepository personRepository;
+
+    @Autowired
+    private TodoRepository todoRepository;
+
+    /**
+     * One kind of request in the mix
+     *
+     * @param weight how often it is picked, relative to the others
+     */
+    private record Endpoint(String name, int weight, Function<Long, HttpRequest.Builder> request) {
+    }
+
+    /**
+     * Latencies and errors of one endpoint
+     */
+    private static final class Results {
+        final Histogram latencies = new ConcurrentHistogram(MAX_LATENCY_MICROS, 3);
+        final AtomicLong errors = new AtomicLong();
+    }
+
+    @DynamicPropertySource
+    static void mailProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.mail.port", smtpProxy::getPort);
+        registry.add("email.delivery.mode", () -> DELIVERY_MODE);
+    }
+
+    @AfterAll
+    static void stopSmtp() throws IOException {
+        smtpProxy.close();
+        greenMail.stop();
+    }
+
+    @Test
+    void runLoad() throws Exception {
+        List<Long> personIds = loadDataset();
+        String base = "http://localhost:" + port;
+        List<Endpoint> endpoints = List.of(
+                new Endpoint("GET /api/todos/search", 30,
+                        id -> HttpRequest.newBuilder(URI.create(base + "/api/todos/search?q=report&size=20"))),
+                new Endpoint("GET /api/people/{id}", 20,
+                        id -> HttpRequest.newBuilder(URI.create(base + "/api/people/" + id))),
+                new Endpoint("GET /api/people/{id}/todo-stats", 20,
+                        id -> HttpRequest.newBuilder(URI.create(base + "/api/people/" + id + "/todo-stats"))),
+                new Endpoint("GET /api/email/test-simple", 15,
+                        id -> HttpRequest.newBuilder(URI.create(base + "/api/email/test-simple?email=person" + id + "@example.com"))),
+                new Endpoint("GET /api/email/test-assignment", 15,
+                        id -> HttpRequest.newBuilder(URI.create(base + "/api/email/test-assignment"))));
+
+        HttpClient client = HttpClient.newBuilder()
+                .executor(command -> Thread.ofVirtual().start(command))
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+
+        System.out.println("🔥 Warming up for " + WARMUP.toSeconds() + " s...");
+        run(client, endpoints, personIds, WARMUP);
+
+        System.out.println("📈 Measuring for " + DURATION.toSeconds() + " s with " + WORKERS + " workers"
+                + (RATE > 0 ? " at " + RATE + " requests/s" : "") + ", SMTP delay " + SMTP_DELAY.toMillis()
+                + " ms, SMTP failure rate " + SMTP_FAILURE_RATE + ", delivery mode " + DELIVERY_MODE);
+        long smtpConnectionsBefore = smtpProxy.getConnections();
+        long smtpRefusedBefore = smtpProxy.getRefused();
+        Map<String, Results> results = run(client, endpoints, personIds, DURATION);
+
+        report(results, System.out);
+        System.out.println("SMTP connections: " + (smtpProxy.getConnections() - smtpConnectionsBefore)
+                + ", refused: " + (smtpProxy.getRefused() - smtpRefusedBefore));
+
+        long requests = results.values().stream().mapToLong(r -> r.latencies.getTotalCount()).sum();
+        assertTrue(requests > 0, "No request completed");
+    }
+
+    /**
+     * Persons with todos, titles mixing "report" and other words for the search endpoint
+     */
+    private List<Long> loadDataset() {
+        List<Person> persons = new ArrayList<>(PERSONS);
+        for (int i = 0; i < PERSONS; i++) {
+            persons.add(new Person("Load Person " + i, "load" + i + "@example.com", LocalDate.of(1990, 1, 1)));
+        }
+        personRepository.saveAll(persons);
+
+        List<Todo> todos = new ArrayList<>(PERSONS * TODOS_PER_PERSON);
+        LocalDateTime now = LocalDateTime.now();
+        for (Person person : persons) {
+            for (int i = 0; i < TODOS_PER_PERSON; i++) {
+                todos.add(new Todo((i % 5 == 0 ? "Write report " : "Task ") + i, "Load test todo " + i,
+                        now.plusDays(i - TODOS_PER_PERSON / 2), person));
+            }
+        }
+        todoRepository.saveAll(todos);
+        return persons.stream().map(Person::getId).toList();
+    }
+
+    /**
+     * Send requests from WORKERS virtual threads until duration has passed
+     */
+    private Map<String, Results> run(HttpClient client, List<Endpoint> endpoints, List<Long> personIds,
+                                     Duration duration) throws InterruptedException {
+        Map<String, Results> results = new LinkedHashMap<>();
+        endpoints.forEach(endpoint -> results.put(endpoint.name(), new Results()));
+        int totalWeight = endpoints.stream().mapToInt(Endpoint::weight).sum();
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+        // Each worker sends one request every interval (0 = right after the previous one)
+        long intervalNanos = RATE > 0 ? (long) (WORKERS * 1_000_000_000L / RATE) : 0;
+
+        List<Thread> workers = new ArrayList<>(WORKERS);
+        for (int w = 0; w < WORKERS; w++) {
+            long firstSend = start + (intervalNanos * w) / WORKERS; // Spread the workers over one interval
+            workers.add(Thread.ofVirtual().name("load-worker-" + w).start(() -> {
+                long intended = firstSend;
+                while (intended < end) {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    Endpoint endpoint = pick(endpoints, random.nextInt(totalWeight));
+                    Long personId = personIds.get(random.nextInt(personIds.size()));
+                    HttpRequest request = endpoint.request().apply(personId).timeout(Duration.ofSeconds(30)).build();
+
+                    long now = System.nanoTime();
+                    if (intervalNanos > 0 && now < intended) {
+                        sleepNanos(intended - now);
+                    }
+                    long sent = intervalNanos > 0 ? intended : System.nanoTime();
+                    Results endpointResults = results.get(endpoint.name());
+                    try {
+                        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                        if (response.statusCode() >= 400) {
+                            endpointResults.errors.incrementAndGet();
+                        }
+                    } catch (IOException e) {
+                        endpointResults.errors.incrementAndGet();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                    long latencyMicros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - sent);
+                    endpointResults.latencies.recordValue(Math.min(latencyMicros, MAX_LATENCY_MICROS));
+                    intended = intervalNanos > 0 ? intended + intervalNanos : System.nanoTime();
+                }
+            }));
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        return results;
+    }
+
+    private static Endpoint pick(List<Endpoint> endpoints, int roll) {
+        for (Endpoint endpoint : endpoints) {
+            roll -= endpoint.weight();
+            if (roll < 0) {
+                return endpoint;
+            }
+        }
+        throw new IllegalStateException("Weights do not add up");
+    }
+
+    /**
+     * Throughput and percentiles per endpoint, and the full distributions as .hgrm files
+     */
+    private static void report(Map<String, Results> results, PrintStream out) throws IOException {
+        Path directory = Path.of("target", "load-test");
+        Files.createDirectories(directory);
+        Histogram all = new Histogram(MAX_LATENCY_MICROS, 3);
+
+        out.println();
+        out.printf("%-34s %9s %8s %7s %9s %9s %9s %9s %9s%n",
+                "Endpoint", "Requests", "Req/s", "Errors", "p50 ms", "p95 ms", "p99 ms", "p99.9 ms", "max ms");
+        for (Map.Entry<String, Results> entry : results.entrySet()) {
+            Histogram latencies = entry.getValue().latencies;
+            all.add(latencies);
+            printRow(out, entry.getKey(), latencies, entry.getValue().errors.get());
+
+            String fileName = entry.getKey().replaceAll("[^A-Za-z0-9]+", "_").replaceAll("^_|_$", "") + ".hgrm";
+            try (PrintStream file = new PrintStream(Files.newOutputStream(directory.resolve(fileName)))) {
+                latencies.outputPercentileDistribution(file, 1000.0); // In milliseconds
+            }
+        }
+        long errors = results.values().stream().mapToLong(r -> r.errors.get()).sum();
+        printRow(out, "All", all, errors);
+
+        out.println();
+        out.println("Latency distribution of all requests (ms):");
+        all.outputPercentileDistribution(out, 5, 1000.0);
+        try (PrintStream file = new PrintStream(Files.newOutputStream(directory.resolve("all.hgrm")))) {
+            all.outputPercentileDistribution(file, 1000.0);
+        }
+        out.println("📁 Distributions written to " + directory.toAbsolutePath());
+    }
+
+    private static void printRow(PrintStream out, String name, Histogram latencies, long errors) {
+        out.printf("%-34s %9d %8.1f %7d %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                name,
+                latencies.getTotalCount(),
+                latencies.getTotalCount() / (double) DURATION.toSeconds(),
+                errors,
+                latencies.getValueAtPercentile(50) / 1000.0,
+                latencies.getValueAtPercentile(95) / 1000.0,
+                latencies.getValueAtPercentile(99) / 1000.0,
+                latencies.getValueAtPercentile(99.9) / 1000.0,
+                latencies.getMaxValue() / 1000.0);
+    }
+
+    private static void sleepNanos(long nanos) {
+        try {
+            TimeUnit.NANOSECONDS.sleep(nanos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static Duration duration(String property, String defaultValue) {
+        String value = System.getProperty(property, defaultValue).trim().toLowerCase();
+        if (value.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(value.substring(0, value.length() - 2)));
+        }
+        if (value.endsWith("s")) {
+            return Duration.ofSeconds(Long.parseLong(value.substring(0, value.length() - 1)));
+        }
+        if (value.endsWith("m")) {
+            return Duration.ofMinutes(Long.parseLong(value.substring(0, value.length() - 1)));
+        }
+        return Duration.ofMillis(Long.parseLong(value));
+    }
+}
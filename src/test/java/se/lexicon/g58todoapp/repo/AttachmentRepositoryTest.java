@@ -0,0 +1,216 @@
+package se.lexicon.g58todoapp.repo;
+
+import org.hibernate.engine.jdbc.BlobProxy;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import se.lexicon.g58todoapp.dto.AttachmentSummary;
+import se.lexicon.g58todoapp.entity.Attachment;
+import se.lexicon.g58todoapp.entity.Todo;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Blob;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Attachment Repository Test
+ * Proves that listing attachments reads only metadata from JDBC, never the file content.
+ *
+ * The DataSource is wrapped so every value read from a ResultSet is counted in bytes.
+ */
+@DataJpaTest
+class AttachmentRepositoryTest {
+
+    // 1 MB per file - far more than any metadata row
+    private static final int FILE_SIZE = 1024 * 1024;
+
+    // Upper limit for reading the metadata of all attachments in one listing
+    private static final long METADATA_BYTES_LIMIT = 4 * 1024;
+
+    @Autowired
+    private AttachmentRepository attachmentRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private JdbcByteCounter byteCounter;
+
+    private Todo todo;
+
+    @BeforeEach
+    void setUp() {
+        todo = entityManager.persist(new Todo("Write report", "Quarterly report", LocalDateTime.now().plusDays(1)));
+        for (int i = 0; i < 3; i++) {
+            Attachment attachment = new Attachment("file-" + i + ".bin", "application/octet-stream",
+                    BlobProxy.generateProxy(new byte[FILE_SIZE]));
+            attachment.setFileSize((long) FILE_SIZE);
+            attachment.setContentHash("hash-" + i);
+            attachment.setTodo(todo);
+            entityManager.persist(attachment);
+        }
+        entityManager.flush();
+        entityManager.clear();
+        byteCounter.reset();
+    }
+
+    @Test
+    void testListingSummariesReadsOnlyMetadata() {
+        List<AttachmentSummary> summaries = attachmentRepository.findSummariesByTodo(todo);
+
+        assertEquals(3, summaries.size());
+        assertEquals(FILE_SIZE, summaries.get(0).getFileSize());
+        assertNotNull(summaries.get(0).getContentHash());
+        assertEquals(0, byteCounter.getLobReads(), "Listing must not read the BLOB column");
+        assertTrue(byteCounter.getBytesRead() < METADATA_BYTES_LIMIT,
+                "Listing read " + byteCounter.getBytesRead() + " bytes");
+    }
+
+    @Test
+    void testSummaryFindersByTypeAndNameReadOnlyMetadata() {
+        assertEquals(3, attachmentRepository.findSummariesByFileType("application/octet-stream").size());
+        assertEquals(1, attachmentRepository.findSummariesByFileNameContainingIgnoreCase("FILE-1").size());
+
+        assertEquals(0, byteCounter.getLobReads());
+        assertTrue(byteCounter.getBytesRead() < METADATA_BYTES_LIMIT);
+    }
+
+    @Test
+    void testLoadingEntitiesDoesNotReadLazyData() {
+        List<Attachment> attachments = attachmentRepository.findByTodo(todo);
+
+        assertEquals(3, attachments.size());
+        assertEquals(0, byteCounter.getLobReads(), "Attachment.data must be loaded lazily");
+        assertTrue(byteCounter.getBytesRead() < METADATA_BYTES_LIMIT);
+    }
+
+    @Test
+    void testContentIsReadWhenAccessed() throws SQLException {
+        Attachment attachment = attachmentRepository.findByTodo(todo).get(0);
+        long before = byteCounter.getLobReads();
+
+        Blob data = attachment.getData();
+
+        assertEquals(FILE_SIZE, data.length());
+        assertTrue(byteCounter.getLobReads() > before, "Accessing data should read the BLOB");
+    }
+
+    /**
+     * Wraps the DataSource so reads from every ResultSet are counted
+     */
+    @TestConfiguration
+    static class JdbcByteCounterConfig {
+
+        @Bean
+        JdbcByteCounter jdbcByteCounter() {
+            return JdbcByteCounter.INSTANCE;
+        }
+
+        @Bean
+        static BeanPostProcessor countingDataSourcePostProcessor() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if (bean instanceof DataSource dataSource && !(bean instanceof DelegatingDataSource)) {
+                        return new DelegatingDataSource(dataSource) {
+                            @Override
+                            public Connection getConnection() throws SQLException {
+                                return JdbcByteCounter.INSTANCE.wrap(super.getConnection());
+                            }
+                        };
+                    }
+                    return bean;
+                }
+            };
+        }
+    }
+
+    /**
+     * Counts the bytes returned by ResultSet getters
+     * byte[] and String count their length, LOBs their full length
+     * A single instance, because the DataSource is wrapped before the bean exists
+     */
+    static class JdbcByteCounter {
+
+        static final JdbcByteCounter INSTANCE = new JdbcByteCounter();
+
+        private final AtomicLong bytesRead = new AtomicLong();
+        private final AtomicLong lobReads = new AtomicLong();
+
+        private JdbcByteCounter() {
+        }
+
+        long getBytesRead() {
+            return bytesRead.get();
+        }
+
+        long getLobReads() {
+            return lobReads.get();
+        }
+
+        void reset() {
+            bytesRead.set(0);
+            lobReads.set(0);
+        }
+
+        Connection wrap(Connection connection) {
+            return proxy(Connection.class, connection);
+        }
+
+        @SuppressWarnings("unchecked")
+        private <T> T proxy(Class<T> type, T target) {
+            return (T) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{type}, (p, method, args) -> {
+                Object result;
+                try {
+                    result = method.invoke(target, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+                if (result instanceof ResultSet resultSet) {
+                    return proxy(ResultSet.class, resultSet);
+                }
+                if (result instanceof java.sql.PreparedStatement statement) {
+                    return proxy(java.sql.PreparedStatement.class, statement);
+                }
+                if (result instanceof Statement statement) {
+                    return proxy(Statement.class, statement);
+                }
+                if (type == ResultSet.class && method.getName().startsWith("get")) {
+                    count(result);
+                }
+                return result;
+            });
+        }
+
+        private void count(Object value) throws SQLException {
+            if (value instanceof byte[] bytes) {
+                bytesRead.addAndGet(bytes.length);
+            } else if (value instanceof String text) {
+                bytesRead.addAndGet(text.length());
+            } else if (value instanceof Blob blob) {
+                lobReads.incrementAndGet();
+                bytesRead.addAndGet(blob.length());
+            } else if (value instanceof java.io.InputStream) {
+                lobReads.incrementAndGet();
+            } else if (value != null) {
+                bytesRead.addAndGet(8);
+            }
+        }
+    }
+}
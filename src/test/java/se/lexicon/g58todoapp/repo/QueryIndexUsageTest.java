@@ -0,0 +1,117 @@
+package se.lexicon.g58todoapp.repo;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Index usage tests for the Flyway migrations
+ * Runs the migrations on H2 in MySQL mode and checks with EXPLAIN that the
+ * SQL of the main repository queries is answered from an index, not a table scan.
+ *
+ * H2 creates its own index for a foreign key when the constraint is added (V1). The setup
+ * re-adds fk_attachments_todo, which then uses idx_attachments_todo_id like on MySQL.
+ * H2 only reuses an index with exactly the key's columns, so fk_todos_assigned_to keeps
+ * its own index, and the planner may pick that one for assigned_to_id alone.
+ */
+@DataJpaTest(properties = "spring.datasource.url=jdbc:h2:mem:explain;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class QueryIndexUsageTest {
+
+    @Autowired
+    private DataSource dataSource;
+
+    private JdbcTemplate jdbc;
+
+    @BeforeEach
+    void setUp() {
+        jdbc = new JdbcTemplate(dataSource);
+        if (jdbc.queryForObject("SELECT COUNT(*) FROM todos", Integer.class) > 0) {
+            return; // Already loaded by an earlier test (same in-memory database)
+        }
+        reAddForeignKey("attachments", "fk_attachments_todo", "todo_id", "todos");
+        jdbc.update("INSERT INTO people (name, email, created_at) VALUES ('Ann', 'ann@example.com', CURRENT_DATE)");
+        Long personId = jdbc.queryForObject("SELECT id FROM people WHERE email = 'ann@example.com'", Long.class);
+        for (int i = 0; i < 200; i++) {
+            jdbc.update("INSERT INTO todos (title, completed, created_at, due_date, assigned_to_id) "
+                    + "VALUES (?, ?, CURRENT_TIMESTAMP, DATEADD('DAY', ?, CURRENT_TIMESTAMP), ?)",
+                    "Todo " + i, i % 4 == 0, i - 100, i % 2 == 0 ? personId : null);
+        }
+        jdbc.execute("ANALYZE");
+    }
+
+    @Test
+    void testFindOverdueTasksUsesCompletedDueDateIndex() {
+        assertUsesIndex("idx_todos_completed_due_date",
+                "SELECT * FROM todos WHERE completed = FALSE AND due_date < CURRENT_TIMESTAMP");
+    }
+
+    @Test
+    void testFindByCompletedUsesCompletedDueDateIndex() {
+        assertUsesIndex("idx_todos_completed_due_date",
+                "SELECT * FROM todos WHERE completed = TRUE");
+    }
+
+    @Test
+    void testFindByDueDateBeforeAndCompletedUsesCompletedDueDateIndex() {
+        assertUsesIndex("idx_todos_completed_due_date",
+                "SELECT * FROM todos WHERE due_date < CURRENT_TIMESTAMP AND completed = FALSE ORDER BY due_date, id");
+    }
+
+    @Test
+    void testFindByAssignedToUsesAssigneeIndex() {
+        // An index lookup on assigned_to_id: on MySQL idx_todos_assigned_to_completed, the only one
+        assertUsesIndex(": assigned_to_id =",
+                "SELECT * FROM todos WHERE assigned_to_id = 1");
+    }
+
+    @Test
+    void testFindByCompletedAndAssignedToUsesAssigneeIndex() {
+        assertUsesIndex("idx_todos_assigned_to_completed",
+                "SELECT * FROM todos WHERE completed = FALSE AND assigned_to_id = 1");
+    }
+
+    @Test
+    void testFindByDueDateBetweenUsesDueDateIndex() {
+        assertUsesIndex("idx_todos_due_date",
+                "SELECT * FROM todos WHERE due_date BETWEEN CURRENT_TIMESTAMP AND DATEADD('DAY', 7, CURRENT_TIMESTAMP)");
+    }
+
+    @Test
+    void testAttachmentsOfTodoUseTodoIdIndex() {
+        assertUsesIndex("idx_attachments_todo_id",
+                "SELECT id, file_name, file_type, file_size, content_hash FROM attachments WHERE todo_id = 1");
+    }
+
+    @Test
+    void testOutboxClaimUsesStatusNextAttemptIndex() {
+        assertUsesIndex("idx_outbox_status_next_attempt",
+                "SELECT * FROM notification_outbox WHERE status = 'PENDING' "
+                        + "AND next_attempt_at <= CURRENT_TIMESTAMP ORDER BY id LIMIT 50");
+    }
+
+    /**
+     * Drop and add a foreign key again, so it uses an existing index on its column
+     * (H2 drops the index it created for the constraint together with it)
+     */
+    private void reAddForeignKey(String table, String constraint, String column, String referencedTable) {
+        jdbc.execute("ALTER TABLE " + table + " DROP CONSTRAINT " + constraint);
+        jdbc.execute("ALTER TABLE " + table + " ADD CONSTRAINT " + constraint
+                + " FOREIGN KEY (" + column + ") REFERENCES " + referencedTable + " (id)");
+    }
+
+    private void assertUsesIndex(String index, String sql) {
+        List<String> plan = jdbc.queryForList("EXPLAIN " + sql, String.class);
+        String text = String.join("\n", plan).toLowerCase();
+        assertTrue(text.contains(index), "Expected " + index + " in plan:\n" + text);
+        assertFalse(text.contains("tablescan"), "Table scan in plan:\n" + text);
+    }
+}
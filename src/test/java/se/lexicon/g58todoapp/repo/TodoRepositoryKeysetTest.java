@@ -0,0 +1,130 @@
+package se.lexicon.g58todoapp.repo;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+import se.lexicon.g58todoapp.entity.Person;
+import se.lexicon.g58todoapp.entity.Todo;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Keyset pagination tests for TodoRepository
+ * Walks every page by continuing after the last row of the previous one and checks that
+ * the pages together are exactly the matching rows, in order, without gaps or repeats.
+ */
+@DataJpaTest
+class TodoRepositoryKeysetTest {
+
+    private static final LocalDateTime DAY = LocalDateTime.of(2026, 5, 1, 9, 0);
+
+    @Autowired
+    private TodoRepository todoRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private Person ann;
+    private final List<Todo> todos = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        ann = entityManager.persist(new Person("Ann", "ann@example.com", LocalDate.of(1990, 1, 1)));
+        Person bob = entityManager.persist(new Person("Bob", "bob@example.com", LocalDate.of(1991, 1, 1)));
+        for (int i = 0; i < 23; i++) {
+            // Only 3 distinct due dates, so pages have to continue inside a run of equal dates
+            Todo todo = new Todo("Task " + i, null, DAY.plusDays(i % 3), i % 2 == 0 ? ann : bob);
+            todo.setCompleted(i % 4 == 0);
+            todos.add(entityManager.persist(todo));
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void testPagesByIdContinueAfterTheLastRow() {
+        List<Long> expected = todos.stream().filter(todo -> !todo.getCompleted()).map(Todo::getId).sorted().toList();
+
+        List<Long> ids = readAll(position -> todoRepository.findByCompletedOrderByIdAsc(false, position, Limit.of(5)));
+
+        assertEquals(expected, ids);
+    }
+
+    @Test
+    void testPagesByDueDateContinueInsideEqualDueDates() {
+        List<Long> expected = todos.stream()
+                .sorted(Comparator.comparing(Todo::getDueDate).thenComparing(Todo::getId))
+                .map(Todo::getId)
+                .toList();
+
+        List<Long> ids = readAll(position -> todoRepository.findByDueDateBetweenOrderByDueDateAscIdAsc(
+                DAY, DAY.plusDays(2), position, Limit.of(4)));
+
+        assertEquals(expected, ids);
+    }
+
+    @Test
+    void testPagesOfOnePerson() {
+        List<Long> expected = todos.stream()
+                .filter(todo -> todo.getAssignedTo().getId().equals(ann.getId()))
+                .map(Todo::getId)
+                .sorted()
+                .toList();
+
+        List<Long> ids = readAll(position -> todoRepository.findByAssignedToOrderByIdAsc(ann, position, Limit.of(5)));
+
+        assertEquals(expected, ids);
+    }
+
+    @Test
+    void testIdGreaterThanPagesContinueAfterTheLastId() {
+        List<Long> expected = todos.stream()
+                .filter(todo -> todo.getAssignedTo().getId().equals(ann.getId()))
+                .map(Todo::getId)
+                .sorted()
+                .toList();
+
+        List<Long> ids = new ArrayList<>();
+        long afterId = 0;
+        List<Todo> page;
+        do {
+            page = todoRepository.findByAssignedToIdAndIdGreaterThanOrderByIdAsc(ann.getId(), afterId, Limit.of(5));
+            page.forEach(todo -> ids.add(todo.getId()));
+            if (!page.isEmpty()) {
+                afterId = page.getLast().getId();
+            }
+        } while (page.size() == 5);
+
+        assertEquals(expected, ids);
+        assertEquals(todos.size(), todoRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(100)).size());
+        assertTrue(todoRepository.findByIdGreaterThanOrderByIdAsc(todos.getLast().getId(), Limit.of(100)).isEmpty());
+    }
+
+    /**
+     * Read every page, starting at the beginning, and return the ids in page order
+     */
+    private static List<Long> readAll(Function<ScrollPosition, Window<Todo>> query) {
+        List<Long> ids = new ArrayList<>();
+        Window<Todo> page = query.apply(ScrollPosition.keyset());
+        while (!page.isEmpty()) {
+            page.forEach(todo -> ids.add(todo.getId()));
+            if (!page.hasNext()) {
+                break;
+            }
+            page = query.apply(page.positionAt(page.size() - 1));
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,148 @@
+package se.lexicon.g58todoapp.repo;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import se.lexicon.g58todoapp.entity.Person;
+import se.lexicon.g58todoapp.entity.Todo;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Query count regression tests for TodoRepository
+ * Uses Hibernate statistics to assert the exact number of SQL statements per call,
+ * so an N+1 problem (one extra SELECT per assignee) fails the build.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class TodoRepositoryQueryCountTest {
+
+    private static final int PERSONS = 5;
+    private static final int TODOS_PER_PERSON = 4;
+
+    @Autowired
+    private TodoRepository todoRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private Statistics statistics;
+    private Person firstPerson;
+
+    @BeforeEach
+    void setUp() {
+        LocalDateTime now = LocalDateTime.now();
+        for (int p = 0; p < PERSONS; p++) {
+            Person person = entityManager.persist(
+                    new Person("Person " + p, "person" + p + "@example.com", LocalDate.of(1990, 1, 1)));
+            if (p == 0) {
+                firstPerson = person;
+            }
+            for (int t = 0; t < TODOS_PER_PERSON; t++) {
+                // Half of the todos are overdue, half are due in the future
+                LocalDateTime dueDate = t % 2 == 0 ? now.minusDays(t + 1) : now.plusDays(t + 1);
+                entityManager.persist(new Todo("Task " + p + "-" + t, "Description", dueDate, person));
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void testFindByCompletedIsOneStatement() {
+        List<Todo> todos = todoRepository.findByCompleted(false);
+
+        assertEquals(PERSONS * TODOS_PER_PERSON, todos.size());
+        assertStatements(1);
+    }
+
+    @Test
+    void testAssigneeIsNotLoadedUntilUsed() {
+        List<Todo> todos = todoRepository.findByCompleted(false);
+        assertStatements(1);
+
+        // Touching every assignee loads each distinct person once - this is the N+1
+        // that the WithAssignee variants avoid
+        todos.forEach(todo -> todo.getAssignedTo().getName());
+        assertStatements(1 + PERSONS);
+    }
+
+    @Test
+    void testFindWithAssigneeByCompletedIsOneStatement() {
+        List<Todo> todos = todoRepository.findWithAssigneeByCompleted(false);
+        todos.forEach(todo -> assertNotNull(todo.getAssignedTo().getEmail()));
+
+        assertEquals(PERSONS * TODOS_PER_PERSON, todos.size());
+        assertStatements(1);
+    }
+
+    @Test
+    void testFindOverdueTasksWithAssigneeIsOneStatement() {
+        List<Todo> todos = todoRepository.findOverdueTasksWithAssignee(LocalDateTime.now());
+        todos.forEach(todo -> assertNotNull(todo.getAssignedTo().getEmail()));
+
+        assertEquals(PERSONS * TODOS_PER_PERSON / 2, todos.size());
+        assertStatements(1);
+    }
+
+    @Test
+    void testFindWithAssigneeByDueDateBetweenIsOneStatement() {
+        LocalDateTime now = LocalDateTime.now();
+        List<Todo> todos = todoRepository.findWithAssigneeByDueDateBetween(now, now.plusDays(30));
+        todos.forEach(todo -> assertNotNull(todo.getAssignedTo().getEmail()));
+
+        assertEquals(PERSONS * TODOS_PER_PERSON / 2, todos.size());
+        assertStatements(1);
+    }
+
+    @Test
+    void testFindWithAssigneeByDueDateBeforeAndCompletedIsOneStatement() {
+        List<Todo> todos = todoRepository.findWithAssigneeByDueDateBeforeAndCompleted(LocalDateTime.now(), false);
+        todos.forEach(todo -> assertNotNull(todo.getAssignedTo().getEmail()));
+
+        assertEquals(PERSONS * TODOS_PER_PERSON / 2, todos.size());
+        assertStatements(1);
+    }
+
+    @Test
+    void testFindByAssignedToIsOneStatement() {
+        List<Todo> todos = todoRepository.findByAssignedTo(firstPerson);
+
+        assertEquals(TODOS_PER_PERSON, todos.size());
+        assertStatements(1);
+    }
+
+    @Test
+    void testFindOverdueTasksIsOneStatement() {
+        List<Todo> todos = todoRepository.findOverdueTasks(LocalDateTime.now());
+
+        assertEquals(PERSONS * TODOS_PER_PERSON / 2, todos.size());
+        assertStatements(1);
+    }
+
+    @Test
+    void testKeysetPageIsOneStatement() {
+        var page = todoRepository.findByCompletedOrderByIdAsc(false, ScrollPosition.keyset(), Limit.of(5));
+
+        assertEquals(5, page.size());
+        assertStatements(1);
+    }
+
+    private void assertStatements(long expected) {
+        assertEquals(expected, statistics.getPrepareStatementCount(),
+                "Unexpected number of SQL statements");
+    }
+}
@@ -0,0 +1,123 @@
+package se.lexicon.g58todoapp.search;
+
+import org.junit.jupiter.api.Test;
+import se.lexicon.g58todoapp.dto.TodoSearchHit;
+import se.lexicon.g58todoapp.dto.TodoSearchResult;
+
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * TrigramIndex and PostingList Test
+ */
+class TrigramIndexTest {
+
+    @Test
+    void testPostingListMatchesSortedSetUnderRandomChanges() {
+        PostingList list = new PostingList();
+        TreeSet<Long> expected = new TreeSet<>();
+        Random random = new Random(42);
+
+        // Mostly ascending appends (as on load), then random inserts and removes
+        for (long id = 1; id <= 5_000; id += 1 + random.nextInt(3)) {
+            assertEquals(expected.add(id), list.add(id));
+        }
+        for (int i = 0; i < 5_000; i++) {
+            long id = 1 + random.nextInt(6_000);
+            if (random.nextBoolean()) {
+                assertEquals(expected.add(id), list.add(id), "add " + id);
+            } else {
+                assertEquals(expected.remove(id), list.remove(id), "remove " + id);
+            }
+        }
+
+        assertEquals(expected.size(), list.size());
+        assertArrayEquals(expected.stream().mapToLong(Long::longValue).toArray(), list.toArray());
+        for (int i = 0; i < 1_000; i++) {
+            long target = 1 + random.nextInt(6_100);
+            Long ceiling = expected.ceiling(target);
+            assertEquals(ceiling != null ? ceiling : PostingList.END, list.cursor().advance(target));
+        }
+    }
+
+    @Test
+    void testPostingListIsCompactForDenseIds() {
+        PostingList list = new PostingList();
+        for (long id = 1_000_000; id < 1_100_000; id++) {
+            list.add(id);
+        }
+        list.trim();
+
+        // One byte per id (delta 1) plus the first id and the skip entries
+        assertTrue(list.memoryBytes() < 100_000 + 12 * (100_000 / PostingList.SKIP_INTERVAL) + 10,
+                "bytes: " + list.memoryBytes());
+        assertTrue(list.contains(1_050_000));
+        assertFalse(list.contains(999_999));
+    }
+
+    @Test
+    void testFindsSubstringsCaseInsensitivelyInTitleAndDescription() {
+        TrigramIndex index = new TrigramIndex();
+        index.put(1, "Go shopping", "Milk and bread");
+        index.put(2, "Workshop prep", null);
+        index.put(3, "Call mom", "About the SHOPPING list");
+        index.put(4, "Pay bills", "Electricity");
+
+        assertEquals(List.of(1L, 2L, 3L), ids(index.search("SHOP", 0, 10)));
+        assertEquals(List.of(1L), ids(index.search("milk shop", 0, 10)));
+        assertEquals(List.of(4L), ids(index.search("tric", 0, 10)));
+        assertEquals(0, index.search("shopx", 0, 10).getTotal());
+        assertEquals(0, index.search("   ", 0, 10).getTotal());
+    }
+
+    @Test
+    void testRanksTitleMatchesAboveDescriptionMatchesAndPaginates() {
+        TrigramIndex index = new TrigramIndex();
+        index.put(1, "Notes", "report draft");   // description only: 1
+        index.put(2, "Yearly report", null);     // title, word start: 3
+        index.put(3, "Misreported hours", null); // title, inside a word: 2
+        index.put(4, "Report to boss", null);    // title, word start: 3 (newer than 2)
+
+        TodoSearchResult first = index.search("report", 0, 2);
+        TodoSearchResult second = index.search("report", 1, 2);
+
+        assertEquals(4, first.getTotal());
+        assertEquals(List.of(4L, 2L), ids(first));
+        assertEquals(List.of(3L, 1L), ids(second));
+        assertEquals(List.of(2, 1), second.getHits().stream().map(TodoSearchHit::getScore).toList());
+    }
+
+    @Test
+    void testUpdatesAndRemovalsAreVisibleImmediately() {
+        TrigramIndex index = new TrigramIndex();
+        index.put(1, "Buy paint", null);
+        index.put(2, "Paint fence", null);
+
+        index.put(1, "Buy nails", null);
+        index.remove(2);
+
+        assertEquals(0, index.search("paint", 0, 10).getTotal());
+        assertEquals(List.of(1L), ids(index.search("nail", 0, 10)));
+        assertEquals(1, index.getStats(true).getDocuments());
+        assertEquals(TrigramIndex.trigrams("buy").length + TrigramIndex.trigrams("nails").length,
+                index.getStats(true).getPostings());
+    }
+
+    @Test
+    void testShortTermsAreCheckedAgainstTheText() {
+        TrigramIndex index = new TrigramIndex();
+        index.put(1, "Fix PC", null);
+        index.put(2, "Fix car", "oil");
+        index.put(3, "Wash car", null);
+
+        assertEquals(List.of(1L), ids(index.search("pc", 0, 10)));
+        assertEquals(List.of(2L), ids(index.search("car fi", 0, 10)));
+    }
+
+    private static List<Long> ids(TodoSearchResult result) {
+        return result.getHits().stream().map(TodoSearchHit::getId).toList();
+    }
+}
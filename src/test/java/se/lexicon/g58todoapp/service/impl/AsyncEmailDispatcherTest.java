@@ -0,0 +1,172 @@
+package se.lexicon.g58todoapp.service.impl;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import se.lexicon.g58todoapp.dto.EmailDTO;
+import se.lexicon.g58todoapp.service.EmailDispatcher.OverflowPolicy;
+import se.lexicon.g58todoapp.service.EmailService;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Async Email Dispatcher Test
+ * Uses a fake EmailService that can be held back, to fill the queue on purpose
+ */
+class AsyncEmailDispatcherTest {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final AtomicInteger sent = new AtomicInteger();
+    private AsyncEmailDispatcher dispatcher;
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        if (dispatcher.isRunning()) {
+            dispatcher.stop();
+        }
+    }
+
+    @Test
+    void testDispatchCompletesWithSendResult() throws Exception {
+        release.countDown();
+        dispatcher = start(10, OverflowPolicy.REJECT, Duration.ofSeconds(5));
+
+        CompletableFuture<Boolean> result = dispatcher.dispatch(email("a@example.com"));
+
+        assertTrue(result.get(5, TimeUnit.SECONDS));
+        assertEquals(1, sent.get());
+    }
+
+    @Test
+    void testRejectPolicyFailsNewEmailWhenQueueIsFull() throws Exception {
+        dispatcher = start(1, OverflowPolicy.REJECT, Duration.ofSeconds(5));
+        dispatcher.dispatch(email("busy@example.com")); // Taken by the single worker
+        waitUntilQueueSize(0);
+        dispatcher.dispatch(email("queued@example.com")); // Fills the queue
+
+        CompletableFuture<Boolean> rejected = dispatcher.dispatch(email("rejected@example.com"));
+
+        assertRejected(rejected);
+    }
+
+    @Test
+    void testDropOldestPolicyFailsOldestQueuedEmail() throws Exception {
+        dispatcher = start(1, OverflowPolicy.DROP_OLDEST, Duration.ofSeconds(5));
+        dispatcher.dispatch(email("busy@example.com"));
+        waitUntilQueueSize(0);
+        CompletableFuture<Boolean> oldest = dispatcher.dispatch(email("oldest@example.com"));
+
+        CompletableFuture<Boolean> newest = dispatcher.dispatch(email("newest@example.com"));
+
+        assertRejected(oldest);
+        release.countDown();
+        assertTrue(newest.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testStopDrainsQueueBeforeDeadline() throws Exception {
+        dispatcher = start(10, OverflowPolicy.BLOCK, Duration.ofSeconds(5));
+        CompletableFuture<Boolean> first = dispatcher.dispatch(email("1@example.com"));
+        CompletableFuture<Boolean> second = dispatcher.dispatch(email("2@example.com"));
+        release.countDown();
+
+        dispatcher.stop();
+
+        assertTrue(first.isDone() && second.isDone());
+        assertEquals(2, sent.get());
+    }
+
+    @Test
+    void testStopFailsEmailsLeftAfterDeadline() throws Exception {
+        dispatcher = start(10, OverflowPolicy.BLOCK, Duration.ofMillis(200));
+        dispatcher.dispatch(email("busy@example.com"));
+        waitUntilQueueSize(0);
+        CompletableFuture<Boolean> left = dispatcher.dispatch(email("left@example.com"));
+
+        dispatcher.stop();
+
+        assertRejected(left);
+    }
+
+    @Test
+    void testProducerBlockedOnFullQueueIsFailedOnStop() throws Exception {
+        dispatcher = start(1, OverflowPolicy.BLOCK, Duration.ofMillis(200));
+        dispatcher.dispatch(email("busy@example.com"));
+        waitUntilQueueSize(0);
+        CompletableFuture<Boolean> queued = dispatcher.dispatch(email("queued@example.com"));
+        CompletableFuture<CompletableFuture<Boolean>> blocked = CompletableFuture.supplyAsync(
+                () -> dispatcher.dispatch(email("blocked@example.com")));
+        Thread.sleep(100); // The producer is now waiting for room in the queue
+
+        dispatcher.stop();
+
+        assertRejected(queued);
+        assertRejected(blocked.get(5, TimeUnit.SECONDS));
+        assertEquals(0, dispatcher.getQueueSize());
+        assertRejected(dispatcher.dispatch(email("late@example.com")));
+    }
+
+    private AsyncEmailDispatcher start(int capacity, OverflowPolicy policy, Duration shutdownTimeout) {
+        AsyncEmailDispatcher started = new AsyncEmailDispatcher(new HeldBackEmailService(), capacity, 1, policy, shutdownTimeout);
+        started.start();
+        return started;
+    }
+
+    private void waitUntilQueueSize(int size) throws InterruptedException {
+        for (int i = 0; i < 100 && dispatcher.getQueueSize() != size; i++) {
+            Thread.sleep(20);
+        }
+        assertEquals(size, dispatcher.getQueueSize());
+    }
+
+    private static void assertRejected(CompletableFuture<Boolean> result) {
+        ExecutionException e = assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(RejectedExecutionException.class, e.getCause());
+    }
+
+    private static EmailDTO email(String to) {
+        return new EmailDTO(to, "Subject", "Body");
+    }
+
+    /**
+     * EmailService that waits for the release latch before "sending"
+     */
+    private class HeldBackEmailService implements EmailService {
+
+        @Override
+        public boolean sendSimpleEmail(String to, String subject, String body) {
+            return sendEmail(new EmailDTO(to, subject, body));
+        }
+
+        @Override
+        public boolean sendEmail(EmailDTO emailDTO) {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+            sent.incrementAndGet();
+            return true;
+        }
+
+        @Override
+        public boolean sendHtmlEmail(String to, String subject, String htmlBody) {
+            return sendEmail(new EmailDTO(to, subject, htmlBody, true));
+        }
+
+        @Override
+        public int sendBatch(List<EmailDTO> emails) {
+            return (int) emails.stream().filter(this::sendEmail).count();
+        }
+    }
+}
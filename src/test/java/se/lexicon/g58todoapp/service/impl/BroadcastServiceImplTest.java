@@ -0,0 +1,131 @@
+package se.lexicon.g58todoapp.service.impl;
+
+import org.junit.jupiter.api.Test;
+import se.lexicon.g58todoapp.dto.BroadcastResult;
+import se.lexicon.g58todoapp.dto.EmailDTO;
+import se.lexicon.g58todoapp.service.EmailService;
+import se.lexicon.g58todoapp.template.TemplateEngine;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Broadcast Service Implementation Test
+ * Checks the BCC chunking with an EmailService that only records the emails
+ */
+class BroadcastServiceImplTest {
+
+    private final RecordingEmailService emailService = new RecordingEmailService();
+    // max-recipients 10 = the To address and 9 BCC addresses per email
+    private final BroadcastServiceImpl broadcastService = new BroadcastServiceImpl(emailService,
+            new TemplateEngine("classpath:templates/"), null, "noreply@todoapp.com", 10, 3);
+
+    @Test
+    void testRecipientsAreSplitIntoBccChunks() {
+        BroadcastResult result = broadcastService.broadcast(addresses(20), "Hello", "announcement.html",
+                Map.of("subject", "Hello", "message", "All hands at 10"));
+
+        assertEquals(3, emailService.sent.size());
+        assertEquals(List.of(9, 9, 2), result.getChunks().stream().map(BroadcastResult.Chunk::getRecipients).toList());
+        assertEquals(20, result.getDelivered());
+        assertTrue(result.getFailedRecipients().isEmpty());
+
+        for (EmailDTO email : emailService.sent) {
+            assertEquals("noreply@todoapp.com", email.getTo());
+            assertTrue(email.isHtml());
+            assertTrue(email.getBody().contains("All hands at 10"));
+        }
+    }
+
+    @Test
+    void testDuplicateAndBlankAddressesAreSkipped() {
+        List<String> recipients = new ArrayList<>(addresses(5));
+        recipients.addAll(addresses(5));
+        recipients.add(" ");
+        recipients.add(null);
+
+        BroadcastResult result = broadcastService.broadcast(recipients, "Hello", "announcement.html",
+                Map.of("subject", "Hello", "message", "Hi"));
+
+        assertEquals(5, result.getRecipients());
+        assertEquals(1, emailService.sent.size());
+        assertEquals(5, emailService.sent.peek().getBcc().size());
+    }
+
+    @Test
+    void testFailedChunksAreReportedOnTheirOwn() {
+        emailService.failFor = "person10@example.com";
+
+        BroadcastResult result = broadcastService.broadcast(addresses(20), "Hello", "announcement.html",
+                Map.of("subject", "Hello", "message", "Hi"));
+
+        assertEquals(List.of(true, false, true), result.getChunks().stream().map(BroadcastResult.Chunk::isSent).toList());
+        assertEquals(11, result.getDelivered());
+        assertEquals(9, result.getFailedRecipients().size());
+        assertTrue(result.getFailedRecipients().contains("person10@example.com"));
+    }
+
+    @Test
+    void testNoRecipientsSendsNothing() {
+        BroadcastResult result = broadcastService.broadcast(List.of(), "Hello", "announcement.html",
+                Map.of("subject", "Hello", "message", "Hi"));
+
+        assertEquals(0, result.getRecipients());
+        assertTrue(result.getChunks().isEmpty());
+        assertTrue(emailService.sent.isEmpty());
+    }
+
+    @Test
+    void testAnnouncementWithoutSubjectIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> broadcastService.announce(null, null, "Hi"));
+        assertThrows(IllegalArgumentException.class, () -> broadcastService.announce(null, " ", "Hi"));
+        assertThrows(IllegalArgumentException.class, () -> broadcastService.announce(null, "Hello", null));
+        assertTrue(emailService.sent.isEmpty());
+    }
+
+    private static List<String> addresses(int count) {
+        List<String> addresses = new ArrayList<>();
+        for (int i = 1; i <= count; i++) {
+            addresses.add("person" + i + "@example.com");
+        }
+        return addresses;
+    }
+
+    /**
+     * Records sent emails; emails with failFor in BCC fail
+     */
+    private static class RecordingEmailService implements EmailService {
+
+        final Queue<EmailDTO> sent = new ConcurrentLinkedQueue<>();
+        volatile String failFor;
+
+        @Override
+        public boolean sendEmail(EmailDTO emailDTO) {
+            if (failFor != null && emailDTO.getBcc().contains(failFor)) {
+                return false;
+            }
+            sent.add(emailDTO);
+            return true;
+        }
+
+        @Override
+        public boolean sendSimpleEmail(String to, String subject, String body) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean sendHtmlEmail(String to, String subject, String htmlBody) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public int sendBatch(List<EmailDTO> emails) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package se.lexicon.g58todoapp.service.impl;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import se.lexicon.g58todoapp.dto.PersonCacheStats;
+import se.lexicon.g58todoapp.entity.Person;
+import se.lexicon.g58todoapp.repo.PersonRepository;
+import se.lexicon.g58todoapp.service.PersonLookupService;
+
+import jakarta.persistence.EntityManagerFactory;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Caching Person Lookup Service Test
+ * Counts SQL statements with Hibernate statistics to check what is answered from the cache.
+ * Runs without a test transaction, so PersonCacheListener sees real commits.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import(CachingPersonLookupService.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CachingPersonLookupServiceTest {
+
+    @Autowired
+    private PersonLookupService lookupService;
+
+    @Autowired
+    private PersonRepository personRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private PersonCacheStats before; // The service (and its counters) is shared by all tests
+    private Person ann;
+
+    @BeforeEach
+    void setUp() {
+        ann = personRepository.save(new Person("Ann", "ann@example.com", LocalDate.of(1990, 1, 1)));
+        lookupService.rebuildEmailFilter();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        before = lookupService.getStats();
+    }
+
+    @AfterEach
+    void tearDown() {
+        personRepository.deleteAll();
+    }
+
+    @Test
+    void testRepeatedLookupsAreServedFromCache() {
+        assertEquals("Ann", lookupService.findByEmail("ann@example.com").orElseThrow().getName());
+        assertEquals(1, statistics.getPrepareStatementCount());
+
+        // Cached under the email and the id by the first lookup
+        assertTrue(lookupService.existsByEmail("ann@example.com"));
+        assertEquals("Ann", lookupService.findById(ann.getId()).orElseThrow().getName());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(before.getHits() + 2, lookupService.getStats().getHits());
+    }
+
+    @Test
+    void testEmailsDifferingInCaseShareOneEntry() {
+        lookupService.findByEmail("ann@example.com");
+
+        assertEquals("Ann", lookupService.findByEmail("ANN@Example.com").orElseThrow().getName());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void testEmailEntryIsNotServedAfterItsPersonChangedEmail() {
+        lookupService.findByEmail("ann@example.com");
+        Person changed = personRepository.findById(ann.getId()).orElseThrow();
+        changed.setEmail("ann.b@example.com");
+        personRepository.save(changed);
+
+        // Evicted by id, the listener only knows the new email
+        assertTrue(lookupService.findByEmail("ann@example.com").isEmpty());
+        assertEquals("ann.b@example.com", lookupService.findByEmail("ann.b@example.com").orElseThrow().getEmail());
+    }
+
+    @Test
+    void testUnknownEmailIsRejectedByFilterWithoutQuery() {
+        assertFalse(lookupService.existsByEmail("nobody@example.com"));
+        assertTrue(lookupService.findByEmail("someone.else@example.com").isEmpty());
+
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertEquals(before.getFilterRejections() + 2, lookupService.getStats().getFilterRejections());
+    }
+
+    @Test
+    void testNotFoundIsCached() {
+        assertTrue(lookupService.findById(999_999L).isEmpty());
+        assertTrue(lookupService.findById(999_999L).isEmpty());
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(before.getNegativeHits() + 1, lookupService.getStats().getNegativeHits());
+    }
+
+    @Test
+    void testUpdateAndDeleteEvictTheCachedPerson() {
+        lookupService.findById(ann.getId());
+        Person changed = personRepository.findById(ann.getId()).orElseThrow();
+        changed.setName("Ann B");
+        changed.setEmail("ann.b@example.com");
+        personRepository.save(changed);
+
+        assertEquals("Ann B", lookupService.findById(ann.getId()).orElseThrow().getName());
+        assertTrue(lookupService.existsByEmail("ann.b@example.com"));
+        assertFalse(lookupService.existsByEmail("ann@example.com"));
+
+        personRepository.deleteById(ann.getId());
+        assertTrue(lookupService.findById(ann.getId()).isEmpty());
+    }
+
+    @Test
+    void testNewPersonIsFoundAfterCachedNotFound() {
+        assertFalse(lookupService.existsByEmail("bob@example.com"));
+
+        personRepository.save(new Person("Bob", "bob@example.com", LocalDate.of(1985, 5, 5)));
+
+        assertTrue(lookupService.existsByEmail("bob@example.com"));
+    }
+
+    @Test
+    void testReturnedPersonsAreCopies() {
+        Person first = lookupService.findById(ann.getId()).orElseThrow();
+        first.setName("Changed by caller");
+
+        assertEquals("Ann", lookupService.findById(ann.getId()).orElseThrow().getName());
+    }
+}
@@ -0,0 +1,194 @@
+package se.lexicon.g58todoapp.service.impl;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import se.lexicon.g58todoapp.entity.JobCheckpoint;
+import se.lexicon.g58todoapp.entity.Person;
+import se.lexicon.g58todoapp.entity.Todo;
+import se.lexicon.g58todoapp.repo.JobCheckpointRepository;
+import se.lexicon.g58todoapp.repo.PersonRepository;
+import se.lexicon.g58todoapp.repo.TodoRepository;
+import se.lexicon.g58todoapp.service.TodoNotificationService;
+import se.lexicon.g58todoapp.service.TodoStreamService;
+
+import jakarta.persistence.EntityManagerFactory;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Daily Summary Job Test
+ * Runs without a test transaction, so checkpoints are really committed
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import(TodoStreamServiceImpl.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class DailySummaryJobTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2024, 3, 1);
+
+    @Autowired
+    private TodoStreamService todoStreamService;
+
+    @Autowired
+    private TodoRepository todoRepository;
+
+    @Autowired
+    private PersonRepository personRepository;
+
+    @Autowired
+    private JobCheckpointRepository checkpointRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    // Recipient email -> titles in the summary
+    private final Map<String, List<String>> summaries = new ConcurrentHashMap<>();
+    private final List<Person> persons = new ArrayList<>();
+    // Summaries for this email are not accepted
+    private volatile String failFor;
+
+    @BeforeEach
+    void setUp() {
+        for (int p = 0; p < 5; p++) {
+            Person person = personRepository.save(
+                    new Person("Person " + p, "person" + p + "@example.com", LocalDate.of(1990, 1, 1)));
+            persons.add(person);
+            for (int t = 0; t < 3; t++) {
+                todoRepository.save(new Todo("Task " + p + "-" + t, null, LocalDateTime.now().plusDays(t), person));
+            }
+            Todo done = new Todo("Done " + p, null, LocalDateTime.now(), person);
+            done.setCompleted(true);
+            todoRepository.save(done);
+        }
+        todoRepository.save(new Todo("Unassigned", null, LocalDateTime.now()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        todoRepository.deleteAll();
+        personRepository.deleteAll();
+        checkpointRepository.deleteAll();
+    }
+
+    @Test
+    void testEveryPersonGetsOneSummaryOfPendingTodosFromOneQuery() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        int processed = job(2).run(TODAY);
+
+        assertEquals(5, processed);
+        assertEquals(5, summaries.size());
+        assertEquals(List.of("Task 0-0", "Task 0-1", "Task 0-2"), summaries.get("person0@example.com"));
+        // Assignees come from the join fetch, not from one extra SELECT per person
+        assertEquals(0, statistics.getEntityFetchCount());
+        JobCheckpoint checkpoint = checkpointRepository.findById(DailySummaryJob.JOB_NAME).orElseThrow();
+        assertTrue(checkpoint.isCompleted());
+        assertEquals(persons.get(4).getId(), checkpoint.getLastPersonId());
+    }
+
+    @Test
+    void testSecondRunOnSameDaySendsNothing() {
+        DailySummaryJob job = job(2);
+        job.run(TODAY);
+        summaries.clear();
+
+        assertEquals(0, job.run(TODAY));
+        assertTrue(summaries.isEmpty());
+        // The next day starts from the beginning again
+        assertEquals(5, job.run(TODAY.plusDays(1)));
+    }
+
+    @Test
+    void testInterruptedRunResumesAfterCheckpoint() {
+        // A run that stopped after the first two persons
+        JobCheckpoint checkpoint = new JobCheckpoint(DailySummaryJob.JOB_NAME, TODAY);
+        checkpoint.setLastPersonId(persons.get(1).getId());
+        checkpointRepository.save(checkpoint);
+
+        assertEquals(3, job(2).run(TODAY));
+
+        assertFalse(summaries.containsKey("person0@example.com"));
+        assertFalse(summaries.containsKey("person1@example.com"));
+        assertTrue(summaries.containsKey("person4@example.com"));
+    }
+
+    @Test
+    void testFailedSummaryIsRetried() {
+        failFor = "person2@example.com";
+        DailySummaryJob job = job(2);
+
+        assertEquals(5, job.run(TODAY));
+
+        // Not completed, and not past the failed person although later ones were sent
+        JobCheckpoint checkpoint = checkpointRepository.findById(DailySummaryJob.JOB_NAME).orElseThrow();
+        assertFalse(checkpoint.isCompleted());
+        assertEquals(persons.get(1).getId(), checkpoint.getLastPersonId());
+
+        failFor = null;
+        summaries.clear();
+        assertEquals(3, job.run(TODAY));
+
+        assertTrue(summaries.containsKey("person2@example.com"));
+        assertTrue(checkpointRepository.findById(DailySummaryJob.JOB_NAME).orElseThrow().isCompleted());
+    }
+
+    private DailySummaryJob job(int window) {
+        return new DailySummaryJob(todoStreamService, new RecordingNotificationService(),
+                checkpointRepository, transactionManager, 3, window);
+    }
+
+    /**
+     * Records daily summaries instead of sending them
+     */
+    private class RecordingNotificationService implements TodoNotificationService {
+
+        @Override
+        public boolean sendDailySummary(Person person, List<Todo> todos) {
+            if (person.getEmail().equals(failFor)) {
+                return false;
+            }
+            assertNull(summaries.put(person.getEmail(), todos.stream().map(Todo::getTitle).toList()),
+                    "Two summaries for " + person.getEmail());
+            return true;
+        }
+
+        @Override
+        public boolean notifyTodoCreated(Todo todo, Person recipient) {
+            return true;
+        }
+
+        @Override
+        public boolean notifyTodoAssigned(Todo todo, Person assignee) {
+            return true;
+        }
+
+        @Override
+        public boolean notifyTodoCompleted(Todo todo, Person recipient) {
+            return true;
+        }
+
+        @Override
+        public boolean sendDueDateReminder(Todo todo, Person recipient) {
+            return true;
+        }
+    }
+}
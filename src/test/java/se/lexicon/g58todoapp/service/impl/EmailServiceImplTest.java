@@ -0,0 +1,60 @@
+package se.lexicon.g58todoapp.service.impl;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.Test;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import se.lexicon.g58todoapp.dto.EmailDTO;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Email Service Implementation Test
+ * Checks the email.send metrics, with a mail sender that never connects
+ */
+class EmailServiceImplTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final StubMailSender mailSender = new StubMailSender();
+    private final EmailServiceImpl emailService =
+            new EmailServiceImpl(mailSender, "noreply@todoapp.com", "Todo App", meterRegistry);
+
+    @Test
+    void testSuccessfulSendsAreTimedByType() {
+        assertTrue(emailService.sendHtmlEmail("ann@example.com", "Hi", "<p>Hi</p>"));
+        assertTrue(emailService.sendSimpleEmail("ann@example.com", "Hi", "Hi"));
+        assertTrue(emailService.sendEmail(EmailDTO.builder().to("ann@example.com").subject("Hi").body("Hi").build()));
+
+        assertEquals(1, meterRegistry.get("email.send").tags("type", "html", "outcome", "success").timer().count());
+        assertEquals(2, meterRegistry.get("email.send").tags("type", "plain", "outcome", "success").timer().count());
+    }
+
+    @Test
+    void testFailuresAreCountedByExceptionType() {
+        mailSender.failing = true;
+
+        assertFalse(emailService.sendHtmlEmail("ann@example.com", "Hi", "<p>Hi</p>"));
+        assertFalse(emailService.sendHtmlEmail("ann@example.com", "Hi", "<p>Hi</p>"));
+
+        assertEquals(2, meterRegistry.get("email.send")
+                .tags("type", "html", "outcome", "failure", "exception", "MailSendException").timer().count());
+        assertEquals(0, meterRegistry.get("email.send").tags("type", "html", "outcome", "success").timer().count());
+    }
+
+    /**
+     * Accepts messages without sending them, or fails like an unreachable server
+     */
+    private static class StubMailSender extends JavaMailSenderImpl {
+
+        boolean failing;
+
+        @Override
+        protected void doSend(MimeMessage[] mimeMessages, Object[] originalMessages) throws MailException {
+            if (failing) {
+                throw new MailSendException("Connection refused");
+            }
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package se.lexicon.g58todoapp.service.impl;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import se.lexicon.g58todoapp.dto.PersonTodoStats;
+import se.lexicon.g58todoapp.dto.TodoSelection;
+import se.lexicon.g58todoapp.entity.Person;
+import se.lexicon.g58todoapp.entity.Todo;
+import se.lexicon.g58todoapp.repo.PersonRepository;
+import se.lexicon.g58todoapp.repo.TodoRepository;
+import se.lexicon.g58todoapp.service.TodoBulkUpdateService;
+import se.lexicon.g58todoapp.service.TodoStatsService;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * In-Memory Todo Stats Service Test
+ * Runs without a test transaction, so TodoCounterListener sees real commits.
+ */
+@DataJpaTest
+@Import({InMemoryTodoStatsService.class, TodoBulkUpdateServiceImpl.class, CachingPersonLookupService.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class InMemoryTodoStatsServiceTest {
+
+    private static final LocalDateTime PAST = LocalDateTime.now().minusDays(2);
+    private static final LocalDateTime FUTURE = LocalDateTime.now().plusDays(2);
+
+    @Autowired
+    private TodoStatsService statsService;
+
+    @Autowired
+    private TodoBulkUpdateService bulkUpdateService;
+
+    @Autowired
+    private TodoRepository todoRepository;
+
+    @Autowired
+    private PersonRepository personRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Person ann;
+    private Person bob;
+
+    @BeforeEach
+    void setUp() {
+        ann = personRepository.save(new Person("Ann", "ann@example.com", LocalDate.of(1990, 1, 1)));
+        bob = personRepository.save(new Person("Bob", "bob@example.com", LocalDate.of(1991, 1, 1)));
+        todoRepository.saveAll(List.of(
+                new Todo("Overdue", null, PAST, ann),
+                new Todo("Later", null, FUTURE, ann),
+                new Todo("No date", null, null, ann)));
+        Todo done = new Todo("Done", null, true, PAST);
+        done.setAssignedTo(ann);
+        todoRepository.save(done);
+        statsService.reconcile();
+    }
+
+    @AfterEach
+    void tearDown() {
+        todoRepository.deleteAll();
+        personRepository.deleteAll();
+    }
+
+    @Test
+    void testReconcileCountsFromDatabase() {
+        assertEquals(new PersonTodoStats(ann.getId(), 4, 1, 3, 1), statsService.getStats(ann.getId()));
+        assertEquals(new PersonTodoStats(bob.getId(), 0, 0, 0, 0), statsService.getStats(bob.getId()));
+    }
+
+    @Test
+    void testSavesUpdateCounters() {
+        Todo todo = todoRepository.save(new Todo("New overdue", null, PAST, bob));
+        assertEquals(new PersonTodoStats(bob.getId(), 1, 0, 1, 1), statsService.getStats(bob.getId()));
+
+        Todo loaded = todoRepository.findById(todo.getId()).orElseThrow();
+        loaded.setCompleted(true);
+        todoRepository.save(loaded);
+        assertEquals(new PersonTodoStats(bob.getId(), 1, 1, 0, 0), statsService.getStats(bob.getId()));
+
+        // Changing the title only does not change any count
+        loaded = todoRepository.findById(todo.getId()).orElseThrow();
+        loaded.setTitle("Renamed");
+        todoRepository.save(loaded);
+        todoRepository.deleteById(todo.getId());
+        assertEquals(new PersonTodoStats(bob.getId(), 0, 0, 0, 0), statsService.getStats(bob.getId()));
+        assertEquals(0, statsService.reconcile());
+    }
+
+    @Test
+    void testBulkUpdatesUpdateCounters() {
+        bulkUpdateService.reassign(TodoSelection.builder().assigneeId(ann.getId()).overdue(true).build(), bob.getId());
+        assertEquals(new PersonTodoStats(bob.getId(), 1, 0, 1, 1), statsService.getStats(bob.getId()));
+        assertEquals(new PersonTodoStats(ann.getId(), 3, 1, 2, 0), statsService.getStats(ann.getId()));
+
+        bulkUpdateService.complete(TodoSelection.builder().assigneeId(ann.getId()).build());
+        assertEquals(new PersonTodoStats(ann.getId(), 3, 3, 0, 0), statsService.getStats(ann.getId()));
+        assertEquals(0, statsService.reconcile());
+    }
+
+    @Test
+    void testReconcileCorrectsDrift() {
+        // Changed behind the application's back
+        jdbcTemplate.update("UPDATE todos SET completed = true WHERE assigned_to_id = ?", ann.getId());
+        assertEquals(1, statsService.getStats(ann.getId()).getCompleted());
+
+        assertEquals(1, statsService.reconcile());
+        assertEquals(new PersonTodoStats(ann.getId(), 4, 4, 0, 0), statsService.getStats(ann.getId()));
+    }
+}
@@ -0,0 +1,181 @@
+package se.lexicon.g58todoapp.service.impl;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import se.lexicon.g58todoapp.dto.EmailDTO;
+import se.lexicon.g58todoapp.entity.OutboxMessage;
+import se.lexicon.g58todoapp.repo.OutboxMessageRepository;
+import se.lexicon.g58todoapp.service.EmailService;
+import se.lexicon.g58todoapp.service.NotificationOutbox;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Outbox Poller Test
+ * Runs without a test transaction, so the poller's own transactions really commit
+ */
+@DataJpaTest
+@Import(NotificationOutboxImpl.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OutboxPollerTest {
+
+    @Autowired
+    private OutboxMessageRepository outboxRepository;
+
+    @Autowired
+    private NotificationOutbox notificationOutbox;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final List<String> sentTo = new ArrayList<>();
+    private boolean mailServerUp = true;
+
+    @AfterEach
+    void tearDown() {
+        outboxRepository.deleteAll();
+    }
+
+    @Test
+    void testDueMessagesAreSentAndMarked() {
+        notificationOutbox.enqueue(email("a@example.com"));
+        notificationOutbox.enqueue(email("b@example.com"));
+
+        assertEquals(2, poller(10, 3).pollOnce());
+
+        assertEquals(List.of("a@example.com", "b@example.com"), sentTo);
+        for (OutboxMessage message : outboxRepository.findAll()) {
+            assertEquals(OutboxMessage.Status.SENT, message.getStatus());
+            assertEquals(1, message.getAttempts());
+            assertNotNull(message.getSentAt());
+        }
+        assertEquals(0, poller(10, 3).pollOnce());
+    }
+
+    @Test
+    void testPollClaimsAtMostOneBatch() {
+        for (int i = 0; i < 5; i++) {
+            notificationOutbox.enqueue(email(i + "@example.com"));
+        }
+
+        assertEquals(2, poller(2, 3).pollOnce());
+
+        assertEquals(3, outboxRepository.countByStatus(OutboxMessage.Status.PENDING));
+    }
+
+    @Test
+    void testEnqueueIsRolledBackWithCallerTransaction() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+        transaction.executeWithoutResult(status -> {
+            notificationOutbox.enqueue(email("a@example.com"));
+            status.setRollbackOnly();
+        });
+
+        assertEquals(0, outboxRepository.count());
+    }
+
+    @Test
+    void testFailedSendIsRetriedLaterWithBackoff() {
+        mailServerUp = false;
+        notificationOutbox.enqueue(email("a@example.com"));
+        LocalDateTime before = LocalDateTime.now();
+
+        assertEquals(1, poller(10, 3).pollOnce());
+
+        OutboxMessage message = outboxRepository.findAll().get(0);
+        assertEquals(OutboxMessage.Status.PENDING, message.getStatus());
+        assertEquals(1, message.getAttempts());
+        assertNotNull(message.getLastError());
+        // First retry waits between half and all of backoff-initial (30s)
+        assertTrue(message.getNextAttemptAt().isAfter(before.plusSeconds(14)));
+        assertTrue(message.getNextAttemptAt().isBefore(LocalDateTime.now().plusSeconds(31)));
+        // Not due yet
+        assertEquals(0, poller(10, 3).pollOnce());
+    }
+
+    @Test
+    void testMessageFailsAfterMaxAttempts() {
+        mailServerUp = false;
+        notificationOutbox.enqueue(email("a@example.com"));
+        OutboxPoller poller = poller(10, 2);
+
+        for (int attempt = 0; attempt < 2; attempt++) {
+            makeAllDue();
+            poller.pollOnce();
+        }
+
+        OutboxMessage message = outboxRepository.findAll().get(0);
+        assertEquals(OutboxMessage.Status.FAILED, message.getStatus());
+        assertEquals(2, message.getAttempts());
+        makeAllDue();
+        assertEquals(0, poller.pollOnce());
+    }
+
+    @Test
+    void testBackoffGrowsExponentiallyUpToMax() {
+        OutboxPoller poller = poller(10, 3);
+
+        for (int i = 0; i < 100; i++) {
+            Duration first = poller.backoffDelay(1);
+            Duration third = poller.backoffDelay(3);
+            Duration capped = poller.backoffDelay(50);
+            assertTrue(first.compareTo(Duration.ofSeconds(15)) >= 0 && first.compareTo(Duration.ofSeconds(30)) <= 0);
+            assertTrue(third.compareTo(Duration.ofSeconds(60)) >= 0 && third.compareTo(Duration.ofSeconds(120)) <= 0);
+            assertTrue(capped.compareTo(Duration.ofMinutes(30)) >= 0 && capped.compareTo(Duration.ofHours(1)) <= 0);
+        }
+    }
+
+    private void makeAllDue() {
+        List<OutboxMessage> messages = outboxRepository.findAll();
+        messages.forEach(message -> message.setNextAttemptAt(LocalDateTime.now().minusSeconds(1)));
+        outboxRepository.saveAll(messages);
+    }
+
+    private OutboxPoller poller(int batchSize, int maxAttempts) {
+        return new OutboxPoller(outboxRepository, new FakeEmailService(), transactionManager,
+                batchSize, Duration.ofMinutes(5), maxAttempts, Duration.ofSeconds(30), Duration.ofHours(1));
+    }
+
+    private static EmailDTO email(String to) {
+        return EmailDTO.builder().to(to).subject("Subject").body("Body").build();
+    }
+
+    private class FakeEmailService implements EmailService {
+
+        @Override
+        public boolean sendEmail(EmailDTO emailDTO) {
+            if (mailServerUp) {
+                sentTo.add(emailDTO.getTo());
+            }
+            return mailServerUp;
+        }
+
+        @Override
+        public boolean sendSimpleEmail(String to, String subject, String body) {
+            return sendEmail(EmailDTO.builder().to(to).subject(subject).body(body).build());
+        }
+
+        @Override
+        public boolean sendHtmlEmail(String to, String subject, String htmlBody) {
+            return sendEmail(EmailDTO.builder().to(to).subject(subject).body(htmlBody).html(true).build());
+        }
+
+        @Override
+        public int sendBatch(List<EmailDTO> emails) {
+            return (int) emails.stream().filter(this::sendEmail).count();
+        }
+    }
+}
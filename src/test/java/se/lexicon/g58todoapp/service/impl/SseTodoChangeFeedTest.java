@@ -0,0 +1,248 @@
+package se.lexicon.g58todoapp.service.impl;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import se.lexicon.g58todoapp.dto.TodoChangeEvent;
+import se.lexicon.g58todoapp.entity.Person;
+import se.lexicon.g58todoapp.entity.Todo;
+import se.lexicon.g58todoapp.repo.PersonRepository;
+import se.lexicon.g58todoapp.repo.TodoRepository;
+import se.lexicon.g58todoapp.stats.TodoState;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * SSE Todo Change Feed Test
+ * Saves todos through the repository, so TodoChangeFeedListener publishes them after commit.
+ * The emitters only record what is sent to them. Runs without a test transaction.
+ */
+@DataJpaTest
+@Import(SseTodoChangeFeedTest.FeedConfig.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class SseTodoChangeFeedTest {
+
+    private static final LocalDateTime DUE = LocalDateTime.of(2026, 5, 1, 18, 0);
+
+    @Autowired
+    private RecordingFeed feed;
+
+    @Autowired
+    private TodoRepository todoRepository;
+
+    @Autowired
+    private PersonRepository personRepository;
+
+    private Person ann;
+    private Person bob;
+
+    @BeforeEach
+    void setUp() {
+        ann = personRepository.save(new Person("Ann", "ann@example.com", LocalDate.of(1990, 1, 1)));
+        bob = personRepository.save(new Person("Bob", "bob@example.com", LocalDate.of(1991, 1, 1)));
+    }
+
+    @AfterEach
+    void tearDown() {
+        feed.shutdown();
+        todoRepository.deleteAll();
+        personRepository.deleteAll();
+    }
+
+    @Test
+    void testSubscriberOnlyGetsChangesOfItsAssignee() throws InterruptedException {
+        RecordingEmitter emitter = subscribe(ann.getId(), null);
+
+        todoRepository.save(new Todo("Bob's task", null, DUE, bob));
+        Todo todo = todoRepository.save(new Todo("Ann's task", null, DUE, ann));
+
+        TodoChangeEvent created = emitter.next();
+        assertEquals(TodoChangeEvent.Type.CREATED, created.getType());
+        assertEquals(todo.getId(), created.getTodoId());
+        assertEquals(ann.getId(), created.getAssigneeId());
+    }
+
+    @Test
+    void testReassignedTodoIsSentToThePreviousAssigneeOnce() throws InterruptedException {
+        Todo todo = todoRepository.save(new Todo("Task", null, DUE, ann));
+        RecordingEmitter emitter = subscribe(ann.getId(), null);
+
+        Todo loaded = todoRepository.findById(todo.getId()).orElseThrow();
+        loaded.setAssignedTo(bob);
+        todoRepository.save(loaded);
+
+        TodoChangeEvent reassigned = emitter.next();
+        assertEquals(TodoChangeEvent.Type.UPDATED, reassigned.getType());
+        assertEquals(bob.getId(), reassigned.getAssigneeId());
+        assertEquals(ann.getId(), reassigned.getPreviousAssigneeId());
+
+        // Bob's todo now, so later changes are not Ann's business
+        loaded = todoRepository.findById(todo.getId()).orElseThrow();
+        loaded.setTitle("Bob's task");
+        todoRepository.save(loaded);
+        Todo next = todoRepository.save(new Todo("Ann's task", null, DUE, ann));
+
+        assertEquals(next.getId(), emitter.next().getTodoId());
+    }
+
+    @Test
+    void testReconnectResumesAfterTheLastEventId() throws InterruptedException {
+        RecordingEmitter first = subscribe(null, null);
+        publish(1L);
+        long lastEventId = first.next().getId();
+        publish(2L);
+        publish(3L);
+
+        RecordingEmitter resumed = subscribe(null, lastEventId);
+
+        assertEquals(2L, resumed.next().getTodoId());
+        assertEquals(3L, resumed.next().getTodoId());
+        assertFalse(resumed.reset);
+    }
+
+    @Test
+    void testReconnectAfterTheReplayGetsAReset() throws InterruptedException {
+        RecordingEmitter first = subscribe(null, null);
+        publish(1L);
+        long lastEventId = first.next().getId();
+        // Replay size is 3, so event 1 and the one after it are gone
+        publish(2L);
+        publish(3L);
+        publish(4L);
+        publish(5L);
+
+        assertTrue(subscribe(null, lastEventId).awaitReset());
+    }
+
+    @Test
+    void testIdsFromBeforeARestartGetAReset() throws InterruptedException {
+        publish(1L);
+
+        // Ids of an earlier run are lower than the ones of this run, even right after the start
+        assertTrue(subscribe(null, 1L).awaitReset());
+        assertTrue(subscribe(null, System.currentTimeMillis() * 1000 - 60_000_000L).awaitReset());
+    }
+
+    @Test
+    void testSubscriberThatDoesNotKeepUpIsDisconnected() throws InterruptedException {
+        RecordingEmitter slow = subscribe(null, null);
+        slow.blocked = new CountDownLatch(1);
+        assertEquals(1, feed.getSubscriberCount());
+
+        // One event is being sent, queue capacity is 2: the fourth one does not fit
+        for (long todoId = 1; todoId <= 4; todoId++) {
+            publish(todoId);
+        }
+
+        assertTrue(slow.completed.await(5, TimeUnit.SECONDS));
+        assertEquals(0, feed.getSubscriberCount());
+    }
+
+    private RecordingEmitter subscribe(Long assigneeId, Long lastEventId) {
+        feed.subscribe(assigneeId, lastEventId);
+        return feed.lastEmitter;
+    }
+
+    private void publish(Long todoId) {
+        TodoState state = new TodoState(null, false, DUE);
+        feed.todoChanged(todoId, state, state);
+    }
+
+    @TestConfiguration
+    static class FeedConfig {
+
+        @Bean
+        RecordingFeed recordingFeed() {
+            return new RecordingFeed();
+        }
+    }
+
+    /**
+     * Feed with a replay of 3 events and room for 2 events per subscriber
+     */
+    static class RecordingFeed extends SseTodoChangeFeed {
+
+        volatile RecordingEmitter lastEmitter;
+
+        RecordingFeed() {
+            super(3, 2, Duration.ofSeconds(30), Duration.ofMinutes(30));
+        }
+
+        @Override
+        SseEmitter newEmitter(long timeoutMillis) {
+            lastEmitter = new RecordingEmitter(timeoutMillis);
+            return lastEmitter;
+        }
+    }
+
+    /**
+     * Records the sent events instead of writing them to a response
+     */
+    static class RecordingEmitter extends SseEmitter {
+
+        final BlockingQueue<TodoChangeEvent> events = new LinkedBlockingQueue<>();
+        final CountDownLatch resetSent = new CountDownLatch(1);
+        final CountDownLatch completed = new CountDownLatch(1);
+        volatile boolean reset;
+        // Set to make send wait, like a client that does not read
+        volatile CountDownLatch blocked;
+
+        RecordingEmitter(long timeoutMillis) {
+            super(timeoutMillis);
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            CountDownLatch wait = blocked;
+            if (wait != null) {
+                try {
+                    wait.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException("Closed", e);
+                }
+            }
+            for (DataWithMediaType data : builder.build()) {
+                if (data.getData() instanceof TodoChangeEvent event) {
+                    events.add(event);
+                } else if (data.getData().toString().contains("event:reset")) {
+                    reset = true;
+                    resetSent.countDown();
+                }
+            }
+        }
+
+        @Override
+        public synchronized void complete() {
+            completed.countDown();
+            super.complete();
+        }
+
+        TodoChangeEvent next() throws InterruptedException {
+            TodoChangeEvent event = events.poll(5, TimeUnit.SECONDS);
+            assertNotNull(event, "No event sent");
+            return event;
+        }
+
+        boolean awaitReset() throws InterruptedException {
+            return resetSent.await(5, TimeUnit.SECONDS);
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package se.lexicon.g58todoapp.service.impl;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import se.lexicon.g58todoapp.entity.Person;
+import se.lexicon.g58todoapp.entity.Todo;
+import se.lexicon.g58todoapp.repo.PersonRepository;
+import se.lexicon.g58todoapp.repo.TodoRepository;
+import se.lexicon.g58todoapp.service.ReminderScheduler;
+import se.lexicon.g58todoapp.service.TodoNotificationService;
+import se.lexicon.g58todoapp.service.TodoStreamService;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Timing Wheel Reminder Scheduler Test
+ * Uses a 10 ms tick and a tiny wheel so reminders fire (and cascade between the wheels) within a second.
+ * Runs without a test transaction, so TodoReminderListener sees real commits.
+ */
+@DataJpaTest(properties = {
+        "reminders.lead-times=1500ms,500ms",
+        "reminders.tick=10ms",
+        "reminders.wheel-size=8",
+        "reminders.horizon=1h"})
+@Import({TimingWheelReminderScheduler.class, TodoStreamServiceImpl.class,
+        TimingWheelReminderSchedulerTest.RecorderConfig.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class TimingWheelReminderSchedulerTest {
+
+    @Autowired
+    private ReminderScheduler reminderScheduler;
+
+    @Autowired
+    private TodoRepository todoRepository;
+
+    @Autowired
+    private PersonRepository personRepository;
+
+    @Autowired
+    private TodoStreamService todoStreamService;
+
+    @Autowired
+    private RecordingNotificationService recorder;
+
+    private Person person;
+
+    @BeforeEach
+    void setUp() {
+        recorder.reminders.clear();
+        person = personRepository.save(new Person("Ann", "ann@example.com", LocalDate.of(1990, 1, 1)));
+    }
+
+    @AfterEach
+    void tearDown() {
+        todoRepository.deleteAll();
+        personRepository.deleteAll();
+    }
+
+    @Test
+    void testRemindersFireAtEachLeadTime() {
+        LocalDateTime dueDate = LocalDateTime.now().plusSeconds(2);
+        Todo todo = todoRepository.save(new Todo("Report", null, dueDate, person));
+
+        waitUntil(() -> recorder.reminders.size() == 2);
+
+        for (Reminder reminder : recorder.reminders) {
+            assertEquals(todo.getId(), reminder.todoId());
+        }
+        // Never early: the first reminder is 1500 ms before the due date, the second 500 ms
+        assertFalse(recorder.reminders.get(0).sentAt().isBefore(dueDate.minusNanos(1_500_000_000)));
+        assertFalse(recorder.reminders.get(1).sentAt().isBefore(dueDate.minusNanos(500_000_000)));
+        assertEquals(0, reminderScheduler.getScheduledCount());
+    }
+
+    @Test
+    void testCompletedTodoIsNotReminded() throws Exception {
+        Todo todo = todoRepository.save(new Todo("Report", null, LocalDateTime.now().plusSeconds(1), person));
+        waitUntil(() -> reminderScheduler.getScheduledCount() == 1); // The 1500 ms reminder is already too late
+
+        todo.setCompleted(true);
+        todoRepository.save(todo);
+
+        waitUntil(() -> reminderScheduler.getScheduledCount() == 0);
+        Thread.sleep(1200);
+        assertTrue(recorder.reminders.isEmpty());
+    }
+
+    @Test
+    void testMovedDueDateIsRemindedForNewDateOnly() {
+        Todo todo = todoRepository.save(new Todo("Report", null, LocalDateTime.now().plusSeconds(1), person));
+        LocalDateTime newDueDate = LocalDateTime.now().plusMinutes(30);
+
+        todo.setDueDate(newDueDate);
+        todoRepository.save(todo);
+
+        waitUntil(() -> reminderScheduler.getScheduledCount() == 2);
+        assertTrue(recorder.reminders.isEmpty());
+    }
+
+    @Test
+    void testUpcomingDueDatesAreLoadedOnStartup() {
+        todoRepository.save(new Todo("Soon", null, LocalDateTime.now().plusMinutes(45), person));
+        todoRepository.save(new Todo("Beyond horizon", null, LocalDateTime.now().plusHours(3), person));
+        Todo done = new Todo("Done", null, LocalDateTime.now().plusMinutes(45), person);
+        done.setCompleted(true);
+        todoRepository.save(done);
+        TimingWheelReminderScheduler restarted = new TimingWheelReminderScheduler(todoRepository, todoStreamService,
+                recorder, List.of(Duration.ofMinutes(30)), Duration.ofMillis(10), 8, Duration.ofHours(1));
+
+        restarted.start();
+        try {
+            waitUntil(() -> restarted.getScheduledCount() == 1);
+        } finally {
+            restarted.stop();
+        }
+    }
+
+    @Test
+    void testTodoBeyondHorizonIsLoadedBeforeItsLongestLeadTime() {
+        // Horizon 2000 ms, lead 1500 ms: due dates are loaded every 250 ms. The todo is beyond
+        // the first horizon and its reminder fires 800 ms from now. Loading it only every
+        // horizon/2 (1000 ms) would be too late for the reminder.
+        LocalDateTime dueDate = LocalDateTime.now().plusNanos(2_300_000_000L);
+        Todo todo = todoRepository.save(new Todo("Beyond first horizon", null, dueDate, person));
+        RecordingNotificationService ownRecorder = new RecordingNotificationService();
+        TimingWheelReminderScheduler restarted = new TimingWheelReminderScheduler(todoRepository, todoStreamService,
+                ownRecorder, List.of(Duration.ofMillis(1500)), Duration.ofMillis(10), 8, Duration.ofMillis(2000));
+
+        restarted.start();
+        try {
+            waitUntil(() -> ownRecorder.reminders.size() == 1);
+        } finally {
+            restarted.stop();
+        }
+        assertEquals(todo.getId(), ownRecorder.reminders.getFirst().todoId());
+        assertFalse(ownRecorder.reminders.getFirst().sentAt().isBefore(dueDate.minusNanos(1_500_000_000)));
+    }
+
+    @Test
+    void testHorizonMustBeLongerThanLeadTimes() {
+        assertThrows(IllegalArgumentException.class, () -> new TimingWheelReminderScheduler(todoRepository,
+                todoStreamService, recorder, List.of(Duration.ofHours(24)), Duration.ofSeconds(1), 8, Duration.ofHours(24)));
+    }
+
+    private static void waitUntil(BooleanSupplier condition) {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) {
+                fail("Condition not met within 5 seconds");
+            }
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                fail("Interrupted");
+            }
+        }
+    }
+
+    record Reminder(Long todoId, LocalDateTime sentAt) {
+    }
+
+    @TestConfiguration
+    static class RecorderConfig {
+
+        @Bean
+        RecordingNotificationService recordingNotificationService() {
+            return new RecordingNotificationService();
+        }
+    }
+
+    /**
+     * Records due date reminders instead of sending them
+     */
+    static class RecordingNotificationService implements TodoNotificationService {
+
+        final List<Reminder> reminders = new CopyOnWriteArrayList<>();
+
+        @Override
+        public boolean sendDueDateReminder(Todo todo, Person recipient) {
+            reminders.add(new Reminder(todo.getId(), LocalDateTime.now()));
+            return true;
+        }
+
+        @Override
+        public boolean notifyTodoCreated(Todo todo, Person recipient) {
+            return true;
+        }
+
+        @Override
+        public boolean notifyTodoAssigned(Todo todo, Person assignee) {
+            return true;
+        }
+
+        @Override
+        public boolean notifyTodoCompleted(Todo todo, Person recipient) {
+            return true;
+        }
+
+        @Override
+        public boolean sendDailySummary(Person person, List<Todo> todos) {
+            return true;
+        }
+    }
+}
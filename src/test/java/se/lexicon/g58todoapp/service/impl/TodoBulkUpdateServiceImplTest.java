@@ -0,0 +1,198 @@
+package se.lexicon.g58todoapp.service.impl;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import se.lexicon.g58todoapp.dto.TodoBulkUpdateResult;
+import se.lexicon.g58todoapp.dto.TodoSelection;
+import se.lexicon.g58todoapp.entity.Person;
+import se.lexicon.g58todoapp.entity.Todo;
+import se.lexicon.g58todoapp.repo.PersonRepository;
+import se.lexicon.g58todoapp.repo.TodoRepository;
+import se.lexicon.g58todoapp.service.ReminderScheduler;
+import se.lexicon.g58todoapp.service.TodoBulkUpdateService;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Todo Bulk Update Service Test
+ * Uses a chunk size of 2, so a handful of todos is already split into several transactions.
+ * Runs without a test transaction, so every chunk is really committed.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "todo.bulk-update.chunk-size=2"})
+@Import({TodoBulkUpdateServiceImpl.class, CachingPersonLookupService.class,
+        TodoBulkUpdateServiceImplTest.RecorderConfig.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class TodoBulkUpdateServiceImplTest {
+
+    private static final LocalDateTime PAST = LocalDateTime.now().minusDays(2);
+    private static final LocalDateTime FUTURE = LocalDateTime.now().plusDays(2);
+
+    @Autowired
+    private TodoBulkUpdateService bulkUpdateService;
+
+    @Autowired
+    private TodoRepository todoRepository;
+
+    @Autowired
+    private PersonRepository personRepository;
+
+    @Autowired
+    private RecordingReminderScheduler scheduler;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private Person ann;
+    private Person bob;
+
+    @BeforeEach
+    void setUp() {
+        ann = personRepository.save(new Person("Ann", "ann@example.com", LocalDate.of(1990, 1, 1)));
+        bob = personRepository.save(new Person("Bob", "bob@example.com", LocalDate.of(1991, 1, 1)));
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        scheduler.calls.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        todoRepository.deleteAll();
+        personRepository.deleteAll();
+    }
+
+    @Test
+    void testCompleteOverdueTasksOfOnePerson() {
+        List<Todo> annOverdue = todoRepository.saveAll(List.of(
+                new Todo("Overdue 1", null, PAST, ann),
+                new Todo("Overdue 2", null, PAST, ann),
+                new Todo("Overdue 3", null, PAST, ann)));
+        Todo annFuture = todoRepository.save(new Todo("Later", null, FUTURE, ann));
+        Todo bobOverdue = todoRepository.save(new Todo("Bob's", null, PAST, bob));
+        LocalDateTime before = todoRepository.findById(annOverdue.getFirst().getId()).orElseThrow().getUpdatedAt();
+        scheduler.calls.clear();
+        statistics.clear();
+
+        TodoBulkUpdateResult result = bulkUpdateService.complete(
+                TodoSelection.builder().assigneeId(ann.getId()).overdue(true).build());
+
+        assertEquals(3, result.getUpdated());
+        assertEquals(2, result.getChunks());
+        // Set-based: no todo was loaded into the persistence context
+        assertEquals(0, statistics.getEntityLoadCount());
+        for (Todo todo : annOverdue) {
+            Todo saved = todoRepository.findById(todo.getId()).orElseThrow();
+            assertTrue(saved.getCompleted());
+            assertTrue(saved.getUpdatedAt().isAfter(before));
+            assertEquals("cancel", scheduler.calls.get(todo.getId()));
+        }
+        assertFalse(todoRepository.findById(annFuture.getId()).orElseThrow().getCompleted());
+        assertFalse(todoRepository.findById(bobOverdue.getId()).orElseThrow().getCompleted());
+        assertEquals(3, scheduler.calls.size());
+    }
+
+    @Test
+    void testCompleteCountsOnlyTodosThatWereOpen() {
+        Todo open = todoRepository.save(new Todo("Open", null, FUTURE));
+        Todo done = todoRepository.save(new Todo("Done", null, true, FUTURE));
+
+        TodoBulkUpdateResult result = bulkUpdateService.complete(
+                TodoSelection.builder().ids(List.of(open.getId(), done.getId())).build());
+
+        assertEquals(1, result.getUpdated());
+        assertTrue(todoRepository.findById(open.getId()).orElseThrow().getCompleted());
+    }
+
+    @Test
+    void testReassignByIds() {
+        List<Todo> todos = todoRepository.saveAll(List.of(
+                new Todo("A", null, FUTURE, ann),
+                new Todo("B", null, FUTURE, ann),
+                new Todo("C", null, FUTURE, ann)));
+        Todo untouched = todoRepository.save(new Todo("D", null, FUTURE, ann));
+        List<Long> ids = todos.stream().map(Todo::getId).toList();
+
+        TodoBulkUpdateResult result = bulkUpdateService.reassign(TodoSelection.builder().ids(ids).build(), bob.getId());
+
+        assertEquals(3, result.getUpdated());
+        assertEquals(2, result.getChunks());
+        assertEquals(3, todoRepository.countByAssignedTo(bob));
+        assertEquals(List.of(untouched.getId()),
+                todoRepository.findByAssignedTo(ann).stream().map(Todo::getId).toList());
+
+        assertEquals(3, bulkUpdateService.reassign(TodoSelection.builder().ids(ids).build(), null).getUpdated());
+        assertEquals(3, todoRepository.findByAssignedToIsNull().size());
+    }
+
+    @Test
+    void testRescheduleUpdatesReminders() {
+        Todo open = todoRepository.save(new Todo("Open", null, PAST, ann));
+        Todo done = todoRepository.save(new Todo("Done", null, true, PAST));
+        scheduler.calls.clear();
+
+        TodoBulkUpdateResult result = bulkUpdateService.reschedule(
+                TodoSelection.builder().ids(List.of(open.getId(), done.getId())).build(), FUTURE);
+
+        assertEquals(2, result.getUpdated());
+        assertEquals(FUTURE.withNano(0), todoRepository.findById(open.getId()).orElseThrow().getDueDate().withNano(0));
+        assertEquals("reschedule", scheduler.calls.get(open.getId()));
+        assertEquals("cancel", scheduler.calls.get(done.getId()));
+    }
+
+    @Test
+    void testSelectionIsRequired() {
+        assertThrows(IllegalArgumentException.class, () -> bulkUpdateService.complete(new TodoSelection()));
+        assertThrows(IllegalArgumentException.class,
+                () -> bulkUpdateService.complete(TodoSelection.builder().ids(List.of()).build()));
+    }
+
+    @TestConfiguration
+    static class RecorderConfig {
+
+        @Bean
+        RecordingReminderScheduler recordingReminderScheduler() {
+            return new RecordingReminderScheduler();
+        }
+    }
+
+    /**
+     * Records the last call per todo instead of scheduling reminders
+     */
+    static class RecordingReminderScheduler implements ReminderScheduler {
+
+        final Map<Long, String> calls = new ConcurrentHashMap<>();
+
+        @Override
+        public void reschedule(Long todoId, LocalDateTime dueDate) {
+            calls.put(todoId, "reschedule");
+        }
+
+        @Override
+        public void cancel(Long todoId) {
+            calls.put(todoId, "cancel");
+        }
+
+        @Override
+        public int getScheduledCount() {
+            return calls.size();
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package se.lexicon.g58todoapp.service.impl;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import se.lexicon.g58todoapp.entity.Attachment;
+import se.lexicon.g58todoapp.entity.Person;
+import se.lexicon.g58todoapp.entity.Todo;
+import se.lexicon.g58todoapp.repo.AttachmentRepository;
+import se.lexicon.g58todoapp.repo.PersonRepository;
+import se.lexicon.g58todoapp.repo.TodoRepository;
+import se.lexicon.g58todoapp.service.TodoExportService;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Todo Export Service Test
+ * Runs without a test transaction, since the export reads through its own stateless session.
+ */
+@DataJpaTest(properties = "todo.export.fetch-size=2")
+@Import({TodoExportServiceImpl.class, JacksonAutoConfiguration.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class TodoExportServiceImplTest {
+
+    private static final LocalDateTime DUE = LocalDateTime.of(2026, 5, 1, 18, 0);
+
+    @Autowired
+    private TodoExportService exportService;
+
+    @Autowired
+    private TodoRepository todoRepository;
+
+    @Autowired
+    private PersonRepository personRepository;
+
+    @Autowired
+    private AttachmentRepository attachmentRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private Todo report;
+
+    @BeforeEach
+    void setUp() {
+        Person ann = personRepository.save(new Person("Ann", "ann@example.com", LocalDate.of(1990, 1, 1)));
+        report = todoRepository.save(new Todo("Write report", "Q4, \"final\"", DUE, ann));
+        todoRepository.save(new Todo("Clean garage", null, null));
+        for (String name : List.of("a.pdf", "b.png")) {
+            Attachment attachment = new Attachment(name, "application/octet-stream", null);
+            attachment.setFileSize(100L);
+            attachment.setTodo(report);
+            attachmentRepository.save(attachment);
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        // Not through the repository: deleting attachments needs the AttachmentStorage
+        jdbcTemplate.update("DELETE FROM attachments");
+        todoRepository.deleteAll();
+        personRepository.deleteAll();
+    }
+
+    @Test
+    void testExportNdjson() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        assertEquals(2, exportService.exportTodos(out, TodoExportService.Format.NDJSON));
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        JsonNode first = objectMapper.readTree(lines[0]);
+        assertEquals(report.getId(), first.get("id").asLong());
+        assertEquals("Q4, \"final\"", first.get("description").asText());
+        assertEquals("2026-05-01T18:00", first.get("dueDate").asText());
+        assertEquals("ann@example.com", first.get("assigneeEmail").asText());
+        assertEquals(2, first.get("attachments").size());
+        assertEquals("a.pdf", first.get("attachments").get(0).get("fileName").asText());
+        assertEquals(100, first.get("attachments").get(1).get("fileSize").asLong());
+
+        JsonNode second = objectMapper.readTree(lines[1]);
+        assertTrue(second.get("assigneeEmail").isNull());
+        assertEquals(0, second.get("attachments").size());
+    }
+
+    @Test
+    void testExportCsv() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        assertEquals(2, exportService.exportTodos(out, TodoExportService.Format.CSV));
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(3, lines.length);
+        assertTrue(lines[0].startsWith("id,title,description,completed,dueDate"));
+        assertTrue(lines[1].startsWith(report.getId() + ",Write report,\"Q4, \"\"final\"\"\",false,2026-05-01T18:00,"));
+        assertTrue(lines[1].endsWith(",ann@example.com,2,200,a.pdf|b.png"));
+        assertTrue(lines[2].contains(",Clean garage,,false,,"));
+        assertTrue(lines[2].endsWith(",,0,0,"));
+    }
+
+    @Test
+    void testExportEmptyTable() throws Exception {
+        jdbcTemplate.update("DELETE FROM attachments");
+        todoRepository.deleteAll();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        assertEquals(0, exportService.exportTodos(out, TodoExportService.Format.CSV));
+        assertEquals(1, out.toString(StandardCharsets.UTF_8).split("\n").length); // Header only
+    }
+}
@@ -0,0 +1,167 @@
+package se.lexicon.g58todoapp.service.impl;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import se.lexicon.g58todoapp.dto.TodoImportResult;
+import se.lexicon.g58todoapp.entity.Person;
+import se.lexicon.g58todoapp.entity.Todo;
+import se.lexicon.g58todoapp.repo.PersonRepository;
+import se.lexicon.g58todoapp.repo.TodoRepository;
+import se.lexicon.g58todoapp.service.TodoImportService;
+
+import jakarta.persistence.EntityManagerFactory;
+import java.io.StringReader;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Todo Import Service Test
+ * Runs without a test transaction, so every chunk is really committed.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "todo.import.chunk-size=100"})
+@Import({TodoImportServiceImpl.class, CachingPersonLookupService.class, JacksonAutoConfiguration.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class TodoImportServiceImplTest {
+
+    @Autowired
+    private TodoImportService importService;
+
+    @Autowired
+    private TodoRepository todoRepository;
+
+    @Autowired
+    private PersonRepository personRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Person ann;
+
+    @BeforeEach
+    void setUp() {
+        ann = personRepository.save(new Person("Ann", "ann@example.com", LocalDate.of(1990, 1, 1)));
+    }
+
+    @AfterEach
+    void tearDown() {
+        todoRepository.deleteAll();
+        personRepository.deleteAll();
+    }
+
+    @Test
+    void testImportNdjson() throws Exception {
+        String input = """
+                {"title":"Buy milk","description":"2 liters","dueDate":"2026-05-01T18:00","assigneeEmail":"ann@example.com"}
+
+                {"title":"Walk the dog","completed":true,"dueDate":"2026-05-02"}
+                """;
+
+        TodoImportResult result = importService.importTodos(new StringReader(input), TodoImportService.Format.NDJSON);
+
+        assertEquals(2, result.getImported());
+        assertEquals(0, result.getRejected());
+        Todo milk = todoRepository.findByTitleContainingIgnoreCase("milk").getFirst();
+        assertEquals("2 liters", milk.getDescription());
+        assertEquals(LocalDateTime.of(2026, 5, 1, 18, 0), milk.getDueDate());
+        assertEquals(ann.getId(), milk.getAssignedTo().getId());
+        Todo dog = todoRepository.findByTitleContainingIgnoreCase("dog").getFirst();
+        assertTrue(dog.getCompleted());
+        assertEquals(LocalDateTime.of(2026, 5, 2, 0, 0), dog.getDueDate());
+    }
+
+    @Test
+    void testImportCsvWithQuotedValues() throws Exception {
+        String input = "assigneeEmail,title,description\n"
+                + "ann@example.com,\"Call \"\"Bob\"\"\",\"Monday, after lunch\"\n"
+                + ",Plain title,\n";
+
+        TodoImportResult result = importService.importTodos(new StringReader(input), TodoImportService.Format.CSV);
+
+        assertEquals(2, result.getImported());
+        Todo call = todoRepository.findByTitleContainingIgnoreCase("Bob").getFirst();
+        assertEquals("Call \"Bob\"", call.getTitle());
+        assertEquals("Monday, after lunch", call.getDescription());
+        assertEquals(ann.getId(), call.getAssignedTo().getId());
+        assertNull(todoRepository.findByTitleContainingIgnoreCase("Plain").getFirst().getAssignedTo());
+    }
+
+    @Test
+    void testImportCsvWithLineBreaksInQuotedValues() throws Exception {
+        // As written by the CSV export
+        String input = "title,description,completed\n"
+                + "Shopping,\"Milk\nBread, \"\"fresh\"\"\n\",false\n"
+                + "\"Two\nlines\",,true\n"
+                + ",no title,\n";
+
+        TodoImportResult result = importService.importTodos(new StringReader(input), TodoImportService.Format.CSV);
+
+        assertEquals(2, result.getImported());
+        assertEquals(List.of("Line 7: title is required"), result.getErrors());
+        Todo shopping = todoRepository.findByTitleContainingIgnoreCase("Shopping").getFirst();
+        assertEquals("Milk\nBread, \"fresh\"\n", shopping.getDescription());
+        assertFalse(shopping.getCompleted());
+        assertTrue(todoRepository.findByTitleContainingIgnoreCase("Two\nlines").getFirst().getCompleted());
+    }
+
+    @Test
+    void testInvalidRowsAreRejectedWithLineNumbers() throws Exception {
+        String input = """
+                {"title":"Valid"}
+                {"description":"no title"}
+                {"title":"Unknown assignee","assigneeEmail":"nobody@example.com"}
+                {"title":"Bad date","dueDate":"tomorrow"}
+                not json
+                """;
+
+        TodoImportResult result = importService.importTodos(new StringReader(input), TodoImportService.Format.NDJSON);
+
+        assertEquals(1, result.getImported());
+        assertEquals(4, result.getRejected());
+        List<String> errors = result.getErrors();
+        assertEquals("Line 2: title is required", errors.get(0));
+        assertTrue(errors.get(1).startsWith("Line 3: unknown assignee"));
+        assertTrue(errors.get(2).startsWith("Line 4: invalid dueDate"));
+        assertTrue(errors.get(3).startsWith("Line 5: invalid JSON"));
+        assertEquals(1, todoRepository.count());
+    }
+
+    @Test
+    void testCsvWithoutTitleColumnIsRefused() {
+        assertThrows(IllegalArgumentException.class, () -> importService.importTodos(
+                new StringReader("name,description\nx,y\n"), TodoImportService.Format.CSV));
+    }
+
+    @Test
+    void testInsertsAreBatched() throws Exception {
+        StringBuilder input = new StringBuilder();
+        for (int i = 0; i < 250; i++) {
+            input.append("{\"title\":\"Todo ").append(i).append("\",\"assigneeEmail\":\"ann@example.com\"}\n");
+        }
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        TodoImportResult result = importService.importTodos(new StringReader(input.toString()), TodoImportService.Format.NDJSON);
+
+        assertEquals(250, result.getImported());
+        assertEquals(250, todoRepository.count());
+        // 3 chunks of at most 100 rows, sent in batches of 50: 6 inserts,
+        // plus the person lookup and a few pooled id allocations instead of 250 of each
+        assertEquals(250, statistics.getEntityInsertCount());
+        assertTrue(statistics.getPrepareStatementCount() < 20,
+                "Expected batched inserts, got " + statistics.getPrepareStatementCount() + " statements");
+    }
+}
@@ -0,0 +1,198 @@
+package se.lexicon.g58todoapp.service.impl;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import se.lexicon.g58todoapp.dto.TodoDTO;
+import se.lexicon.g58todoapp.entity.Person;
+import se.lexicon.g58todoapp.entity.Todo;
+import se.lexicon.g58todoapp.repo.PersonRepository;
+import se.lexicon.g58todoapp.repo.TodoListVersionRepository;
+import se.lexicon.g58todoapp.repo.TodoRepository;
+import se.lexicon.g58todoapp.service.TodoETags;
+import se.lexicon.g58todoapp.service.TodoService;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Todo Service Test
+ * Checks that the ETags read from updated_at and the list versions match the returned todos,
+ * and that If-Match stops lost writes. Runs without a test transaction, so every write is committed.
+ */
+@DataJpaTest
+@Import({TodoServiceImpl.class, TodoListVersionRepository.class, CachingPersonLookupService.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class TodoServiceImplTest {
+
+    @Autowired
+    private TodoService todoService;
+
+    @Autowired
+    private TodoRepository todoRepository;
+
+    @Autowired
+    private PersonRepository personRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Person ann;
+
+    @BeforeEach
+    void setUp() {
+        ann = personRepository.save(new Person("Ann", "ann@example.com", LocalDate.of(1990, 1, 1)));
+    }
+
+    @AfterEach
+    void tearDown() {
+        todoRepository.deleteAll();
+        personRepository.deleteAll();
+    }
+
+    @Test
+    void testETagOfStoredTodoMatchesReturnedTodo() {
+        TodoDTO created = todoService.create(request("Buy milk"));
+
+        String etag = TodoETags.of(created.getId(), created.getUpdatedAt());
+        assertEquals(etag, todoService.getETag(created.getId()).orElseThrow());
+        assertEquals(created, todoService.findById(created.getId()));
+        assertEquals(ann.getId(), created.getAssigneeId());
+    }
+
+    @Test
+    void testUpdateWithCurrentETagChangesTheETag() {
+        TodoDTO created = todoService.create(request("Buy milk"));
+        String etag = todoService.getETag(created.getId()).orElseThrow();
+
+        TodoDTO updated = todoService.update(created.getId(), request("Buy oat milk"), etag);
+
+        assertEquals("Buy oat milk", updated.getTitle());
+        String newETag = todoService.getETag(created.getId()).orElseThrow();
+        assertNotEquals(etag, newETag);
+        assertEquals(TodoETags.of(updated.getId(), updated.getUpdatedAt()), newETag);
+    }
+
+    @Test
+    void testUpdateWithOutdatedETagIsRejected() {
+        TodoDTO created = todoService.create(request("Buy milk"));
+        String etag = todoService.getETag(created.getId()).orElseThrow();
+        todoService.update(created.getId(), request("Changed by someone else"), null);
+
+        assertThrows(OptimisticLockingFailureException.class,
+                () -> todoService.update(created.getId(), request("Buy oat milk"), etag));
+        assertThrows(OptimisticLockingFailureException.class,
+                () -> todoService.delete(created.getId(), etag));
+        assertEquals("Changed by someone else", todoService.findById(created.getId()).getTitle());
+    }
+
+    @Test
+    void testListETagChangesWhenATodoIsDeleted() {
+        TodoDTO first = todoService.create(request("First"));
+        todoService.create(request("Second"));
+        String etag = todoService.getListETag(ann.getId(), 0, 50);
+        String allETag = todoService.getListETag(null, 0, 50);
+        assertEquals(etag, todoService.getListETag(ann.getId(), 0, 50));
+
+        // Deleting does not change the last updated_at of the remaining todos, the list version does
+        todoService.delete(first.getId(), "*");
+
+        assertNotEquals(etag, todoService.getListETag(ann.getId(), 0, 50));
+        assertNotEquals(allETag, todoService.getListETag(null, 0, 50));
+    }
+
+    @Test
+    void testAllTodosETagChangesWithEveryWriteWithoutASharedRow() {
+        String empty = todoService.getListETag(null, 0, 50);
+        TodoDTO created = todoService.create(request("Buy milk"));
+        String afterCreate = todoService.getListETag(null, 0, 50);
+        todoService.update(created.getId(), request("Buy oat milk"), null);
+        String afterUpdate = todoService.getListETag(null, 0, 50);
+
+        assertNotEquals(empty, afterCreate);
+        assertNotEquals(afterCreate, afterUpdate);
+        // Only the assignees' lists have a version row, none is written for all todos
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM todo_list_versions WHERE assignee_id = 0", Integer.class));
+    }
+
+    @Test
+    void testReassignmentChangesTheListETagOfBothAssignees() {
+        Person bob = personRepository.save(new Person("Bob", "bob@example.com", LocalDate.of(1991, 1, 1)));
+        TodoDTO todo = todoService.create(request("Buy milk"));
+        String annETag = todoService.getListETag(ann.getId(), 0, 50);
+        String bobETag = todoService.getListETag(bob.getId(), 0, 50);
+
+        TodoDTO moved = request("Buy milk");
+        moved.setAssigneeId(bob.getId());
+        todoService.update(todo.getId(), moved, null);
+
+        assertNotEquals(annETag, todoService.getListETag(ann.getId(), 0, 50));
+        assertNotEquals(bobETag, todoService.getListETag(bob.getId(), 0, 50));
+    }
+
+    @Test
+    void testListETagDependsOnThePageAndRejectsInvalidPages() {
+        assertNotEquals(todoService.getListETag(ann.getId(), 0, 50), todoService.getListETag(ann.getId(), 0, 10));
+        assertThrows(IllegalArgumentException.class, () -> todoService.getListETag(ann.getId(), 0, 0));
+        assertThrows(IllegalArgumentException.class, () -> todoService.getListETag(null, -1, 50));
+    }
+
+    @Test
+    void testPagesContinueAfterTheLastId() {
+        List<Long> ids = List.of(
+                todoService.create(request("A")).getId(),
+                todoService.create(request("B")).getId(),
+                todoService.create(request("C")).getId());
+
+        List<TodoDTO> firstPage = todoService.findPage(ann.getId(), 0, 2);
+        List<TodoDTO> secondPage = todoService.findPage(ann.getId(), firstPage.getLast().getId(), 2);
+
+        assertEquals(ids.subList(0, 2), firstPage.stream().map(TodoDTO::getId).toList());
+        assertEquals(ids.subList(2, 3), secondPage.stream().map(TodoDTO::getId).toList());
+        assertThrows(IllegalArgumentException.class, () -> todoService.findPage(null, 0, 0));
+    }
+
+    @Test
+    void testDetachedTodoCanBeReassigned() {
+        Person bob = personRepository.save(new Person("Bob", "bob@example.com", LocalDate.of(1991, 1, 1)));
+        Long id = todoService.create(request("Buy milk")).getId();
+
+        // Loaded outside a transaction: the todo is detached and its assignee was never loaded
+        Todo detached = todoRepository.findById(id).orElseThrow();
+        detached.setAssignedTo(bob);
+        todoRepository.save(detached);
+
+        assertEquals(bob.getId(), todoService.findById(id).getAssigneeId());
+    }
+
+    @Test
+    void testIfMatchComparison() {
+        String etag = TodoETags.of(7L, LocalDateTime.of(2026, 5, 1, 18, 0));
+
+        assertTrue(TodoETags.matches(etag, etag));
+        assertTrue(TodoETags.matches("*", etag));
+        assertTrue(TodoETags.matches("\"1-0\", " + etag, etag));
+        assertFalse(TodoETags.matches("\"7-0\"", etag));
+        // Strong comparison: the weak form of the current ETag does not match
+        assertFalse(TodoETags.matches("W/" + etag, etag));
+    }
+
+    private TodoDTO request(String title) {
+        return TodoDTO.builder()
+                .title(title)
+                .dueDate(LocalDateTime.of(2026, 5, 1, 18, 0))
+                .assigneeId(ann.getId())
+                .build();
+    }
+}
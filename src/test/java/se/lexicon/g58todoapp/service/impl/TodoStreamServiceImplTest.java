@@ -0,0 +1,128 @@
+package se.lexicon.g58todoapp.service.impl;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import se.lexicon.g58todoapp.entity.Person;
+import se.lexicon.g58todoapp.entity.Todo;
+import se.lexicon.g58todoapp.repo.PersonRepository;
+import se.lexicon.g58todoapp.repo.TodoRepository;
+import se.lexicon.g58todoapp.service.TodoStreamService;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Todo Stream Service Test
+ * Checks inside the callback that the persistence context does not grow with the result:
+ * every row is detached after the callback, and everything else is cleared every
+ * STREAM_FETCH_SIZE rows. The lazy assignee of a row counts as a managed entity, so the
+ * bound is the current row plus the distinct assignees. Runs without a test transaction, so forEach opens its own.
+ */
+@DataJpaTest
+@Import(TodoStreamServiceImpl.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class TodoStreamServiceImplTest {
+
+    private static final int CLEAR_INTERVAL = Integer.parseInt(TodoRepository.STREAM_FETCH_SIZE);
+    private static final int TODOS = CLEAR_INTERVAL * 2 + 10;
+
+    @Autowired
+    private TodoStreamService todoStreamService;
+
+    @Autowired
+    private TodoRepository todoRepository;
+
+    @Autowired
+    private PersonRepository personRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private final List<Person> persons = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        for (int p = 0; p < 3; p++) {
+            persons.add(personRepository.save(
+                    new Person("Person " + p, "person" + p + "@example.com", LocalDate.of(1990, 1, 1))));
+        }
+        List<Todo> todos = new ArrayList<>();
+        for (int i = 0; i < TODOS; i++) {
+            todos.add(new Todo("Task " + i, null, LocalDateTime.now().plusDays(1), persons.get(i % 3)));
+        }
+        todoRepository.saveAll(todos);
+    }
+
+    @AfterEach
+    void tearDown() {
+        todoRepository.deleteAll();
+        personRepository.deleteAll();
+    }
+
+    @Test
+    void testEveryRowIsDetachedAfterTheCallback() {
+        List<Todo> seen = new ArrayList<>();
+
+        long count = todoStreamService.forEach(TodoRepository::streamAllOrderById, todo -> {
+            assertTrue(entityManager.contains(todo));
+            if (!seen.isEmpty()) {
+                assertFalse(entityManager.contains(seen.getLast()), "previous row still managed");
+            }
+            seen.add(todo);
+        });
+
+        assertEquals(TODOS, count);
+        assertEquals(TODOS, seen.size());
+        // Streamed in id order
+        assertTrue(seen.getFirst().getId() < seen.getLast().getId());
+    }
+
+    @Test
+    void testPersistenceContextIsClearedInChunks() {
+        int[] row = {0};
+        int[] largest = {0};
+
+        todoStreamService.forEach(TodoRepository::streamAllOrderById, todo -> {
+            int entities = managedEntities();
+            largest[0] = Math.max(largest[0], entities);
+            if (row[0] % CLEAR_INTERVAL == 0) {
+                // Right after a clear (or at the start): the current row and its assignee reference
+                assertTrue(entities <= 2, "row " + row[0] + ": " + entities);
+            }
+            // Loads the assignee into the persistence context until the next clear
+            todo.getAssignedTo().getName();
+            row[0]++;
+        });
+
+        assertEquals(TODOS, row[0]);
+        // The current row and the three persons, never the rows before it
+        assertTrue(largest[0] <= 1 + persons.size(), "largest persistence context: " + largest[0]);
+    }
+
+    @Test
+    void testDetachedRowsHaveTheirValues() {
+        List<String> titles = new ArrayList<>();
+
+        todoStreamService.forEach(repository -> repository.streamByAssignedTo(persons.getFirst()),
+                todo -> titles.add(todo.getTitle()));
+
+        assertEquals(TODOS / 3 + 1, titles.size());
+        assertTrue(titles.contains("Task 0"));
+    }
+
+    private int managedEntities() {
+        return entityManager.unwrap(Session.class).getStatistics().getEntityCount();
+    }
+}
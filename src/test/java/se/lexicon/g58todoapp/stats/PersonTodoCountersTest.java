@@ -0,0 +1,80 @@
+package se.lexicon.g58todoapp.stats;
+
+import org.junit.jupiter.api.Test;
+import se.lexicon.g58todoapp.dto.PersonTodoStats;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * PersonTodoCounters Test
+ */
+class PersonTodoCountersTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2026, 5, 1, 12, 0);
+
+    private final PersonTodoCounters counters = new PersonTodoCounters();
+
+    @Test
+    void testCreateCompleteAndDelete() {
+        TodoState open = new TodoState(1L, false, NOW.minusDays(1));
+        TodoState done = new TodoState(1L, true, NOW.minusDays(1));
+
+        counters.apply(10, null, open, NOW);
+        assertEquals(new PersonTodoStats(1L, 1, 0, 1, 1), counters.get(1));
+
+        counters.apply(10, open, done, NOW);
+        assertEquals(new PersonTodoStats(1L, 1, 1, 0, 0), counters.get(1));
+
+        counters.apply(10, done, null, NOW);
+        assertEquals(new PersonTodoStats(1L, 0, 0, 0, 0), counters.get(1));
+    }
+
+    @Test
+    void testReassignMovesCounts() {
+        TodoState ann = new TodoState(1L, false, null);
+        counters.apply(10, null, ann, NOW);
+        counters.apply(10, ann, new TodoState(2L, false, null), NOW);
+
+        assertEquals(0, counters.get(1).getTotal());
+        assertEquals(1, counters.get(2).getPending());
+        assertEquals(0, counters.get(3).getTotal()); // Unknown person
+    }
+
+    @Test
+    void testSweepCountsPassedDueDatesOnce() {
+        TodoState dueSoon = new TodoState(1L, false, NOW.plusMinutes(5));
+        counters.apply(10, null, dueSoon, NOW);
+        counters.loadUpcoming(11, 1, NOW.plusHours(5));
+        counters.load(1, 1, 0, 0);
+        assertEquals(0, counters.get(1).getOverdue());
+        assertEquals(2, counters.upcomingSize());
+
+        assertEquals(1, counters.sweep(NOW.plusMinutes(10)));
+        assertEquals(0, counters.sweep(NOW.plusMinutes(10)));
+        assertEquals(1, counters.get(1).getOverdue());
+
+        // Completing the swept todo takes it out of overdue again
+        counters.apply(10, dueSoon, new TodoState(1L, true, dueSoon.dueDate()), NOW.plusMinutes(20));
+        assertEquals(0, counters.get(1).getOverdue());
+
+        // Rescheduling the other one before it is swept never makes it overdue
+        TodoState later = new TodoState(1L, false, NOW.plusHours(5));
+        counters.apply(11, later, new TodoState(1L, false, NOW.plusDays(5)), NOW.plusMinutes(20));
+        assertEquals(0, counters.sweep(NOW.plusHours(6)));
+        assertEquals(new PersonTodoStats(1L, 2, 1, 1, 0), counters.get(1));
+    }
+
+    @Test
+    void testCountDifferences() {
+        PersonTodoCounters other = new PersonTodoCounters();
+        counters.load(1, 3, 1, 0);
+        other.load(1, 3, 1, 0);
+        counters.load(2, 1, 0, 0);
+
+        assertEquals(1, counters.countDifferences(other));
+        other.load(2, 1, 0, 0);
+        assertEquals(0, counters.countDifferences(other));
+    }
+}
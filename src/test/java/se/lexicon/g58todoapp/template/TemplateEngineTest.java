@@ -0,0 +1,76 @@
+package se.lexicon.g58todoapp.template;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Template and TemplateEngine Test
+ */
+class TemplateEngineTest {
+
+    @Test
+    void testValuesAreEscapedInHtmlTemplates() {
+        Template template = Template.compile("t.html", "<p>{{title}}</p>{{{raw}}}", true);
+
+        String html = template.render(Map.of("title", "<script>alert('x') & \"y\"</script>", "raw", "<b>ok</b>"));
+
+        assertEquals("<p>&lt;script&gt;alert(&#39;x&#39;) &amp; &quot;y&quot;&lt;/script&gt;</p><b>ok</b>", html);
+    }
+
+    @Test
+    void testValuesAreNotEscapedInTextTemplates() {
+        Template template = Template.compile("t.txt", "Title: {{title}}", false);
+
+        assertEquals("Title: Fish & <Chips>", template.render(Map.of("title", "Fish & <Chips>")));
+    }
+
+    @Test
+    void testSectionRepeatsForEveryItemAndSeesOuterValues() {
+        Template template = Template.compile("t.html",
+                "{{#rows}}[{{name}}:{{title}}]{{/rows}}{{^rows}}none{{/rows}}", true);
+
+        String filled = template.render(Map.of(
+                "name", "Ann",
+                "rows", List.of(Map.of("title", "a"), Map.of("title", "b", "name", "Bob"))));
+        String empty = template.render(Map.of("rows", List.of()));
+
+        assertEquals("[Ann:a][Bob:b]", filled);
+        assertEquals("none", empty);
+    }
+
+    @Test
+    void testBooleanSectionsAndMissingValues() {
+        Template template = Template.compile("t.txt", "{{#done}}Done{{/done}}{{^done}}Open{{/done}}|{{missing}}|{{#items}}{{.}},{{/items}}", false);
+
+        assertEquals("Done||1,2,", template.render(Map.of("done", true, "items", List.of(1, 2))));
+        assertEquals("Open||", template.render(Map.of("done", false)));
+    }
+
+    @Test
+    void testUnclosedSectionIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> Template.compile("t", "{{#rows}}x", true));
+        assertThrows(IllegalArgumentException.class, () -> Template.compile("t", "{{#rows}}x{{/other}}", true));
+        assertThrows(IllegalArgumentException.class, () -> Template.compile("t", "{{title", true));
+    }
+
+    @Test
+    void testEngineLoadsNotificationTemplates() {
+        TemplateEngine engine = new TemplateEngine("classpath:templates/");
+
+        String html = engine.render("daily-summary.html", Map.of(
+                "name", "Ann & Bob",
+                "todos", List.of(
+                        Map.of("rowColor", "#fff3e0", "title", "<Buy milk>", "dueDate", "No due date", "status", "⏳ Pending"))));
+        // Rendering again reuses the same buffer and must not keep old output
+        String again = engine.render("todo-completed.html", Map.of("name", "Ann", "title", "Done", "description", ""));
+
+        assertTrue(html.contains("Hello <strong>Ann &amp; Bob</strong>"));
+        assertTrue(html.contains(">&lt;Buy milk&gt;</td>"));
+        assertFalse(again.contains("Buy milk"));
+        assertThrows(IllegalArgumentException.class, () -> engine.render("missing.html", Map.of()));
+    }
+}